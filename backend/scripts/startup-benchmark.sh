@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time to first request and resident memory (RSS), default vs optimized.
+#
+#   mvn -Pstartup package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# - default:   java -jar target/backend-<version>.jar
+# - optimized: the extracted jar with the CDS archive, the AOT-generated bean definitions
+#              and the "startup" profile (lazy springdoc), as built by the "startup" profile
+#
+# Each run starts the application, polls the health endpoint until the server answers
+# (any HTTP status counts as the first request) and reads the RSS of the JVM at that moment.
+# The database settings are taken from application.properties, or from the usual
+# SPRING_DATASOURCE_URL / _USERNAME / _PASSWORD environment variables.
+#
+# Environment: JAVA (default: java on the PATH), PORT (default 18080), JAVA_OPTS (extra JVM options
+# for both modes, e.g. the production -Xmx).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+JAVA=${JAVA:-java}
+PORT=${PORT:-18080}
+JAVA_OPTS=${JAVA_OPTS:-}
+URL="http://localhost:${PORT}/api/actuator/health"
+
+JAR=$(ls target/backend-*.jar 2>/dev/null | grep -v -- '-plain' | head -1 || true)
+EXTRACTED="target/application/$(basename "${JAR:-missing}")"
+ARCHIVE=target/application/application.jsa
+if [[ -z "$JAR" || ! -f "$EXTRACTED" || ! -f "$ARCHIVE" ]]; then
+    echo "Build with 'mvn -Pstartup package -DskipTests' first" >&2
+    exit 1
+fi
+
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints "<time to first request in ms> <RSS in MB>"
+measure() {
+    local log="$WORK/app.log"
+    local start pid code elapsed rss
+    start=$(now_ms)
+    "$@" --server.port="$PORT" --jobtracker.history.dir="$WORK/history" > "$log" 2>&1 &
+    pid=$!
+    while true; do
+        code=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+        if [[ "$code" != "000" ]]; then
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "The application exited during startup, see its output:" >&2
+            tail -20 "$log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(( $(ps -o rss= -p "$pid") / 1024 ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+run_mode() {
+    local name=$1
+    shift
+    : > "$WORK/$name"
+    for run in $(seq 1 "$RUNS"); do
+        result=$(measure "$@")
+        echo "$name run $run: time to first request ${result% *} ms, RSS ${result#* } MB"
+        echo "$result" >> "$WORK/$name"
+    done
+}
+
+# shellcheck disable=SC2086
+run_mode default "$JAVA" $JAVA_OPTS -jar "$JAR"
+# shellcheck disable=SC2086
+run_mode optimized "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true \
+    -jar "$EXTRACTED" --spring.profiles.active=startup
+
+echo
+printf '%-10s %24s %12s\n' mode "time to first request" RSS
+for name in default optimized; do
+    printf '%-10s %21s ms %9s MB\n' "$name" \
+        "$(cut -d' ' -f1 < "$WORK/$name" | median)" "$(cut -d' ' -f2 < "$WORK/$name" | median)"
+done
@@ -0,0 +1,39 @@
+package com.jobtracker.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers compact binary representations next to JSON for our service-to-service consumers.
+ *
+ * The format is chosen through the Accept header:
+ * - application/json            (default when no Accept header is sent)
+ * - application/cbor            (CBOR, RFC 8949)
+ * - application/x-jackson-smile (Smile, Jackson's binary JSON)
+ *
+ * Both converters are built from Spring Boot's Jackson2ObjectMapperBuilder so they share the
+ * "spring.jackson.*" settings with the JSON converter, and Spring Boot's HttpMessageConverters
+ * puts them in place of the framework defaults. Like the JSON converter they write through a
+ * Jackson generator directly into the response output stream, so a large list is sent out as
+ * it is serialized instead of being buffered in memory first.
+ */
+@Configuration
+public class BinaryContentNegotiationConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
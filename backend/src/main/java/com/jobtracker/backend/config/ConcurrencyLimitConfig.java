@@ -0,0 +1,66 @@
+package com.jobtracker.backend.config;
+
+import com.jobtracker.backend.web.AdaptiveConcurrencyLimit;
+import com.jobtracker.backend.web.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link ConcurrencyLimitFilter} ahead of the Spring Security filter chain, so
+ * a rejected request costs neither token parsing nor a user lookup. Limits come from
+ * "jobtracker.concurrency-limit.*"; "enabled=false" turns load shedding off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jobtracker.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${jobtracker.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${jobtracker.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${jobtracker.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${jobtracker.concurrency-limit.auth.initial-limit:8}")
+    private int authInitialLimit;
+
+    @Value("${jobtracker.concurrency-limit.auth.min-limit:2}")
+    private int authMinLimit;
+
+    @Value("${jobtracker.concurrency-limit.auth.max-limit:50}")
+    private int authMaxLimit;
+
+    @Value("${jobtracker.concurrency-limit.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${jobtracker.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${jobtracker.concurrency-limit.window-size:50}")
+    private int windowSize;
+
+    @Value("${jobtracker.concurrency-limit.long-windows:100}")
+    private int longWindows;
+
+    @Value("${jobtracker.concurrency-limit.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimit authLimit = new AdaptiveConcurrencyLimit(
+            authInitialLimit, authMinLimit, authMaxLimit, tolerance, smoothing, windowSize, longWindows);
+        AdaptiveConcurrencyLimit defaultLimit = new AdaptiveConcurrencyLimit(
+            initialLimit, minLimit, maxLimit, tolerance, smoothing, windowSize, longWindows);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(authLimit, defaultLimit, retryAfterSeconds, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
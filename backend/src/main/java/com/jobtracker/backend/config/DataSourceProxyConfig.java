@@ -0,0 +1,39 @@
+package com.jobtracker.backend.config;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a datasource-proxy that hands every statement to
+ * the {@link QueryExecutionListener} beans: the SqlStatementCounter of the statement budget
+ * and, unless switched off, the SlowQueryLogListener.
+ *
+ * The proxy is applied with a BeanPostProcessor so the DataSource itself (HikariCP) stays
+ * auto-configured by Spring Boot. Listening at the DataSource sees the statements of
+ * Hibernate and of the JdbcTemplates alike.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+                    listeners.orderedStream().forEach(builder::listener);
+                    return builder.build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.jobtracker.backend.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.jobtracker.backend.web.FieldSelection;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * DTOs annotated with {@code @JsonFilter(FieldSelection.FILTER)} are written in full wherever
+ * no {@link FieldSelection} applies (outbox payloads, event streams, endpoints without
+ * ?fields=). Applies to the JSON, CBOR and Smile object mappers alike.
+ */
+@Configuration
+public class FieldSelectionConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilterDefault() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
@@ -0,0 +1,33 @@
+package com.jobtracker.backend.config;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Protects the GraphQL endpoint against expensive queries.
+ *
+ * Spring Boot adds every graphql-java Instrumentation bean to the GraphQL engine, so
+ * declaring these two beans is enough:
+ * - the depth limit rejects deeply nested queries (user -> applications -> owner -> ...);
+ * - the complexity limit rejects queries that select too many fields in total
+ *   (every field counts as 1 by default).
+ * Both checks run before the query is executed, so a rejected query never touches the database.
+ */
+@Configuration
+public class GraphQLConfig {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${jobtracker.graphql.max-depth:6}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${jobtracker.graphql.max-complexity:200}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity);
+    }
+}
@@ -0,0 +1,45 @@
+package com.jobtracker.backend.config;
+
+import com.jobtracker.backend.web.IdempotencyFilter;
+import com.jobtracker.backend.web.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+/**
+ * Registers the {@link IdempotencyFilter} right after the Spring Security filter chain, so it
+ * sees the authenticated caller. Limits come from "jobtracker.idempotency.*".
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Value("${jobtracker.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${jobtracker.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${jobtracker.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Bean
+    public IdempotencyStore idempotencyStore() {
+        return new IdempotencyStore(maxEntries, Duration.ofMinutes(ttlMinutes));
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore idempotencyStore,
+            @Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+            new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, handlerMapping, waitTimeoutMs));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,36 @@
+package com.jobtracker.backend.config;
+
+import com.jobtracker.backend.service.EmailSender;
+import com.jobtracker.backend.service.LoggingEmailSender;
+import com.jobtracker.backend.service.SmtpEmailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Chooses the {@link EmailSender} of the mail queue with "jobtracker.mail.sender":
+ *
+ * - log (default): emails are only logged, nothing is sent.
+ * - smtp: emails are sent through the JavaMailSender that Boot configures from
+ *   "spring.mail.host", "spring.mail.port" etc.
+ *
+ * Another transport (e.g. a provider's HTTP API) is another EmailSender bean here.
+ */
+@Configuration
+public class MailConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "jobtracker.mail.sender", havingValue = "log", matchIfMissing = true)
+    public EmailSender loggingEmailSender() {
+        return new LoggingEmailSender();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jobtracker.mail.sender", havingValue = "smtp")
+    public EmailSender smtpEmailSender(JavaMailSender mailSender,
+                                       @Value("${jobtracker.mail.from:Job Tracker <no-reply@jobtracker.local>}") String from) {
+        return new SmtpEmailSender(mailSender, from);
+    }
+}
@@ -0,0 +1,22 @@
+package com.jobtracker.backend.config;
+
+import com.jobtracker.backend.service.JobApplicationPartitionMigrator;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the online migration of job_applications to a hash partitioned table on startup when
+ * "jobtracker.partitioning.migrate-on-startup" is true. The migration is a no-op once the
+ * table is partitioned, so the property can stay on. Postgres only.
+ */
+@Configuration
+public class PartitioningConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "jobtracker.partitioning.migrate-on-startup", havingValue = "true")
+    public ApplicationRunner jobApplicationPartitionMigration(JobApplicationPartitionMigrator migrator) {
+        return args -> migrator.migrate();
+    }
+}
@@ -0,0 +1,85 @@
+package com.jobtracker.backend.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Connects the optional reactive read path (ReactiveReadService) to Postgres with the
+ * non-blocking R2DBC driver, through a pool of its own next to Hikari. Only active with
+ * "jobtracker.reactive.enabled=true".
+ *
+ * Boot's R2DBC auto-configuration is excluded in application.properties: a ConnectionFactory
+ * bean would switch off the JDBC DataSource that JPA and every write run on. The pool is
+ * therefore only reachable through the DatabaseClient.
+ *
+ * Spring MVC writes the items of a streamed Flux to the response on its async task executor,
+ * and a write to a slow client blocks until the socket drains. The executor therefore runs on
+ * virtual threads, so a thousand slow clients park a thousand virtual threads instead of
+ * queueing behind a few platform threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jobtracker.reactive.enabled", havingValue = "true")
+public class ReactiveReadConfig implements WebMvcConfigurer, DisposableBean {
+
+    @Value("${jobtracker.reactive.url:r2dbc:postgresql://localhost:5432/jobtracker}")
+    private String url;
+
+    @Value("${jobtracker.reactive.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${jobtracker.reactive.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${jobtracker.reactive.pool.initial-size:2}")
+    private int initialSize;
+
+    @Value("${jobtracker.reactive.pool.max-size:20}")
+    private int maxSize;
+
+    @Value("${jobtracker.reactive.pool.max-acquire-time-ms:5000}")
+    private long maxAcquireTimeMs;
+
+    private ConnectionPool pool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("reactive-reads")
+            .initialSize(initialSize)
+            .maxSize(maxSize)
+            .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+            .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("reactive-write-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.jobtracker.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled methods (background jobs such as the event stream heartbeats).
+ * The pool size is configured with "spring.task.scheduling.pool.size".
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
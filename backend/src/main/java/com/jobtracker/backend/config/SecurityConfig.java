@@ -1,26 +1,30 @@
 package com.jobtracker.backend.config;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import com.jobtracker.backend.security.JwtAuthenticationFilter;
+import com.jobtracker.backend.security.Roles;
 import static org.springframework.security.config.Customizer.withDefaults;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 /*
- * This SecurityConfig class is used to configure Spring Security to use an in-memory
- * user details manager. It will store the user details in memory and use the
- * provided password encoder to encode the passwords.
+ * This SecurityConfig class is used to configure Spring Security to authenticate the
+ * users stored in the database with JWT tokens, using the provided password encoder
+ * to encode the passwords.
  *
  * The configuration is done in the securityFilterChain method, which is annotated
  * with @Bean. This method returns a SecurityFilterChain object, which is used to
@@ -33,14 +37,12 @@ import org.springframework.security.config.annotation.authentication.builders.Au
  * - /swagger-resources/**
  * - /webjars/**
  *
- * All other requests are authenticated using the in-memory user details manager.
+ * All other requests are authenticated with the JWT issued by /api/auth/signin, which the
+ * JwtAuthenticationFilter checks on every request. Signin authenticates against the users
+ * table through the CustomUserDetailsService.
  *
- * The in-memory user details manager is configured in the userDetailsService method,
- * which is annotated with @Bean. This method returns an InMemoryUserDetailsManager
- * object, which is used to store the user details in memory.
- *
- * The userDetailsService method creates a single user with the username "admin" and
- * the password "admin". The password is encoded using the password encoder.
+ * Endpoints that are not scoped to the caller (the user management, company updates, the
+ * mail queue, the outbox and the monitoring statistics) are restricted to the ADMIN role; other users get 403.
  *
  * The password encoder is configured in the passwordEncoder method, which is
  * annotated with @Bean. This method returns a BCryptPasswordEncoder object, which
@@ -56,18 +58,36 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     http
         .authorizeHttpRequests(auth -> auth
+            // Async dispatches continue a request that was already authorized (e.g. the
+            // application event stream); with stateless sessions they carry no security context.
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             .requestMatchers(
                 "/v3/api-docs/**",
                 "/swagger-ui/**",
                 "/swagger-ui.html",
+                "/openapi.json",  // Static OpenAPI document generated at build time
                 "/api/auth/**"  // This should cover both signup and signin
             ).permitAll()
+            .requestMatchers("/api/mail/**", "/api/outbox/**", "/api/monitoring/**").hasRole(Roles.ADMIN)
+            // Users may read their own account; UserController checks that the ID is theirs
+            .requestMatchers(HttpMethod.GET, "/api/users/*").authenticated()
+            // User management: listing every user, and setting roles on create and update
+            .requestMatchers("/api/users", "/api/users/**").hasRole(Roles.ADMIN)
+            // Their reactive variants expose the same users
+            .requestMatchers("/api/reactive/users", "/api/reactive/users/**").hasRole(Roles.ADMIN)
+            // A rename applies to the applications of every user
+            .requestMatchers(HttpMethod.PUT, "/api/companies/**").hasRole(Roles.ADMIN)
             .anyRequest().authenticated()
         )
+        // Answered directly: an error dispatch carries no security context and would become 401
+        .exceptionHandling(exceptions -> exceptions
+            .accessDeniedHandler((request, response, denied) -> response.setStatus(HttpServletResponse.SC_FORBIDDEN))
+        )
         .csrf(csrf -> csrf.disable())
         .sessionManagement(session -> session
             .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
         )
+        .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
         .httpBasic(withDefaults());
 
     return http.build();
@@ -76,16 +96,20 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
      public PasswordEncoder passwordEncoder() {
          return new BCryptPasswordEncoder(); 
      }
-     @Bean
-public InMemoryUserDetailsManager userDetailsService() {
-    String encodedPassword = passwordEncoder().encode("1234");
-    UserDetails user = User
-        .withUsername("admin")
-        .password(encodedPassword)  // {noop} means no password encoding for testing
-        .roles("ADMIN")
-        .build();
-    return new InMemoryUserDetailsManager(user);
-}
+    // Users sign in against the users table (CustomUserDetailsService, the only
+    // UserDetailsService) and then send the JWT as "Authorization: Bearer <token>"
+    @Bean
+    public JwtAuthenticationFilter jwtAuthenticationFilter() {
+        return new JwtAuthenticationFilter();
+    }
+
+    // Only part of the security filter chain, not registered a second time as a servlet filter
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
     //authenticationManager
     @Bean
     public AuthenticationManager authenticationManager(
@@ -0,0 +1,24 @@
+package com.jobtracker.backend.config;
+
+import com.jobtracker.backend.monitoring.SlowQueryLogListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link SlowQueryLogListener}, which the DataSource proxy (see
+ * DataSourceProxyConfig) hands every timed statement to. It can be switched off with
+ * "jobtracker.sql-log.enabled=false".
+ */
+@Configuration
+@ConditionalOnProperty(name = "jobtracker.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    @Bean
+    public SlowQueryLogListener slowQueryLogListener(
+            @Value("${jobtracker.sql-log.slow-threshold-ms:200}") long slowThresholdMs,
+            @Value("${jobtracker.sql-log.sample-rate:0.001}") double sampleRate) {
+        return new SlowQueryLogListener(slowThresholdMs, sampleRate);
+    }
+}
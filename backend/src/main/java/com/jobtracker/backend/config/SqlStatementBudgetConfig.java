@@ -0,0 +1,42 @@
+package com.jobtracker.backend.config;
+
+import com.jobtracker.backend.monitoring.SqlStatementBudgetInterceptor;
+import com.jobtracker.backend.monitoring.SqlStatementCounter;
+import com.jobtracker.backend.monitoring.SqlStatementStatisticsRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires the per-request SQL statement budget:
+ * - the {@link SqlStatementCounter} listens on the DataSource proxy (see DataSourceProxyConfig)
+ *   so it sees every statement before it is executed, whether it comes from Hibernate or
+ *   from a JdbcTemplate;
+ * - the {@link SqlStatementBudgetInterceptor} opens a counting scope around each controller call.
+ *
+ * Endpoints without a @SqlStatementBudget use the defaults below.
+ */
+@Configuration
+public class SqlStatementBudgetConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter counter;
+    private final SqlStatementStatisticsRegistry registry;
+
+    @Value("${jobtracker.sql-budget.default-max-statements:20}")
+    private int defaultMaxStatements;
+
+    @Value("${jobtracker.sql-budget.default-max-repeats:5}")
+    private int defaultMaxRepeats;
+
+    public SqlStatementBudgetConfig(SqlStatementCounter counter, SqlStatementStatisticsRegistry registry) {
+        this.counter = counter;
+        this.registry = registry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(
+            new SqlStatementBudgetInterceptor(counter, registry, defaultMaxStatements, defaultMaxRepeats));
+    }
+}
@@ -0,0 +1,49 @@
+package com.jobtracker.backend.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Defers the creation of beans that no request needs right after startup.
+ *
+ * Bean definitions whose class is in one of the "jobtracker.startup.lazy-packages" (e.g.
+ * org.springdoc, which builds the OpenAPI document and Swagger UI) are marked lazy, so they
+ * are created on their first use instead of delaying the first served request. Unlike
+ * spring.main.lazy-initialization, everything else (data access, security, controllers) is
+ * still created eagerly and fails fast.
+ *
+ * The "startup" profile turns it on (see application-startup.properties and the "startup"
+ * Maven profile, which also adds AOT processing and a CDS archive).
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        List<String> packages = Arrays.stream(environment.getProperty("jobtracker.startup.lazy-packages", String[].class, new String[0]))
+            .map(String::trim)
+            .filter(prefix -> !prefix.isEmpty())
+            .map(prefix -> prefix + ".")
+            .toList();
+        return beanFactory -> {
+            if (packages.isEmpty()) {
+                return;
+            }
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String className = definition.getFactoryBeanName() != null
+                    ? beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName()
+                    : definition.getBeanClassName();
+                if (className != null && packages.stream().anyMatch(className::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
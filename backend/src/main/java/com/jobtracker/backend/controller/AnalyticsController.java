@@ -0,0 +1,38 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.DashboardDTO;
+import com.jobtracker.backend.service.ApplicationAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST APIs for the dashboard analytics of the authenticated user.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "Job application analytics")
+public class AnalyticsController {
+
+    private final ApplicationAnalyticsService applicationAnalyticsService;
+
+    public AnalyticsController(ApplicationAnalyticsService applicationAnalyticsService) {
+        this.applicationAnalyticsService = applicationAnalyticsService;
+    }
+
+    /**
+     * Returns applications per week, status and company plus the stage conversion rates
+     * of the authenticated user.
+     */
+    @GetMapping("/dashboard")
+    @Operation(summary = "Get my dashboard", description = "Applications per week, status and company and the conversion rates between stages")
+    public ResponseEntity<DashboardDTO> getDashboard(Authentication authentication,
+                                                     @RequestParam(defaultValue = "12") int weeks) {
+        return ResponseEntity.ok(applicationAnalyticsService.getDashboard(authentication.getName(), weeks));
+    }
+}
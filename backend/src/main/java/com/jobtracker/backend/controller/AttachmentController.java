@@ -0,0 +1,167 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.AttachmentDTO;
+import com.jobtracker.backend.entity.AttachmentKind;
+import com.jobtracker.backend.service.AttachmentService;
+import com.jobtracker.backend.service.ContentTooLargeException;
+import com.jobtracker.backend.service.ImageVariantService;
+import com.jobtracker.backend.service.UnsupportedImageException;
+import com.jobtracker.backend.web.FileDownload;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST APIs for the files of the authenticated user: resumes and cover letters attached to
+ * job applications, and the profile picture.
+ *
+ * Uploads are the raw request body (not multipart), with the file's media type as
+ * Content-Type, so they are streamed straight to the store. Downloads support Range requests
+ * and are sent with sendfile; see {@link FileDownload}.
+ *
+ * The controller delegates the actual business logic to the AttachmentService.
+ */
+@RestController
+@RequestMapping("/api/attachments")
+@Tag(name = "Attachment", description = "APIs for resumes, cover letters and profile pictures")
+public class AttachmentController {
+
+   private final AttachmentService attachmentService;
+
+   public AttachmentController(AttachmentService attachmentService) {
+      this.attachmentService = attachmentService;
+   }
+
+   @PostMapping
+   @Operation(summary = "Upload a file", description = "Stores the request body as a resume or cover letter of a job application, or as the profile picture")
+   public ResponseEntity<?> uploadAttachment(
+         @RequestParam AttachmentKind kind, @RequestParam(required = false) UUID applicationId,
+         @RequestParam(required = false) String filename, HttpServletRequest request,
+         Authentication authentication) throws IOException {
+      if (request.getContentLengthLong() > attachmentService.getMaxBytes()) {
+         return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+            .body("File is larger than " + attachmentService.getMaxBytes() + " bytes");
+      }
+      AttachmentDTO attachment;
+      try {
+         attachment = attachmentService.upload(authentication.getName(), kind, applicationId, filename,
+            request.getContentType(), request.getInputStream());
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+      } catch (ContentTooLargeException e) {
+         return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+            .body("File is larger than " + e.getMaxBytes() + " bytes");
+      }
+      if (attachment == null) {
+         return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+   }
+
+   @GetMapping
+   @Operation(summary = "Get my files", description = "Retrieves the files of the authenticated user, optionally of one job application or kind")
+   public ResponseEntity<List<AttachmentDTO>> getAttachments(
+         @RequestParam(required = false) UUID applicationId, @RequestParam(required = false) AttachmentKind kind,
+         Authentication authentication) {
+      return ResponseEntity.ok(attachmentService.findAttachments(authentication.getName(), applicationId, kind));
+   }
+
+   @GetMapping("/{id}")
+   @Operation(summary = "Get file metadata by ID", description = "Retrieves the name, type, size and hash of a file")
+   public ResponseEntity<AttachmentDTO> getAttachmentById(@PathVariable UUID id, Authentication authentication) {
+      AttachmentDTO attachment = attachmentService.findAttachmentById(id, authentication.getName());
+      if (attachment == null) {
+         return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok(attachment);
+   }
+
+   /**
+    * Downloads the content of a file. Range requests (e.g. resuming a download, or a PDF
+    * viewer reading pages) get 206; the ETag is the SHA-256 of the content.
+    */
+   @GetMapping("/{id}/content")
+   @Operation(summary = "Download a file", description = "Sends the content of a file, or a byte range of it")
+   public void downloadAttachment(@PathVariable UUID id, Authentication authentication,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+      AttachmentDTO attachment = attachmentService.findAttachmentById(id, authentication.getName());
+      if (attachment == null) {
+         response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+         return;
+      }
+      response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+      FileDownload.send(request, response, attachmentService.contentPath(attachment), attachment.size(),
+         attachment.contentType(), attachment.sha256(), attachment.filename(),
+         attachment.kind() == AttachmentKind.PROFILE_PICTURE);
+   }
+
+   /**
+    * Downloads a square, sized variant of a profile picture (e.g. "thumbnail"). Variants are
+    * made in the background after the upload; if one is not ready yet the request waits for
+    * it a few seconds, then gets 503 with Retry-After.
+    */
+   @GetMapping("/{id}/variants/{variant}")
+   @Operation(summary = "Download a profile picture variant", description = "Sends a sized variant of a profile picture")
+   public void downloadVariant(@PathVariable UUID id, @PathVariable String variant, Authentication authentication,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+      AttachmentDTO attachment = attachmentService.findAttachmentById(id, authentication.getName());
+      if (attachment == null) {
+         response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+         return;
+      }
+      ImageVariantService.GeneratedVariant generated;
+      try {
+         generated = attachmentService.getVariant(attachment, variant);
+      } catch (IllegalArgumentException e) {
+         writeError(response, HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+         return;
+      } catch (UnsupportedImageException e) {
+         writeError(response, HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+         return;
+      }
+      if (generated == null) {
+         response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+         response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+         return;
+      }
+      response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+      String extension = generated.contentType().equals("image/png") ? ".png" : ".jpg";
+      FileDownload.send(request, response, generated.file(), generated.size(), generated.contentType(),
+         attachment.sha256() + "-" + variant, variant + extension, true);
+   }
+
+   @DeleteMapping("/{id}")
+   @Operation(summary = "Delete a file", description = "Deletes a file of the authenticated user")
+   public ResponseEntity<Void> deleteAttachment(@PathVariable UUID id, Authentication authentication) {
+      if (!attachmentService.deleteAttachment(id, authentication.getName())) {
+         return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok().build();
+   }
+
+   // Not sendError(): the error dispatch would answer it like an unauthenticated request
+   private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+      response.setStatus(status);
+      response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+      response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+      response.getWriter().write(message);
+   }
+}
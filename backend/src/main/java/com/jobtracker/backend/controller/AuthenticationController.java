@@ -18,6 +18,7 @@ import com.jobtracker.backend.dto.JwtAuthenticationResponse;
 import com.jobtracker.backend.dto.LoginRequest;
 import com.jobtracker.backend.dto.SignUpRequest;
 import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.web.Idempotent;
 import java.util.Collections;
 import jakarta.validation.Valid;
 
@@ -89,7 +90,9 @@ public class AuthenticationController {
          return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
          
      }
+     // Retried signups replay the first response instead of hashing the password again
      @PostMapping("/signup")
+     @Idempotent
      public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
          //Check if the user/email already exists
          if(customUserDetailsService.existsByEmail(signUpRequest.getEmail())) {
@@ -0,0 +1,74 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.CompanyDTO;
+import com.jobtracker.backend.dto.CompanySuggestionDTO;
+import com.jobtracker.backend.service.CompanyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST APIs for managing companies and for company name autocomplete.
+ *
+ * The controller delegates the actual business logic to the CompanyService.
+ */
+@RestController
+@RequestMapping("/api/companies")
+@Tag(name = "Company", description = "APIs for Company Management")
+public class CompanyController {
+
+    private final CompanyService companyService;
+
+    public CompanyController(CompanyService companyService) {
+        this.companyService = companyService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all companies", description = "Retrieves all companies")
+    public ResponseEntity<List<CompanyDTO>> getAllCompanies() {
+        return ResponseEntity.ok(companyService.findAllCompanies());
+    }
+
+    /**
+     * Suggests companies whose name starts with the query, ignoring case; served from memory.
+     * At most "jobtracker.companies.max-suggestions" are returned whatever the limit.
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Autocomplete company names", description = "Companies whose name starts with the query, most used first")
+    public ResponseEntity<List<CompanySuggestionDTO>> suggestCompanies(@RequestParam("q") String query,
+                                                                       @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(companyService.suggestCompanies(query, Math.max(1, limit)));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get company by ID", description = "Retrieves a company by ID")
+    public ResponseEntity<CompanyDTO> getCompanyById(@PathVariable UUID id) {
+        return ResponseEntity.ok(companyService.findCompanyById(id));
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a company", description = "Creates a new company")
+    public ResponseEntity<CompanyDTO> createCompany(@Valid @RequestBody CompanyDTO companyDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(companyService.createCompany(companyDTO));
+    }
+
+    // Admins only (see SecurityConfig): a rename applies to the applications of every user
+    @PutMapping("/{id}")
+    @Operation(summary = "Update a company", description = "Updates a company; admins only")
+    public ResponseEntity<CompanyDTO> updateCompany(@PathVariable UUID id, @Valid @RequestBody CompanyDTO companyDTO) {
+        return ResponseEntity.ok(companyService.updateCompany(id, companyDTO));
+    }
+}
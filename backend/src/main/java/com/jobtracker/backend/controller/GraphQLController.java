@@ -0,0 +1,109 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.security.Roles;
+import com.jobtracker.backend.service.JobApplicationService;
+import com.jobtracker.backend.service.UserService;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL resolvers for the schema in resources/graphql/schema.graphqls.
+ *
+ * The top-level queries delegate to the services like the REST controllers do. The nested
+ * fields are @BatchMapping methods: Spring for GraphQL registers them as per-request
+ * DataLoaders, collects every parent object the query touches and calls the method once
+ * with all of them. Resolving the owner of N applications therefore runs one
+ * "where id in (...)" query instead of N lookups.
+ *
+ * Like the REST endpoints, users only see their own data: users, user and User.applications
+ * return other users (and their applications) to admins only. Query depth and complexity are
+ * limited in GraphQLConfig.
+ */
+@Controller
+public class GraphQLController {
+
+    private final UserService userService;
+    private final JobApplicationService jobApplicationService;
+
+    public GraphQLController(UserService userService, JobApplicationService jobApplicationService) {
+        this.userService = userService;
+        this.jobApplicationService = jobApplicationService;
+    }
+
+    // Other users only see themselves
+    @QueryMapping
+    public List<UserDTO> users(Principal principal) {
+        if (Roles.isAdmin(principal)) {
+            return userService.findAllUsers();
+        }
+        UserDTO self = userService.findUserByEmail(principal.getName());
+        return self == null ? List.of() : List.of(self);
+    }
+
+    @QueryMapping
+    public UserDTO user(@Argument UUID id, Principal principal) {
+        UserDTO user = userService.findUsersByIds(List.of(id)).get(id);
+        if (user == null || (!Roles.isAdmin(principal) && !user.getEmail().equals(principal.getName()))) {
+            return null;
+        }
+        return user;
+    }
+
+    @QueryMapping
+    public List<JobApplicationDTO> applications(Principal principal) {
+        return jobApplicationService.findJobApplicationsByOwner(principal.getName());
+    }
+
+    @QueryMapping
+    public JobApplicationDTO application(@Argument UUID id, Principal principal) {
+        return jobApplicationService.findJobApplicationById(id, principal.getName());
+    }
+
+    // Users other than the caller get no applications, unless the caller is an admin
+    @BatchMapping(typeName = "User", field = "applications")
+    public Map<UserDTO, List<JobApplicationDTO>> applications(List<UserDTO> users, Principal principal) {
+        boolean admin = Roles.isAdmin(principal);
+        Set<UUID> userIds = users.stream()
+            .filter(user -> admin || user.getEmail().equals(principal.getName()))
+            .map(UserDTO::getId)
+            .collect(Collectors.toSet());
+        Map<UUID, List<JobApplicationDTO>> byOwner = userIds.isEmpty()
+            ? Map.of()
+            : jobApplicationService.findJobApplicationsByOwners(userIds);
+
+        Map<UserDTO, List<JobApplicationDTO>> result = new LinkedHashMap<>();
+        users.forEach(user -> result.put(user, byOwner.getOrDefault(user.getId(), List.of())));
+        return result;
+    }
+
+    @BatchMapping(typeName = "JobApplication", field = "owner")
+    public Map<JobApplicationDTO, UserDTO> owner(List<JobApplicationDTO> jobApplications) {
+        Set<UUID> ownerIds = jobApplications.stream()
+            .map(JobApplicationDTO::getUserId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<UUID, UserDTO> owners = userService.findUsersByIds(ownerIds);
+
+        Map<JobApplicationDTO, UserDTO> result = new LinkedHashMap<>();
+        for (JobApplicationDTO jobApplication : jobApplications) {
+            UserDTO owner = owners.get(jobApplication.getUserId());
+            if (owner != null) {
+                result.put(jobApplication, owner);
+            }
+        }
+        return result;
+    }
+}
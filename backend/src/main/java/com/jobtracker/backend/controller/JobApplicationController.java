@@ -0,0 +1,162 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.config.BinaryContentNegotiationConfig;
+import com.jobtracker.backend.dto.ApplicationChangeDTO;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.service.ApplicationHistoryService;
+import com.jobtracker.backend.service.JobApplicationService;
+import com.jobtracker.backend.service.JobApplicationStreamService;
+import com.jobtracker.backend.web.FieldSelection;
+import com.jobtracker.backend.web.Idempotent;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST APIs for managing the job applications of the authenticated user. Every endpoint is
+ * scoped to the caller: an application of another user is answered with 404, like one that
+ * does not exist.
+ *
+ * The read endpoints can answer in JSON (the default), CBOR or Smile depending on the
+ * Accept header; see {@link BinaryContentNegotiationConfig}.
+ *
+ * The controller delegates the actual business logic to the JobApplicationService.
+ */
+@RestController
+@RequestMapping("/api/applications")
+@Tag(name = "JobApplication", description = "APIs for Job Application Management")
+public class JobApplicationController {
+
+   private final JobApplicationService jobApplicationService;
+   private final JobApplicationStreamService jobApplicationStreamService;
+   private final ApplicationHistoryService applicationHistoryService;
+
+   public JobApplicationController(JobApplicationService jobApplicationService,
+                                   JobApplicationStreamService jobApplicationStreamService,
+                                   ApplicationHistoryService applicationHistoryService) {
+      this.jobApplicationService = jobApplicationService;
+      this.jobApplicationStreamService = jobApplicationStreamService;
+      this.applicationHistoryService = applicationHistoryService;
+   }
+
+   /**
+    * Returns the job applications of the authenticated user. Finished applications that were
+    * moved to the archive are only included with includeHistory=true.
+    *
+    * fields=id,title,status limits the response to these properties; only their columns are
+    * read from the database.
+    */
+   @GetMapping(produces = {
+      MediaType.APPLICATION_JSON_VALUE,
+      MediaType.APPLICATION_CBOR_VALUE,
+      BinaryContentNegotiationConfig.APPLICATION_SMILE_VALUE
+   })
+   @Operation(summary = "Get my job applications", description = "Retrieves the job applications of the authenticated user")
+   public ResponseEntity<?> getJobApplications(
+         Authentication authentication, @RequestParam(defaultValue = "false") boolean includeHistory,
+         @RequestParam(required = false) String fields) {
+      FieldSelection selection;
+      try {
+         selection = FieldSelection.parse(fields, JobApplicationService.FIELDS);
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+      }
+      List<JobApplicationDTO> jobApplications = selection.isAll()
+         ? jobApplicationService.findJobApplicationsByOwner(authentication.getName(), includeHistory)
+         : jobApplicationService.findJobApplicationFieldsByOwner(authentication.getName(), includeHistory, selection.getFields());
+      return ResponseEntity.ok(selection.wrap(jobApplications));
+   }
+
+   /**
+    * Opens a Server-Sent Event stream of the authenticated user's application changes.
+    * Each event is named CREATED, UPDATED or DELETED and carries the application as data.
+    */
+   @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+   @Operation(summary = "Stream job application changes", description = "Pushes create, update and delete events of the authenticated user's job applications")
+   public SseEmitter streamJobApplicationChanges(Authentication authentication) {
+      return jobApplicationStreamService.subscribe(authentication.getName());
+   }
+
+   @GetMapping(value = "/{id}", produces = {
+      MediaType.APPLICATION_JSON_VALUE,
+      MediaType.APPLICATION_CBOR_VALUE,
+      BinaryContentNegotiationConfig.APPLICATION_SMILE_VALUE
+   })
+   @Operation(summary = "Get job application by ID", description = "Retrieves a job application by ID")
+   public ResponseEntity<?> getJobApplicationById(
+         @PathVariable UUID id, Authentication authentication, @RequestParam(defaultValue = "false") boolean includeHistory,
+         @RequestParam(required = false) String fields) {
+      FieldSelection selection;
+      try {
+         selection = FieldSelection.parse(fields, JobApplicationService.FIELDS);
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+      }
+      JobApplicationDTO jobApplication = selection.isAll()
+         ? jobApplicationService.findJobApplicationById(id, authentication.getName(), includeHistory)
+         : jobApplicationService.findJobApplicationFieldsById(id, authentication.getName(), includeHistory, selection.getFields());
+      if (jobApplication == null) {
+         return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok(selection.wrap(jobApplication));
+   }
+
+   /**
+    * Returns the field-level changes of one of the authenticated user's job applications,
+    * oldest first. Archived applications keep their timeline.
+    */
+   @GetMapping("/{id}/history")
+   @Operation(summary = "Get the history of a job application", description = "Retrieves who changed which fields of a job application and when")
+   public ResponseEntity<List<ApplicationChangeDTO>> getJobApplicationHistory(@PathVariable UUID id, Authentication authentication) {
+      if (jobApplicationService.findJobApplicationById(id, authentication.getName(), true) == null) {
+         return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok(applicationHistoryService.getTimeline(id));
+   }
+
+   @PostMapping
+   @Idempotent
+   @Operation(summary = "Create a job application", description = "Creates a job application for the authenticated user")
+   public ResponseEntity<JobApplicationDTO> createJobApplication(
+         @Valid @RequestBody JobApplicationDTO jobApplicationDTO, Authentication authentication) {
+      JobApplicationDTO created = jobApplicationService.createJobApplication(jobApplicationDTO, authentication.getName());
+      return ResponseEntity.status(HttpStatus.CREATED).body(created);
+   }
+
+   @PutMapping("/{id}")
+   @Operation(summary = "Update a job application", description = "Updates a job application with the provided details")
+   public ResponseEntity<JobApplicationDTO> updateJobApplication(
+         @PathVariable UUID id, @Valid @RequestBody JobApplicationDTO jobApplicationDTO, Authentication authentication) {
+      JobApplicationDTO updated = jobApplicationService.updateJobApplication(id, jobApplicationDTO, authentication.getName());
+      if (updated == null) {
+         return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok(updated);
+   }
+
+   @DeleteMapping("/{id}")
+   @Operation(summary = "Delete a job application", description = "Deletes a job application with the provided ID")
+   public ResponseEntity<Void> deleteJobApplication(@PathVariable UUID id, Authentication authentication) {
+      if (!jobApplicationService.deleteJobApplication(id, authentication.getName())) {
+         return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok().build();
+   }
+}
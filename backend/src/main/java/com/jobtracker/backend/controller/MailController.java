@@ -0,0 +1,57 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.OutboundEmailDTO;
+import com.jobtracker.backend.entity.EmailStatus;
+import com.jobtracker.backend.service.MailDispatcher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Operational endpoints for the mail queue; admins only (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/mail")
+@Tag(name = "Mail", description = "Mail queue operations")
+public class MailController {
+
+    private final MailDispatcher mailDispatcher;
+
+    public MailController(MailDispatcher mailDispatcher) {
+        this.mailDispatcher = mailDispatcher;
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Count queued emails", description = "Returns the number of emails per status")
+    public ResponseEntity<Map<EmailStatus, Long>> getStats() {
+        return ResponseEntity.ok(mailDispatcher.countByStatus());
+    }
+
+    @GetMapping("/dead")
+    @Operation(summary = "Get dead letters", description = "Retrieves the emails that could not be sent, newest first")
+    public ResponseEntity<List<OutboundEmailDTO>> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(mailDispatcher.findDeadLetters(Math.max(1, Math.min(limit, 500))));
+    }
+
+    /**
+     * Queues a dead letter again, e.g. after the recipient's mail server was fixed.
+     */
+    @PostMapping("/dead/{id}/retry")
+    @Operation(summary = "Retry a dead letter", description = "Queues an email that could not be sent again")
+    public ResponseEntity<Void> retryDeadLetter(@PathVariable UUID id) {
+        if (!mailDispatcher.retry(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.monitoring.CountingAsyncAppender;
+import com.jobtracker.backend.monitoring.SqlStatementStatisticsRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Read-only endpoints that expose runtime statistics collected by the monitoring package.
+ * They include statement texts of every user's requests, so they are restricted to admins
+ * (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/monitoring")
+@Tag(name = "Monitoring", description = "Runtime statistics")
+public class MonitoringController {
+
+    private final SqlStatementStatisticsRegistry sqlStatementStatisticsRegistry;
+
+    public MonitoringController(SqlStatementStatisticsRegistry sqlStatementStatisticsRegistry) {
+        this.sqlStatementStatisticsRegistry = sqlStatementStatisticsRegistry;
+    }
+
+    /**
+     * Returns the number of SQL statements executed per endpoint since startup,
+     * including how many requests went over their statement budget.
+     */
+    @GetMapping("/sql-statements")
+    @Operation(summary = "SQL statements per endpoint", description = "Per-endpoint SQL statement statistics")
+    public ResponseEntity<Map<String, SqlStatementStatisticsRegistry.Snapshot>> getSqlStatementStatistics() {
+        return ResponseEntity.ok(sqlStatementStatisticsRegistry.snapshot());
+    }
+
+    /**
+     * Returns how many log events the asynchronous appender had to throw away because its
+     * queue was (nearly) full.
+     */
+    @GetMapping("/logging")
+    @Operation(summary = "Dropped log events", description = "Log events dropped by the asynchronous appender")
+    public ResponseEntity<Map<String, Long>> getLoggingStatistics() {
+        return ResponseEntity.ok(Map.of(
+            "discardedEvents", CountingAsyncAppender.discardedEvents(),
+            "droppedEvents", CountingAsyncAppender.droppedEvents()));
+    }
+}
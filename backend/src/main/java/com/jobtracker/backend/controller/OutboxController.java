@@ -0,0 +1,38 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.service.OutboxRelay;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Operational endpoints for the transactional outbox; admins only (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/outbox")
+@Tag(name = "Outbox", description = "Change event relay operations")
+public class OutboxController {
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxController(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    /**
+     * Delivers the retained outbox events starting at the given offset (event ID) to all
+     * subscribers again, e.g. after a subscriber lost its state.
+     */
+    @PostMapping("/replay")
+    @Operation(summary = "Replay change events", description = "Re-delivers outbox events from the given offset")
+    public ResponseEntity<Map<String, Long>> replay(@RequestParam long fromOffset,
+                                                    @RequestParam(defaultValue = "100000") int maxEvents) {
+        return ResponseEntity.ok(Map.of("replayed", outboxRelay.replayFrom(fromOffset, maxEvents)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.service.ReactiveReadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive variants of the user and job application read endpoints, for read-heavy clients;
+ * only registered with "jobtracker.reactive.enabled=true". The data comes from
+ * {@link ReactiveReadService} (R2DBC), the writes stay on the regular endpoints.
+ *
+ * Spring MVC subscribes to the returned Flux and Mono and releases the Tomcat thread while
+ * it waits, so slow clients hold neither a thread nor a JDBC connection. With
+ * Accept: application/x-ndjson the lists are streamed one JSON document per line, each one
+ * requested from the database only when the previous one was written (backpressure);
+ * application/json collects the list first, like the regular endpoints.
+ *
+ * The requests pass the same security filter chain (JwtAuthenticationFilter) as every other
+ * endpoint and return the same DTOs; like /api/users, the user endpoints are restricted to
+ * admins (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@ConditionalOnProperty(name = "jobtracker.reactive.enabled", havingValue = "true")
+@Tag(name = "Reactive reads", description = "Non-blocking, streaming variants of the read endpoints")
+public class ReactiveReadController {
+
+   private final ReactiveReadService reactiveReadService;
+
+   public ReactiveReadController(ReactiveReadService reactiveReadService) {
+      this.reactiveReadService = reactiveReadService;
+   }
+
+   @GetMapping(value = "/applications", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+   @Operation(summary = "Stream my job applications", description = "Streams the job applications of the authenticated user")
+   public Flux<JobApplicationDTO> getJobApplications(
+         Authentication authentication, @RequestParam(defaultValue = "false") boolean includeHistory) {
+      return reactiveReadService.findJobApplicationsByOwner(authentication.getName(), includeHistory);
+   }
+
+   @GetMapping(value = "/applications/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+   @Operation(summary = "Get job application by ID", description = "Retrieves a job application of the authenticated user by ID")
+   public Mono<ResponseEntity<JobApplicationDTO>> getJobApplicationById(
+         @PathVariable UUID id, Authentication authentication, @RequestParam(defaultValue = "false") boolean includeHistory) {
+      return reactiveReadService.findJobApplicationById(id, authentication.getName(), includeHistory)
+         .map(ResponseEntity::ok)
+         .defaultIfEmpty(ResponseEntity.notFound().build());
+   }
+
+   @GetMapping(value = "/users", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+   @Operation(summary = "Stream users", description = "Streams all users, newest first")
+   public Flux<UserDTO> getUsers() {
+      return reactiveReadService.findAllUsers();
+   }
+
+   @GetMapping(value = "/users/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+   @Operation(summary = "Get user by ID", description = "Retrieves a user by ID")
+   public Mono<ResponseEntity<UserDTO>> getUserById(@PathVariable UUID id) {
+      return reactiveReadService.findUserById(id)
+         .map(ResponseEntity::ok)
+         .defaultIfEmpty(ResponseEntity.notFound().build());
+   }
+}
@@ -3,10 +3,10 @@ package com.jobtracker.backend.controller;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 
-import java.util.List;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,9 +16,18 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import io.swagger.v3.oas.annotations.Operation;
+import org.springdoc.core.annotations.ParameterObject;
+import com.jobtracker.backend.config.BinaryContentNegotiationConfig;
 import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.dto.UserQuery;
+import com.jobtracker.backend.monitoring.SqlStatementBudget;
+import com.jobtracker.backend.security.Roles;
+import com.jobtracker.backend.service.UserHasJobApplicationsException;
 import com.jobtracker.backend.service.UserService;
+import com.jobtracker.backend.web.FieldSelection;
+import com.jobtracker.backend.web.Idempotent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -30,6 +39,9 @@ import org.springframework.web.bind.annotation.DeleteMapping;
  * updating a user, and deleting a user.
  * 
  * The controller delegates the actual business logic to the UserService.
+ * 
+ * Every endpoint is restricted to admins (see SecurityConfig), except that users
+ * can read their own account by ID; users sign up through /api/auth/signup.
  */
 
 /**
@@ -75,31 +87,35 @@ public class UserController {
     * @return - This annotation is used to document the return type of the method.
     * It provides information about the type of data that the method returns.
     */
-   @GetMapping
-   @Operation(summary = "Get all users" , description="Retrieves a list of all users")
+   @GetMapping(produces = {
+      MediaType.APPLICATION_JSON_VALUE,
+      MediaType.APPLICATION_CBOR_VALUE,
+      BinaryContentNegotiationConfig.APPLICATION_SMILE_VALUE
+   })
+   @Operation(summary = "Get users" , description="Retrieves a page of users, sorted and filtered, with keyset pagination")
+   // The page, the roles of its users and (unless cached or skipped) the total
+   @SqlStatementBudget(maxStatements = 3, maxRepeats = 1)
    
    /**
-    * The getAllUsers() method is used to retrieve a list of all users from the database.
-    * 
-    * It delegates the actual business logic to the UserService, which encapsulates the
-    * business logic of the application and provides an interface for the controller
-    * to interact with the business logic.
-    * 
-    * The UserService uses the UserRepository to retrieve a list of all users from the
-    * database. The list of users is then converted to a list of UserDTO objects, which
-    * are returned to the controller.
+    * The getAllUsers() method is used to retrieve one page of users from the database.
     * 
-    * The controller then returns the list of UserDTO objects as a ResponseEntity.
+    * The query parameters (see UserQuery) select the sort key and direction, the filters,
+    * the page size and how the total is counted. The next page is requested with the
+    * nextCursor of the previous one as ?after=, which keeps deep pages as fast as the first.
     * 
-    * The ResponseEntity is a Spring class that is used to represent the entire HTTP
-    * response. It contains the status code, headers and body of the response.
+    * fields=id,email limits the users of the page to these properties; only their columns
+    * are read from the database.
     * 
-    * The status code is set to 200 OK, which means that the request was successful.
-    * The body of the response is the list of UserDTO objects.
+    * Invalid parameters or a cursor of another sort order are answered with 400 Bad Request.
     */
 
-   public ResponseEntity<List<UserDTO>> getAllUsers() {
-      return ResponseEntity.ok(userService.findAllUsers());
+   public ResponseEntity<?> getAllUsers(@ParameterObject UserQuery query, @RequestParam(required = false) String fields) {
+      try {
+         FieldSelection selection = FieldSelection.parse(fields, UserService.FIELDS);
+         return ResponseEntity.ok(selection.wrap(userService.findUsers(query, selection.getFields())));
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+      }
    }
 
    /**
@@ -112,9 +128,24 @@ public class UserController {
     * It provides information about the type of data that the method returns.
     */
    @GetMapping("/{id}")
-   @Operation(summary = "Get user by ID" , description="Retrieves a user by ID")
-   public ResponseEntity<UserDTO> getUserById(@PathVariable UUID id) {
-      return ResponseEntity.ok(userService.findUserById(id));
+   @Operation(summary = "Get user by ID" , description="Retrieves a user by ID (admins, or the user itself); fields=id,email limits the response to these properties")
+   public ResponseEntity<?> getUserById(@PathVariable UUID id, @RequestParam(required = false) String fields,
+                                        Authentication authentication) {
+      // Checked against the caller's own ID, so other users cannot probe which IDs exist
+      if (!Roles.isAdmin(authentication)) {
+         UserDTO caller = userService.findUserByEmail(authentication.getName());
+         if (caller == null || !caller.getId().equals(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+         }
+      }
+      FieldSelection selection;
+      try {
+         selection = FieldSelection.parse(fields, UserService.FIELDS);
+      } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+      }
+      UserDTO user = selection.isAll() ? userService.findUserById(id) : userService.findUserFieldsById(id, selection.getFields());
+      return ResponseEntity.ok(selection.wrap(user));
    }
 
    /**
@@ -127,6 +158,7 @@ public class UserController {
     * It provides information about the type of data that the method returns.
     */
     @PostMapping
+    @Idempotent
     @Operation(summary = "Create a new user", description = "Creates a new user with the provided details")
     public ResponseEntity<UserDTO> createUser(
             // The @Valid annotation is used to enable validation of the UserDTO object.
@@ -174,9 +206,13 @@ public class UserController {
      * It provides information about the type of data that the method returns.
      */
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete a user", description = "Deletes a user with the provided ID")
-    public ResponseEntity<UserDTO> deleteUser(@PathVariable UUID id) {
-        userService.deleteUser(id);
+    @Operation(summary = "Delete a user", description = "Deletes a user with the provided ID; 409 while the user has job applications, live or archived")
+    public ResponseEntity<?> deleteUser(@PathVariable UUID id) {
+        try {
+            userService.deleteUser(id);
+        } catch (UserHasJobApplicationsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,29 @@
+package com.jobtracker.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One entry of a job application's timeline: the fields that changed, by whom and when.
+ */
+@Schema(description = "Change of a job application in its timeline")
+public record ApplicationChangeDTO(
+    @Schema(description = "When the change was made", example = "2025-08-06T10:00:00Z")
+    Instant changedAt,
+    @Schema(description = "Email of the user who made the change", example = "jane@example.com")
+    String changedBy,
+    @Schema(description = "The fields that changed")
+    List<FieldChange> changes) {
+
+    @Schema(description = "Field of a job application with its value before and after a change")
+    public record FieldChange(
+        @Schema(description = "Name of the field", example = "status")
+        String field,
+        @Schema(description = "Value before the change", example = "APPLIED")
+        String oldValue,
+        @Schema(description = "Value after the change", example = "INTERVIEW")
+        String newValue) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.jobtracker.backend.dto;
+
+import com.jobtracker.backend.entity.AttachmentKind;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Metadata of an uploaded file; the content is downloaded from /api/attachments/{id}/content.
+ */
+@Schema(description = "Metadata of an uploaded file")
+public record AttachmentDTO(
+    @Schema(description = "Unique identifier of the attachment", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID id,
+    @Schema(description = "What the file is", example = "RESUME")
+    AttachmentKind kind,
+    @Schema(description = "Job application the file is attached to; null for a profile picture", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID applicationId,
+    @Schema(description = "Name of the uploaded file", example = "resume.pdf")
+    String filename,
+    @Schema(description = "Media type of the file", example = "application/pdf")
+    String contentType,
+    @Schema(description = "Size of the file in bytes", example = "48213")
+    long size,
+    @Schema(description = "SHA-256 of the content, also its ETag", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    String sha256,
+    @Schema(description = "When the file was uploaded", example = "2025-08-06T10:00:00Z")
+    Instant createdAt) {
+}
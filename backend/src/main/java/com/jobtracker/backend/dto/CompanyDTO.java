@@ -0,0 +1,46 @@
+package com.jobtracker.backend.dto;
+
+import com.jobtracker.backend.entity.CompanySize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for company operations.
+ */
+@Data
+@Schema(description = "Data Transfer Object for Company operations")
+public class CompanyDTO {
+
+    @Schema(description = "Unique identifier of the company", example = "123e4567-e89b-12d3-a456-426614174000", accessMode = Schema.AccessMode.READ_ONLY)
+    private UUID id;
+
+    @Schema(description = "Name of the company", example = "Tech Corp", required = true)
+    @NotBlank(message = "Name is required")
+    @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
+    private String name;
+
+    @Schema(description = "Website of the company", example = "https://techcorp.example")
+    @Size(max = 255, message = "Website must be at most 255 characters")
+    private String website;
+
+    @Schema(description = "Description of the company", example = "Builds developer tools")
+    private String description;
+
+    @Schema(description = "URL of the company logo", example = "https://techcorp.example/logo.png")
+    @Size(max = 255, message = "Logo URL must be at most 255 characters")
+    private String logoUrl;
+
+    @Schema(description = "Industry of the company", example = "Software")
+    @Size(max = 255, message = "Industry must be at most 255 characters")
+    private String industry;
+
+    @Schema(description = "Size of the company", example = "MEDIUM")
+    private CompanySize size;
+
+    @Schema(description = "Year the company was founded", example = "2010")
+    private Integer foundedYear;
+}
@@ -0,0 +1,18 @@
+package com.jobtracker.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+/**
+ * A company name suggested for an autocomplete prefix.
+ */
+@Schema(description = "Company suggested for an autocomplete prefix")
+public record CompanySuggestionDTO(
+    @Schema(description = "Unique identifier of the company", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID id,
+    @Schema(description = "Name of the company", example = "Tech Corp")
+    String name,
+    @Schema(description = "Number of job applications sent to the company", example = "12")
+    int applications) {
+}
@@ -0,0 +1,39 @@
+package com.jobtracker.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the dashboard analytics of a user.
+ */
+@Data
+@Schema(description = "Job application analytics for the dashboard")
+public class DashboardDTO {
+
+    @Schema(description = "Number of job applications", example = "42")
+    private int totalApplications;
+
+    @Schema(description = "Number of job applications per status", example = "{\"APPLIED\": 20, \"INTERVIEW\": 5}")
+    private Map<String, Integer> applicationsByStatus;
+
+    @Schema(description = "Number of job applications created per week, oldest first")
+    private List<WeekCount> applicationsPerWeek;
+
+    @Schema(description = "Companies with the most job applications")
+    private List<CompanyCount> topCompanies;
+
+    @Schema(description = "Share of applications that moved on from one stage to the next", example = "{\"APPLIED->INTERVIEW\": 0.25}")
+    private Map<String, Double> conversionRates;
+
+    @Schema(description = "Applications created in the week starting on the given Monday")
+    public record WeekCount(LocalDate weekStart, int applications) {
+    }
+
+    @Schema(description = "Applications sent to a company")
+    public record CompanyCount(String company, int applications) {
+    }
+}
@@ -1,7 +1,10 @@
 package com.jobtracker.backend.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.jobtracker.backend.web.FieldSelection;
 import lombok.Data;
+import java.time.LocalDate;
 import java.util.UUID;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -13,6 +16,8 @@ import jakarta.validation.constraints.Size;
 
 @Data
 @Schema(description = "Data Transfer Object for JobApplication operations")
+// Only the properties selected with ?fields= are written (see FieldSelection)
+@JsonFilter(FieldSelection.FILTER)
 public class JobApplicationDTO {
     
     @Schema(description = "Unique identifier of the job application", example = "123e4567-e89b-12d3-a456-426614174000", accessMode = Schema.AccessMode.READ_ONLY)
@@ -27,6 +32,9 @@ public class JobApplicationDTO {
     @NotBlank(message = "Company is required")
     @Size(min = 2, max = 100, message = "Company must be between 2 and 100 characters")
     private String company;
+
+    @Schema(description = "ID of the company the job application is linked to", example = "123e4567-e89b-12d3-a456-426614174000", accessMode = Schema.AccessMode.READ_ONLY)
+    private UUID companyId;
     
     @Schema(description = "Location of the job application", example = "New York, NY", required = true)
     @NotBlank(message = "Location is required")
@@ -42,6 +50,9 @@ public class JobApplicationDTO {
     @NotBlank(message = "Status is required")
     @Size(min = 2, max = 100, message = "Status must be between 2 and 100 characters")
     private String status;
+
+    @Schema(description = "Deadline of the job application", example = "2025-09-01")
+    private LocalDate deadline;
     
     @Schema(description = "Timestamp when the job application was created", example = "2025-08-06T10:00:00", accessMode = Schema.AccessMode.READ_ONLY)
     private String createdAt;
@@ -52,6 +63,9 @@ public class JobApplicationDTO {
     @Schema(description = "User ID of the job application", example = "123e4567-e89b-12d3-a456-426614174000", accessMode = Schema.AccessMode.READ_ONLY)
     private UUID userId;
 
+    @Schema(description = "Whether the job application was moved to the archive; archived applications are read-only", example = "false", accessMode = Schema.AccessMode.READ_ONLY)
+    private boolean archived;
+
     //setter for created at and updatedat
     public void setCreatedAt(String createdAt) {
         this.createdAt = createdAt;
@@ -0,0 +1,24 @@
+package com.jobtracker.backend.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Payload of the outbox events of job applications: the application as the API returns it,
+ * plus what the analytics rollups need to apply the change without keeping per-application
+ * state. Subscribers that only need the application read the payload as a JobApplicationDTO.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class JobApplicationEventDTO extends JobApplicationDTO {
+
+    // Ordinal of the furthest stage reached (see ApplicationStatus.furthestStage); null: none
+    private Integer furthestStage;
+
+    // Updates only: the values before the update
+    private String previousCompany;
+    private String previousStatus;
+    private Integer previousFurthestStage;
+}
@@ -0,0 +1,32 @@
+package com.jobtracker.backend.dto;
+
+import com.jobtracker.backend.entity.EmailStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An email of the mail queue, without its body.
+ */
+@Schema(description = "Email of the mail queue, without its body")
+public record OutboundEmailDTO(
+    @Schema(description = "Unique identifier of the email", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID id,
+    @Schema(description = "Address the email is sent to", example = "jane@example.com")
+    String recipient,
+    @Schema(description = "Subject of the email", example = "Reminder: follow up with Acme")
+    String subject,
+    @Schema(description = "Where the email is in the queue", example = "DEAD")
+    EmailStatus status,
+    @Schema(description = "Number of times sending was tried", example = "8")
+    int attempts,
+    @Schema(description = "When sending is tried next", example = "2025-08-06T10:00:00Z")
+    Instant nextAttemptAt,
+    @Schema(description = "Error of the last attempt", example = "550 5.1.1 User unknown")
+    String lastError,
+    @Schema(description = "When the email was queued", example = "2025-08-06T10:00:00Z")
+    Instant createdAt,
+    @Schema(description = "When the mail server accepted the email", example = "2025-08-06T10:00:00Z")
+    Instant sentAt) {
+}
@@ -5,6 +5,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.jobtracker.backend.web.FieldSelection;
 import lombok.Data;
 
 import java.util.List;
@@ -14,6 +16,8 @@ import javax.management.relation.Role;
 
 @Data
 @Schema(description = "Data Transfer Object for User operations")
+// Only the properties selected with ?fields= are written (see FieldSelection)
+@JsonFilter(FieldSelection.FILTER)
 public class UserDTO {
     
     @Schema(description = "User ID", example = "123e4567-e89b-12d3-a456-426614174000", accessMode = Schema.AccessMode.READ_ONLY)
@@ -0,0 +1,26 @@
+package com.jobtracker.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of the user listing.
+ */
+@Data
+@Schema(description = "A page of users")
+public class UserPageDTO {
+
+    @Schema(description = "Users of this page, in the requested order")
+    private List<UserDTO> users;
+
+    @Schema(description = "Cursor of the next page (pass it as ?after=); null on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Number of users matching the filters; null with count=none", example = "1250000")
+    private Long total;
+
+    @Schema(description = "Whether total is an exact count or an estimate", example = "false")
+    private boolean totalExact;
+}
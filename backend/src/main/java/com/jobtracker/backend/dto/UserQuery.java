@@ -0,0 +1,36 @@
+package com.jobtracker.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Query parameters of the paged user listing (GET /api/users).
+ */
+@Data
+@Schema(description = "Paging, sorting and filtering of the user listing")
+public class UserQuery {
+
+    @Schema(description = "Cursor of the next page, as returned in nextCursor; omit for the first page")
+    private String after;
+
+    @Schema(description = "Users per page", example = "50")
+    private int limit = 50;
+
+    @Schema(description = "Sort key: createdAt, email or name", example = "createdAt")
+    private String sort = "createdAt";
+
+    @Schema(description = "Sort direction: asc or desc", example = "desc")
+    private String direction = "desc";
+
+    @Schema(description = "Only users whose email starts with this prefix", example = "john")
+    private String email;
+
+    @Schema(description = "Only users whose name contains this text, ignoring case", example = "doe")
+    private String name;
+
+    @Schema(description = "Only users with this role", example = "ADMIN")
+    private String role;
+
+    @Schema(description = "How the total is counted: approximate (planner estimate, cached), exact or none", example = "approximate")
+    private String count = "approximate";
+}
@@ -0,0 +1,64 @@
+package com.jobtracker.backend.entity;
+
+import java.util.Locale;
+
+/**
+ * The known values of JobApplication.status.
+ *
+ * The status column itself is free text, so parse() is lenient: it ignores case and
+ * surrounding whitespace and returns null for values it does not know.
+ *
+ * SAVED, APPLIED, INTERVIEW and OFFER are the stages of the pipeline, in order; REJECTED and
+ * CLOSED end an application at whatever stage it had reached. Terminal applications are
+ * moved to the archive after a while (see JobApplicationArchiver).
+ *
+ * The stages come first, so the furthest stage an application reached is kept as the ordinal
+ * of that stage (JobApplication.furthestStage).
+ */
+public enum ApplicationStatus {
+    SAVED(true, false),
+    APPLIED(true, false),
+    INTERVIEW(true, false),
+    OFFER(true, false),
+    REJECTED(false, true),
+    CLOSED(false, true);
+
+    private final boolean stage;
+    private final boolean terminal;
+
+    ApplicationStatus(boolean stage, boolean terminal) {
+        this.stage = stage;
+        this.terminal = terminal;
+    }
+
+    public boolean isStage() {
+        return stage;
+    }
+
+    public boolean isTerminal() {
+        return terminal;
+    }
+
+    /**
+     * The furthest stage of an application that had reached the given one (null: none yet)
+     * and now has the given status; null when neither is a stage.
+     */
+    public static Integer furthestStage(Integer reached, String status) {
+        ApplicationStatus parsed = parse(status);
+        if (parsed == null || !parsed.stage) {
+            return reached;
+        }
+        return reached == null ? parsed.ordinal() : Math.max(reached, parsed.ordinal());
+    }
+
+    public static ApplicationStatus parse(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.jobtracker.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A finished job application moved out of job_applications by the JobApplicationArchiver.
+ *
+ * The archive is cold storage: rows are written once and read only when a user asks for
+ * their history. It therefore has no foreign keys and a single index, on the owner, and keeps
+ * the application's ID, so a row is the same application before and after archiving.
+ */
+@Entity
+@Table(name = "job_applications_archive", indexes = {
+    @Index(name = "idx_job_applications_archive_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedJobApplication {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    private String title;
+
+    private String company;
+
+    @Column(name = "company_id")
+    private UUID companyId;
+
+    private String location;
+
+    private String description;
+
+    private String status;
+
+    private LocalDate deadline;
+
+    @Column(name = "furthest_stage")
+    private Integer furthestStage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
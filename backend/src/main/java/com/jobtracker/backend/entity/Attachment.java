@@ -0,0 +1,68 @@
+package com.jobtracker.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Metadata of a file uploaded by a user. The bytes are not in Postgres but in the
+ * ContentStore, under their SHA-256; rows with the same content share one file.
+ *
+ * Rows are never updated: a new upload is a new row, so the content of an attachment ID
+ * never changes.
+ *
+ * - userId: the owner.
+ * - applicationId: the job application a resume or cover letter belongs to; null for a
+ *   profile picture.
+ * - sha256 / size: the content in the store.
+ */
+@Entity
+@Table(name = "attachments", indexes = {
+    @Index(name = "idx_attachments_user", columnList = "user_id, kind"),
+    @Index(name = "idx_attachments_application", columnList = "application_id"),
+    @Index(name = "idx_attachments_sha256", columnList = "sha256")
+})
+@Data
+@NoArgsConstructor
+public class Attachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "application_id")
+    private UUID applicationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AttachmentKind kind;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
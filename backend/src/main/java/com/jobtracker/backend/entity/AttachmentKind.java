@@ -0,0 +1,13 @@
+package com.jobtracker.backend.entity;
+
+/**
+ * What an attachment is.
+ *
+ * - PROFILE_PICTURE: the picture of a user; a user has at most one, an upload replaces it.
+ * - RESUME / COVER_LETTER: documents attached to a job application.
+ */
+public enum AttachmentKind {
+    PROFILE_PICTURE,
+    RESUME,
+    COVER_LETTER
+}
@@ -0,0 +1,93 @@
+package com.jobtracker.backend.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * A company job applications are sent to.
+ *
+ * Names are compared by their normalized form (lower case, trimmed, single spaces), which is
+ * unique: "Tech Corp", "tech corp" and " Tech  Corp" are the same company.
+ */
+@Entity
+@Table(name = "companies")
+@Data
+@NoArgsConstructor
+@Schema(description = "Company entity represents a company job applications are sent to")
+public class Company {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Schema(
+        description = "Unique identifier of the company",
+        example = "123e4567-e89b-12d3-a456-426614174000",
+        accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private UUID id;
+
+    @NotBlank(message = "Name is required")
+    @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
+    @Column(nullable = false, length = 100)
+    @Schema(description = "Name of the company", example = "Tech Corp", required = true)
+    private String name;
+
+    // Lookup key for deduplication; see normalize()
+    @Column(name = "normalized_name", nullable = false, unique = true, length = 100)
+    private String normalizedName;
+
+    @Schema(description = "Website of the company", example = "https://techcorp.example")
+    private String website;
+
+    @Column(columnDefinition = "text")
+    @Schema(description = "Description of the company", example = "Builds developer tools")
+    private String description;
+
+    @Column(name = "logo_url")
+    @Schema(description = "URL of the company logo", example = "https://techcorp.example/logo.png")
+    private String logoUrl;
+
+    @Schema(description = "Industry of the company", example = "Software")
+    private String industry;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    @Schema(description = "Size of the company", example = "MEDIUM")
+    private CompanySize size;
+
+    @Column(name = "founded_year")
+    @Schema(description = "Year the company was founded", example = "2010")
+    private Integer foundedYear;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * The deduplication key of a company name: trimmed, lower case, runs of whitespace
+     * collapsed to one space.
+     */
+    public static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,12 @@
+package com.jobtracker.backend.entity;
+
+/**
+ * Headcount bracket of a company.
+ */
+public enum CompanySize {
+    STARTUP,
+    SMALL,
+    MEDIUM,
+    LARGE,
+    ENTERPRISE
+}
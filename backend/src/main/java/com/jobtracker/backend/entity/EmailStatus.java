@@ -0,0 +1,17 @@
+package com.jobtracker.backend.entity;
+
+/**
+ * Where an outbound email is in the mail queue.
+ *
+ * - PENDING: waiting for its next attempt (nextAttemptAt).
+ * - SENDING: claimed by a dispatcher until nextAttemptAt; claimed again after that, in case
+ *   the instance that claimed it died.
+ * - SENT: accepted by the mail server.
+ * - DEAD: rejected for good, or out of attempts (dead letter); kept for inspection and retry.
+ */
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.Table;
+import jakarta.persistence.Index;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.UUID;
 import jakarta.persistence.Id;
@@ -12,15 +13,21 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import org.hibernate.annotations.CreationTimestamp;
 import jakarta.persistence.Column;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.FetchType;
 
 @Entity
-@Table(name = "job_applications")
+// The updated_at index lets the JobApplicationArchiver find old terminal applications
+@Table(name = "job_applications", indexes = {
+    @Index(name = "idx_job_applications_updated", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -68,6 +75,16 @@ public class JobApplication {
     )
     private String company;
 
+    // The Company the name above was resolved to (by normalized name). The name is kept on the
+    // application as well, so reading an application does not need to load the company.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id")
+    @Schema(
+        description = "Company the job application is sent to",
+        accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private Company companyRef;
+
     // The @NotBlank annotation ensures that the field is not null or empty.
     // The @Size annotation ensures that the field is within a specified range of values.
     // The message attribute specifies the error message to be displayed if the validation fails.
@@ -104,6 +121,20 @@ public class JobApplication {
     )
     private String status;
 
+    // Optional application deadline; reminders are scheduled ahead of it by the ReminderService.
+    @Schema(
+        description = "Deadline of the job application",
+        example = "2025-09-01"
+    )
+    private LocalDate deadline;
+
+    // Ordinal of the furthest pipeline stage the application reached (see ApplicationStatus), so
+    // a rejected application still counts for the stages before it; only ever moves forward.
+    // Null for rows written before the column existed: their current status is all there is.
+    @Column(name = "furthest_stage")
+    @Schema(hidden = true)
+    private Integer furthestStage;
+
     // The @CreationTimestamp annotation is used to automatically set the created_at column
     // to the current timestamp when the job application is created.    
     @CreationTimestamp
@@ -127,13 +158,27 @@ public class JobApplication {
     private LocalDateTime updatedAt;
 
 
+    // The owner's ID is mapped as its own column because user_id is the partition key when
+    // job_applications is hash partitioned (see JobApplicationPartitionMigrator). @PartitionKey
+    // makes Hibernate add it to the WHERE clause of its UPDATE and DELETE statements, so
+    // Postgres only touches the owner's partition instead of probing all of them.
+    @PartitionKey
+    @Column(name = "user_id")
+    @Schema(
+        description = "ID of the user who created the job application",
+        example = "123e4567-e89b-12d3-a456-426614174000",
+        accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private UUID userId;
+
     // The @ManyToOne annotation is used to define a many-to-one relationship between the JobApplication
     // entity and the User entity. The @JoinColumn annotation is used to specify the column name in the
     // job_applications table that is used to store the foreign key to the users table. The
     // @Schema annotation is used to provide a description of the user field in the API documentation.
+    // The column is written through userId above, so the association is read-only and lazy.
 
-    @ManyToOne
-    @JoinColumn(name = "user_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
     @Schema(
         description = "User who created the job application",
         example = "123e4567-e89b-12d3-a456-426614174000",
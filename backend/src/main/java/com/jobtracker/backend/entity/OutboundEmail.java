@@ -0,0 +1,73 @@
+package com.jobtracker.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An email in the persistent mail queue (see MailQueue and MailDispatcher).
+ *
+ * - recipientDomain: the part of the recipient after the "@", lower case; the dispatcher
+ *   limits the concurrent connections per domain.
+ * - dedupKey: optional; a second email with the same key is not queued (e.g. "welcome:" and
+ *   the user ID, for events that can be delivered twice).
+ * - attempts / nextAttemptAt / lastError: the retry state.
+ */
+@Entity
+@Table(name = "outbound_emails",
+    uniqueConstraints = @UniqueConstraint(name = "uk_outbound_emails_dedup_key", columnNames = "dedup_key"),
+    indexes = {
+        @Index(name = "idx_outbound_emails_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbound_emails_domain_due", columnList = "recipient_domain, status, next_attempt_at")
+    })
+@Data
+@NoArgsConstructor
+public class OutboundEmail {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
+    @Column(name = "recipient_domain", nullable = false)
+    private String recipientDomain;
+
+    @Column(nullable = false, length = 200)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Column(name = "dedup_key", length = 100)
+    private String dedupKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
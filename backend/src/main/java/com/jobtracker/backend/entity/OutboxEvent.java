@@ -0,0 +1,85 @@
+package com.jobtracker.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A change event written to the outbox table in the same transaction as the change itself.
+ *
+ * Because the event row commits (or rolls back) together with the data, nothing is ever
+ * announced that did not happen, and nothing that happened goes unannounced. The OutboxRelay
+ * reads the table in ID order and delivers the events to in-process subscribers.
+ *
+ * - id: the event's offset; increases with every event and defines the delivery order. IDs
+ *   are taken from the sequence one at a time (allocationSize 1): with blocks of IDs per
+ *   instance, an event written later on one instance could get a lower ID than an earlier
+ *   event of the same aggregate written on another.
+ * - aggregateType / aggregateId: what changed, e.g. "JobApplication" and its ID.
+ * - eventType: CREATED, UPDATED or DELETED.
+ * - payload: the JSON representation (DTO) of the aggregate after the change.
+ * - publishedAt: set once the relay delivered the event; null while it is pending.
+ * - leasedUntil: while set and in the future, a relay instance is delivering the event.
+ * - publishSeq: the relay batch that published the event; batches are numbered in the order
+ *   they were published, which is the order every instance applies them in.
+ * - attempts: deliveries that failed so far.
+ * - deadLetteredAt: set once the event failed "jobtracker.outbox.max-attempts" times. A
+ *   dead-lettered event is no longer pending: it is kept for inspection but never delivered,
+ *   so it does not hold up the events after it.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_pending", columnList = "published_at, id"),
+    @Index(name = "idx_outbox_events_publish_seq", columnList = "publish_seq, id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    @Column(name = "leased_until")
+    private Instant leasedUntil;
+
+    @Column(name = "publish_seq")
+    private Long publishSeq;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "dead_lettered_at")
+    private Instant deadLetteredAt;
+}
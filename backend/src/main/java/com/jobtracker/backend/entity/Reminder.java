@@ -0,0 +1,57 @@
+package com.jobtracker.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A reminder about a job application that is due at a given time.
+ *
+ * The table is the durable copy of what the ReminderService keeps in its timing wheel; it is
+ * only read in full when the application starts. An application has at most one reminder
+ * of each type, which is replaced when the application changes.
+ *
+ * - applicationId / userId: the application the reminder is about and its owner.
+ * - dueAt: when the reminder fires.
+ * - sentAt: set once the reminder was dispatched; null while it is pending.
+ */
+@Entity
+@Table(name = "reminders",
+    uniqueConstraints = @UniqueConstraint(name = "uk_reminders_application_type", columnNames = {"application_id", "type"}),
+    indexes = @Index(name = "idx_reminders_pending", columnList = "sent_at, due_at"))
+@Data
+@NoArgsConstructor
+public class Reminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "application_id", nullable = false)
+    private UUID applicationId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReminderType type;
+
+    @Column(name = "due_at", nullable = false)
+    private Instant dueAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
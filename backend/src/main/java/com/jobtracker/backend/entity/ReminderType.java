@@ -0,0 +1,12 @@
+package com.jobtracker.backend.entity;
+
+/**
+ * Why a reminder was scheduled.
+ *
+ * - DEADLINE: the application's deadline is coming up.
+ * - FOLLOW_UP: the application has been APPLIED for a while without any change.
+ */
+public enum ReminderType {
+    DEADLINE,
+    FOLLOW_UP
+}
@@ -27,7 +27,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 
 @Entity
-@Table(name = "users")
+// The indexes serve the keyset-paginated user listing (sort value, then ID)
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created", columnList = "created_at, id"),
+    @Index(name = "idx_users_name", columnList = "name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
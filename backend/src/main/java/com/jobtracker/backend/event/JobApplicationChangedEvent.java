@@ -0,0 +1,28 @@
+package com.jobtracker.backend.event;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A job application change as pushed to the owner's event stream. It is built from the
+ * JobApplication events of the outbox, written whenever an application is created, updated
+ * or deleted.
+ *
+ * - applicationId / userId: the application and its owner (used to route the event);
+ * - jobApplication: the state after the change, or the last known state for deletions.
+ */
+public record JobApplicationChangedEvent(
+        Type type,
+        UUID applicationId,
+        UUID userId,
+        JobApplicationDTO jobApplication,
+        Instant occurredAt) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
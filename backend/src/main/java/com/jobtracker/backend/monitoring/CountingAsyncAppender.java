@@ -0,0 +1,51 @@
+package com.jobtracker.backend.monitoring;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback's {@link AsyncAppender} with counters for the events it throws away.
+ *
+ * The appender is configured in logback-spring.xml with a bounded queue and
+ * "neverBlock=true", so a slow console or log shipper can never stall a request thread.
+ * The price is that events are dropped when the queue is full, and TRACE/DEBUG/INFO events
+ * are discarded early once the queue passes its discarding threshold. Logback does this
+ * silently; this subclass counts both cases so they can be exposed as metrics.
+ *
+ * Logback creates the appender itself, outside of the Spring context, which is why the
+ * counters are static.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DISCARDED = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isStarted()) {
+            int remaining = getRemainingCapacity();
+            if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+                DISCARDED.increment();
+            } else if (remaining == 0 && isNeverBlock()) {
+                DROPPED.increment();
+            }
+        }
+        super.append(event);
+    }
+
+    /**
+     * Number of low-priority events discarded because the queue was nearly full.
+     */
+    public static long discardedEvents() {
+        return DISCARDED.sum();
+    }
+
+    /**
+     * Number of events dropped because the queue was completely full.
+     */
+    public static long droppedEvents() {
+        return DROPPED.sum();
+    }
+}
@@ -0,0 +1,94 @@
+package com.jobtracker.backend.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs the statements that took longer than a threshold, plus a random sample of the rest.
+ *
+ * This replaces "spring.jpa.show-sql", which printed every statement synchronously to stdout
+ * and became a bottleneck under load. Bind parameters are never written to the log: only
+ * their type (and length for strings) is shown, since they can contain emails, names or
+ * password hashes.
+ *
+ * Slow statements are logged at WARN and sampled ones at INFO on the "jobtracker.sql" logger,
+ * so they can be routed or silenced independently of the application logs.
+ */
+public class SlowQueryLogListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger("jobtracker.sql");
+
+    private final long slowThresholdMs;
+    private final double sampleRate;
+
+    public SlowQueryLogListener(long slowThresholdMs, double sampleRate) {
+        this.slowThresholdMs = slowThresholdMs;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nothing to do before the statement runs
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        if (elapsedMs >= slowThresholdMs) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("slow query elapsedMs={} success={} batchSize={} sql=\"{}\" params={}",
+                    elapsedMs, execInfo.isSuccess(), execInfo.getBatchSize(),
+                    sqlOf(queryInfoList), redactedParameters(queryInfoList));
+            }
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            if (logger.isInfoEnabled()) {
+                logger.info("sampled query elapsedMs={} success={} batchSize={} sql=\"{}\" params={}",
+                    elapsedMs, execInfo.isSuccess(), execInfo.getBatchSize(),
+                    sqlOf(queryInfoList), redactedParameters(queryInfoList));
+            }
+        }
+    }
+
+    private static String sqlOf(List<QueryInfo> queryInfoList) {
+        StringJoiner sql = new StringJoiner("; ");
+        for (QueryInfo queryInfo : queryInfoList) {
+            sql.add(queryInfo.getQuery().replaceAll("\\s+", " ").trim());
+        }
+        return sql.toString();
+    }
+
+    // Renders the bind parameters of the first parameter set as "[String(12), UUID, null]"
+    static String redactedParameters(List<QueryInfo> queryInfoList) {
+        StringJoiner params = new StringJoiner(", ", "[", "]");
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (queryInfo.getParametersList().isEmpty()) {
+                continue;
+            }
+            for (ParameterSetOperation operation : queryInfo.getParametersList().get(0)) {
+                // setNull(index, sqlType): the second argument is the SQL type, not a value
+                Object[] args = operation.getArgs();
+                boolean setNull = ParameterSetOperation.isSetNullParameterOperation(operation);
+                params.add(describe(!setNull && args.length > 1 ? args[1] : null));
+            }
+        }
+        return params.toString();
+    }
+
+    private static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
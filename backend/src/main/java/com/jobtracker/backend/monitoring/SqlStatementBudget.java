@@ -0,0 +1,29 @@
+package com.jobtracker.backend.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements a controller endpoint is allowed to run per request.
+ *
+ * The annotation can be placed on a controller method or on the controller class
+ * (the method wins when both are present). Endpoints without the annotation fall back to
+ * the defaults configured through the "jobtracker.sql-budget.*" properties.
+ *
+ * - maxStatements: the total number of statements the request may execute.
+ * - maxRepeats: how many times the same statement shape (the SQL with all literals and
+ *   bind parameters removed) may run. A low value here is what catches N+1 queries,
+ *   e.g. one "select ... from user_roles where user_id=?" per user.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface SqlStatementBudget {
+
+    int maxStatements();
+
+    int maxRepeats() default 3;
+}
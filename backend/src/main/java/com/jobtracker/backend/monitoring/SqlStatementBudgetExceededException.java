@@ -0,0 +1,14 @@
+package com.jobtracker.backend.monitoring;
+
+/**
+ * Thrown by the {@link SqlStatementCounter} when a request goes over its
+ * {@link SqlStatementBudget} and "jobtracker.sql-budget.fail-on-violation" is enabled.
+ * The tests turn that flag on so an N+1 regression fails the build instead of only
+ * producing a warning in the logs.
+ */
+public class SqlStatementBudgetExceededException extends RuntimeException {
+
+    public SqlStatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
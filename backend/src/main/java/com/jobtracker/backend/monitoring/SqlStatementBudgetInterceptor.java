@@ -0,0 +1,96 @@
+package com.jobtracker.backend.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens a {@link SqlStatementCounter} scope around every controller call and checks the
+ * result against the endpoint's {@link SqlStatementBudget}.
+ *
+ * The endpoint is identified by its HTTP method and URL pattern ("GET /api/users/{id}")
+ * rather than the concrete URL, so all requests to the same handler are aggregated
+ * together in the {@link SqlStatementStatisticsRegistry}.
+ */
+public class SqlStatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetInterceptor.class);
+    private static final String SCOPE_ATTRIBUTE = SqlStatementBudgetInterceptor.class.getName() + ".scope";
+
+    private final SqlStatementCounter counter;
+    private final SqlStatementStatisticsRegistry registry;
+    private final int defaultMaxStatements;
+    private final int defaultMaxRepeats;
+
+    public SqlStatementBudgetInterceptor(SqlStatementCounter counter, SqlStatementStatisticsRegistry registry,
+                                         int defaultMaxStatements, int defaultMaxRepeats) {
+        this.counter = counter;
+        this.registry = registry;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.defaultMaxRepeats = defaultMaxRepeats;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        int maxStatements = defaultMaxStatements;
+        int maxRepeats = defaultMaxRepeats;
+        SqlStatementBudget budget = findBudget(handlerMethod);
+        if (budget != null) {
+            maxStatements = budget.maxStatements();
+            maxRepeats = budget.maxRepeats();
+        }
+        request.setAttribute(SCOPE_ATTRIBUTE, counter.open(endpointOf(request), maxStatements, maxRepeats));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        closeScope(request);
+    }
+
+    // Streaming responses hand the request over to another thread; stop counting on this one
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        closeScope(request);
+    }
+
+    private void closeScope(HttpServletRequest request) {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope)) {
+            return;
+        }
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        scope.close();
+
+        SqlStatementStatistics statistics = scope.getStatistics();
+        registry.record(statistics);
+        if (statistics.isViolated()) {
+            logger.warn("SQL statement budget exceeded: {} totalStatements={} distinctShapes={}",
+                statistics.getViolation(), statistics.getStatementCount(), statistics.getDistinctShapes());
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("SQL statements: endpoint={} statements={} distinctShapes={} maxRepeats={}",
+                statistics.getEndpoint(), statistics.getStatementCount(),
+                statistics.getDistinctShapes(), statistics.getMaxRepeats());
+        }
+    }
+
+    private SqlStatementBudget findBudget(HandlerMethod handlerMethod) {
+        SqlStatementBudget budget = handlerMethod.getMethodAnnotation(SqlStatementBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), SqlStatementBudget.class);
+        }
+        return budget;
+    }
+
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,102 @@
+package com.jobtracker.backend.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts the SQL statements executed for the current unit of work.
+ *
+ * The counter listens on the DataSource proxy (see DataSourceProxyConfig), so it sees every
+ * JDBC statement before it runs: Hibernate's as well as those of the JdbcTemplates. A batch
+ * counts as one statement per SQL text. Each statement is forwarded to the
+ * {@link SqlStatementStatistics} bound to the current thread, if any. Threads without an
+ * open scope (schedulers, startup code) are not counted.
+ *
+ * When "jobtracker.sql-budget.fail-on-violation" is true the statement that breaks the
+ * budget is rejected with a {@link SqlStatementBudgetExceededException}. This is meant for
+ * tests; in production the violation is only logged when the request completes.
+ */
+@Component
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementCounter.class);
+
+    private final ThreadLocal<SqlStatementStatistics> current = new ThreadLocal<>();
+    private final boolean failOnViolation;
+
+    public SqlStatementCounter(@Value("${jobtracker.sql-budget.fail-on-violation:false}") boolean failOnViolation) {
+        this.failOnViolation = failOnViolation;
+    }
+
+    /**
+     * Starts counting statements on the current thread. The returned scope must be closed
+     * (try-with-resources) to unbind the statistics again.
+     */
+    public Scope open(String endpoint, int maxStatements, int maxRepeats) {
+        SqlStatementStatistics statistics = new SqlStatementStatistics(endpoint, maxStatements, maxRepeats);
+        SqlStatementStatistics previous = current.get();
+        current.set(statistics);
+        return new Scope(statistics, previous);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            record(queryInfo.getQuery());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Counted before the statement runs, so a rejected one is never executed
+    }
+
+    /**
+     * Counts the statement in the current scope.
+     */
+    public void record(String sql) {
+        SqlStatementStatistics statistics = current.get();
+        if (statistics == null) {
+            return;
+        }
+        String violation = statistics.record(sql);
+        if (violation != null && failOnViolation) {
+            throw new SqlStatementBudgetExceededException("SQL statement budget exceeded: " + violation);
+        }
+        if (violation != null) {
+            logger.debug("SQL statement budget exceeded: {}", violation);
+        }
+    }
+
+    public class Scope implements AutoCloseable {
+
+        private final SqlStatementStatistics statistics;
+        private final SqlStatementStatistics previous;
+
+        private Scope(SqlStatementStatistics statistics, SqlStatementStatistics previous) {
+            this.statistics = statistics;
+            this.previous = previous;
+        }
+
+        public SqlStatementStatistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public void close() {
+            // Restore the outer scope so nested scopes (e.g. in tests) keep working
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+}
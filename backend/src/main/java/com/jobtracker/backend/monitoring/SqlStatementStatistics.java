@@ -0,0 +1,101 @@
+package com.jobtracker.backend.monitoring;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The statements executed by a single request (or any other unit of work opened with
+ * {@link SqlStatementCounter#open}).
+ *
+ * Every statement is reduced to its "shape": the SQL text with literals, bind parameters
+ * and whitespace normalized. Two statements with the same shape only differ in the values
+ * they were executed with, so a shape that shows up many times in one request is almost
+ * always an N+1 problem.
+ *
+ * Instances are confined to the thread that owns the request and are not thread-safe.
+ */
+public class SqlStatementStatistics {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    // A character class instead of a repeated group: java.util.regex recurses once per
+    // repetition of a group, which overflows the stack on batches of a few thousand keys
+    private static final Pattern IN_LIST = Pattern.compile("in\\s*\\(\\s*\\?[\\s,?]*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String endpoint;
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int statementCount;
+    private String violation;
+
+    public SqlStatementStatistics(String endpoint, int maxStatements, int maxRepeats) {
+        this.endpoint = endpoint;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    /**
+     * Records a statement and returns a description of the budget violation it caused,
+     * or null when the request is still within its budget. Only the first violation
+     * of a request is reported so a loop of N+1 queries produces one warning, not N.
+     */
+    String record(String sql) {
+        statementCount++;
+        String shape = shapeOf(sql);
+        int repeats = shapes.merge(shape, 1, Integer::sum);
+
+        if (violation != null) {
+            return null;
+        }
+        if (statementCount > maxStatements) {
+            violation = "endpoint=" + endpoint + " statements=" + statementCount
+                + " budget=" + maxStatements;
+        } else if (repeats > maxRepeats) {
+            violation = "endpoint=" + endpoint + " repeatedShape=\"" + shape + "\" repeats=" + repeats
+                + " maxRepeats=" + maxRepeats;
+        }
+        return violation;
+    }
+
+    // Normalizes a SQL statement so statements that only differ by their values compare equal.
+    static String shapeOf(String sql) {
+        String shape = sql.toLowerCase(Locale.ROOT);
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        // "in (?, ?, ?)" and "in (?)" are the same query with a different batch size
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public int getDistinctShapes() {
+        return shapes.size();
+    }
+
+    public int getMaxRepeats() {
+        return shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public Map<String, Integer> getShapes() {
+        return Map.copyOf(shapes);
+    }
+
+    public boolean isViolated() {
+        return violation != null;
+    }
+
+    public String getViolation() {
+        return violation;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jobtracker.backend.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the per-request {@link SqlStatementStatistics} by endpoint so we can see which
+ * endpoints are the heaviest database users without reading every log line.
+ */
+@Component
+public class SqlStatementStatisticsRegistry {
+
+    private final Map<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+
+    public void record(SqlStatementStatistics statistics) {
+        endpoints.computeIfAbsent(statistics.getEndpoint(), key -> new EndpointStatistics())
+            .record(statistics);
+    }
+
+    /**
+     * Returns a point-in-time copy of the statistics, sorted by endpoint.
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        endpoints.forEach((endpoint, statistics) -> snapshot.put(endpoint, statistics.snapshot()));
+        return snapshot;
+    }
+
+    public record Snapshot(long requests, long statements, long maxStatementsPerRequest,
+                           double averageStatementsPerRequest, long violations) {
+    }
+
+    private static class EndpointStatistics {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder violations = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        void record(SqlStatementStatistics statistics) {
+            requests.increment();
+            statements.add(statistics.getStatementCount());
+            maxStatements.accumulate(statistics.getStatementCount());
+            if (statistics.isViolated()) {
+                violations.increment();
+            }
+        }
+
+        Snapshot snapshot() {
+            long requestCount = requests.sum();
+            long statementCount = statements.sum();
+            double average = requestCount == 0 ? 0 : (double) statementCount / requestCount;
+            return new Snapshot(requestCount, statementCount, maxStatements.get(), average, violations.sum());
+        }
+    }
+}
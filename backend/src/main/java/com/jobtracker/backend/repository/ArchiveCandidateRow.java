@@ -0,0 +1,17 @@
+package com.jobtracker.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interface projection of a job application that is due to be archived; only what the
+ * archiver needs to page through the candidates and delete them by partition key.
+ */
+public interface ArchiveCandidateRow {
+
+    UUID getId();
+
+    UUID getUserId();
+
+    LocalDateTime getUpdatedAt();
+}
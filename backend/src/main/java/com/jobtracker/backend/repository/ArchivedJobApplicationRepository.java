@@ -0,0 +1,33 @@
+package com.jobtracker.backend.repository;
+
+import com.jobtracker.backend.entity.ArchivedJobApplication;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Data access for archived job applications. Like the hot table, every read is scoped to
+ * the owner.
+ */
+@Repository
+public interface ArchivedJobApplicationRepository extends JpaRepository<ArchivedJobApplication, UUID> {
+
+    List<ArchivedJobApplication> findByUserId(UUID userId);
+
+    Optional<ArchivedJobApplication> findByIdAndUserId(UUID id, UUID userId);
+
+    // Archived applications still count in the dashboard analytics
+    List<JobApplicationRollupRow> findRollupRowsByUserId(UUID userId);
+
+    // Applies a company rename to the archive, like JobApplicationRepositry.renameCompany. Renames
+    // are rare admin operations, so the archive keeps no index on company_id for them.
+    @Modifying
+    @Query("update ArchivedJobApplication a set a.company = :name where a.companyId = :companyId")
+    int renameCompany(@Param("companyId") UUID companyId, @Param("name") String name);
+}
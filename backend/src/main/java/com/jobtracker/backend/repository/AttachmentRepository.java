@@ -0,0 +1,51 @@
+package com.jobtracker.backend.repository;
+
+import com.jobtracker.backend.entity.Attachment;
+import com.jobtracker.backend.entity.AttachmentKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Data access for attachment metadata. Deleting rows never touches the files: contents no
+ * longer referenced by any row are removed by the AttachmentService's garbage collection.
+ */
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, UUID> {
+
+    Optional<Attachment> findByIdAndUserId(UUID id, UUID userId);
+
+    List<Attachment> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    List<Attachment> findByUserIdAndKindOrderByCreatedAtDesc(UUID userId, AttachmentKind kind);
+
+    List<Attachment> findByUserIdAndApplicationIdOrderByCreatedAtDesc(UUID userId, UUID applicationId);
+
+    // The hashes of the batch that are still referenced by a row
+    @Query("select distinct a.sha256 from Attachment a where a.sha256 in :hashes")
+    Set<String> findReferencedHashes(@Param("hashes") Collection<String> hashes);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Attachment a where a.id = :id and a.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Attachment a where a.userId = :userId and a.kind = :kind")
+    int deleteByUserIdAndKind(@Param("userId") UUID userId, @Param("kind") AttachmentKind kind);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Attachment a where a.applicationId = :applicationId")
+    int deleteByApplicationId(@Param("applicationId") UUID applicationId);
+}
@@ -0,0 +1,38 @@
+package com.jobtracker.backend.repository;
+
+import com.jobtracker.backend.entity.Company;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Data access for companies. Companies are looked up by their normalized name when job
+ * applications are linked to them.
+ */
+@Repository
+public interface CompanyRepository extends JpaRepository<Company, UUID> {
+
+    Optional<Company> findByNormalizedName(String normalizedName);
+
+    /**
+     * Inserts the company unless one with the same normalized name exists, including one a
+     * concurrent transaction has just inserted (the statement waits for it to commit instead
+     * of failing on the unique constraint). Returns the number of inserted rows.
+     */
+    @Modifying
+    @Query(value = "insert into companies (id, name, normalized_name, created_at, updated_at) "
+        + "values (:id, :name, :normalizedName, :now, :now) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("name") String name,
+                       @Param("normalizedName") String normalizedName, @Param("now") LocalDateTime now);
+
+    @Query("select c.id as id, c.name as name, count(a.id) as applications "
+        + "from Company c left join JobApplication a on a.companyRef = c group by c.id, c.name")
+    List<CompanyUsageRow> findAllWithApplicationCounts();
+}
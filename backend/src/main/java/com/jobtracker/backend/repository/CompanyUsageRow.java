@@ -0,0 +1,16 @@
+package com.jobtracker.backend.repository;
+
+import java.util.UUID;
+
+/**
+ * A company with the number of job applications linked to it, used to build the
+ * autocomplete index.
+ */
+public interface CompanyUsageRow {
+
+    UUID getId();
+
+    String getName();
+
+    long getApplications();
+}
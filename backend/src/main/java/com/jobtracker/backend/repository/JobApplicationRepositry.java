@@ -1,18 +1,35 @@
 package com.jobtracker.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.jobtracker.backend.entity.Company;
 import java.util.UUID;
 import com.jobtracker.backend.entity.JobApplication;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.springframework.data.domain.Pageable;
 
 
 /**
  * This is the interface for the JobApplicationRepository. 
  * It extends the JpaRepository to provide CRUD operations for JobApplications.
  * 
- * The interface also provides two custom methods, findByTitle and existsByTitle, 
- * which are useful for checking if a job application with a given title already exists in the database.
+ * The interface also provides two custom methods, findByUserIdAndTitle and existsByUserIdAndTitle,
+ * which are useful for checking if a user already has a job application with a given title.
+ *
+ * Every query of a user's applications includes user_id, the partition key when the table is
+ * hash partitioned, so Postgres prunes it to one partition (or a few for findByUserIdIn).
+ * Only the maintenance statements at the end span all partitions: the company statements run
+ * at startup or when a company is renamed and use the company_id index, the archive statements
+ * run in the background and use the updated_at index.
  * 
  * The @Repository annotation is used to indicate that this is a Spring Data JPA repository.
  * 
@@ -21,6 +38,76 @@ import java.util.Optional;
 
 @Repository
 public interface JobApplicationRepositry extends JpaRepository<JobApplication, UUID> {
-    Optional<JobApplication> findByTitle(String title);
-    boolean existsByTitle(String title);
+    Optional<JobApplication> findByUserIdAndTitle(UUID userId, String title);
+    boolean existsByUserIdAndTitle(UUID userId, String title);
+    List<JobApplication> findByUserId(UUID userId);
+    Optional<JobApplication> findByIdAndUserId(UUID id, UUID userId);
+    List<JobApplication> findByUserIdIn(Collection<UUID> userIds);
+    // Updates one of the user's applications and returns it, with the previous values, in one
+    // statement (the self-join reads the row as it was before the update); empty when the user
+    // has no such application. Not a @Modifying query: the "returning" clause returns rows.
+    // "update ... from ... returning" is Postgres only, like the load test that exercises it.
+    // The furthest stage moves forward to :furthestStage; the case expression is the stage of
+    // the previous status (the ordinals of ApplicationStatus), for rows that predate the column.
+    @Transactional
+    @Query(value = "update job_applications a set title = :title, company = :company, company_id = :companyId, "
+        + "location = :location, description = :description, status = :status, deadline = cast(:deadline as date), "
+        + "furthest_stage = greatest(a.furthest_stage, case upper(trim(a.status)) when 'SAVED' then 0 "
+        + "when 'APPLIED' then 1 when 'INTERVIEW' then 2 when 'OFFER' then 3 end, cast(:furthestStage as integer)), "
+        + "updated_at = :updatedAt "
+        + "from job_applications old "
+        + "where a.id = :id and a.user_id = :userId and old.id = a.id and old.user_id = a.user_id "
+        + "returning a.id as \"id\", a.user_id as \"userId\", a.title as \"title\", a.company as \"company\", "
+        + "a.company_id as \"companyId\", a.location as \"location\", a.description as \"description\", "
+        + "a.status as \"status\", a.deadline as \"deadline\", a.furthest_stage as \"furthestStage\", "
+        + "a.created_at as \"createdAt\", a.updated_at as \"updatedAt\", "
+        + "old.title as \"oldTitle\", old.company as \"oldCompany\", old.location as \"oldLocation\", "
+        + "old.description as \"oldDescription\", old.status as \"oldStatus\", old.deadline as \"oldDeadline\", "
+        + "old.furthest_stage as \"oldFurthestStage\"",
+        nativeQuery = true)
+    Optional<JobApplicationUpdateRow> updateAndReturn(@Param("id") UUID id, @Param("userId") UUID userId,
+                                                      @Param("title") String title, @Param("company") String company,
+                                                      @Param("companyId") UUID companyId, @Param("location") String location,
+                                                      @Param("description") String description, @Param("status") String status,
+                                                      @Param("deadline") LocalDate deadline,
+                                                      @Param("furthestStage") Integer furthestStage,
+                                                      @Param("updatedAt") LocalDateTime updatedAt);
+    // Only the columns the analytics rollups are built from
+    List<JobApplicationRollupRow> findRollupRowsByUserId(UUID userId);
+    // Company names of the applications that are not linked to a Company yet
+    @Query("select distinct a.company from JobApplication a where a.companyRef is null")
+    List<String> findUnlinkedCompanyNames();
+    @Transactional
+    @Modifying
+    @Query("update JobApplication a set a.companyRef = :company, a.company = :name where a.companyRef is null and a.company = :unlinkedName")
+    int linkCompany(@Param("unlinkedName") String unlinkedName, @Param("company") Company company, @Param("name") String name);
+    @Transactional
+    @Modifying
+    @Query("update JobApplication a set a.company = :name where a.companyRef = :company")
+    int renameCompany(@Param("company") Company company, @Param("name") String name);
+    // Terminal applications last changed before the cutoff, after the (updatedAt, id) cursor
+    @Query("select a.id as id, a.userId as userId, a.updatedAt as updatedAt from JobApplication a "
+        + "where a.updatedAt < :cutoff and upper(a.status) in :statuses "
+        + "and (a.updatedAt > :afterUpdatedAt or (a.updatedAt = :afterUpdatedAt and a.id > :afterId)) "
+        + "order by a.updatedAt, a.id")
+    List<ArchiveCandidateRow> findArchiveCandidates(@Param("cutoff") LocalDateTime cutoff,
+                                                    @Param("statuses") Collection<String> statuses,
+                                                    @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                                    @Param("afterId") UUID afterId,
+                                                    Pageable pageable);
+    @Modifying
+    @Query("insert into ArchivedJobApplication (id, userId, title, company, companyId, location, description, "
+        + "status, deadline, furthestStage, createdAt, updatedAt, archivedAt) "
+        + "select a.id, a.userId, a.title, a.company, a.companyRef.id, a.location, a.description, "
+        + "a.status, a.deadline, a.furthestStage, a.createdAt, a.updatedAt, :archivedAt from JobApplication a "
+        + "where a.userId in :userIds and a.id in :ids and a.updatedAt < :cutoff and upper(a.status) in :statuses")
+    int copyToArchive(@Param("ids") Collection<UUID> ids, @Param("userIds") Collection<UUID> userIds,
+                      @Param("cutoff") LocalDateTime cutoff, @Param("statuses") Collection<String> statuses,
+                      @Param("archivedAt") Instant archivedAt);
+    // Same conditions as copyToArchive, so an application changed in between is neither copied nor deleted
+    @Modifying
+    @Query("delete from JobApplication a "
+        + "where a.userId in :userIds and a.id in :ids and a.updatedAt < :cutoff and upper(a.status) in :statuses")
+    int deleteArchived(@Param("ids") Collection<UUID> ids, @Param("userIds") Collection<UUID> userIds,
+                       @Param("cutoff") LocalDateTime cutoff, @Param("statuses") Collection<String> statuses);
 }
@@ -0,0 +1,22 @@
+package com.jobtracker.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interface projection with only the columns the analytics rollups need, so rebuilding a
+ * user's rollup does not load whole JobApplication entities.
+ */
+public interface JobApplicationRollupRow {
+
+    UUID getId();
+
+    String getCompany();
+
+    String getStatus();
+
+    // Null for rows that predate the column
+    Integer getFurthestStage();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,51 @@
+package com.jobtracker.backend.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interface projection of a job application as returned by the update statement itself: the
+ * new values, plus the previous values of the fields the history log tracks ("old..."), so
+ * an update needs neither a select before it nor one after it.
+ */
+public interface JobApplicationUpdateRow {
+
+    UUID getId();
+
+    UUID getUserId();
+
+    String getTitle();
+
+    String getCompany();
+
+    UUID getCompanyId();
+
+    String getLocation();
+
+    String getDescription();
+
+    String getStatus();
+
+    LocalDate getDeadline();
+
+    Integer getFurthestStage();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    String getOldTitle();
+
+    String getOldCompany();
+
+    String getOldLocation();
+
+    String getOldDescription();
+
+    String getOldStatus();
+
+    LocalDate getOldDeadline();
+
+    Integer getOldFurthestStage();
+}
@@ -0,0 +1,89 @@
+package com.jobtracker.backend.repository;
+
+import com.jobtracker.backend.entity.EmailStatus;
+import com.jobtracker.backend.entity.OutboundEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Data access for the mail queue. Emails are claimed with "for update skip locked", so
+ * several instances can dispatch from the same table without sending an email twice.
+ */
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, UUID> {
+
+    // Queues the email unless one with the same dedup key exists; returns the rows inserted
+    @Modifying
+    @Query(value = "insert into outbound_emails (id, recipient, recipient_domain, subject, body, dedup_key, status, "
+        + "attempts, next_attempt_at, created_at) values (:id, :recipient, :domain, :subject, :body, :dedupKey, 'PENDING', "
+        + "0, :now, :now) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("recipient") String recipient, @Param("domain") String domain,
+                       @Param("subject") String subject, @Param("body") String body, @Param("dedupKey") String dedupKey,
+                       @Param("now") Instant now);
+
+    // The domains with due emails, oldest first, except those that are busy
+    @Query(value = "select recipient_domain from outbound_emails where status in ('PENDING', 'SENDING') "
+        + "and next_attempt_at <= :now and recipient_domain not in (:busy) "
+        + "group by recipient_domain order by min(next_attempt_at) limit :limit", nativeQuery = true)
+    List<String> findDueDomains(@Param("now") Instant now, @Param("busy") Collection<String> busy, @Param("limit") int limit);
+
+    // Locks up to limit due emails of a domain that no other transaction has locked
+    @Query(value = "select * from outbound_emails where recipient_domain = :domain "
+        + "and status in ('PENDING', 'SENDING') and next_attempt_at <= :now "
+        + "order by next_attempt_at limit :limit for update skip locked", nativeQuery = true)
+    List<OutboundEmail> lockDue(@Param("domain") String domain, @Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboundEmail e set e.status = com.jobtracker.backend.entity.EmailStatus.SENDING, "
+        + "e.nextAttemptAt = :leaseUntil where e.id in :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("leaseUntil") Instant leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboundEmail e set e.status = com.jobtracker.backend.entity.EmailStatus.SENT, "
+        + "e.attempts = e.attempts + 1, e.sentAt = :sentAt, e.lastError = null where e.id in :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboundEmail e set e.status = com.jobtracker.backend.entity.EmailStatus.PENDING, "
+        + "e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error where e.id = :id")
+    int reschedule(@Param("id") UUID id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboundEmail e set e.status = com.jobtracker.backend.entity.EmailStatus.DEAD, "
+        + "e.attempts = e.attempts + 1, e.lastError = :error where e.id = :id")
+    int markDead(@Param("id") UUID id, @Param("error") String error);
+
+    // Puts a dead letter back into the queue with a fresh set of attempts
+    @Transactional
+    @Modifying
+    @Query("update OutboundEmail e set e.status = com.jobtracker.backend.entity.EmailStatus.PENDING, "
+        + "e.attempts = 0, e.nextAttemptAt = :now where e.id = :id "
+        + "and e.status = com.jobtracker.backend.entity.EmailStatus.DEAD")
+    int requeue(@Param("id") UUID id, @Param("now") Instant now);
+
+    Optional<OutboundEmail> findByDedupKey(String dedupKey);
+
+    List<OutboundEmail> findByStatusOrderByCreatedAtDesc(EmailStatus status, Pageable pageable);
+
+    long countByStatus(EmailStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboundEmail e where e.status = com.jobtracker.backend.entity.EmailStatus.SENT "
+        + "and e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Instant cutoff);
+}
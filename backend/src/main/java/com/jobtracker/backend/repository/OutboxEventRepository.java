@@ -0,0 +1,82 @@
+package com.jobtracker.backend.repository;
+
+import com.jobtracker.backend.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data access for the transactional outbox. The relay claims "pending" events (publishedAt
+ * and deadLetteredAt are null) in ID order, which the (published_at, id) index serves directly; every instance
+ * then reads the published events in (publish_seq, id) order from the second index.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events that no other instance holds a lease on. Rows another
+     * transaction has locked are skipped instead of waited for.
+     */
+    @Query(value = "select * from outbox_events where published_at is null and dead_lettered_at is null "
+        + "and (leased_until is null or leased_until < :now) "
+        + "order by id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> lockPending(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.leasedUntil = :leasedUntil where e.id in :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leasedUntil") Instant leasedUntil);
+
+    // Events published after the (publishSeq, id) cursor, in the order they were published
+    @Query("select e from OutboxEvent e where e.publishSeq > :publishSeq "
+        + "or (e.publishSeq = :publishSeq and e.id > :id) order by e.publishSeq, e.id")
+    List<OutboxEvent> findPublishedAfter(@Param("publishSeq") long publishSeq, @Param("id") long id, Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByPublishSeqIsNotNullOrderByPublishSeqDescIdDesc();
+
+    // Used to replay events that were already delivered
+    List<OutboxEvent> findByIdGreaterThanEqualOrderByIdAsc(Long offset, Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullAndDeadLetteredAtIsNullOrderByIdAsc();
+
+    // Pending events of one aggregate type whose payload belongs to the given user
+    @Query(value = "select id from outbox_events where published_at is null and aggregate_type = :aggregateType "
+        + "and cast(payload as jsonb) ->> 'userId' = :userId", nativeQuery = true)
+    List<Long> findPendingIds(@Param("aggregateType") String aggregateType, @Param("userId") String userId);
+
+    long countByPublishedAtIsNullAndDeadLetteredAtIsNull();
+
+    // All events of one call get the same, next publish_seq; the subquery runs once
+    @Transactional
+    @Modifying
+    @Query(value = "update outbox_events set published_at = :publishedAt, leased_until = null, "
+        + "publish_seq = (select coalesce(max(publish_seq), 0) + 1 from outbox_events) "
+        + "where id in (:ids)", nativeQuery = true)
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    // Gives undelivered events back, so the next poll retries them without waiting for the lease
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.leasedUntil = null where e.id in :ids")
+    int releaseLease(@Param("ids") Collection<Long> ids);
+
+    // Counts a failed delivery and gives the event back; deadLetteredAt is set on the last attempt
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.leasedUntil = null, "
+        + "e.deadLetteredAt = :deadLetteredAt where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("deadLetteredAt") Instant deadLetteredAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
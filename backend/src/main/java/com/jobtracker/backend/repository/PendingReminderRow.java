@@ -0,0 +1,22 @@
+package com.jobtracker.backend.repository;
+
+import com.jobtracker.backend.entity.ReminderType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Interface projection of a pending reminder with only what the timing wheel holds. Reading
+ * projections instead of entities keeps the persistence context empty while millions of
+ * reminders are loaded at startup.
+ */
+public interface PendingReminderRow {
+
+    UUID getId();
+
+    UUID getApplicationId();
+
+    ReminderType getType();
+
+    Instant getDueAt();
+}
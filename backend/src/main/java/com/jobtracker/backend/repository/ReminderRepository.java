@@ -0,0 +1,60 @@
+package com.jobtracker.backend.repository;
+
+import com.jobtracker.backend.entity.Reminder;
+import com.jobtracker.backend.entity.ReminderType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Data access for reminders. Pending reminders are streamed once at startup; after that
+ * reminders are only written, and claimed by ID when they fire. Claiming uses "for update
+ * skip locked", so several instances firing the same reminder send it once.
+ */
+@Repository
+public interface ReminderRepository extends JpaRepository<Reminder, UUID> {
+
+    // Streamed with a fetch size, so the driver does not buffer the whole result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PendingReminderRow> streamBySentAtIsNull();
+
+    // Locks the reminders among ids that are still pending and that no other transaction has locked
+    @Query(value = "select * from reminders where id in (:ids) and sent_at is null for update skip locked",
+        nativeQuery = true)
+    List<Reminder> lockPending(@Param("ids") Collection<UUID> ids);
+
+    // Locks up to limit pending reminders that were due before dueBefore, oldest first
+    @Query(value = "select * from reminders where sent_at is null and due_at < :dueBefore "
+        + "order by due_at limit :limit for update skip locked", nativeQuery = true)
+    List<Reminder> lockOverdue(@Param("dueBefore") Instant dueBefore, @Param("limit") int limit);
+
+    Optional<Reminder> findByApplicationIdAndType(UUID applicationId, ReminderType type);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Reminder r where r.applicationId = :applicationId")
+    int deleteByApplicationId(@Param("applicationId") UUID applicationId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Reminder r where r.applicationId = :applicationId and r.type = :type and r.sentAt is null")
+    int deletePending(@Param("applicationId") UUID applicationId, @Param("type") ReminderType type);
+
+    @Transactional
+    @Modifying
+    @Query("update Reminder r set r.sentAt = :sentAt where r.id in :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") Instant sentAt);
+}
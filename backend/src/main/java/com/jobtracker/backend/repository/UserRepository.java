@@ -1,9 +1,16 @@
 package com.jobtracker.backend.repository;
 
 import com.jobtracker.backend.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -67,6 +74,39 @@ import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // The roles are an eager element collection. Without the entity graph Hibernate loads
+    // them with one extra "select ... from user_roles" per user (an N+1 query); the graph
+    // fetches them in the same statement as the users.
+    @Override
+    @EntityGraph(attributePaths = "role")
+    List<User> findAll();
+
+    @EntityGraph(attributePaths = "role")
+    List<User> findByIdIn(Collection<UUID> ids);
+
     Optional<User> findByEmail(String email);
+    // Only the ID, e.g. to scope job application queries to their owner's partition
+    @Query("select u.id from User u where u.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") String email);
     boolean existsByEmail(String email);
+    // Updates the user and reads it back in one statement; empty when there is no such user.
+    // Not a @Modifying query: the "returning" clause makes the update return rows. Postgres only,
+    // like the load test that exercises it.
+    @Transactional
+    @Query(value = "update users u set name = :name, email = :email where u.id = :id "
+        + "returning u.id as \"id\", u.name as \"name\", u.email as \"email\", u.created_at as \"createdAt\", "
+        + "(select string_agg(r.role, ',' order by r.role) from user_roles r where r.user_id = u.id) as \"roles\"",
+        nativeQuery = true)
+    Optional<UserUpdateRow> updateNameAndEmail(@Param("id") UUID id, @Param("name") String name, @Param("email") String email);
+    // Deletes the user, its roles and its attachment rows in one statement, instead of a select,
+    // then one delete per table. Users that still have job applications, live or archived, are
+    // left alone (the archive has no foreign key that would refuse it); returns 0 then, and when
+    // there is no such user
+    @Modifying
+    @Query(value = "with blocked as (select exists (select 1 from job_applications where user_id = :id) "
+        + "or exists (select 1 from job_applications_archive where user_id = :id) as applications), "
+        + "deleted_roles as (delete from user_roles where user_id = :id and not (select applications from blocked)), "
+        + "deleted_attachments as (delete from attachments where user_id = :id and not (select applications from blocked)) "
+        + "delete from users where id = :id and not (select applications from blocked)", nativeQuery = true)
+    int deleteWithRoles(@Param("id") UUID id);
 }
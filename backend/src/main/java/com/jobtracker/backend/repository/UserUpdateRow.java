@@ -0,0 +1,22 @@
+package com.jobtracker.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interface projection of a user as returned by the update statement itself, so updating a
+ * user does not need a select before or after it.
+ */
+public interface UserUpdateRow {
+
+    UUID getId();
+
+    String getName();
+
+    String getEmail();
+
+    LocalDateTime getCreatedAt();
+
+    // Comma-separated, null when the user has no roles
+    String getRoles();
+}
@@ -0,0 +1,39 @@
+package com.jobtracker.backend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+
+/**
+ * The role checks of the application. Roles come from the users' user_roles rows and are
+ * granted as "ROLE_" + name (see UserPrincipal).
+ *
+ * URL-wide rules (e.g. all of /api/mail) are declared in SecurityConfig; this class is for
+ * code that returns different data to admins than to other users.
+ */
+public final class Roles {
+
+    public static final String ADMIN = "ADMIN";
+
+    private static final String ADMIN_AUTHORITY = "ROLE_" + ADMIN;
+
+    private Roles() {
+    }
+
+    /**
+     * Whether the caller has the ADMIN role. Principals that are not a Spring Security
+     * Authentication have no roles.
+     */
+    public static boolean isAdmin(Principal principal) {
+        if (!(principal instanceof Authentication authentication)) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,345 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.DashboardDTO;
+import com.jobtracker.backend.dto.JobApplicationEventDTO;
+import com.jobtracker.backend.entity.ApplicationStatus;
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.entity.User;
+import com.jobtracker.backend.repository.ArchivedJobApplicationRepository;
+import com.jobtracker.backend.repository.JobApplicationRepositry;
+import com.jobtracker.backend.repository.JobApplicationRollupRow;
+import com.jobtracker.backend.repository.OutboxEventRepository;
+import com.jobtracker.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the dashboard analytics of each user as pre-aggregated rollups, so reading the
+ * dashboard never scans the user's job applications.
+ *
+ * How the rollups are kept up to date:
+ * - a user's rollup is built from the job_applications table and its archive the first time
+ *   their dashboard is read (one query each for the user's rows, only the columns needed);
+ * - after that it is updated incrementally from the committed JobApplication change events
+ *   delivered by the OutboxRelay: a create adds the application, a delete takes it back out
+ *   and an update does both, with the previous values the event carries;
+ * - the furthest stage an application reached is stored with it (furthest_stage), so it
+ *   survives evictions and restarts;
+ * - the per-instance subscribers get the events in the order they were published, so a
+ *   rollup only remembers the last one it applied. The rebuild reads that position, and the
+ *   events still pending, from the same snapshot as the rows: events that were already part
+ *   of the rebuild, or that are delivered twice (e.g. after a replay), do not count twice.
+ *
+ * The counters are primitive arrays: a ring of weekly buckets, one slot per status and one
+ * per pipeline stage. Neither they nor the work per event depend on the number of
+ * applications of a user; only the top-companies list depends on the number of distinct
+ * companies.
+ */
+@Service
+public class ApplicationAnalyticsService implements OutboxSubscriber {
+
+    // About two years of weekly buckets
+    static final int WEEKS = 104;
+    private static final int TOP_COMPANIES = 10;
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+    private static final ApplicationStatus[] STAGES = Arrays.stream(STATUSES)
+        .filter(ApplicationStatus::isStage).toArray(ApplicationStatus[]::new);
+    private static final String OTHER_STATUS = "OTHER";
+
+    private final JobApplicationRepositry jobApplicationRepositry;
+    private final ArchivedJobApplicationRepository archivedJobApplicationRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate snapshotTemplate;
+    private final Map<UUID, UserRollup> rollups = new ConcurrentHashMap<>();
+    private final Clock clock = Clock.systemDefaultZone();
+
+    // Rollups of other users are dropped when more are loaded and rebuilt when needed again
+    @Value("${jobtracker.analytics.max-users:10000}")
+    private int maxUsers;
+
+    public ApplicationAnalyticsService(JobApplicationRepositry jobApplicationRepositry,
+                                       ArchivedJobApplicationRepository archivedJobApplicationRepository,
+                                       UserRepository userRepository,
+                                       OutboxService outboxService,
+                                       OutboxEventRepository outboxEventRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.jobApplicationRepositry = jobApplicationRepositry;
+        this.archivedJobApplicationRepository = archivedJobApplicationRepository;
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.outboxEventRepository = outboxEventRepository;
+        // A rebuild reads the rows and the outbox position from one snapshot
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Returns the dashboard of the user with the given email, covering the given number of
+     * most recent weeks.
+     */
+    public DashboardDTO getDashboard(String email, int weeks) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        int weekCount = Math.max(1, Math.min(weeks, WEEKS));
+
+        UserRollup rollup = loadRollup(user.getId());
+        synchronized (rollup) {
+            return rollup.toDashboard(weekOf(LocalDate.now(clock)), weekCount);
+        }
+    }
+
+    // The rollups are cached in memory on every instance
+    @Override
+    public boolean isPerInstance() {
+        return true;
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return OutboxService.JOB_APPLICATION.equals(aggregateType);
+    }
+
+    /**
+     * Applies a committed job application change to the owner's rollup. Users whose rollup
+     * is not in memory are skipped; the change is in the table their rollup is built from.
+     */
+    @Override
+    public void onEvent(OutboxEvent outboxEvent) {
+        // Replays also pass events that are not published yet; the relay delivers those later
+        if (outboxEvent.getPublishSeq() == null) {
+            return;
+        }
+        JobApplicationEventDTO jobApplication = outboxService.readPayload(outboxEvent, JobApplicationEventDTO.class);
+        if (jobApplication.getUserId() == null) {
+            return;
+        }
+        UserRollup rollup = rollups.get(jobApplication.getUserId());
+        if (rollup == null) {
+            return;
+        }
+        synchronized (rollup) {
+            // A rollup that is not loaded yet reads the change from the table
+            if (!rollup.loaded || !rollup.advanceTo(outboxEvent.getPublishSeq(), outboxEvent.getId())) {
+                return;
+            }
+            LocalDateTime createdAt = jobApplication.getCreatedAt() != null
+                ? LocalDateTime.parse(jobApplication.getCreatedAt())
+                : LocalDateTime.ofInstant(outboxEvent.getCreatedAt(), clock.getZone());
+            Contribution contribution = Contribution.of(jobApplication.getCompany(), jobApplication.getStatus(),
+                jobApplication.getFurthestStage(), createdAt);
+            if (OutboxService.CREATED.equals(outboxEvent.getEventType())) {
+                rollup.add(contribution);
+            } else if (OutboxService.DELETED.equals(outboxEvent.getEventType())) {
+                rollup.subtract(contribution);
+            } else if (jobApplication.getPreviousStatus() == null) {
+                // Recorded before updates carried their previous values; rebuilt on the next read
+                rollups.remove(jobApplication.getUserId());
+            } else {
+                rollup.subtract(Contribution.of(jobApplication.getPreviousCompany(), jobApplication.getPreviousStatus(),
+                    jobApplication.getPreviousFurthestStage(), createdAt));
+                rollup.add(contribution);
+            }
+        }
+    }
+
+    /**
+     * Drops the rollup of the given user; the next dashboard read rebuilds it from the table.
+     */
+    public void evict(UUID userId) {
+        rollups.remove(userId);
+    }
+
+    private UserRollup loadRollup(UUID userId) {
+        UserRollup rollup = rollups.get(userId);
+        if (rollup == null) {
+            rollup = rollups.computeIfAbsent(userId, key -> new UserRollup());
+            if (rollups.size() > maxUsers) {
+                evictOther(userId);
+            }
+        }
+        // Events that arrive while the rows are read wait for the lock and are applied on top
+        // if the rows do not have their change yet
+        synchronized (rollup) {
+            if (!rollup.loaded) {
+                UserRollup loading = rollup;
+                snapshotTemplate.executeWithoutResult(status -> rebuild(userId, loading));
+                rollup.loaded = true;
+            }
+        }
+        return rollup;
+    }
+
+    // The changes of the events published so far are in the rows, and so are those of the
+    // events that are still pending; any other event changed the rows after the snapshot
+    private void rebuild(UUID userId, UserRollup rollup) {
+        outboxEventRepository.findFirstByPublishSeqIsNotNullOrderByPublishSeqDescIdDesc()
+            .ifPresent(last -> rollup.advanceTo(last.getPublishSeq(), last.getId()));
+        rollup.pendingAtRebuild.addAll(outboxEventRepository.findPendingIds(OutboxService.JOB_APPLICATION, userId.toString()));
+        for (JobApplicationRollupRow row : jobApplicationRepositry.findRollupRowsByUserId(userId)) {
+            rollup.add(Contribution.of(row.getCompany(), row.getStatus(), row.getFurthestStage(), row.getCreatedAt()));
+        }
+        // Finished applications moved to the archive are still part of the history
+        for (JobApplicationRollupRow row : archivedJobApplicationRepository.findRollupRowsByUserId(userId)) {
+            rollup.add(Contribution.of(row.getCompany(), row.getStatus(), row.getFurthestStage(), row.getCreatedAt()));
+        }
+    }
+
+    private void evictOther(UUID keep) {
+        Iterator<UUID> userIds = rollups.keySet().iterator();
+        while (rollups.size() > maxUsers && userIds.hasNext()) {
+            if (!userIds.next().equals(keep)) {
+                userIds.remove();
+            }
+        }
+    }
+
+    // Weeks since the epoch, starting on Mondays (1970-01-01 was a Thursday)
+    static long weekOf(LocalDate date) {
+        return Math.floorDiv(date.toEpochDay() + 3, 7);
+    }
+
+    static LocalDate weekStart(long week) {
+        return LocalDate.ofEpochDay(week * 7 - 3);
+    }
+
+    /**
+     * The counters of one user. Callers synchronize on the instance.
+     */
+    static class UserRollup {
+
+        // Ring of weekly buckets; weekOfSlot tells which week a slot currently counts
+        private final long[] weekOfSlot = new long[WEEKS];
+        private final int[] weekCounts = new int[WEEKS];
+        // One slot per ApplicationStatus plus a last one for statuses it does not know
+        private final int[] statusCounts = new int[STATUSES.length + 1];
+        // reachedStage[i]: applications that got at least as far as STAGES[i]
+        private final int[] reachedStage = new int[STAGES.length];
+        private final Map<String, Integer> companyCounts = new HashMap<>();
+        private int totalApplications;
+        // Outbox position (publishSeq, id) of the last event applied or part of the rebuild
+        private long lastPublishSeq;
+        private long lastEventId;
+        // Events that were pending when the rollup was rebuilt; their changes are in it already
+        private final Set<Long> pendingAtRebuild = new HashSet<>();
+        private boolean loaded;
+
+        UserRollup() {
+            Arrays.fill(weekOfSlot, Long.MIN_VALUE);
+        }
+
+        // Whether the event at the given position still has to be applied. Events arrive in
+        // position order, so one at or before the last position was applied already.
+        boolean advanceTo(long publishSeq, long eventId) {
+            if (pendingAtRebuild.remove(eventId)
+                || publishSeq < lastPublishSeq || (publishSeq == lastPublishSeq && eventId <= lastEventId)) {
+                return false;
+            }
+            lastPublishSeq = publishSeq;
+            lastEventId = eventId;
+            return true;
+        }
+
+        DashboardDTO toDashboard(long currentWeek, int weeks) {
+            DashboardDTO dashboard = new DashboardDTO();
+            dashboard.setTotalApplications(totalApplications);
+
+            Map<String, Integer> byStatus = new LinkedHashMap<>();
+            for (int i = 0; i < STATUSES.length; i++) {
+                byStatus.put(STATUSES[i].name(), statusCounts[i]);
+            }
+            byStatus.put(OTHER_STATUS, statusCounts[STATUSES.length]);
+            dashboard.setApplicationsByStatus(byStatus);
+
+            List<DashboardDTO.WeekCount> perWeek = new ArrayList<>(weeks);
+            for (long week = currentWeek - weeks + 1; week <= currentWeek; week++) {
+                int slot = (int) Math.floorMod(week, WEEKS);
+                perWeek.add(new DashboardDTO.WeekCount(weekStart(week), weekOfSlot[slot] == week ? weekCounts[slot] : 0));
+            }
+            dashboard.setApplicationsPerWeek(perWeek);
+
+            dashboard.setTopCompanies(companyCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_COMPANIES)
+                .map(entry -> new DashboardDTO.CompanyCount(entry.getKey(), entry.getValue()))
+                .toList());
+
+            Map<String, Double> conversionRates = new LinkedHashMap<>();
+            for (int i = 0; i + 1 < STAGES.length; i++) {
+                double rate = reachedStage[i] == 0 ? 0.0 : (double) reachedStage[i + 1] / reachedStage[i];
+                conversionRates.put(STAGES[i].name() + "->" + STAGES[i + 1].name(), rate);
+            }
+            dashboard.setConversionRates(conversionRates);
+            return dashboard;
+        }
+
+        void add(Contribution contribution) {
+            totalApplications++;
+            int slot = (int) Math.floorMod(contribution.week, WEEKS);
+            if (weekOfSlot[slot] < contribution.week) {
+                // The slot still counts a week that has left the ring
+                weekOfSlot[slot] = contribution.week;
+                weekCounts[slot] = 0;
+            }
+            if (weekOfSlot[slot] == contribution.week) {
+                weekCounts[slot]++;
+            }
+            statusCounts[contribution.status]++;
+            for (int i = 0; i <= contribution.furthestStage; i++) {
+                reachedStage[i]++;
+            }
+            if (contribution.company != null) {
+                companyCounts.merge(contribution.company, 1, Integer::sum);
+            }
+        }
+
+        void subtract(Contribution contribution) {
+            totalApplications--;
+            int slot = (int) Math.floorMod(contribution.week, WEEKS);
+            if (weekOfSlot[slot] == contribution.week) {
+                weekCounts[slot]--;
+            }
+            statusCounts[contribution.status]--;
+            for (int i = 0; i <= contribution.furthestStage; i++) {
+                reachedStage[i]--;
+            }
+            if (contribution.company != null) {
+                companyCounts.computeIfPresent(contribution.company, (company, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+
+    }
+
+    // What one application adds to the counters; furthestStage is -1 when it reached none
+    record Contribution(long week, int status, int furthestStage, String company) {
+
+        // The stored furthest stage is null for rows that predate it; then the status tells
+        static Contribution of(String company, String status, Integer furthestStage, LocalDateTime createdAt) {
+            ApplicationStatus parsed = ApplicationStatus.parse(status);
+            Integer stage = ApplicationStatus.furthestStage(furthestStage, status);
+            return new Contribution(weekOf(createdAt.toLocalDate()), parsed == null ? STATUSES.length : parsed.ordinal(),
+                stage == null ? -1 : stage, company);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.jobtracker.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of job application changes, kept in segment files on local disk.
+ *
+ * Layout:
+ * - the log is a directory of segments named after their number (0000000000.log, ...); only
+ *   the newest one is written to, the older ones are sealed;
+ * - each segment is a memory-mapped file of "segment-bytes"; when an entry does not fit any
+ *   more, the segment is sealed and the next one is created (rolled);
+ * - each entry is [payload length][CRC32][payload]: the application ID, the time, who made
+ *   the change and the changed fields, with variable-length integers and null-aware strings.
+ *   A length of 0 marks the end of the written part of a segment.
+ *
+ * An in-memory index maps every application to the positions of its entries (segment number
+ * and offset packed into a long), so reading a timeline only touches its own entries. The
+ * index is rebuilt by scanning the segments when the log is opened; a torn entry at the end
+ * of the newest segment (crash while writing) fails its CRC and is overwritten.
+ *
+ * Maintenance:
+ * - forget() writes a tombstone for a deleted application; compact() rewrites the sealed
+ *   segments without the entries of forgotten applications and without their unused tail;
+ * - deleteSegmentsBefore() drops the sealed segments whose newest entry is older than a cutoff.
+ *
+ * Appends and maintenance take the write lock; reads take the read lock and run concurrently.
+ */
+public class ApplicationHistoryLog implements Closeable {
+
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final byte CHANGE = 0;
+    private static final byte TOMBSTONE = 1;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Map<UUID, Positions> index = new HashMap<>();
+    private final Set<UUID> forgotten = new HashSet<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment active;
+
+    public ApplicationHistoryLog(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        List<Integer> numbers;
+        try (Stream<Path> files = Files.list(directory)) {
+            numbers = files.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(SUFFIX))
+                .map(name -> Integer.parseInt(name.substring(0, name.length() - SUFFIX.length())))
+                .sorted()
+                .toList();
+        }
+        for (int i = 0; i < numbers.size(); i++) {
+            boolean newest = i == numbers.size() - 1;
+            segments.put(numbers.get(i), Segment.map(segmentFile(numbers.get(i)), numbers.get(i), newest ? segmentBytes : 0));
+        }
+        active = segments.isEmpty() ? createSegment(0) : segments.lastEntry().getValue();
+        rebuildIndex();
+    }
+
+    /**
+     * Appends a change. Changes of forgotten applications are ignored.
+     */
+    public void append(Entry entry) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (forgotten.contains(entry.applicationId())) {
+                return;
+            }
+            Encoder encoder = new Encoder();
+            encoder.writeByte(CHANGE);
+            encoder.writeUuid(entry.applicationId());
+            encoder.writeLong(entry.changedAt().toEpochMilli());
+            encoder.writeString(entry.changedBy());
+            encoder.writeVarInt(entry.changes().size());
+            for (FieldChange change : entry.changes()) {
+                encoder.writeString(change.field());
+                encoder.writeString(change.oldValue());
+                encoder.writeString(change.newValue());
+            }
+            int position = write(encoder.toByteArray(), entry.changedAt().toEpochMilli());
+            index.computeIfAbsent(entry.applicationId(), key -> new Positions()).add(pack(active.number, position));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the timeline of a deleted application; its entries are removed from disk by the
+     * next compact().
+     */
+    public void forget(UUID applicationId) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!index.containsKey(applicationId) || forgotten.contains(applicationId)) {
+                return;
+            }
+            Encoder encoder = new Encoder();
+            encoder.writeByte(TOMBSTONE);
+            encoder.writeUuid(applicationId);
+            long now = System.currentTimeMillis();
+            encoder.writeLong(now);
+            write(encoder.toByteArray(), now);
+            index.remove(applicationId);
+            forgotten.add(applicationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the changes of the given application, oldest first.
+     */
+    public List<Entry> read(UUID applicationId) {
+        lock.readLock().lock();
+        try {
+            Positions positions = index.get(applicationId);
+            if (positions == null) {
+                return List.of();
+            }
+            List<Entry> entries = new ArrayList<>(positions.size);
+            for (int i = 0; i < positions.size; i++) {
+                Segment segment = segments.get(segmentOf(positions.values[i]));
+                entries.add(decode(payloadAt(segment.buffer, offsetOf(positions.values[i]))));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the sealed segments that hold entries of forgotten applications or unused
+     * space, oldest first. Returns the number of bytes freed on disk.
+     */
+    public long compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            long freed = 0;
+            for (Segment segment : new ArrayList<>(segments.headMap(active.number).values())) {
+                freed += rewrite(segment);
+            }
+            rebuildIndex();
+            return freed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the sealed segments whose newest entry is older than the cutoff. Returns the
+     * number of deleted segments.
+     */
+    public int deleteSegmentsBefore(Instant cutoff) throws IOException {
+        lock.writeLock().lock();
+        try {
+            int deleted = 0;
+            for (Segment segment : new ArrayList<>(segments.headMap(active.number).values())) {
+                if (segment.newestMillis < cutoff.toEpochMilli()) {
+                    Files.deleteIfExists(segment.file);
+                    segments.remove(segment.number);
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                rebuildIndex();
+            }
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            active.buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the position of the written entry in the active segment
+    private int write(byte[] payload, long millis) throws IOException {
+        int length = HEADER_BYTES + payload.length;
+        if (length > segmentBytes) {
+            throw new IllegalArgumentException("History entry of " + length + " bytes does not fit in a segment");
+        }
+        if (active.size + length > active.buffer.capacity()) {
+            roll();
+        }
+        int position = active.size;
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        // The length goes in last, so a scan never finds a length without its entry
+        active.buffer.put(position + HEADER_BYTES, payload);
+        active.buffer.putInt(position + 4, (int) crc.getValue());
+        active.buffer.putInt(position, payload.length);
+        active.size += length;
+        active.newestMillis = Math.max(active.newestMillis, millis);
+        return position;
+    }
+
+    private void roll() throws IOException {
+        active.buffer.force();
+        active = createSegment(active.number + 1);
+    }
+
+    private Segment createSegment(int number) throws IOException {
+        Segment segment = Segment.map(segmentFile(number), number, segmentBytes);
+        segments.put(number, segment);
+        return segment;
+    }
+
+    private Path segmentFile(int number) {
+        return directory.resolve(String.format("%010d", number) + SUFFIX);
+    }
+
+    // Copies the live entries into a new file that replaces the segment
+    private long rewrite(Segment segment) throws IOException {
+        List<byte[]> kept = new ArrayList<>();
+        int keptBytes = 0;
+        boolean dropped = false;
+        for (int position = 0; position < segment.size; ) {
+            byte[] payload = payloadAt(segment.buffer, position);
+            // Tombstones are dropped with the entries they hide: those are in this or older segments
+            if (payload[0] == TOMBSTONE || forgotten.contains(uuidAt(payload))) {
+                dropped = true;
+            } else {
+                kept.add(payload);
+                keptBytes += HEADER_BYTES + payload.length;
+            }
+            position += HEADER_BYTES + payload.length;
+        }
+        int capacity = segment.buffer.capacity();
+        if (!dropped && keptBytes == capacity) {
+            return 0;
+        }
+        if (kept.isEmpty()) {
+            Files.deleteIfExists(segment.file);
+            segments.remove(segment.number);
+            return capacity;
+        }
+
+        ByteBuffer compacted = ByteBuffer.allocate(keptBytes);
+        CRC32 crc = new CRC32();
+        for (byte[] payload : kept) {
+            crc.reset();
+            crc.update(payload);
+            compacted.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        compacted.flip();
+        Path compacting = segment.file.resolveSibling(segment.file.getFileName() + ".compacting");
+        try (FileChannel channel = FileChannel.open(compacting, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (compacted.hasRemaining()) {
+                channel.write(compacted);
+            }
+            channel.force(true);
+        }
+        Files.move(compacting, segment.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        segments.put(segment.number, Segment.map(segment.file, segment.number, 0));
+        return capacity - keptBytes;
+    }
+
+    private void rebuildIndex() {
+        index.clear();
+        forgotten.clear();
+        for (Segment segment : segments.values()) {
+            scan(segment, segment == active);
+        }
+    }
+
+    // Indexes the valid entries of the segment and finds where its written part ends
+    private void scan(Segment segment, boolean writable) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        segment.newestMillis = Long.MIN_VALUE;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            byte[] payload = payloadAt(buffer, position);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            UUID applicationId = uuidAt(payload);
+            if (payload[0] == TOMBSTONE) {
+                index.remove(applicationId);
+                forgotten.add(applicationId);
+            } else if (!forgotten.contains(applicationId)) {
+                index.computeIfAbsent(applicationId, key -> new Positions()).add(pack(segment.number, position));
+            }
+            segment.newestMillis = Math.max(segment.newestMillis, ByteBuffer.wrap(payload).getLong(17));
+            position += HEADER_BYTES + length;
+        }
+        segment.size = position;
+        if (writable && position + HEADER_BYTES <= buffer.capacity() && buffer.getInt(position) != 0) {
+            // A torn entry; clear its length so the next append starts cleanly
+            buffer.putInt(position, 0);
+        }
+    }
+
+    private static byte[] payloadAt(ByteBuffer buffer, int position) {
+        byte[] payload = new byte[buffer.getInt(position)];
+        buffer.get(position + HEADER_BYTES, payload);
+        return payload;
+    }
+
+    private static UUID uuidAt(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        return new UUID(buffer.getLong(1), buffer.getLong(9));
+    }
+
+    private static Entry decode(byte[] payload) {
+        Decoder decoder = new Decoder(payload);
+        decoder.readByte();
+        UUID applicationId = decoder.readUuid();
+        Instant changedAt = Instant.ofEpochMilli(decoder.readLong());
+        String changedBy = decoder.readString();
+        int count = decoder.readVarInt();
+        List<FieldChange> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            changes.add(new FieldChange(decoder.readString(), decoder.readString(), decoder.readString()));
+        }
+        return new Entry(applicationId, changedAt, changedBy, changes);
+    }
+
+    private static long pack(int segment, int offset) {
+        return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    /**
+     * One change of an application: the fields that changed, by whom and when.
+     */
+    public record Entry(UUID applicationId, Instant changedAt, String changedBy, List<FieldChange> changes) {
+    }
+
+    public record FieldChange(String field, String oldValue, String newValue) {
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final int number;
+        private final MappedByteBuffer buffer;
+        // Bytes written, i.e. where the next entry goes
+        private int size;
+        private long newestMillis = Long.MIN_VALUE;
+
+        private Segment(Path file, int number, MappedByteBuffer buffer) {
+            this.file = file;
+            this.number = number;
+            this.buffer = buffer;
+        }
+
+        // capacity 0 maps a sealed segment read-only at its current size
+        static Segment map(Path file, int number, int capacity) throws IOException {
+            if (capacity == 0) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    return new Segment(file, number, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = Math.max(channel.size(), capacity);
+                return new Segment(file, number, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+    }
+
+    // Offsets of one application's entries; appended in log order
+    private static final class Positions {
+
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+    private static final class Encoder {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+
+        void writeByte(int value) {
+            out.write(value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+
+        void writeUuid(UUID value) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+
+        // Length + 1 first, so 0 can stand for null
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+
+        Decoder(byte[] payload) {
+            this.buffer = ByteBuffer.wrap(payload);
+        }
+
+        byte readByte() {
+            return buffer.get();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        UUID readUuid() {
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(buffer.array(), buffer.position(), length - 1, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length - 1);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.ApplicationChangeDTO;
+import com.jobtracker.backend.entity.JobApplication;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Records the field-level changes of job applications in the {@link ApplicationHistoryLog}
+ * and serves them as a timeline, instead of writing a history row per change.
+ *
+ * - updates are diffed field by field and appended after their transaction commits, so a
+ *   rolled back update leaves no history; long values (descriptions) are cut to
+ *   "jobtracker.history.max-value-length";
+ * - deleting an application forgets its history;
+ * - on "jobtracker.history.maintenance-cron", segments older than
+ *   "jobtracker.history.retention-days" are deleted and the sealed segments are compacted.
+ *
+ * The log lives on the local disk of each instance ("jobtracker.history.dir").
+ */
+@Service
+public class ApplicationHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationHistoryService.class);
+
+    private final ApplicationHistoryLog historyLog;
+    private final int retentionDays;
+    private final int maxValueLength;
+
+    public ApplicationHistoryService(@Value("${jobtracker.history.dir:data/history}") String directory,
+                                     @Value("${jobtracker.history.segment-bytes:8388608}") int segmentBytes,
+                                     @Value("${jobtracker.history.retention-days:730}") int retentionDays,
+                                     @Value("${jobtracker.history.max-value-length:500}") int maxValueLength) throws IOException {
+        this.historyLog = new ApplicationHistoryLog(Path.of(directory), segmentBytes);
+        this.retentionDays = retentionDays;
+        this.maxValueLength = maxValueLength;
+    }
+
+    /**
+     * The fields of a job application whose changes are recorded, by name.
+     */
+    public static Map<String, String> fieldsOf(JobApplication jobApplication) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", jobApplication.getTitle());
+        fields.put("company", jobApplication.getCompany());
+        fields.put("location", jobApplication.getLocation());
+        fields.put("description", jobApplication.getDescription());
+        fields.put("status", jobApplication.getStatus());
+        fields.put("deadline", Objects.toString(jobApplication.getDeadline(), null));
+        return fields;
+    }
+
+    /**
+     * Records the fields that differ between before and after as one change by changedBy,
+     * once the current transaction commits.
+     */
+    public void recordChanges(UUID applicationId, String changedBy, Map<String, String> before, Map<String, String> after) {
+        List<ApplicationHistoryLog.FieldChange> changes = new ArrayList<>();
+        after.forEach((field, newValue) -> {
+            String oldValue = before.get(field);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.add(new ApplicationHistoryLog.FieldChange(field, truncate(oldValue), truncate(newValue)));
+            }
+        });
+        if (changes.isEmpty()) {
+            return;
+        }
+        ApplicationHistoryLog.Entry entry = new ApplicationHistoryLog.Entry(applicationId, Instant.now(), changedBy, changes);
+        afterCommit(() -> {
+            try {
+                historyLog.append(entry);
+            } catch (IOException | RuntimeException e) {
+                // The update is committed; only its history entry is lost
+                logger.warn("Could not record the history of job application {}", applicationId, e);
+            }
+        });
+    }
+
+    /**
+     * Forgets the history of a deleted application once the current transaction commits.
+     */
+    public void forget(UUID applicationId) {
+        afterCommit(() -> {
+            try {
+                historyLog.forget(applicationId);
+            } catch (IOException e) {
+                logger.warn("Could not forget the history of job application {}", applicationId, e);
+            }
+        });
+    }
+
+    /**
+     * The changes of the given application, oldest first.
+     */
+    public List<ApplicationChangeDTO> getTimeline(UUID applicationId) {
+        return historyLog.read(applicationId).stream()
+            .map(entry -> new ApplicationChangeDTO(entry.changedAt(), entry.changedBy(), entry.changes().stream()
+                .map(change -> new ApplicationChangeDTO.FieldChange(change.field(), change.oldValue(), change.newValue()))
+                .toList()))
+            .toList();
+    }
+
+    @Scheduled(cron = "${jobtracker.history.maintenance-cron:0 0 4 * * *}")
+    public void maintain() {
+        try {
+            int deleted = historyLog.deleteSegmentsBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+            long freed = historyLog.compact();
+            logger.info("History log maintenance: {} expired segments deleted, {} bytes compacted, {} segments left",
+                deleted, freed, historyLog.segmentCount());
+        } catch (IOException e) {
+            logger.error("History log maintenance failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        historyLog.close();
+    }
+
+    private String truncate(String value) {
+        return value == null || value.length() <= maxValueLength ? value : value.substring(0, maxValueLength);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,235 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.AttachmentDTO;
+import com.jobtracker.backend.entity.Attachment;
+import com.jobtracker.backend.entity.AttachmentKind;
+import com.jobtracker.backend.repository.AttachmentRepository;
+import com.jobtracker.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumes, cover letters and profile pictures. The files go to the {@link ContentStore}
+ * ("jobtracker.attachments.dir"), only their metadata to the attachments table.
+ *
+ * - uploads are streamed from the request into the store, never held in memory, and are
+ *   limited to "jobtracker.attachments.max-bytes"; the same content uploaded twice (by anyone)
+ *   is stored once;
+ * - uploading a profile picture replaces the previous one and queues the making of its sized
+ *   variants (see {@link ImageVariantService}), which are read with getVariant();
+ * - deleting an attachment, a job application or a user only deletes rows. On
+ *   "jobtracker.attachments.gc-cron" the contents no longer referenced by any row, and older
+ *   than "jobtracker.attachments.gc-grace-minutes", are deleted from the store.
+ */
+@Service
+public class AttachmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
+
+    private static final int MAX_FILENAME_LENGTH = 255;
+
+    private final AttachmentRepository attachmentRepository;
+    private final UserRepository userRepository;
+    private final JobApplicationService jobApplicationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageVariantService imageVariantService;
+    private final ContentStore contentStore;
+    private final long maxBytes;
+    private final long gcGraceMinutes;
+    private final Duration variantWait;
+
+    public AttachmentService(AttachmentRepository attachmentRepository,
+                             UserRepository userRepository,
+                             JobApplicationService jobApplicationService,
+                             TransactionTemplate transactionTemplate,
+                             ImageVariantService imageVariantService,
+                             @Value("${jobtracker.attachments.dir:data/attachments}") String directory,
+                             @Value("${jobtracker.attachments.max-bytes:10485760}") long maxBytes,
+                             @Value("${jobtracker.attachments.gc-grace-minutes:60}") long gcGraceMinutes,
+                             @Value("${jobtracker.images.wait-timeout-ms:5000}") long variantWaitMs) throws IOException {
+        this.attachmentRepository = attachmentRepository;
+        this.userRepository = userRepository;
+        this.jobApplicationService = jobApplicationService;
+        this.transactionTemplate = transactionTemplate;
+        this.imageVariantService = imageVariantService;
+        this.contentStore = new ContentStore(Path.of(directory));
+        this.maxBytes = maxBytes;
+        this.gcGraceMinutes = gcGraceMinutes;
+        this.variantWait = Duration.ofMillis(variantWaitMs);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Stores an upload and records its metadata. Resumes and cover letters need one of the
+     * owner's job applications (active or archived), profile pictures need an image type and
+     * no application.
+     *
+     * The arguments are checked before the content is read: an IllegalArgumentException means
+     * a bad request, null that the owner has no such job application. A content over the size
+     * limit throws ContentTooLargeException.
+     */
+    public AttachmentDTO upload(String ownerEmail, AttachmentKind kind, UUID applicationId, String filename,
+                                String contentType, InputStream content) throws IOException {
+        MediaType mediaType = parseContentType(contentType);
+        if (kind == AttachmentKind.PROFILE_PICTURE) {
+            if (applicationId != null) {
+                throw new IllegalArgumentException("A profile picture is not attached to a job application");
+            }
+            if (!"image".equals(mediaType.getType())) {
+                throw new IllegalArgumentException("A profile picture must be an image");
+            }
+        } else if (applicationId == null) {
+            throw new IllegalArgumentException("applicationId is required for " + kind);
+        }
+        UUID ownerId = findOwnerId(ownerEmail);
+        if (applicationId != null && jobApplicationService.findJobApplicationById(applicationId, ownerEmail, true) == null) {
+            return null;
+        }
+
+        ContentStore.Stored stored = contentStore.put(content, maxBytes);
+
+        Attachment attachment = new Attachment();
+        attachment.setUserId(ownerId);
+        attachment.setApplicationId(applicationId);
+        attachment.setKind(kind);
+        attachment.setFilename(sanitizeFilename(filename));
+        attachment.setContentType(mediaType.toString());
+        attachment.setSize(stored.size());
+        attachment.setSha256(stored.hash());
+        attachment.setCreatedAt(Instant.now());
+        Attachment saved = transactionTemplate.execute(status -> {
+            if (kind == AttachmentKind.PROFILE_PICTURE) {
+                attachmentRepository.deleteByUserIdAndKind(ownerId, kind);
+            }
+            return attachmentRepository.save(attachment);
+        });
+        if (kind == AttachmentKind.PROFILE_PICTURE) {
+            imageVariantService.generate(stored.hash(), contentStore.path(stored.hash()));
+        }
+        return toAttachmentDTO(saved);
+    }
+
+    /**
+     * The owner's attachments, newest first; only those of one application, or of one kind,
+     * when given.
+     */
+    public List<AttachmentDTO> findAttachments(String ownerEmail, UUID applicationId, AttachmentKind kind) {
+        UUID ownerId = findOwnerId(ownerEmail);
+        List<Attachment> attachments;
+        if (applicationId != null) {
+            attachments = attachmentRepository.findByUserIdAndApplicationIdOrderByCreatedAtDesc(ownerId, applicationId);
+        } else if (kind != null) {
+            attachments = attachmentRepository.findByUserIdAndKindOrderByCreatedAtDesc(ownerId, kind);
+        } else {
+            attachments = attachmentRepository.findByUserIdOrderByCreatedAtDesc(ownerId);
+        }
+        return attachments.stream()
+            .filter(attachment -> kind == null || attachment.getKind() == kind)
+            .map(AttachmentService::toAttachmentDTO)
+            .toList();
+    }
+
+    // Null when the owner has no such attachment
+    public AttachmentDTO findAttachmentById(UUID id, String ownerEmail) {
+        return attachmentRepository.findByIdAndUserId(id, findOwnerId(ownerEmail))
+            .map(AttachmentService::toAttachmentDTO)
+            .orElse(null);
+    }
+
+    /**
+     * The file holding the content of an attachment.
+     */
+    public Path contentPath(AttachmentDTO attachment) {
+        return contentStore.path(attachment.sha256());
+    }
+
+    /**
+     * A sized variant of a profile picture, made now if the background job has not made it yet.
+     * Returns null when it cannot be made within "jobtracker.images.wait-timeout-ms". Throws
+     * IllegalArgumentException for another kind of attachment or an unknown variant, and
+     * UnsupportedImageException when the picture cannot be decoded.
+     */
+    public ImageVariantService.GeneratedVariant getVariant(AttachmentDTO attachment, String variant) throws IOException {
+        if (attachment.kind() != AttachmentKind.PROFILE_PICTURE) {
+            throw new IllegalArgumentException("Only profile pictures have variants");
+        }
+        return imageVariantService.getVariant(attachment.sha256(), contentPath(attachment), variant, variantWait);
+    }
+
+    // False when the owner has no such attachment; the content stays until garbage collection
+    public boolean deleteAttachment(UUID id, String ownerEmail) {
+        return attachmentRepository.deleteByIdAndUserId(id, findOwnerId(ownerEmail)) > 0;
+    }
+
+    @Scheduled(cron = "${jobtracker.attachments.gc-cron:0 30 4 * * *}")
+    public void collectGarbage() {
+        try {
+            Instant cutoff = Instant.now().minus(Duration.ofMinutes(gcGraceMinutes));
+            int deleted = contentStore.collectGarbage(cutoff, attachmentRepository::findReferencedHashes);
+            int orphans = imageVariantService.deleteOrphans(contentStore::contains);
+            logger.info("Attachment garbage collection: {} unreferenced contents and the image variants of {} deleted",
+                deleted, orphans);
+        } catch (IOException e) {
+            logger.error("Attachment garbage collection failed", e);
+        }
+    }
+
+    //Helpers
+
+    private UUID findOwnerId(String ownerEmail) {
+        return userRepository.findIdByEmail(ownerEmail)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private static MediaType parseContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+                throw new IllegalArgumentException("Content-Type must be a concrete media type");
+            }
+            return mediaType;
+        } catch (InvalidMediaTypeException e) {
+            throw new IllegalArgumentException("Invalid Content-Type: " + contentType);
+        }
+    }
+
+    // Only the last path element, without control characters
+    private static String sanitizeFilename(String filename) {
+        if (filename == null) {
+            return "attachment";
+        }
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1)
+            .replaceAll("\\p{Cntrl}", "")
+            .trim();
+        if (name.isEmpty()) {
+            return "attachment";
+        }
+        return name.length() > MAX_FILENAME_LENGTH ? name.substring(0, MAX_FILENAME_LENGTH) : name;
+    }
+
+    private static AttachmentDTO toAttachmentDTO(Attachment attachment) {
+        return new AttachmentDTO(attachment.getId(), attachment.getKind(), attachment.getApplicationId(),
+            attachment.getFilename(), attachment.getContentType(), attachment.getSize(), attachment.getSha256(),
+            attachment.getCreatedAt());
+    }
+}
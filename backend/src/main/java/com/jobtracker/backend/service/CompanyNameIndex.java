@@ -0,0 +1,285 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.Company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory, case-insensitive prefix trie over company names for autocomplete.
+ *
+ * Every node keeps the best suggestions of its whole subtree (most applications first, then
+ * by name), so a lookup only walks the characters of the prefix and copies that list:
+ * its cost depends on the length of the prefix, not on the number of companies.
+ *
+ * - names are indexed by Company.normalize(), so "tech", "Tech" and " TECH" match the same;
+ * - each company is one Entry holding the single copy of its display name, shared by every
+ *   node that suggests it;
+ * - application counts are ranking weights: they go up with new applications and down with
+ *   deleted ones, and are recounted from the database on startup and by
+ *   CompanyService#recountApplications (archived applications, changed companies).
+ *
+ * Lookups take a read lock and run concurrently; changes take the write lock.
+ */
+public class CompanyNameIndex {
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt((Entry entry) -> entry.applications).reversed()
+        .thenComparing(entry -> entry.name, String.CASE_INSENSITIVE_ORDER);
+
+    private final int maxSuggestions;
+    private final Node root = new Node();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CompanyNameIndex(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Adds a company, or renames it if it is already indexed (keeping its count).
+     */
+    public void put(UUID id, String name) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(id);
+            put(id, name, existing == null ? 0 : existing.applications);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a company with the given number of applications.
+     */
+    public void put(UUID id, String name, int applications) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                remove(previous);
+            }
+            Entry entry = new Entry(id, name, Company.normalize(name), applications);
+            entries.put(id, entry);
+            Node node = root;
+            offer(node, entry);
+            for (int i = 0; i < entry.key.length(); i++) {
+                node = node.childOrCreate(entry.key.charAt(i));
+                offer(node, entry);
+            }
+            node.terminal = entry;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts one more application for the company, which may move it up in the suggestions.
+     */
+    public void increment(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return;
+            }
+            entry.applications++;
+            Node node = root;
+            offer(node, entry);
+            for (int i = 0; i < entry.key.length() && node != null; i++) {
+                node = node.child(entry.key.charAt(i));
+                if (node != null) {
+                    offer(node, entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts one application less for the company, which may move it down in the suggestions.
+     */
+    public void decrement(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.applications > 0) {
+                setApplications(id, entry.applications - 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the number of applications of an indexed company; unknown companies are ignored.
+     */
+    public void setApplications(UUID id, int applications) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            // A lower count can drop the entry out of suggestion lists that others have to
+            // refill, which re-adding it does
+            if (entry != null && entry.applications != applications) {
+                put(id, entry.name, applications);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit companies whose normalized name starts with the normalized prefix.
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        String key = Company.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null || node.size == 0) {
+                return List.of();
+            }
+            return List.copyOf(Arrays.asList(node.top).subList(0, Math.min(limit, node.size)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Takes the entry out of its path and refills the suggestion lists it was part of
+    private void remove(Entry entry) {
+        List<Node> path = new ArrayList<>(entry.key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < entry.key.length(); i++) {
+            node = node.child(entry.key.charAt(i));
+            path.add(node);
+        }
+        node.terminal = null;
+        // Bottom up, so each node is rebuilt from children that are already up to date
+        for (int i = path.size() - 1; i >= 0; i--) {
+            rebuild(path.get(i));
+        }
+    }
+
+    private void offer(Node node, Entry entry) {
+        for (int i = 0; i < node.size; i++) {
+            if (node.top[i] == entry) {
+                // Already listed; its count changed, so restore the order
+                Arrays.sort(node.top, 0, node.size, RANKING);
+                return;
+            }
+        }
+        if (node.top == null) {
+            node.top = new Entry[maxSuggestions];
+        }
+        if (node.size < maxSuggestions) {
+            node.top[node.size++] = entry;
+        } else if (RANKING.compare(entry, node.top[node.size - 1]) < 0) {
+            node.top[node.size - 1] = entry;
+        } else {
+            return;
+        }
+        Arrays.sort(node.top, 0, node.size, RANKING);
+    }
+
+    private void rebuild(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+        if (node.terminal != null) {
+            candidates.add(node.terminal);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            Node child = node.children[i];
+            candidates.addAll(Arrays.asList(child.top).subList(0, child.size));
+        }
+        candidates.sort(RANKING);
+        node.size = 0;
+        for (Entry candidate : candidates.subList(0, Math.min(maxSuggestions, candidates.size()))) {
+            node.top[node.size++] = candidate;
+        }
+        Arrays.fill(node.top, node.size, node.top.length, null);
+    }
+
+    /**
+     * A suggested company.
+     */
+    public static final class Entry {
+
+        private final UUID id;
+        private final String name;
+        private final String key;
+        private int applications;
+
+        private Entry(UUID id, String name, String key, int applications) {
+            this.id = id;
+            this.name = name;
+            this.key = key;
+            this.applications = applications;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getApplications() {
+            return applications;
+        }
+    }
+
+    // Children are kept in arrays sorted by character; most nodes have only a few
+    private static final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+        private Entry[] top;
+        private int size;
+        private Entry terminal;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            keys[insertAt] = c;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+    }
+}
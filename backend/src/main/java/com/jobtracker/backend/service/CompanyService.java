@@ -0,0 +1,235 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.CompanyDTO;
+import com.jobtracker.backend.dto.CompanySuggestionDTO;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.entity.Company;
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.repository.ArchivedJobApplicationRepository;
+import com.jobtracker.backend.repository.CompanyRepository;
+import com.jobtracker.backend.repository.CompanyUsageRow;
+import com.jobtracker.backend.repository.JobApplicationRepositry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Manages companies and serves the company name autocomplete.
+ *
+ * Job applications are linked to a Company by the normalized company name; the application
+ * keeps the company's display name as well, so existing clients see no change. On startup,
+ * applications that are not linked yet (e.g. created before companies existed) are
+ * deduplicated into companies, and the {@link CompanyNameIndex} is built.
+ *
+ * The index is kept in sync through the outbox: it adds companies from their CREATED and
+ * UPDATED events and counts applications from the JobApplication CREATED and DELETED
+ * events. Archiving writes no events and an update can move an application to another
+ * company, so the counts are also recounted from the table on
+ * "jobtracker.companies.recount-cron" (after the nightly archive run).
+ *
+ * Renaming a company renames it on every user's applications, so updates are restricted to
+ * admins (see SecurityConfig).
+ */
+@Service
+public class CompanyService implements OutboxSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyService.class);
+
+    private final CompanyRepository companyRepository;
+    private final JobApplicationRepositry jobApplicationRepositry;
+    private final ArchivedJobApplicationRepository archivedJobApplicationRepository;
+    private final OutboxService outboxService;
+    private final CompanyNameIndex companyNameIndex;
+
+    public CompanyService(CompanyRepository companyRepository, JobApplicationRepositry jobApplicationRepositry,
+                          ArchivedJobApplicationRepository archivedJobApplicationRepository, OutboxService outboxService,
+                          @Value("${jobtracker.companies.max-suggestions:10}") int maxSuggestions) {
+        this.companyRepository = companyRepository;
+        this.jobApplicationRepositry = jobApplicationRepositry;
+        this.archivedJobApplicationRepository = archivedJobApplicationRepository;
+        this.outboxService = outboxService;
+        this.companyNameIndex = new CompanyNameIndex(maxSuggestions);
+    }
+
+    /**
+     * Links every job application without a company to the company of its (normalized)
+     * name, creating the companies that do not exist yet, then builds the autocomplete index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void linkApplicationsAndBuildIndex() {
+        List<String> unlinkedNames = jobApplicationRepositry.findUnlinkedCompanyNames();
+        Map<String, Company> byNormalizedName = new HashMap<>();
+        int linked = 0;
+        for (String name : unlinkedNames) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            Company company = byNormalizedName.computeIfAbsent(Company.normalize(name), key -> resolveCompany(name));
+            linked += jobApplicationRepositry.linkCompany(name, company, company.getName());
+        }
+        if (linked > 0) {
+            logger.info("Linked {} job applications to {} companies", linked, byNormalizedName.size());
+        }
+
+        for (CompanyUsageRow row : companyRepository.findAllWithApplicationCounts()) {
+            companyNameIndex.put(row.getId(), row.getName(), (int) row.getApplications());
+        }
+        logger.info("Indexed {} company names for autocomplete", companyNameIndex.size());
+    }
+
+    /**
+     * Sets the application counts of the index to the number of (not archived) applications
+     * per company.
+     */
+    @Scheduled(cron = "${jobtracker.companies.recount-cron:0 0 4 * * *}")
+    @Transactional(readOnly = true)
+    public void recountApplications() {
+        for (CompanyUsageRow row : companyRepository.findAllWithApplicationCounts()) {
+            companyNameIndex.setApplications(row.getId(), (int) row.getApplications());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<CompanyDTO> findAllCompanies() {
+        return companyRepository.findAll().stream().map(this::convertToDTO).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public CompanyDTO findCompanyById(UUID id) {
+        return companyRepository.findById(id)
+            .map(this::convertToDTO)
+            .orElseThrow(() -> new RuntimeException("Company not found"));
+    }
+
+    @Transactional
+    public CompanyDTO createCompany(CompanyDTO companyDTO) {
+        if (companyRepository.findByNormalizedName(Company.normalize(companyDTO.getName())).isPresent()) {
+            throw new RuntimeException("Company already exists");
+        }
+        Company company = new Company();
+        copyFields(companyDTO, company);
+        CompanyDTO created = convertToDTO(companyRepository.save(company));
+        outboxService.record(OutboxService.COMPANY, created.getId(), OutboxService.CREATED, created);
+        return created;
+    }
+
+    // A rename is also applied to the company name stored on the linked job applications,
+    // archived ones included
+    @Transactional
+    public CompanyDTO updateCompany(UUID id, CompanyDTO companyDTO) {
+        Company company = companyRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Company not found"));
+        String normalizedName = Company.normalize(companyDTO.getName());
+        companyRepository.findByNormalizedName(normalizedName)
+            .filter(other -> !other.getId().equals(id))
+            .ifPresent(other -> {
+                throw new RuntimeException("Company already exists");
+            });
+        boolean renamed = !companyDTO.getName().equals(company.getName());
+        copyFields(companyDTO, company);
+        CompanyDTO updated = convertToDTO(companyRepository.save(company));
+        if (renamed) {
+            jobApplicationRepositry.renameCompany(company, company.getName());
+            archivedJobApplicationRepository.renameCompany(company.getId(), company.getName());
+        }
+        outboxService.record(OutboxService.COMPANY, updated.getId(), OutboxService.UPDATED, updated);
+        return updated;
+    }
+
+    /**
+     * Returns the company with the given name, creating it if no company has the same
+     * normalized name. Called from the transaction that saves the job application.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Company resolveCompany(String name) {
+        String normalizedName = Company.normalize(name);
+        return companyRepository.findByNormalizedName(normalizedName).orElseGet(() -> {
+            // Concurrent first applications to the same company insert it only once
+            int inserted = companyRepository.insertIfAbsent(UUID.randomUUID(), name.trim().replaceAll("\\s+", " "),
+                normalizedName, LocalDateTime.now());
+            Company company = companyRepository.findByNormalizedName(normalizedName)
+                .orElseThrow(() -> new RuntimeException("Company not found"));
+            if (inserted > 0) {
+                outboxService.record(OutboxService.COMPANY, company.getId(), OutboxService.CREATED, convertToDTO(company));
+            }
+            return company;
+        });
+    }
+
+    /**
+     * Companies whose name starts with the given prefix, ignoring case, most used first.
+     */
+    public List<CompanySuggestionDTO> suggestCompanies(String prefix, int limit) {
+        return companyNameIndex.suggest(prefix, limit).stream()
+            .map(entry -> new CompanySuggestionDTO(entry.getId(), entry.getName(), entry.getApplications()))
+            .toList();
+    }
+
+    // The autocomplete index is in memory on every instance
+    @Override
+    public boolean isPerInstance() {
+        return true;
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return OutboxService.COMPANY.equals(aggregateType) || OutboxService.JOB_APPLICATION.equals(aggregateType);
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        if (OutboxService.COMPANY.equals(event.getAggregateType())) {
+            CompanyDTO company = outboxService.readPayload(event, CompanyDTO.class);
+            companyNameIndex.put(company.getId(), company.getName());
+        } else if (OutboxService.CREATED.equals(event.getEventType())) {
+            JobApplicationDTO jobApplication = outboxService.readPayload(event, JobApplicationDTO.class);
+            if (jobApplication.getCompanyId() != null) {
+                companyNameIndex.increment(jobApplication.getCompanyId());
+            }
+        } else if (OutboxService.DELETED.equals(event.getEventType())) {
+            JobApplicationDTO jobApplication = outboxService.readPayload(event, JobApplicationDTO.class);
+            if (jobApplication.getCompanyId() != null) {
+                companyNameIndex.decrement(jobApplication.getCompanyId());
+            }
+        }
+    }
+
+    //Helpers
+
+    private CompanyDTO convertToDTO(Company company) {
+        CompanyDTO companyDTO = new CompanyDTO();
+        companyDTO.setId(company.getId());
+        companyDTO.setName(company.getName());
+        companyDTO.setWebsite(company.getWebsite());
+        companyDTO.setDescription(company.getDescription());
+        companyDTO.setLogoUrl(company.getLogoUrl());
+        companyDTO.setIndustry(company.getIndustry());
+        companyDTO.setSize(company.getSize());
+        companyDTO.setFoundedYear(company.getFoundedYear());
+        return companyDTO;
+    }
+
+    private void copyFields(CompanyDTO source, Company target) {
+        target.setName(source.getName().trim().replaceAll("\\s+", " "));
+        target.setNormalizedName(Company.normalize(source.getName()));
+        target.setWebsite(source.getWebsite());
+        target.setDescription(source.getDescription());
+        target.setLogoUrl(source.getLogoUrl());
+        target.setIndustry(source.getIndustry());
+        target.setSize(source.getSize());
+        target.setFoundedYear(source.getFoundedYear());
+    }
+}
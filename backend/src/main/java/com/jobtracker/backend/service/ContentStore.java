@@ -0,0 +1,197 @@
+package com.jobtracker.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed file store on local disk: every content is kept once, in a file named
+ * after its SHA-256, no matter how many times it is stored.
+ *
+ * Layout:
+ * - objects/ab/abcdef...: the contents, spread over 256 directories by the first byte of
+ *   their hash;
+ * - tmp/: uploads in progress. put() streams into a temporary file while it hashes, then
+ *   renames it into objects/ (atomic), or drops it when the content is already there.
+ *   Leftovers of a crash are removed when the store is opened.
+ *
+ * Contents are never overwritten, only created and deleted. Storing a content that already
+ * exists refreshes its modification time, and collectGarbage() only deletes contents older
+ * than its cutoff, so a content deduplicated by an upload that has not recorded its reference
+ * yet is not deleted under it.
+ */
+public class ContentStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int GARBAGE_BATCH = 500;
+
+    private final Path objects;
+    private final Path tmp;
+    // put() deduplicates under the read lock, collectGarbage() deletes under the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ContentStore(Path directory) throws IOException {
+        this.objects = directory.resolve("objects");
+        this.tmp = directory.resolve("tmp");
+        Files.createDirectories(objects);
+        Files.createDirectories(tmp);
+        try (Stream<Path> leftovers = Files.list(tmp)) {
+            for (Iterator<Path> files = leftovers.iterator(); files.hasNext(); ) {
+                Files.deleteIfExists(files.next());
+            }
+        }
+    }
+
+    /**
+     * Streams the content to disk and returns its hash and size. Only one buffer of the
+     * content is in memory at a time. Throws ContentTooLargeException, and keeps nothing,
+     * when the content is longer than maxBytes.
+     */
+    public Stored put(InputStream content, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temporary = Files.createTempFile(tmp, "upload-", ".part");
+        long size = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_BYTES];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new ContentTooLargeException(maxBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+                // The content is referenced from Postgres once put() returns, so it must survive a crash
+                channel.force(true);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            lock.readLock().lock();
+            try {
+                if (Files.exists(target)) {
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                    return new Stored(hash, size, true);
+                }
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Stored by a concurrent upload of the same content
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                    return new Stored(hash, size, true);
+                }
+                return new Stored(hash, size, false);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * The file of a content; it may not exist.
+     */
+    public Path path(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + hash);
+        }
+        return objects.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public boolean contains(String hash) {
+        return Files.exists(path(hash));
+    }
+
+    /**
+     * Deletes the contents last stored before the cutoff that are no longer referenced.
+     * referenced gets a batch of hashes and returns those still in use. Returns the number of
+     * deleted contents.
+     */
+    public int collectGarbage(Instant cutoff, Function<Collection<String>, Set<String>> referenced) throws IOException {
+        int deleted = 0;
+        List<Path> batch = new ArrayList<>(GARBAGE_BATCH);
+        try (Stream<Path> files = Files.find(objects, 2, (file, attributes) -> attributes.isRegularFile()
+                && attributes.lastModifiedTime().toInstant().isBefore(cutoff))) {
+            for (Iterator<Path> candidates = files.iterator(); candidates.hasNext(); ) {
+                Path candidate = candidates.next();
+                if (HASH.matcher(candidate.getFileName().toString()).matches()) {
+                    batch.add(candidate);
+                }
+                if (batch.size() == GARBAGE_BATCH || !candidates.hasNext()) {
+                    deleted += deleteUnreferenced(batch, cutoff, referenced);
+                    batch.clear();
+                }
+            }
+        }
+        return deleted;
+    }
+
+    //Helpers
+
+    private int deleteUnreferenced(List<Path> batch, Instant cutoff, Function<Collection<String>, Set<String>> referenced) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<String> inUse = referenced.apply(batch.stream().map(file -> file.getFileName().toString()).toList());
+        int deleted = 0;
+        for (Path file : batch) {
+            if (inUse.contains(file.getFileName().toString())) {
+                continue;
+            }
+            lock.writeLock().lock();
+            try {
+                // Deduplicated by an upload since the batch was listed: the reference may not be committed yet
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (NoSuchFileException e) {
+                // Already gone
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return deleted;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A stored content. deduplicated is true when the same content was already in the store.
+     */
+    public record Stored(String hash, long size, boolean deduplicated) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.jobtracker.backend.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link ContentStore#put} when a content is longer than the allowed size. Nothing
+ * of the content is kept.
+ */
+public class ContentTooLargeException extends IOException {
+
+    private final long maxBytes;
+
+    public ContentTooLargeException(long maxBytes) {
+        super("Content is larger than " + maxBytes + " bytes");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
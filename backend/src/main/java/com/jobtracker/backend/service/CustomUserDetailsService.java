@@ -22,11 +22,14 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final OutboxService outboxService;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public CustomUserDetailsService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                    OutboxService outboxService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -53,6 +56,8 @@ public class CustomUserDetailsService implements UserDetailsService {
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+    // Transactional so the user and its outbox event are committed together
+    @Transactional
     public UserDTO createUser(UserDTO userDTO, String password) {
         // Create a new User object from the UserDTO object
         User user = new User();
@@ -93,7 +98,8 @@ public class CustomUserDetailsService implements UserDetailsService {
             .map(Enum::name)
             .collect(Collectors.toList());
         result.setRoles(roleNames);
-        
+
+        outboxService.record(OutboxService.USER, result.getId(), OutboxService.CREATED, result);
         return result;
     }
 }
\ No newline at end of file
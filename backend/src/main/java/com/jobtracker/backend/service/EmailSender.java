@@ -0,0 +1,30 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.OutboundEmail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hands queued emails to a mail transport. Called by the {@link MailDispatcher} with emails
+ * of a single recipient domain, which implementations may send over one connection.
+ *
+ * The implementation is chosen with "jobtracker.mail.sender" (see MailConfig): "log" only
+ * logs the emails, "smtp" sends them through Spring's JavaMailSender.
+ */
+public interface EmailSender {
+
+    /**
+     * Sends the emails and returns the failures by email ID; emails not in the result were
+     * accepted. Throwing fails the whole batch as temporary failures.
+     */
+    Map<UUID, Failure> send(List<OutboundEmail> emails);
+
+    /**
+     * Why an email was not sent. Permanent failures (e.g. an invalid address) are not
+     * retried, the email goes straight to the dead letters.
+     */
+    record Failure(boolean permanent, String message) {
+    }
+}
@@ -0,0 +1,395 @@
+package com.jobtracker.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Square, center-cropped variants of profile pictures ("jobtracker.images.variants", e.g.
+ * thumbnail:64), made in the background and cached on disk.
+ *
+ * - Generation runs on a pool of "workers" threads with a queue of "queue-capacity"; when the
+ *   queue is full the request is dropped (jobtracker.images.rejected) and the variants are
+ *   made on the next read instead. Uploads only enqueue, they never wait.
+ * - Concurrent requests for the same content share one generation (one future per hash).
+ * - Decoding is the memory-hungry part. Only the center square is decoded, subsampled to
+ *   about twice the largest variant, and its estimated size is taken from a budget of
+ *   "decode-budget-bytes" before decoding: a burst of large pictures waits for the budget
+ *   instead of filling the heap. Images of more than "max-pixels" are refused.
+ * - The variants are files named after the content hash and variant (dir/ab/abcdef.../
+ *   thumbnail.jpg), so they never go stale; JPEG for opaque pictures, PNG for transparent
+ *   ones. A picture that cannot be decoded gets a "failed" marker instead.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final String FAILED = "failed";
+    // The decoded square plus the first scaled copy, both with int pixels
+    private static final int DECODE_BYTES_PER_PIXEL = 8;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final Path directory;
+    private final Map<String, Integer> variants;
+    private final int largestVariant;
+    private final long maxPixels;
+    private final int decodeBudgetKb;
+    private final Semaphore decodeBudget;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public ImageVariantService(@Value("${jobtracker.images.dir:data/image-variants}") String directory,
+                               @Value("${jobtracker.images.variants:thumbnail:64,small:128,medium:256}") String variants,
+                               @Value("${jobtracker.images.workers:2}") int workers,
+                               @Value("${jobtracker.images.queue-capacity:100}") int queueCapacity,
+                               @Value("${jobtracker.images.decode-budget-bytes:67108864}") long decodeBudgetBytes,
+                               @Value("${jobtracker.images.max-pixels:50000000}") long maxPixels,
+                               MeterRegistry meterRegistry) throws IOException {
+        this(Path.of(directory), variants, newWorkers(workers, queueCapacity), decodeBudgetBytes, maxPixels, meterRegistry);
+    }
+
+    // The workers are passed in by tests
+    ImageVariantService(Path directory, String variants, ThreadPoolExecutor workers, long decodeBudgetBytes,
+                        long maxPixels, MeterRegistry meterRegistry) throws IOException {
+        this.directory = directory;
+        this.variants = parseVariants(variants);
+        this.largestVariant = Collections.max(this.variants.values());
+        this.maxPixels = maxPixels;
+        this.decodeBudgetKb = (int) Math.min(Integer.MAX_VALUE, decodeBudgetBytes / 1024);
+        this.decodeBudget = new Semaphore(decodeBudgetKb, true);
+        this.workers = workers;
+        Files.createDirectories(this.directory);
+        Gauge.builder("jobtracker.images.queued", this.workers, executor -> executor.getQueue().size())
+            .description("Image variant generations waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("jobtracker.images.decode-budget.available", decodeBudget, budget -> budget.availablePermits() * 1024.0)
+            .description("Memory left in the decode budget")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("jobtracker.images.rejected")
+            .description("Image variant generations dropped because the queue was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The variant names with their size in pixels, smallest first.
+     */
+    public Map<String, Integer> getVariants() {
+        return variants;
+    }
+
+    /**
+     * Starts making the variants of an image in the background, unless they exist or are
+     * being made. source is the file of the content with that hash.
+     */
+    public CompletableFuture<Void> generate(String hash, Path source) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(hash, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            workers.execute(() -> {
+                // Removed before completing, so whoever sees the future done also sees it gone
+                try {
+                    generateNow(hash, source);
+                    inFlight.remove(hash, created);
+                    created.complete(null);
+                } catch (Exception | OutOfMemoryError e) {
+                    inFlight.remove(hash, created);
+                    if (!(e instanceof UnsupportedImageException)) {
+                        logger.warn("Could not make the image variants of {}", hash, e);
+                    }
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash, created);
+            rejectedCounter.increment();
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Returns a variant of an image, made first if needed, waiting up to wait for it. Returns
+     * null when it is not ready in time or the workers are saturated. Throws
+     * UnsupportedImageException when the image cannot be decoded, IllegalArgumentException
+     * for an unknown variant.
+     */
+    public GeneratedVariant getVariant(String hash, Path source, String variant, Duration wait) throws IOException {
+        if (!variants.containsKey(variant)) {
+            throw new IllegalArgumentException("Unknown variant '" + variant + "', expected one of " + variants.keySet());
+        }
+        GeneratedVariant generated = findVariant(hash, variant);
+        if (generated != null) {
+            return generated;
+        }
+        try {
+            generate(hash, source).get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return null;
+            }
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Could not make the variants of " + hash, e.getCause());
+        }
+        return findVariant(hash, variant);
+    }
+
+    /**
+     * Deletes the variants of the contents that no longer exist. Returns the number of
+     * contents whose variants were deleted.
+     */
+    public int deleteOrphans(Predicate<String> contentExists) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> contents = Files.find(directory, 2, (path, attributes) -> attributes.isDirectory()
+                && path.getNameCount() == directory.getNameCount() + 2)) {
+            for (Iterator<Path> it = contents.iterator(); it.hasNext(); ) {
+                Path content = it.next();
+                String hash = content.getFileName().toString();
+                if (!inFlight.containsKey(hash) && !contentExists.test(hash)) {
+                    deleteDirectory(content);
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    //Helpers
+
+    private GeneratedVariant findVariant(String hash, String variant) throws IOException {
+        Path content = contentDirectory(hash);
+        for (String extension : List.of("jpg", "png")) {
+            Path file = content.resolve(variant + "." + extension);
+            if (Files.exists(file)) {
+                return new GeneratedVariant(file, extension.equals("jpg") ? "image/jpeg" : "image/png", Files.size(file));
+            }
+        }
+        Path failed = content.resolve(FAILED);
+        if (Files.exists(failed)) {
+            throw new UnsupportedImageException(Files.readString(failed, StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+
+    private void generateNow(String hash, Path source) throws IOException, InterruptedException {
+        boolean missing = false;
+        for (String variant : variants.keySet()) {
+            missing |= findVariant(hash, variant) == null;
+        }
+        if (!missing) {
+            return;
+        }
+        Path content = contentDirectory(hash);
+        Files.createDirectories(content);
+        try {
+            BufferedImage square = decodeCenterSquare(source);
+            boolean alpha = square.getColorModel().hasAlpha();
+            for (Map.Entry<String, Integer> variant : variants.entrySet()) {
+                // Never upscaled
+                BufferedImage scaled = scale(square, Math.min(variant.getValue(), square.getWidth()), alpha);
+                write(scaled, content.resolve(variant.getKey() + (alpha ? ".png" : ".jpg")), alpha);
+            }
+        } catch (UnsupportedImageException e) {
+            Files.writeString(content.resolve(FAILED), e.getMessage(), StandardCharsets.UTF_8);
+            throw e;
+        }
+    }
+
+    private BufferedImage decodeCenterSquare(Path source) throws IOException, InterruptedException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                throw new UnsupportedImageException("Not an image that can be read");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new UnsupportedImageException("Image has more than " + maxPixels + " pixels");
+                }
+                int side = Math.min(width, height);
+                int subsampling = Math.max(1, side / (largestVariant * 2));
+                long decodedSide = (side + subsampling - 1) / subsampling;
+                int budgetKb = (int) Math.min(Integer.MAX_VALUE, (decodedSide * decodedSide * DECODE_BYTES_PER_PIXEL + 1023) / 1024);
+                if (budgetKb > decodeBudgetKb) {
+                    throw new UnsupportedImageException("Image needs more memory to decode than the decode budget");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                decodeBudget.acquire(budgetKb);
+                try {
+                    return reader.read(0, param);
+                } finally {
+                    decodeBudget.release(budgetKb);
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new UnsupportedImageException("Image cannot be decoded: " + e.getMessage());
+            } finally {
+                reader.dispose();
+            }
+        } catch (IIOException e) {
+            throw new UnsupportedImageException("Image cannot be decoded: " + e.getMessage());
+        }
+    }
+
+    // Halves the size step by step, so the bilinear filter keeps the detail of every pixel
+    private static BufferedImage scale(BufferedImage image, int size, boolean alpha) {
+        BufferedImage current = image;
+        int width = image.getWidth();
+        while (width / 2 >= size) {
+            width /= 2;
+            current = draw(current, width, alpha);
+        }
+        return current.getWidth() == size && current != image ? current : draw(current, size, alpha);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int size, boolean alpha) {
+        BufferedImage target = new BufferedImage(size, size, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Written to a temporary file first, so readers never see a partial variant
+    private static void write(BufferedImage image, Path target, boolean alpha) throws IOException {
+        Path temporary = Files.createTempFile(target.getParent(), "variant-", ".part");
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", temporary.toFile());
+            } else {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                    writer.setOutput(output);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static ThreadPoolExecutor newWorkers(int workers, int queueCapacity) {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+            task -> {
+                Thread thread = new Thread(task, "image-variants-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    private Path contentDirectory(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void deleteDirectory(Path content) throws IOException {
+        try (Stream<Path> files = Files.walk(content)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // "thumbnail:64,small:128", ordered by size
+    private static Map<String, Integer> parseVariants(String spec) {
+        Map<String, Integer> parsed = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2 || !parts[0].matches("[a-z0-9-]+") || Integer.parseInt(parts[1].trim()) <= 0) {
+                throw new IllegalArgumentException("Invalid image variant '" + entry + "', expected name:size");
+            }
+            parsed.put(parts[0], Integer.parseInt(parts[1].trim()));
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("No image variants configured");
+        }
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        parsed.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(sorted);
+    }
+
+    /**
+     * A variant file, with its media type and size.
+     */
+    public record GeneratedVariant(Path file, String contentType, long size) {
+    }
+}
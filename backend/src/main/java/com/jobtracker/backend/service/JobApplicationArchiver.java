@@ -0,0 +1,127 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.ApplicationStatus;
+import com.jobtracker.backend.repository.ArchiveCandidateRow;
+import com.jobtracker.backend.repository.JobApplicationRepositry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished job applications out of the hot job_applications table into
+ * job_applications_archive, so the table and its indexes only hold what is still being worked on.
+ *
+ * An application is archived once its status is terminal (REJECTED, CLOSED) and it has not
+ * changed for "jobtracker.archive.after-days". The job runs on "jobtracker.archive.cron" and
+ * works in chunks of "jobtracker.archive.chunk-size": each chunk is copied with one
+ * INSERT ... SELECT and removed with one DELETE in the same short transaction, so readers
+ * always find an application in exactly one of the two tables.
+ *
+ * The candidates are paged with an (updated_at, id) cursor on the updated_at index, so each
+ * chunk starts where the previous one ended instead of rescanning the table.
+ *
+ * Archiving is a storage move, not a change of the application: no outbox event is written,
+ * and the archive still counts in the dashboard analytics.
+ */
+@Service
+public class JobApplicationArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobApplicationArchiver.class);
+
+    private static final Set<String> TERMINAL_STATUSES = Arrays.stream(ApplicationStatus.values())
+        .filter(ApplicationStatus::isTerminal)
+        .map(Enum::name)
+        .collect(Collectors.toUnmodifiableSet());
+
+    private final JobApplicationRepositry jobApplicationRepositry;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jobtracker.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobtracker.archive.after-days:90}")
+    private int afterDays;
+
+    @Value("${jobtracker.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${jobtracker.archive.chunk-pause-ms:100}")
+    private long chunkPauseMs;
+
+    public JobApplicationArchiver(JobApplicationRepositry jobApplicationRepositry,
+                                  TransactionTemplate transactionTemplate) {
+        this.jobApplicationRepositry = jobApplicationRepositry;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${jobtracker.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveFinishedApplications();
+        }
+    }
+
+    /**
+     * Archives every application that is due. Returns the number of archived applications.
+     */
+    public long archiveFinishedApplications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        LocalDateTime afterUpdatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+        UUID afterId = new UUID(0, 0);
+        long archived = 0;
+        while (true) {
+            List<ArchiveCandidateRow> chunk = jobApplicationRepositry.findArchiveCandidates(
+                cutoff, TERMINAL_STATUSES, afterUpdatedAt, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            archived += archive(chunk, cutoff);
+            ArchiveCandidateRow last = chunk.get(chunk.size() - 1);
+            afterUpdatedAt = last.getUpdatedAt();
+            afterId = last.getId();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            try {
+                Thread.sleep(chunkPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (archived > 0) {
+            logger.info("Archived {} job applications finished before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archive(List<ArchiveCandidateRow> chunk, LocalDateTime cutoff) {
+        List<UUID> ids = chunk.stream().map(ArchiveCandidateRow::getId).toList();
+        // The owners narrow both statements down to their partitions
+        Set<UUID> userIds = chunk.stream().map(ArchiveCandidateRow::getUserId).collect(Collectors.toSet());
+        Integer moved = transactionTemplate.execute(status -> {
+            int copied = jobApplicationRepositry.copyToArchive(ids, userIds, cutoff, TERMINAL_STATUSES, Instant.now());
+            int deleted = jobApplicationRepositry.deleteArchived(ids, userIds, cutoff, TERMINAL_STATUSES);
+            if (copied != deleted) {
+                // Something changed the chunk in between; leave it for the next run
+                status.setRollbackOnly();
+                logger.warn("Archive chunk changed while it was moved ({} copied, {} deleted), rolled back", copied, deleted);
+                return 0;
+            }
+            return deleted;
+        });
+        return moved == null ? 0 : moved;
+    }
+}
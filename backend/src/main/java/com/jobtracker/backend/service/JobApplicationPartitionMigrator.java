@@ -0,0 +1,193 @@
+package com.jobtracker.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Converts job_applications into a Postgres table hash partitioned by user_id, online.
+ *
+ * Steps (each one can be re-run, so an interrupted migration is resumed by starting it again):
+ * 1. create job_applications_partitioned with "jobtracker.partitioning.partitions" hash
+ *    partitions and a primary key of (id, user_id), as Postgres requires the partition key
+ *    in every unique constraint, and give it the foreign keys of job_applications (to users
+ *    and companies) under the same names, which LIKE does not copy;
+ * 2. install a trigger on job_applications that mirrors every insert, update and delete into
+ *    the new table, so writes made while the copy runs are not lost;
+ * 3. copy the existing rows in chunks of "jobtracker.partitioning.chunk-size", in ID order,
+ *    each chunk in its own short transaction, pausing "chunk-pause-ms" between chunks;
+ * 4. swap the tables in one short transaction: the old table is kept as
+ *    job_applications_unpartitioned (without its foreign keys) until it is dropped by hand.
+ *
+ * The copy locks the rows of the current chunk FOR SHARE, so a concurrent delete of one of
+ * them waits for the chunk to commit and is then mirrored; concurrent updates are mirrored as
+ * upserts, which always win over the copied (older) version.
+ *
+ * New installations can run it right after Hibernate created the table: the copy is then
+ * empty and only the swap remains. The application only needs the user_id column mapped with
+ * {@code @PartitionKey} (see JobApplication) to get pruned UPDATE and DELETE statements.
+ */
+@Service
+public class JobApplicationPartitionMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobApplicationPartitionMigrator.class);
+
+    private static final String TABLE = "job_applications";
+    private static final String PARTITIONED_TABLE = "job_applications_partitioned";
+    private static final String OLD_TABLE = "job_applications_unpartitioned";
+    private static final String SYNC_FUNCTION = "job_applications_partition_sync";
+    private static final String SYNC_TRIGGER = "job_applications_partition_sync";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jobtracker.partitioning.partitions:16}")
+    private int partitions;
+
+    @Value("${jobtracker.partitioning.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${jobtracker.partitioning.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    public JobApplicationPartitionMigrator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Runs all steps. Does nothing if job_applications is already partitioned.
+     */
+    public void migrate() throws InterruptedException {
+        if (isPartitioned()) {
+            logger.info("{} is already partitioned", TABLE);
+            return;
+        }
+        Long ownerless = jdbcTemplate.queryForObject("select count(*) from " + TABLE + " where user_id is null", Long.class);
+        if (ownerless != null && ownerless > 0) {
+            throw new IllegalStateException(ownerless + " job applications have no user_id; assign or delete them first");
+        }
+
+        List<String> columns = jdbcTemplate.queryForList(
+            "select column_name from information_schema.columns where table_name = ? and table_schema = current_schema() order by ordinal_position",
+            String.class, TABLE);
+        createPartitionedTable();
+        installSyncTrigger(columns);
+        long copied = copyInChunks(columns);
+        swap();
+        logger.info("Partitioned {} into {} partitions ({} rows copied)", TABLE, partitions, copied);
+    }
+
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+            "select count(*) from pg_partitioned_table p join pg_class c on c.oid = p.partrelid "
+                + "where c.relname = ? and pg_table_is_visible(c.oid)", Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    private void createPartitionedTable() {
+        jdbcTemplate.execute("create table if not exists " + PARTITIONED_TABLE
+            + " (like " + TABLE + " including defaults including constraints, primary key (id, user_id))"
+            + " partition by hash (user_id)");
+        for (int remainder = 0; remainder < partitions; remainder++) {
+            jdbcTemplate.execute("create table if not exists " + TABLE + "_p" + remainder
+                + " partition of " + PARTITIONED_TABLE
+                + " for values with (modulus " + partitions + ", remainder " + remainder + ")");
+        }
+        // Created on the parent, so every partition gets its own copy
+        jdbcTemplate.execute("create index if not exists idx_job_applications_user_created on "
+            + PARTITIONED_TABLE + " (user_id, created_at)");
+        jdbcTemplate.execute("create index if not exists idx_job_applications_company on "
+            + PARTITIONED_TABLE + " (company_id)");
+        jdbcTemplate.execute("create index if not exists idx_job_applications_updated_at on "
+            + PARTITIONED_TABLE + " (updated_at)");
+
+        // Before the copy, so every copied row is checked; partitioned tables have no NOT VALID foreign keys
+        String foreignKeys = "select conname, pg_get_constraintdef(oid) as definition from pg_constraint "
+            + "where conrelid = ?::regclass and contype = 'f'";
+        List<String> existing = jdbcTemplate.queryForList(foreignKeys, PARTITIONED_TABLE).stream()
+            .map(foreignKey -> (String) foreignKey.get("conname"))
+            .toList();
+        for (Map<String, Object> foreignKey : jdbcTemplate.queryForList(foreignKeys, TABLE)) {
+            if (!existing.contains(foreignKey.get("conname"))) {
+                jdbcTemplate.execute("alter table " + PARTITIONED_TABLE + " add constraint " + foreignKey.get("conname")
+                    + " " + foreignKey.get("definition"));
+            }
+        }
+    }
+
+    private void installSyncTrigger(List<String> columns) {
+        String columnList = String.join(", ", columns);
+        String newValues = columns.stream().map(column -> "new." + column).collect(Collectors.joining(", "));
+        String updates = columns.stream()
+            .filter(column -> !column.equals("id") && !column.equals("user_id"))
+            .map(column -> column + " = excluded." + column)
+            .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("create or replace function " + SYNC_FUNCTION + "() returns trigger language plpgsql as $$\n"
+            + "begin\n"
+            + "  if tg_op in ('UPDATE', 'DELETE') then\n"
+            + "    delete from " + PARTITIONED_TABLE + " where id = old.id and user_id = old.user_id;\n"
+            + "  end if;\n"
+            + "  if tg_op in ('INSERT', 'UPDATE') then\n"
+            + "    insert into " + PARTITIONED_TABLE + " (" + columnList + ") values (" + newValues + ")\n"
+            + "      on conflict (id, user_id) do update set " + updates + ";\n"
+            + "  end if;\n"
+            + "  return null;\n"
+            + "end $$");
+        jdbcTemplate.execute("drop trigger if exists " + SYNC_TRIGGER + " on " + TABLE);
+        jdbcTemplate.execute("create trigger " + SYNC_TRIGGER + " after insert or update or delete on " + TABLE
+            + " for each row execute function " + SYNC_FUNCTION + "()");
+    }
+
+    // Keyset pagination over the ID; each statement commits on its own
+    private long copyInChunks(List<String> columns) throws InterruptedException {
+        String columnList = String.join(", ", columns);
+        String insert = "insert into " + PARTITIONED_TABLE + " (" + columnList + ") select " + columnList + " from " + TABLE;
+        String lockAndSkipCopied = " order by id for share on conflict (id, user_id) do nothing";
+
+        // The nil UUID sorts first, so the first chunk starts at (and includes) it
+        UUID lowerBound = new UUID(0, 0);
+        String afterLowerBound = "id >= ?";
+        long copied = 0;
+        for (long chunk = 1; ; chunk++) {
+            List<UUID> upperBound = jdbcTemplate.queryForList(
+                "select id from " + TABLE + " where " + afterLowerBound + " order by id offset ? limit 1",
+                UUID.class, lowerBound, chunkSize - 1);
+            if (upperBound.isEmpty()) {
+                return copied + jdbcTemplate.update(insert + " where " + afterLowerBound + lockAndSkipCopied, lowerBound);
+            }
+            copied += jdbcTemplate.update(insert + " where " + afterLowerBound + " and id <= ?" + lockAndSkipCopied,
+                lowerBound, upperBound.get(0));
+            lowerBound = upperBound.get(0);
+            afterLowerBound = "id > ?";
+            if (chunk % 100 == 0) {
+                logger.info("Copied {} job applications into {}", copied, PARTITIONED_TABLE);
+            }
+            Thread.sleep(chunkPauseMs);
+        }
+    }
+
+    private void swap() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Blocks reads and writes for the duration of a few catalog updates
+            jdbcTemplate.execute("lock table " + TABLE + " in access exclusive mode");
+            jdbcTemplate.execute("drop trigger " + SYNC_TRIGGER + " on " + TABLE);
+            jdbcTemplate.execute("alter table " + TABLE + " rename to " + OLD_TABLE);
+            jdbcTemplate.execute("alter table " + PARTITIONED_TABLE + " rename to " + TABLE);
+            // The old copy must not keep users or companies from being deleted
+            for (String constraint : jdbcTemplate.queryForList(
+                "select conname from pg_constraint where conrelid = ?::regclass and contype = 'f'", String.class, OLD_TABLE)) {
+                jdbcTemplate.execute("alter table " + OLD_TABLE + " drop constraint " + constraint);
+            }
+            jdbcTemplate.execute("drop function " + SYNC_FUNCTION + "()");
+        });
+    }
+}
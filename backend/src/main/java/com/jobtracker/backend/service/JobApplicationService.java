@@ -1,12 +1,35 @@
 package com.jobtracker.backend.service;
 
 import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.JobApplicationEventDTO;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
+import com.jobtracker.backend.repository.ArchivedJobApplicationRepository;
+import com.jobtracker.backend.repository.AttachmentRepository;
 import com.jobtracker.backend.repository.JobApplicationRepositry;
+import com.jobtracker.backend.repository.JobApplicationUpdateRow;
 import org.springframework.transaction.annotation.Transactional;
+import com.jobtracker.backend.entity.ApplicationStatus;
+import com.jobtracker.backend.entity.ArchivedJobApplication;
+import com.jobtracker.backend.entity.Company;
 import com.jobtracker.backend.entity.JobApplication;
+import com.jobtracker.backend.repository.UserRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -17,36 +40,287 @@ public class JobApplicationService {
     //We can use the repository to create, read, update and delete data from the database.
 
     private final JobApplicationRepositry jobApplicationRepositry;
+    // The owner of a new job application is looked up by the email of the authenticated user.
+    private final UserRepository userRepository;
+    // Create, update and delete are recorded in the outbox in the same transaction
+    private final OutboxService outboxService;
+    // Company names are resolved to (deduplicated) companies when an application is saved
+    private final CompanyService companyService;
+    // Finished applications moved out of the hot table
+    private final ArchivedJobApplicationRepository archivedJobApplicationRepository;
+    // Field-level changes go to the history log instead of history rows
+    private final ApplicationHistoryService applicationHistoryService;
+    // Resumes and cover letters are deleted with their application
+    private final AttachmentRepository attachmentRepository;
+    // Sparse fieldsets select only the requested columns
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Columns of the fields that can be selected with ?fields= (same in the archive table)
+    private static final Map<String, String> FIELD_COLUMNS = new LinkedHashMap<>();
+    static {
+        FIELD_COLUMNS.put("id", "id");
+        FIELD_COLUMNS.put("title", "title");
+        FIELD_COLUMNS.put("company", "company");
+        FIELD_COLUMNS.put("companyId", "company_id");
+        FIELD_COLUMNS.put("location", "location");
+        FIELD_COLUMNS.put("description", "description");
+        FIELD_COLUMNS.put("status", "status");
+        FIELD_COLUMNS.put("deadline", "deadline");
+        FIELD_COLUMNS.put("createdAt", "created_at");
+        FIELD_COLUMNS.put("updatedAt", "updated_at");
+        FIELD_COLUMNS.put("userId", "user_id");
+    }
+
+    /**
+     * Properties of JobApplicationDTO a client can select with ?fields=.
+     */
+    public static final Set<String> FIELDS;
+    static {
+        Set<String> fields = new LinkedHashSet<>(FIELD_COLUMNS.keySet());
+        // Not a column: which table the row was read from
+        fields.add("archived");
+        FIELDS = Collections.unmodifiableSet(fields);
+    }
     
     @Transactional(readOnly = true)
-    public List<JobApplicationDTO> findAllJobApplications() {
-        return jobApplicationRepositry.findAll().stream().map(this::convertToJobApplicationDTO).collect(Collectors.toList());
+    public List<JobApplicationDTO> findJobApplicationsByOwner(String ownerEmail) {
+        return findJobApplicationsByOwner(ownerEmail, false);
+    }
+
+    // The archive (finished applications, see JobApplicationArchiver) is only read on request
+    @Transactional(readOnly = true)
+    public List<JobApplicationDTO> findJobApplicationsByOwner(String ownerEmail, boolean includeHistory) {
+        UUID ownerId = findOwnerId(ownerEmail);
+        List<JobApplicationDTO> jobApplications = jobApplicationRepositry.findByUserId(ownerId).stream()
+            .map(this::convertToJobApplicationDTO)
+            .collect(Collectors.toList());
+        if (includeHistory) {
+            archivedJobApplicationRepository.findByUserId(ownerId).stream()
+                .map(this::convertToJobApplicationDTO)
+                .forEach(jobApplications::add);
+        }
+        return jobApplications;
+    }
+
+    /**
+     * Like findJobApplicationsByOwner, but reads only the columns of the given fields (see
+     * FIELDS); the other properties of the returned DTOs are left unset.
+     */
+    @Transactional(readOnly = true)
+    public List<JobApplicationDTO> findJobApplicationFieldsByOwner(String ownerEmail, boolean includeHistory, Set<String> fields) {
+        return selectFields(fields, findOwnerId(ownerEmail), null, includeHistory);
     }
 
     @Transactional(readOnly = true)
-    public JobApplicationDTO findJobApplicationById(UUID id) {
-        return jobApplicationRepositry.findById(id).map(this::convertToJobApplicationDTO).orElse(null);
+    public JobApplicationDTO findJobApplicationFieldsById(UUID id, String ownerEmail, boolean includeHistory, Set<String> fields) {
+        List<JobApplicationDTO> found = selectFields(fields, findOwnerId(ownerEmail), id, includeHistory);
+        return found.isEmpty() ? null : found.get(0);
     }
+
+    // Loads the job applications of several users with one "where user_id in (...)" query,
+    // grouped by user. Users without applications get an empty list.
+    @Transactional(readOnly = true)
+    public Map<UUID, List<JobApplicationDTO>> findJobApplicationsByOwners(Collection<UUID> ownerIds) {
+        Map<UUID, List<JobApplicationDTO>> byOwner = new HashMap<>();
+        ownerIds.forEach(ownerId -> byOwner.put(ownerId, new ArrayList<>()));
+        for (JobApplication jobApplication : jobApplicationRepositry.findByUserIdIn(ownerIds)) {
+            byOwner.get(jobApplication.getUserId()).add(convertToJobApplicationDTO(jobApplication));
+        }
+        return byOwner;
+    }
+
+    // Only the owner's applications are found; the owner also selects the partition
+    @Transactional(readOnly = true)
+    public JobApplicationDTO findJobApplicationById(UUID id, String ownerEmail) {
+        return findJobApplicationById(id, ownerEmail, false);
+    }
+
+    @Transactional(readOnly = true)
+    public JobApplicationDTO findJobApplicationById(UUID id, String ownerEmail, boolean includeHistory) {
+        UUID ownerId = findOwnerId(ownerEmail);
+        JobApplicationDTO jobApplication = jobApplicationRepositry.findByIdAndUserId(id, ownerId)
+            .map(this::convertToJobApplicationDTO)
+            .orElse(null);
+        if (jobApplication == null && includeHistory) {
+            jobApplication = archivedJobApplicationRepository.findByIdAndUserId(id, ownerId)
+                .map(this::convertToJobApplicationDTO)
+                .orElse(null);
+        }
+        return jobApplication;
+    }
+    // Creates a job application from the request body and assigns it to the authenticated user
     @Transactional
-    public JobApplication createJobApplication(JobApplication jobApplication) {
-        return jobApplicationRepositry.save(jobApplication);
+    public JobApplicationDTO createJobApplication(JobApplicationDTO jobApplicationDTO, String ownerEmail) {
+        JobApplication jobApplication = new JobApplication();
+        copyFields(jobApplicationDTO, jobApplication);
+        jobApplication.setFurthestStage(ApplicationStatus.furthestStage(null, jobApplication.getStatus()));
+        jobApplication.setUserId(findOwnerId(ownerEmail));
+        // Flushed so the insert sets createdAt and updatedAt before they are copied to the DTO
+        JobApplication saved = jobApplicationRepositry.saveAndFlush(jobApplication);
+        outboxService.record(OutboxService.JOB_APPLICATION, saved.getId(), OutboxService.CREATED, convertToEventDTO(saved));
+        return convertToJobApplicationDTO(saved);
     }
+
+    // Writes the editable fields of the request body with one update statement, which also
+    // returns the previous values for the history log. Returns null if the owner has no
+    // application with that ID.
     @Transactional
-    public JobApplication updateJobApplication(JobApplication jobApplication) {
-        return jobApplicationRepositry.save(jobApplication);
+    public JobApplicationDTO updateJobApplication(UUID id, JobApplicationDTO jobApplicationDTO, String ownerEmail) {
+        Company company = companyService.resolveCompany(jobApplicationDTO.getCompany());
+        JobApplicationUpdateRow row = jobApplicationRepositry.updateAndReturn(id, findOwnerId(ownerEmail),
+                jobApplicationDTO.getTitle(), company.getName(), company.getId(), jobApplicationDTO.getLocation(),
+                jobApplicationDTO.getDescription(), jobApplicationDTO.getStatus(), jobApplicationDTO.getDeadline(),
+                ApplicationStatus.furthestStage(null, jobApplicationDTO.getStatus()), LocalDateTime.now())
+            .orElse(null);
+        if (row == null) {
+            return null;
+        }
+        JobApplication before = new JobApplication();
+        before.setTitle(row.getOldTitle());
+        before.setCompany(row.getOldCompany());
+        before.setLocation(row.getOldLocation());
+        before.setDescription(row.getOldDescription());
+        before.setStatus(row.getOldStatus());
+        before.setDeadline(row.getOldDeadline());
+        JobApplication saved = new JobApplication();
+        saved.setId(row.getId());
+        saved.setUserId(row.getUserId());
+        saved.setTitle(row.getTitle());
+        saved.setCompany(row.getCompany());
+        saved.setCompanyRef(company);
+        saved.setLocation(row.getLocation());
+        saved.setDescription(row.getDescription());
+        saved.setStatus(row.getStatus());
+        saved.setDeadline(row.getDeadline());
+        saved.setFurthestStage(row.getFurthestStage());
+        saved.setCreatedAt(row.getCreatedAt());
+        saved.setUpdatedAt(row.getUpdatedAt());
+        applicationHistoryService.recordChanges(id, ownerEmail, ApplicationHistoryService.fieldsOf(before),
+            ApplicationHistoryService.fieldsOf(saved));
+        JobApplicationEventDTO event = convertToEventDTO(saved);
+        event.setPreviousCompany(row.getOldCompany());
+        event.setPreviousStatus(row.getOldStatus());
+        event.setPreviousFurthestStage(ApplicationStatus.furthestStage(row.getOldFurthestStage(), row.getOldStatus()));
+        outboxService.record(OutboxService.JOB_APPLICATION, saved.getId(), OutboxService.UPDATED, event);
+        return convertToJobApplicationDTO(saved);
     }
+
+    // The application is loaded before it is deleted so the event carries its owner. Returns
+    // false if the owner has no application with that ID.
     @Transactional
-    public void deleteJobApplication(UUID id) {
-        jobApplicationRepositry.deleteById(id);
+    public boolean deleteJobApplication(UUID id, String ownerEmail) {
+        JobApplication jobApplication = jobApplicationRepositry.findByIdAndUserId(id, findOwnerId(ownerEmail)).orElse(null);
+        if (jobApplication == null) {
+            return false;
+        }
+        JobApplicationEventDTO deleted = convertToEventDTO(jobApplication);
+        jobApplicationRepositry.delete(jobApplication);
+        attachmentRepository.deleteByApplicationId(deleted.getId());
+        applicationHistoryService.forget(deleted.getId());
+        outboxService.record(OutboxService.JOB_APPLICATION, deleted.getId(), OutboxService.DELETED, deleted);
+        return true;
     }
     //Helpers
+
+    // One statement for both tables; "archived" is a constant per table
+    private List<JobApplicationDTO> selectFields(Set<String> fields, UUID ownerId, UUID id, boolean includeHistory) {
+        List<String> selected = fields.stream().filter(FIELD_COLUMNS::containsKey).toList();
+        StringBuilder columns = new StringBuilder();
+        selected.forEach(field -> columns.append(FIELD_COLUMNS.get(field)).append(", "));
+        String where = " where user_id = :ownerId" + (id != null ? " and id = :id" : "");
+        String sql = "select " + columns + "false as archived from job_applications" + where;
+        if (includeHistory) {
+            sql += " union all select " + columns + "true as archived from job_applications_archive" + where;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ownerId", ownerId).addValue("id", id);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            JobApplicationDTO jobApplicationDTO = new JobApplicationDTO();
+            for (String field : selected) {
+                setField(jobApplicationDTO, field, rs);
+            }
+            jobApplicationDTO.setArchived(rs.getBoolean("archived"));
+            return jobApplicationDTO;
+        });
+    }
+
+    private static void setField(JobApplicationDTO jobApplicationDTO, String field, ResultSet rs) throws SQLException {
+        String column = FIELD_COLUMNS.get(field);
+        switch (field) {
+            case "id" -> jobApplicationDTO.setId(rs.getObject(column, UUID.class));
+            case "title" -> jobApplicationDTO.setTitle(rs.getString(column));
+            case "company" -> jobApplicationDTO.setCompany(rs.getString(column));
+            case "companyId" -> jobApplicationDTO.setCompanyId(rs.getObject(column, UUID.class));
+            case "location" -> jobApplicationDTO.setLocation(rs.getString(column));
+            case "description" -> jobApplicationDTO.setDescription(rs.getString(column));
+            case "status" -> jobApplicationDTO.setStatus(rs.getString(column));
+            case "deadline" -> jobApplicationDTO.setDeadline(rs.getObject(column, LocalDate.class));
+            // Objects.toString keeps a SQL NULL null instead of turning it into "null"
+            case "createdAt" -> jobApplicationDTO.setCreatedAt(Objects.toString(rs.getObject(column, LocalDateTime.class), null));
+            case "updatedAt" -> jobApplicationDTO.setUpdatedAt(Objects.toString(rs.getObject(column, LocalDateTime.class), null));
+            case "userId" -> jobApplicationDTO.setUserId(rs.getObject(column, UUID.class));
+            default -> throw new IllegalArgumentException("Unknown field " + field);
+        }
+    }
+
+    private UUID findOwnerId(String ownerEmail) {
+        return userRepository.findIdByEmail(ownerEmail)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
     private JobApplicationDTO convertToJobApplicationDTO(JobApplication jobApplication) {
-        JobApplicationDTO jobApplicationDTO = new JobApplicationDTO();
+        return copyTo(jobApplication, new JobApplicationDTO());
+    }
+
+    // The payload of the outbox events; rows that predate furthest_stage get the stage of their status
+    private JobApplicationEventDTO convertToEventDTO(JobApplication jobApplication) {
+        JobApplicationEventDTO event = copyTo(jobApplication, new JobApplicationEventDTO());
+        event.setFurthestStage(ApplicationStatus.furthestStage(jobApplication.getFurthestStage(), jobApplication.getStatus()));
+        return event;
+    }
+
+    private <T extends JobApplicationDTO> T copyTo(JobApplication jobApplication, T jobApplicationDTO) {
         jobApplicationDTO.setId(jobApplication.getId());
         jobApplicationDTO.setTitle(jobApplication.getTitle());
         jobApplicationDTO.setCompany(jobApplication.getCompany());
+        if (jobApplication.getCompanyRef() != null) {
+            jobApplicationDTO.setCompanyId(jobApplication.getCompanyRef().getId());
+        }
+        jobApplicationDTO.setLocation(jobApplication.getLocation());
+        jobApplicationDTO.setDescription(jobApplication.getDescription());
+        jobApplicationDTO.setStatus(jobApplication.getStatus());
+        jobApplicationDTO.setDeadline(jobApplication.getDeadline());
+        jobApplicationDTO.setUserId(jobApplication.getUserId());
         jobApplicationDTO.setCreatedAt(jobApplication.getCreatedAt().toString());  // Convert to String
         jobApplicationDTO.setUpdatedAt(jobApplication.getUpdatedAt().toString());  // Convert to String
         return jobApplicationDTO;
     }
+
+    // Archived applications are read-only; they can only be listed and read
+    private JobApplicationDTO convertToJobApplicationDTO(ArchivedJobApplication archived) {
+        JobApplicationDTO jobApplicationDTO = new JobApplicationDTO();
+        jobApplicationDTO.setId(archived.getId());
+        jobApplicationDTO.setTitle(archived.getTitle());
+        jobApplicationDTO.setCompany(archived.getCompany());
+        jobApplicationDTO.setCompanyId(archived.getCompanyId());
+        jobApplicationDTO.setLocation(archived.getLocation());
+        jobApplicationDTO.setDescription(archived.getDescription());
+        jobApplicationDTO.setStatus(archived.getStatus());
+        jobApplicationDTO.setDeadline(archived.getDeadline());
+        jobApplicationDTO.setUserId(archived.getUserId());
+        jobApplicationDTO.setCreatedAt(archived.getCreatedAt().toString());
+        jobApplicationDTO.setUpdatedAt(archived.getUpdatedAt().toString());
+        jobApplicationDTO.setArchived(true);
+        return jobApplicationDTO;
+    }
+
+    private void copyFields(JobApplicationDTO source, JobApplication target) {
+        target.setTitle(source.getTitle());
+        Company company = companyService.resolveCompany(source.getCompany());
+        target.setCompanyRef(company);
+        target.setCompany(company.getName());
+        target.setLocation(source.getLocation());
+        target.setDescription(source.getDescription());
+        target.setStatus(source.getStatus());
+        target.setDeadline(source.getDeadline());
+    }
 }
@@ -0,0 +1,246 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.entity.User;
+import com.jobtracker.backend.event.JobApplicationChangedEvent;
+import com.jobtracker.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes job application changes to the owner's open Server-Sent Event connections, so the
+ * frontend no longer has to poll the full application list.
+ *
+ * How the connections are held:
+ * - an SseEmitter is an asynchronous servlet response: once the controller returns, the
+ *   Tomcat thread goes back to the pool, so an idle connection costs a socket and a few
+ *   objects, not a thread;
+ * - events are written by short-lived virtual threads that only exist while a connection
+ *   has something to send.
+ *
+ * Every connection has a bounded buffer of pending events, keyed by application ID. When a
+ * consumer is slow, a newer event for the same application replaces the pending one
+ * (the client only needs the latest state), and when the buffer is full the oldest pending
+ * event is dropped. A slow client can therefore never make the server buffer unbounded data.
+ */
+@Service
+public class JobApplicationStreamService implements OutboxSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobApplicationStreamService.class);
+
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final Map<UUID, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    @Value("${jobtracker.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${jobtracker.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public JobApplicationStreamService(UserRepository userRepository, OutboxService outboxService) {
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Opens a new event stream for the user with the given email.
+     */
+    public SseEmitter subscribe(String email) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        return subscribe(user.getId(), new SseEmitter(timeoutMs));
+    }
+
+    // Registers the emitter as a connection of the user
+    SseEmitter subscribe(UUID userId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(userId, emitter, bufferSize);
+        subscriptionsByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(error -> remove(subscription));
+        return emitter;
+    }
+
+    // The event streams are connected to one of the instances
+    @Override
+    public boolean isPerInstance() {
+        return true;
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return OutboxService.JOB_APPLICATION.equals(aggregateType);
+    }
+
+    /**
+     * Receives the committed job application changes from the outbox relay. Offering an
+     * event only touches in-memory buffers, so the relay is never held up by slow clients.
+     */
+    @Override
+    public void onEvent(OutboxEvent outboxEvent) {
+        if (subscriptionsByUser.isEmpty()) {
+            return;
+        }
+        JobApplicationDTO jobApplication = outboxService.readPayload(outboxEvent, JobApplicationDTO.class);
+        onJobApplicationChanged(new JobApplicationChangedEvent(
+            JobApplicationChangedEvent.Type.valueOf(outboxEvent.getEventType()),
+            outboxEvent.getAggregateId(), jobApplication.getUserId(), jobApplication, outboxEvent.getCreatedAt()));
+    }
+
+    /**
+     * Fans an event out to the owner's connections.
+     */
+    public void onJobApplicationChanged(JobApplicationChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        Set<Subscription> subscriptions = subscriptionsByUser.get(event.userId());
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    // Comment lines keep proxies from closing idle connections and detect dead clients
+    @Scheduled(fixedDelayString = "${jobtracker.stream.heartbeat-ms:30000}")
+    public void sendHeartbeats() {
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(Subscription::heartbeat));
+    }
+
+    public int getOpenConnections() {
+        return subscriptionsByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public long getCoalescedEvents() {
+        return coalescedEvents.get();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(s -> s.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptionsByUser.computeIfPresent(subscription.userId, (userId, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    /**
+     * One open connection with its buffer of pending events.
+     */
+    private class Subscription {
+
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final int capacity;
+        // Insertion ordered, so the eldest entry is the oldest pending event
+        private final LinkedHashMap<UUID, JobApplicationChangedEvent> pending = new LinkedHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(UUID userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.capacity = capacity;
+        }
+
+        void offer(JobApplicationChangedEvent event) {
+            synchronized (pending) {
+                if (pending.containsKey(event.applicationId())) {
+                    coalescedEvents.incrementAndGet();
+                } else if (pending.size() >= capacity) {
+                    Iterator<UUID> eldest = pending.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    droppedEvents.incrementAndGet();
+                }
+                pending.put(event.applicationId(), event);
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            if (draining.get()) {
+                return;
+            }
+            senders.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(this);
+                }
+            });
+        }
+
+        // At most one sender per connection, so events are written in order
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                JobApplicationChangedEvent event;
+                synchronized (pending) {
+                    Iterator<JobApplicationChangedEvent> iterator = pending.values().iterator();
+                    if (!iterator.hasNext()) {
+                        draining.set(false);
+                        break;
+                    }
+                    event = iterator.next();
+                    iterator.remove();
+                }
+                try {
+                    emitter.send(SseEmitter.event()
+                        .id(Long.toString(eventIds.incrementAndGet()))
+                        .name(event.type().name())
+                        .data(event.jobApplication()));
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Closing application event stream of user {}: {}", userId, e.getMessage());
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+            // An event may have arrived between the last poll and resetting the flag
+            synchronized (pending) {
+                if (!pending.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.OutboundEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Default {@link EmailSender} for development: logs the emails instead of sending them.
+ */
+public class LoggingEmailSender implements EmailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingEmailSender.class);
+
+    @Override
+    public Map<UUID, Failure> send(List<OutboundEmail> emails) {
+        for (OutboundEmail email : emails) {
+            logger.info("Email to {}: {}", email.getRecipient(), email.getSubject());
+        }
+        return Map.of();
+    }
+}
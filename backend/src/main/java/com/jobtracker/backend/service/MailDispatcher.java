@@ -0,0 +1,290 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.OutboundEmailDTO;
+import com.jobtracker.backend.entity.EmailStatus;
+import com.jobtracker.backend.entity.OutboundEmail;
+import com.jobtracker.backend.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the emails of the mail queue (outbound_emails) with the {@link EmailSender}.
+ *
+ * - Every poll claims due emails per recipient domain, at most "messages-per-connection" at
+ *   a time, and sends each batch on one of "workers" threads (one connection per batch).
+ *   Claiming uses "for update skip locked" and a lease of "lease-seconds", so several
+ *   instances can share the queue; emails of an instance that died are claimed again once
+ *   their lease runs out.
+ * - At most "per-domain-concurrency" batches of a domain are sent at the same time, so a
+ *   slow or throttling mail server of one domain cannot take every worker, nor be flooded.
+ * - A temporary failure is retried after an exponential backoff with jitter (initial-backoff
+ *   doubling per attempt, up to max-backoff). After "max-attempts", or on a permanent failure,
+ *   the email becomes a dead letter (DEAD); it can be queued again with {@link #retry(UUID)}.
+ * - Sent emails are deleted after "retention-days".
+ *
+ * Metrics (Micrometer):
+ * - jobtracker.mail.sent / retried / dead: emails sent, rescheduled and dead-lettered
+ * - jobtracker.mail.busy-workers: workers sending a batch
+ */
+@Service
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final EmailSender emailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int perDomainConcurrency;
+    private final Semaphore freeWorkers;
+    private final ExecutorService executor;
+    private final Map<String, Semaphore> domainPermits = new ConcurrentHashMap<>();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+
+    @Value("${jobtracker.mail.messages-per-connection:20}")
+    private int messagesPerConnection;
+
+    @Value("${jobtracker.mail.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${jobtracker.mail.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${jobtracker.mail.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${jobtracker.mail.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${jobtracker.mail.retention-days:7}")
+    private int retentionDays;
+
+    public MailDispatcher(OutboundEmailRepository outboundEmailRepository, EmailSender emailSender,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${jobtracker.mail.workers:4}") int workers,
+                          @Value("${jobtracker.mail.per-domain-concurrency:2}") int perDomainConcurrency,
+                          MeterRegistry meterRegistry) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.emailSender = emailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.perDomainConcurrency = perDomainConcurrency;
+        this.freeWorkers = new Semaphore(workers);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "mail-dispatcher-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("jobtracker.mail.busy-workers", freeWorkers, permits -> workers - permits.availablePermits())
+            .description("Mail workers sending a batch")
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder("jobtracker.mail.sent")
+            .description("Emails accepted by the mail server")
+            .register(meterRegistry);
+        this.retriedCounter = Counter.builder("jobtracker.mail.retried")
+            .description("Emails that failed temporarily and were rescheduled")
+            .register(meterRegistry);
+        this.deadCounter = Counter.builder("jobtracker.mail.dead")
+            .description("Emails moved to the dead letters")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Claims due emails and hands them to the workers, as long as workers are free. Returns
+     * the number of emails handed over.
+     */
+    @Scheduled(fixedDelayString = "${jobtracker.mail.poll-interval-ms:1000}")
+    public synchronized int dispatchDueEmails() {
+        int dispatched = 0;
+        if (freeWorkers.availablePermits() == 0) {
+            return dispatched;
+        }
+        // Permits are only taken here, so a domain with all of them free has nothing in flight
+        domainPermits.values().removeIf(permits -> permits.availablePermits() == perDomainConcurrency);
+        Instant now = Instant.now();
+        List<String> busyDomains = new ArrayList<>();
+        domainPermits.forEach((domain, permits) -> {
+            if (permits.availablePermits() == 0) {
+                busyDomains.add(domain);
+            }
+        });
+        // "not in ()" is not valid SQL
+        if (busyDomains.isEmpty()) {
+            busyDomains.add("");
+        }
+        for (String domain : outboundEmailRepository.findDueDomains(now, busyDomains, workers)) {
+            Semaphore permits = domainPermits.computeIfAbsent(domain, key -> new Semaphore(perDomainConcurrency));
+            while (permits.tryAcquire()) {
+                if (!freeWorkers.tryAcquire()) {
+                    permits.release();
+                    return dispatched;
+                }
+                List<OutboundEmail> batch = claim(domain, now);
+                if (batch.isEmpty()) {
+                    freeWorkers.release();
+                    permits.release();
+                    break;
+                }
+                dispatched += batch.size();
+                executor.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        freeWorkers.release();
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * The most recent dead letters, newest first; without their bodies.
+     */
+    public List<OutboundEmailDTO> findDeadLetters(int limit) {
+        return outboundEmailRepository.findByStatusOrderByCreatedAtDesc(EmailStatus.DEAD, PageRequest.of(0, limit))
+            .stream()
+            .map(MailDispatcher::convertToDTO)
+            .toList();
+    }
+
+    /**
+     * Queues a dead letter again, with a fresh set of attempts. Returns false if there is no
+     * dead letter with that ID.
+     */
+    public boolean retry(UUID id) {
+        return outboundEmailRepository.requeue(id, Instant.now()) > 0;
+    }
+
+    /**
+     * The number of emails per status.
+     */
+    public Map<EmailStatus, Long> countByStatus() {
+        Map<EmailStatus, Long> counts = new EnumMap<>(EmailStatus.class);
+        for (EmailStatus status : EmailStatus.values()) {
+            counts.put(status, outboundEmailRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
+    // Removes sent emails that are older than the retention period
+    @Scheduled(cron = "${jobtracker.mail.cleanup-cron:0 30 3 * * *}")
+    public void deleteSentEmails() {
+        int deleted = outboundEmailRepository.deleteSentBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+        logger.info("Deleted {} sent emails older than {} days", deleted, retentionDays);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Batches still sending are claimed again once their lease runs out
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    //Helpers
+
+    // Locks due emails of the domain and leases them to this instance, in one transaction
+    private List<OutboundEmail> claim(String domain, Instant now) {
+        return transactionTemplate.execute(status -> {
+            List<OutboundEmail> batch = outboundEmailRepository.lockDue(domain, now, messagesPerConnection);
+            if (!batch.isEmpty()) {
+                outboundEmailRepository.lease(batch.stream().map(OutboundEmail::getId).toList(),
+                    now.plusSeconds(leaseSeconds));
+            }
+            return batch;
+        });
+    }
+
+    private void send(List<OutboundEmail> batch) {
+        Map<UUID, EmailSender.Failure> failures;
+        try {
+            failures = emailSender.send(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Sending {} emails to {} failed", batch.size(), batch.get(0).getRecipientDomain(), e);
+            EmailSender.Failure failure = new EmailSender.Failure(false, String.valueOf(e.getMessage()));
+            failures = new HashMap<>();
+            for (OutboundEmail email : batch) {
+                failures.put(email.getId(), failure);
+            }
+        }
+        List<UUID> sent = new ArrayList<>(batch.size());
+        for (OutboundEmail email : batch) {
+            EmailSender.Failure failure = failures.get(email.getId());
+            if (failure == null) {
+                sent.add(email.getId());
+            } else {
+                recordFailure(email, failure);
+            }
+        }
+        if (!sent.isEmpty()) {
+            outboundEmailRepository.markSent(sent, Instant.now());
+            sentCounter.increment(sent.size());
+        }
+    }
+
+    private void recordFailure(OutboundEmail email, EmailSender.Failure failure) {
+        String error = truncate(failure.message());
+        int attempts = email.getAttempts() + 1;
+        if (failure.permanent() || attempts >= maxAttempts) {
+            outboundEmailRepository.markDead(email.getId(), error);
+            deadCounter.increment();
+            logger.warn("Email {} to {} is a dead letter after {} attempts: {}",
+                email.getId(), email.getRecipientDomain(), attempts, error);
+        } else {
+            outboundEmailRepository.reschedule(email.getId(), Instant.now().plus(backoff(attempts)), error);
+            retriedCounter.increment();
+        }
+    }
+
+    // initial-backoff x 2^(attempts - 1), capped, minus up to half of it so retries spread out
+    Duration backoff(int attempts) {
+        // 2^20 x the initial backoff is past any sensible maximum, and cannot overflow
+        long seconds = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+        long millis = seconds * 1000;
+        return Duration.ofMillis(millis - ThreadLocalRandom.current().nextLong(millis / 2 + 1));
+    }
+
+    private static OutboundEmailDTO convertToDTO(OutboundEmail email) {
+        return new OutboundEmailDTO(email.getId(), email.getRecipient(), email.getSubject(), email.getStatus(),
+            email.getAttempts(), email.getNextAttemptAt(), email.getLastError(), email.getCreatedAt(),
+            email.getSentAt());
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,39 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.repository.OutboundEmailRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Queues emails for the {@link MailDispatcher}. Enqueueing is a single INSERT, so callers
+ * (e.g. signup) never wait for a mail server; called inside a transaction, the email is only
+ * sent if that transaction commits.
+ */
+@Service
+public class MailQueue {
+
+    private final OutboundEmailRepository outboundEmailRepository;
+
+    public MailQueue(OutboundEmailRepository outboundEmailRepository) {
+        this.outboundEmailRepository = outboundEmailRepository;
+    }
+
+    /**
+     * Queues an email. An email whose dedupKey (may be null) was queued before is ignored;
+     * returns whether it was queued.
+     */
+    @Transactional
+    public boolean enqueue(String recipient, String subject, String body, String dedupKey) {
+        int at = recipient == null ? -1 : recipient.lastIndexOf('@');
+        if (at <= 0 || at == recipient.length() - 1) {
+            throw new IllegalArgumentException("Invalid recipient: " + recipient);
+        }
+        String domain = recipient.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+        return outboundEmailRepository.insertIfAbsent(UUID.randomUUID(), recipient.trim(), domain, subject, body,
+            dedupKey, Instant.now()) > 0;
+    }
+}
@@ -0,0 +1,297 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the outbox table and delivers the events to every {@link OutboxSubscriber}.
+ *
+ * Every instance of the application polls, but each event is claimed by one of them:
+ * - A poll locks the oldest pending events with "for update skip locked", in batches of
+ *   "jobtracker.outbox.batch-size", and leases them for "jobtracker.outbox.lease-seconds".
+ *   A batch is only taken if it starts at the oldest pending event; otherwise another
+ *   instance is still delivering earlier events and the poll waits, so events are delivered
+ *   in ID order across all instances and per-aggregate order is preserved. Events of an
+ *   instance that died are claimed again once their lease runs out.
+ * - The claiming instance hands each event to its subscribers before the next one, then
+ *   marks the delivered events as published with a single UPDATE that also numbers the
+ *   batch (publishSeq). If a subscriber fails, the events before it are still marked and the
+ *   failed one is retried on the next poll (at-least-once delivery). An event that failed
+ *   "jobtracker.outbox.max-attempts" times is dead-lettered: it stays in the table for
+ *   inspection but is no longer pending, so a permanently failing event cannot block the
+ *   events after it.
+ * - Subscribers that keep state per instance ({@link OutboxSubscriber#isPerInstance()}, e.g.
+ *   in-memory indexes or client connections) are not called on claim. Every instance reads
+ *   the published events after its own (publishSeq, id) cursor instead, so each of them sees
+ *   every event once it is published, in publish order. The cursor starts at the last
+ *   published event: these subscribers load their state from the tables on startup.
+ *
+ * Published events are kept for "jobtracker.outbox.retention-days" so they can be replayed
+ * from an offset with {@link #replayFrom(long, int)}, e.g. to rebuild a subscriber's state.
+ * A replay delivers to the subscribers of the instance that runs it.
+ *
+ * Metrics (Micrometer):
+ * - jobtracker.outbox.pending: events waiting to be delivered
+ * - jobtracker.outbox.lag: age in seconds of the oldest pending event
+ * - jobtracker.outbox.delivered: events delivered
+ * - jobtracker.outbox.failures: failed deliveries
+ * - jobtracker.outbox.dead-lettered: events given up on after max-attempts failures
+ * - jobtracker.outbox.batch: time taken to deliver one batch
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSubscriber> subscribers;
+    private final List<OutboxSubscriber> claimSubscribers;
+    private final List<OutboxSubscriber> perInstanceSubscribers;
+    private final TransactionTemplate transactionTemplate;
+    // Polling and replays must not deliver concurrently, or the order would be lost
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+    // The last published event the per-instance subscribers have seen; guarded by deliveryLock
+    private long publishSeqCursor;
+    private long idCursor;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter deliveredCounter;
+    private final Counter failureCounter;
+    private final Counter deadLetterCounter;
+    private final Timer batchTimer;
+
+    @Value("${jobtracker.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${jobtracker.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${jobtracker.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${jobtracker.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSubscriber> subscribers,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+        this.claimSubscribers = subscribers.stream().filter(subscriber -> !subscriber.isPerInstance()).toList();
+        this.perInstanceSubscribers = subscribers.stream().filter(OutboxSubscriber::isPerInstance).toList();
+        this.transactionTemplate = transactionTemplate;
+        Gauge.builder("jobtracker.outbox.pending", pendingEvents, AtomicLong::get)
+            .description("Outbox events waiting to be delivered")
+            .register(meterRegistry);
+        Gauge.builder("jobtracker.outbox.lag", lagSeconds, AtomicLong::get)
+            .description("Age of the oldest pending outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("jobtracker.outbox.delivered")
+            .description("Outbox events delivered to subscribers")
+            .register(meterRegistry);
+        this.failureCounter = Counter.builder("jobtracker.outbox.failures")
+            .description("Outbox deliveries that failed and will be retried")
+            .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("jobtracker.outbox.dead-lettered")
+            .description("Outbox events that failed max-attempts times and are no longer delivered")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("jobtracker.outbox.batch")
+            .description("Time to deliver one batch of outbox events")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts the per-instance subscribers after the last event published so far.
+     */
+    @PostConstruct
+    public void initPublishedCursor() {
+        deliveryLock.lock();
+        try {
+            outboxEventRepository.findFirstByPublishSeqIsNotNullOrderByPublishSeqDescIdDesc().ifPresent(last -> {
+                publishSeqCursor = last.getPublishSeq();
+                idCursor = last.getId();
+            });
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    /**
+     * Claims and delivers pending events until the outbox is empty, another instance holds
+     * the oldest ones or a subscriber fails; then passes the newly published events to the
+     * per-instance subscribers.
+     */
+    @Scheduled(fixedDelayString = "${jobtracker.outbox.poll-interval-ms:200}")
+    public void relayPendingEvents() {
+        deliveryLock.lock();
+        try {
+            boolean fullBatch = true;
+            while (fullBatch) {
+                List<OutboxEvent> batch = claim();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Long> delivered = batchTimer.record(() -> deliver(batch, claimSubscribers));
+                if (!delivered.isEmpty()) {
+                    outboxEventRepository.markPublished(delivered, Instant.now());
+                }
+                if (delivered.size() < batch.size()) {
+                    recordFailure(batch.get(delivered.size()));
+                    if (delivered.size() + 1 < batch.size()) {
+                        outboxEventRepository.releaseLease(batch.subList(delivered.size() + 1, batch.size()).stream()
+                            .map(OutboxEvent::getId)
+                            .toList());
+                    }
+                }
+                fullBatch = batch.size() == batchSize && delivered.size() == batch.size();
+            }
+            deliverPublishedEvents();
+        } finally {
+            deliveryLock.unlock();
+        }
+        // Also after an empty claim: another instance may hold the oldest pending events
+        updateLag();
+    }
+
+    /**
+     * Delivers every retained event with an ID (offset) of at least the given one again,
+     * whether or not it was delivered before. Returns the number of events replayed.
+     */
+    public long replayFrom(long offset, int maxEvents) {
+        deliveryLock.lock();
+        try {
+            long replayed = 0;
+            long next = offset;
+            while (replayed < maxEvents) {
+                int size = (int) Math.min(batchSize, maxEvents - replayed);
+                List<OutboxEvent> batch = outboxEventRepository.findByIdGreaterThanEqualOrderByIdAsc(next, PageRequest.of(0, size));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Long> delivered = deliver(batch, subscribers);
+                replayed += delivered.size();
+                if (delivered.size() < batch.size()) {
+                    break;
+                }
+                next = batch.get(batch.size() - 1).getId() + 1;
+            }
+            logger.info("Replayed {} outbox events from offset {}", replayed, offset);
+            return replayed;
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    // Removes delivered events that are older than the retention period
+    @Scheduled(cron = "${jobtracker.outbox.cleanup-cron:0 0 3 * * *}")
+    public void deleteExpiredEvents() {
+        int deleted = outboxEventRepository.deletePublishedBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+        logger.info("Deleted {} published outbox events older than {} days", deleted, retentionDays);
+    }
+
+    //Helpers
+
+    // Locks and leases the oldest pending events, in one transaction; empty if there are none
+    // or another instance is still delivering events before them
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> batch = outboxEventRepository.lockPending(now, batchSize);
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            Long oldestPending = outboxEventRepository.findFirstByPublishedAtIsNullAndDeadLetteredAtIsNullOrderByIdAsc()
+                .map(OutboxEvent::getId)
+                .orElse(null);
+            if (!batch.get(0).getId().equals(oldestPending)) {
+                return List.of();
+            }
+            outboxEventRepository.lease(batch.stream().map(OutboxEvent::getId).toList(), now.plusSeconds(leaseSeconds));
+            return batch;
+        });
+    }
+
+    // Gives a failed event back for the next poll, or dead-letters it after its last attempt
+    private void recordFailure(OutboxEvent event) {
+        boolean deadLetter = event.getAttempts() + 1 >= maxAttempts;
+        outboxEventRepository.recordFailure(event.getId(), deadLetter ? Instant.now() : null);
+        if (deadLetter) {
+            deadLetterCounter.increment();
+            logger.error("Outbox event {} ({} {} {}) failed {} times and was dead-lettered",
+                event.getId(), event.getAggregateType(), event.getEventType(), event.getAggregateId(), maxAttempts);
+        }
+    }
+
+    // Passes the events published since the cursor (by any instance) to the per-instance
+    // subscribers and moves the cursor past those they accepted
+    private void deliverPublishedEvents() {
+        if (perInstanceSubscribers.isEmpty()) {
+            return;
+        }
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findPublishedAfter(publishSeqCursor, idCursor,
+                PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Long> delivered = deliver(batch, perInstanceSubscribers);
+            if (!delivered.isEmpty()) {
+                OutboxEvent last = batch.get(delivered.size() - 1);
+                publishSeqCursor = last.getPublishSeq();
+                idCursor = last.getId();
+            }
+            if (delivered.size() < batch.size() || batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // Delivers the events in order and returns the IDs of those that every subscriber accepted
+    private List<Long> deliver(List<OutboxEvent> batch, List<OutboxSubscriber> subscribers) {
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                for (OutboxSubscriber subscriber : subscribers) {
+                    if (subscriber.supports(event.getAggregateType())) {
+                        subscriber.onEvent(event);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                logger.warn("Outbox delivery of event {} ({} {} {}) failed, will retry",
+                    event.getId(), event.getAggregateType(), event.getEventType(), event.getAggregateId(), e);
+                break;
+            }
+            delivered.add(event.getId());
+            deliveredCounter.increment();
+        }
+        return delivered;
+    }
+
+    private void updateLag() {
+        pendingEvents.set(outboxEventRepository.countByPublishedAtIsNullAndDeadLetteredAtIsNull());
+        lagSeconds.set(outboxEventRepository.findFirstByPublishedAtIsNullAndDeadLetteredAtIsNullOrderByIdAsc()
+            .map(oldest -> Duration.between(oldest.getCreatedAt(), Instant.now()).toSeconds())
+            .orElse(0L));
+    }
+}
@@ -0,0 +1,65 @@
+package com.jobtracker.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Writes change events to the outbox table.
+ *
+ * record() must be called from inside the transaction that makes the change
+ * (Propagation.MANDATORY fails fast otherwise), so the event and the change commit together.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    public static final String JOB_APPLICATION = "JobApplication";
+    public static final String USER = "User";
+    public static final String COMPANY = "Company";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, UUID aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(Instant.now());
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Reads the payload of an event back into its DTO.
+     */
+    public <T> T readPayload(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for event " + event.getId(), e);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload cannot be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.OutboxEvent;
+
+/**
+ * Receives the change events delivered by the {@link OutboxRelay}.
+ *
+ * Every Spring bean implementing this interface is subscribed automatically. Delivery is
+ * at least once and in outbox order, so events of the same aggregate arrive in the order
+ * they were written. An event can be delivered again (after a crash, a failed subscriber or
+ * a replay), so implementations must be idempotent, e.g. by remembering the last offset
+ * ({@link OutboxEvent#getId()}) they applied.
+ *
+ * Throwing from {@link #onEvent} stops the current batch; the event and everything after it
+ * is delivered again on the next poll.
+ *
+ * By default an event is delivered on one instance of the application, the one that claimed
+ * it. Subscribers whose state lives in the instance (caches, indexes, open connections)
+ * return true from {@link #isPerInstance()} and receive every event on every instance,
+ * shortly after it was published.
+ */
+public interface OutboxSubscriber {
+
+    /**
+     * Whether this subscriber wants the events of the given aggregate type.
+     */
+    boolean supports(String aggregateType);
+
+    void onEvent(OutboxEvent event);
+
+    /**
+     * Whether every instance delivers the events to this subscriber, instead of only the
+     * instance that claimed them.
+     */
+    default boolean isPerInstance() {
+        return false;
+    }
+}
@@ -0,0 +1,169 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of the read methods of JobApplicationService and UserService, on
+ * the R2DBC driver (see ReactiveReadConfig). Only active with "jobtracker.reactive.enabled".
+ *
+ * - Nothing blocks a thread while Postgres works: rows are emitted as the driver decodes them.
+ * - Lists are read in keyset pages of "jobtracker.reactive.page-size" rows, and the next page
+ *   is only queried once the subscriber has consumed the previous one (backpressure). A slow
+ *   client therefore holds a connection only for the few milliseconds a page takes, not for
+ *   the whole download, and the server never buffers more than a page per client.
+ * - The owner scoping by user_id and the DTOs are the same as on the JPA path; writes stay on
+ *   the JPA path.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jobtracker.reactive.enabled", havingValue = "true")
+public class ReactiveReadService {
+
+    private static final String APPLICATION_COLUMNS =
+        "id, title, company, company_id, location, description, status, deadline, created_at, updated_at, user_id";
+    private static final String USER_COLUMNS = "u.id, u.name, u.email, u.created_at, "
+        + "(select string_agg(r.role, ',' order by r.role) from user_roles r where r.user_id = u.id) as roles";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    @Value("${jobtracker.reactive.page-size:200}")
+    private int pageSize;
+
+    // The active applications, then (with includeHistory) the archived ones, each in ID order
+    public Flux<JobApplicationDTO> findJobApplicationsByOwner(String ownerEmail, boolean includeHistory) {
+        return findOwnerId(ownerEmail).flatMapMany(ownerId -> {
+            Flux<JobApplicationDTO> active = readPages(last -> findJobApplicationPage("job_applications", false, ownerId, last));
+            if (!includeHistory) {
+                return active;
+            }
+            return active.concatWith(readPages(last -> findJobApplicationPage("job_applications_archive", true, ownerId, last)));
+        });
+    }
+
+    // Empty when the owner has no such application (or only an archived one, without includeHistory)
+    public Mono<JobApplicationDTO> findJobApplicationById(UUID id, String ownerEmail, boolean includeHistory) {
+        String sql = "select " + APPLICATION_COLUMNS + ", false as archived from job_applications where id = :id and user_id = :ownerId";
+        if (includeHistory) {
+            sql += " union all select " + APPLICATION_COLUMNS + ", true as archived from job_applications_archive where id = :id and user_id = :ownerId";
+        }
+        String query = sql;
+        return findOwnerId(ownerEmail).flatMap(ownerId -> reactiveDatabaseClient.sql(query)
+            .bind("id", id)
+            .bind("ownerId", ownerId)
+            .map(ReactiveReadService::toJobApplicationDTO)
+            .first());
+    }
+
+    // All users, newest first, with their roles
+    public Flux<UserDTO> findAllUsers() {
+        return readPages(this::findUserPage);
+    }
+
+    // Empty when there is no such user
+    public Mono<UserDTO> findUserById(UUID id) {
+        return reactiveDatabaseClient.sql("select " + USER_COLUMNS + " from users u where u.id = :id")
+            .bind("id", id)
+            .map(ReactiveReadService::toUserDTO)
+            .first();
+    }
+
+    //Helpers
+
+    /**
+     * Concatenates the pages of a keyset-paged query. page gets the last row of the previous
+     * page (null for the first one); a page shorter than pageSize is the last. Pages are
+     * requested one at a time, so the next query only runs when the subscriber asks for more.
+     */
+    private <T> Flux<T> readPages(Function<T, Mono<List<T>>> page) {
+        return page.apply(null)
+            .expand(rows -> rows.size() < pageSize ? Mono.empty() : page.apply(rows.get(rows.size() - 1)))
+            .concatMapIterable(Function.identity(), 1);
+    }
+
+    private Mono<List<JobApplicationDTO>> findJobApplicationPage(String table, boolean archived, UUID ownerId, JobApplicationDTO last) {
+        DatabaseClient.GenericExecuteSpec query = reactiveDatabaseClient.sql("select " + APPLICATION_COLUMNS + ", "
+                + archived + " as archived from " + table + " where user_id = :ownerId"
+                + (last != null ? " and id > :afterId" : "") + " order by id limit :limit")
+            .bind("ownerId", ownerId)
+            .bind("limit", pageSize);
+        if (last != null) {
+            query = query.bind("afterId", last.getId());
+        }
+        return query.map(ReactiveReadService::toJobApplicationDTO).all().collectList();
+    }
+
+    // Users without a created_at (the DTO leaves it unset) come first in descending order
+    private Mono<List<UserDTO>> findUserPage(UserDTO last) {
+        String after = "";
+        if (last != null) {
+            after = last.getCreatedAt() != null
+                ? " where (u.created_at, u.id) < (:afterCreatedAt, :afterId)"
+                : " where (u.created_at is null and u.id < :afterId) or u.created_at is not null";
+        }
+        DatabaseClient.GenericExecuteSpec query = reactiveDatabaseClient.sql("select " + USER_COLUMNS + " from users u"
+                + after + " order by u.created_at desc, u.id desc limit :limit")
+            .bind("limit", pageSize);
+        if (last != null) {
+            query = query.bind("afterId", last.getId());
+            if (last.getCreatedAt() != null) {
+                query = query.bind("afterCreatedAt", LocalDateTime.parse(last.getCreatedAt()));
+            }
+        }
+        return query.map(ReactiveReadService::toUserDTO).all().collectList();
+    }
+
+    private Mono<UUID> findOwnerId(String ownerEmail) {
+        return reactiveDatabaseClient.sql("select id from users where email = :email")
+            .bind("email", ownerEmail)
+            .map(row -> row.get("id", UUID.class))
+            .first()
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")));
+    }
+
+    private static JobApplicationDTO toJobApplicationDTO(Readable row) {
+        JobApplicationDTO jobApplicationDTO = new JobApplicationDTO();
+        jobApplicationDTO.setId(row.get("id", UUID.class));
+        jobApplicationDTO.setTitle(row.get("title", String.class));
+        jobApplicationDTO.setCompany(row.get("company", String.class));
+        jobApplicationDTO.setCompanyId(row.get("company_id", UUID.class));
+        jobApplicationDTO.setLocation(row.get("location", String.class));
+        jobApplicationDTO.setDescription(row.get("description", String.class));
+        jobApplicationDTO.setStatus(row.get("status", String.class));
+        jobApplicationDTO.setDeadline(row.get("deadline", LocalDate.class));
+        jobApplicationDTO.setCreatedAt(String.valueOf(row.get("created_at", LocalDateTime.class)));
+        jobApplicationDTO.setUpdatedAt(String.valueOf(row.get("updated_at", LocalDateTime.class)));
+        jobApplicationDTO.setUserId(row.get("user_id", UUID.class));
+        jobApplicationDTO.setArchived(Boolean.TRUE.equals(row.get("archived", Boolean.class)));
+        return jobApplicationDTO;
+    }
+
+    private static UserDTO toUserDTO(Readable row) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(row.get("id", UUID.class));
+        userDTO.setName(row.get("name", String.class));
+        userDTO.setEmail(row.get("email", String.class));
+        LocalDateTime createdAt = row.get("created_at", LocalDateTime.class);
+        if (createdAt != null) {
+            userDTO.setCreatedAt(createdAt.toString());
+        }
+        String roles = row.get("roles", String.class);
+        userDTO.setRoles(roles != null ? Arrays.asList(roles.split(",")) : List.of());
+        return userDTO;
+    }
+}
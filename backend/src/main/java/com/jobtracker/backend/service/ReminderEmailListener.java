@@ -0,0 +1,79 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.JobApplication;
+import com.jobtracker.backend.entity.Reminder;
+import com.jobtracker.backend.entity.ReminderType;
+import com.jobtracker.backend.entity.User;
+import com.jobtracker.backend.repository.JobApplicationRepositry;
+import com.jobtracker.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Emails due reminders to the owners of their applications through the {@link MailQueue}.
+ *
+ * The owners and applications of a batch are loaded with one query each. The dedup key is
+ * the reminder and its due date, so a batch that is retried queues no second email, while a
+ * reminder that was rescheduled to a new date is sent again.
+ */
+@Service
+public class ReminderEmailListener implements ReminderListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderEmailListener.class);
+
+    private final MailQueue mailQueue;
+    private final UserRepository userRepository;
+    private final JobApplicationRepositry jobApplicationRepositry;
+
+    public ReminderEmailListener(MailQueue mailQueue, UserRepository userRepository,
+                                 JobApplicationRepositry jobApplicationRepositry) {
+        this.mailQueue = mailQueue;
+        this.userRepository = userRepository;
+        this.jobApplicationRepositry = jobApplicationRepositry;
+    }
+
+    @Override
+    public void onRemindersDue(List<Reminder> reminders) {
+        Map<UUID, User> users = userRepository.findByIdIn(reminders.stream().map(Reminder::getUserId).distinct().toList())
+            .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<UUID, JobApplication> applications = jobApplicationRepositry
+            .findAllById(reminders.stream().map(Reminder::getApplicationId).distinct().toList())
+            .stream().collect(Collectors.toMap(JobApplication::getId, Function.identity()));
+
+        for (Reminder reminder : reminders) {
+            User user = users.get(reminder.getUserId());
+            JobApplication application = applications.get(reminder.getApplicationId());
+            if (user == null || application == null) {
+                // Deleted or archived since; its reminder has nobody to go to
+                continue;
+            }
+            String subject = reminder.getType() == ReminderType.DEADLINE
+                ? "Deadline coming up: " + application.getTitle()
+                : "Time to follow up: " + application.getTitle();
+            try {
+                mailQueue.enqueue(user.getEmail(), subject, body(user, application, reminder.getType()),
+                    "reminder:" + reminder.getId() + ":" + reminder.getDueAt().toEpochMilli());
+            } catch (IllegalArgumentException e) {
+                // Retrying would not help, and would hold back the other reminders of the batch
+                logger.warn("No reminder email for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+    }
+
+    //Helpers
+
+    private static String body(User user, JobApplication application, ReminderType type) {
+        String about = application.getTitle() + " at " + application.getCompany();
+        String text = type == ReminderType.DEADLINE
+            ? "the deadline of your application for " + about + " is on " + application.getDeadline() + "."
+            : "your application for " + about + " has had no news for a while. Maybe it is time to follow up?";
+        return "Hi " + user.getName() + ",\n\n" + text + "\n";
+    }
+}
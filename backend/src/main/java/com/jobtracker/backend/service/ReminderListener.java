@@ -0,0 +1,18 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.Reminder;
+
+import java.util.List;
+
+/**
+ * Receives reminders that became due, one batch at a time.
+ *
+ * Every Spring bean implementing this interface is called by the {@link ReminderService},
+ * inside the transaction that claimed the reminders and marks them as sent; writes of a
+ * listener (e.g. queueing an email) commit with them. Throwing from {@link #onRemindersDue}
+ * rolls the batch back and puts it into the wheel again to be retried.
+ */
+public interface ReminderListener {
+
+    void onRemindersDue(List<Reminder> reminders);
+}
@@ -0,0 +1,288 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.entity.ApplicationStatus;
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.entity.Reminder;
+import com.jobtracker.backend.entity.ReminderType;
+import com.jobtracker.backend.repository.PendingReminderRow;
+import com.jobtracker.backend.repository.ReminderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Schedules and dispatches the reminders of job applications:
+ * - DEADLINE: "jobtracker.reminders.deadline-lead-days" before the application's deadline;
+ * - FOLLOW_UP: "jobtracker.reminders.follow-up-days" after an APPLIED application last changed.
+ *
+ * Reminders are scheduled from the committed JobApplication change events of the outbox, so
+ * nothing ever polls the job_applications table. Pending reminders live in a
+ * {@link TimingWheel}, where scheduling and cancelling cost O(1) however many are pending;
+ * the reminders table is their durable copy and is only read in full at startup.
+ *
+ * Every tick the wheel hands out the reminders that became due. In batches of
+ * "jobtracker.reminders.batch-size" they are claimed with "for update skip locked", passed to
+ * every {@link ReminderListener} and marked as sent with a single UPDATE, all in one
+ * transaction. Every instance has every pending reminder in its wheel; the claim makes sure
+ * that only one of them sends it, and a failing listener rolls the batch back. Without a
+ * listener nothing is marked as sent.
+ *
+ * Reminders a wheel never handed out (e.g. its instance died while sending them) are picked
+ * up by a sweep every "jobtracker.reminders.sweep-ms", once they are overdue by that long.
+ *
+ * Metric (Micrometer): jobtracker.reminders.pending, reminders waiting in the wheel.
+ */
+@Service
+public class ReminderService implements OutboxSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderService.class);
+
+    private final ReminderRepository reminderRepository;
+    private final OutboxService outboxService;
+    private final List<ReminderListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock = Clock.systemDefaultZone();
+    private final TimingWheel<PendingReminder> wheel;
+    // The wheel entry of every pending reminder, to cancel or replace it
+    private final Map<ReminderKey, TimingWheel.Timeout<PendingReminder>> scheduled = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Value("${jobtracker.reminders.follow-up-days:7}")
+    private int followUpDays;
+
+    @Value("${jobtracker.reminders.deadline-lead-days:1}")
+    private int deadlineLeadDays;
+
+    @Value("${jobtracker.reminders.batch-size:500}")
+    private int batchSize;
+
+    @Value("${jobtracker.reminders.retry-delay-ms:60000}")
+    private long retryDelayMs;
+
+    @Value("${jobtracker.reminders.sweep-ms:300000}")
+    private long sweepMs;
+
+    public ReminderService(ReminderRepository reminderRepository, OutboxService outboxService,
+                           List<ReminderListener> listeners, TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry, @Value("${jobtracker.reminders.tick-ms:1000}") long tickMs) {
+        this.reminderRepository = reminderRepository;
+        this.outboxService = outboxService;
+        this.listeners = listeners;
+        this.transactionTemplate = transactionTemplate;
+        // 256 slots per level: level 0 covers about four minutes, level 1 about 18 hours
+        this.wheel = new TimingWheel<>(tickMs, 8, clock.millis());
+        Gauge.builder("jobtracker.reminders.pending", wheel, TimingWheel::size)
+            .description("Reminders waiting to be dispatched")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Puts the pending reminders of the reminders table into the wheel. Reminders that came
+     * due while the application was down fire on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadPendingReminders() {
+        long count = 0;
+        try (Stream<PendingReminderRow> rows = reminderRepository.streamBySentAtIsNull()) {
+            for (PendingReminderRow row : (Iterable<PendingReminderRow>) rows::iterator) {
+                ReminderKey key = new ReminderKey(row.getApplicationId(), row.getType());
+                // Reminders scheduled by events since startup are newer than the table
+                scheduled.computeIfAbsent(key, k ->
+                    wheel.schedule(row.getDueAt().toEpochMilli(), new PendingReminder(row.getId(), key)));
+                count++;
+            }
+        }
+        loaded = true;
+        logger.info("Loaded {} pending reminders", count);
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return OutboxService.JOB_APPLICATION.equals(aggregateType);
+    }
+
+    /**
+     * Reschedules the reminders of an application after it changed. Applying the same event
+     * twice leaves the same reminders, so redelivered events are harmless.
+     */
+    @Override
+    public void onEvent(OutboxEvent outboxEvent) {
+        UUID applicationId = outboxEvent.getAggregateId();
+        if (OutboxService.DELETED.equals(outboxEvent.getEventType())) {
+            cancel(new ReminderKey(applicationId, ReminderType.DEADLINE));
+            cancel(new ReminderKey(applicationId, ReminderType.FOLLOW_UP));
+            reminderRepository.deleteByApplicationId(applicationId);
+            return;
+        }
+
+        JobApplicationDTO jobApplication = outboxService.readPayload(outboxEvent, JobApplicationDTO.class);
+        ApplicationStatus status = ApplicationStatus.parse(jobApplication.getStatus());
+
+        // Any change restarts the follow-up timer ("nothing changed for N days")
+        ReminderKey followUp = new ReminderKey(applicationId, ReminderType.FOLLOW_UP);
+        if (status == ApplicationStatus.APPLIED) {
+            LocalDateTime lastChange = jobApplication.getUpdatedAt() != null
+                ? LocalDateTime.parse(jobApplication.getUpdatedAt())
+                : LocalDateTime.ofInstant(outboxEvent.getCreatedAt(), clock.getZone());
+            schedule(followUp, jobApplication.getUserId(),
+                lastChange.plusDays(followUpDays).atZone(clock.getZone()).toInstant());
+        } else {
+            cancel(followUp);
+        }
+
+        ReminderKey deadline = new ReminderKey(applicationId, ReminderType.DEADLINE);
+        LocalDate deadlineDate = jobApplication.getDeadline();
+        boolean decided = status == ApplicationStatus.OFFER || (status != null && status.isTerminal());
+        if (deadlineDate != null && !decided) {
+            schedule(deadline, jobApplication.getUserId(),
+                deadlineDate.minusDays(deadlineLeadDays).atStartOfDay(clock.getZone()).toInstant());
+        } else {
+            cancel(deadline);
+        }
+    }
+
+    /**
+     * Dispatches the reminders that became due since the last tick.
+     */
+    @Scheduled(fixedDelayString = "${jobtracker.reminders.tick-ms:1000}")
+    public void dispatchDueReminders() {
+        List<PendingReminder> due = wheel.advance(clock.millis());
+        if (due.isEmpty()) {
+            return;
+        }
+        for (PendingReminder reminder : due) {
+            scheduled.computeIfPresent(reminder.key(), (key, timeout) -> timeout.getPayload() == reminder ? null : timeout);
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            dispatch(due.subList(from, Math.min(due.size(), from + batchSize)));
+        }
+    }
+
+    /**
+     * Sends the reminders that are overdue by more than a sweep interval, which no wheel
+     * handed out; returns how many were sent.
+     */
+    @Scheduled(fixedDelayString = "${jobtracker.reminders.sweep-ms:300000}",
+        initialDelayString = "${jobtracker.reminders.sweep-ms:300000}")
+    public int sweepOverdueReminders() {
+        if (listeners.isEmpty()) {
+            return 0;
+        }
+        Instant dueBefore = Instant.now(clock).minusMillis(sweepMs);
+        int sent = 0;
+        while (true) {
+            int claimed;
+            try {
+                claimed = transactionTemplate.execute(status -> send(reminderRepository.lockOverdue(dueBefore, batchSize)));
+            } catch (RuntimeException e) {
+                logger.warn("Sending overdue reminders failed, retrying with the next sweep", e);
+                return sent;
+            }
+            sent += claimed;
+            if (claimed < batchSize) {
+                return sent;
+            }
+        }
+    }
+
+    public int getPendingReminders() {
+        return wheel.size();
+    }
+
+    private void dispatch(List<PendingReminder> batch) {
+        List<UUID> ids = batch.stream().map(PendingReminder::id).toList();
+        try {
+            // Reminders deleted, sent, or being sent by another instance in the meantime are skipped
+            transactionTemplate.executeWithoutResult(status -> send(reminderRepository.lockPending(ids)));
+        } catch (RuntimeException e) {
+            logger.warn("Dispatching {} reminders failed, retrying in {} ms", batch.size(), retryDelayMs, e);
+            long retryAt = clock.millis() + retryDelayMs;
+            for (PendingReminder reminder : batch) {
+                scheduled.computeIfAbsent(reminder.key(), key -> wheel.schedule(retryAt, reminder));
+            }
+        }
+    }
+
+    // Passes claimed reminders to the listeners and marks them as sent; returns how many were claimed
+    private int send(List<Reminder> reminders) {
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        if (listeners.isEmpty()) {
+            // Left pending for an instance that has a listener, or the next start
+            logger.info("{} reminders due, no listener registered", reminders.size());
+            return reminders.size();
+        }
+        for (ReminderListener listener : listeners) {
+            listener.onRemindersDue(reminders);
+        }
+        reminderRepository.markSent(reminders.stream().map(Reminder::getId).toList(), Instant.now(clock));
+        return reminders.size();
+    }
+
+    private void schedule(ReminderKey key, UUID userId, Instant dueAt) {
+        TimingWheel.Timeout<PendingReminder> current = scheduled.get(key);
+        if (current != null && current.getDeadlineMs() == dueAt.toEpochMilli()) {
+            return;
+        }
+
+        Reminder reminder = reminderRepository.findByApplicationIdAndType(key.applicationId(), key.type())
+            .orElseGet(Reminder::new);
+        if (reminder.getId() != null && dueAt.equals(reminder.getDueAt())) {
+            if (reminder.getSentAt() != null) {
+                // Already sent for this due date, e.g. the title changed after the deadline reminder
+                return;
+            }
+        } else {
+            reminder.setApplicationId(key.applicationId());
+            reminder.setUserId(userId);
+            reminder.setType(key.type());
+            reminder.setDueAt(dueAt);
+            reminder.setSentAt(null);
+            reminder = reminderRepository.save(reminder);
+        }
+
+        PendingReminder pending = new PendingReminder(reminder.getId(), key);
+        TimingWheel.Timeout<PendingReminder> previous = scheduled.put(key, wheel.schedule(dueAt.toEpochMilli(), pending));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    private void cancel(ReminderKey key) {
+        TimingWheel.Timeout<PendingReminder> timeout = scheduled.remove(key);
+        if (timeout != null) {
+            wheel.cancel(timeout);
+        }
+        // Before the startup load the row may be pending without being in the wheel yet
+        if (timeout != null || !loaded) {
+            reminderRepository.deletePending(key.applicationId(), key.type());
+        }
+    }
+
+    private record ReminderKey(UUID applicationId, ReminderType type) {
+    }
+
+    private record PendingReminder(UUID id, ReminderKey key) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.OutboundEmail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link EmailSender} over SMTP, configured with the usual "spring.mail.*" properties.
+ *
+ * A batch is sent as one JavaMailSender.send(MimeMessage...) call, which uses a single
+ * connection for all of its messages. A message with a malformed address, or all of whose
+ * recipients the server refused, fails permanently; anything else (connection refused,
+ * timeouts, 4xx replies) is retried.
+ */
+public class SmtpEmailSender implements EmailSender {
+
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public SmtpEmailSender(JavaMailSender mailSender, String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public Map<UUID, Failure> send(List<OutboundEmail> emails) {
+        Map<UUID, Failure> failures = new HashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        List<OutboundEmail> sent = new ArrayList<>(emails.size());
+        for (OutboundEmail email : emails) {
+            try {
+                messages.add(toMessage(email));
+                sent.add(email);
+            } catch (MessagingException e) {
+                failures.put(email.getId(), new Failure(true, e.getMessage()));
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Messages that never got to the server (e.g. connection refused) are not listed
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                for (OutboundEmail email : sent) {
+                    failures.put(email.getId(), new Failure(false, e.getMessage()));
+                }
+            }
+            for (int i = 0; i < messages.size(); i++) {
+                Exception cause = failed.get(messages.get(i));
+                if (cause != null) {
+                    failures.put(sent.get(i).getId(), new Failure(isPermanent(cause), cause.getMessage()));
+                }
+            }
+        } catch (MailException e) {
+            for (OutboundEmail email : sent) {
+                failures.put(email.getId(), new Failure(false, e.getMessage()));
+            }
+        }
+        return failures;
+    }
+
+    //Helpers
+
+    private MimeMessage toMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        // Strict parsing, so a malformed address fails here rather than at the server
+        helper.setTo(new InternetAddress(email.getRecipient(), true));
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        // Lets the receiving side (and the logs) recognize a message that is retried
+        message.setHeader("X-Jobtracker-Email-Id", email.getId().toString());
+        return message;
+    }
+
+    // The server refused every recipient with a permanent (5xx) reply, or the address is malformed
+    private static boolean isPermanent(Exception cause) {
+        if (cause instanceof AddressException) {
+            return true;
+        }
+        return cause instanceof SendFailedException failed
+            && failed.getValidUnsentAddresses() == null
+            && failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0;
+    }
+}
@@ -0,0 +1,218 @@
+package com.jobtracker.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel: schedules payloads for a point in time, cancels them and
+ * hands out the ones that are due, each in O(1) no matter how many are pending.
+ *
+ * How it works:
+ * - time is cut into ticks of tickMs; a payload fires on the first tick at or after its deadline;
+ * - level 0 has one slot per tick for the next 2^bits ticks, level 1 one slot per 2^bits
+ *   ticks, and so on, like the digits of a number in base 2^bits;
+ * - a payload is put on the lowest level whose "higher digits" match the current tick, in the
+ *   slot of its own digit on that level;
+ * - when the current tick rolls over a digit of level k, the matching level-k slot is emptied
+ *   into the lower levels (cascading), so every payload reaches level 0 right on time;
+ * - every slot is a doubly linked list, so cancel() only unlinks a node.
+ *
+ * Payloads whose deadline has already passed when they are scheduled are returned by the
+ * next advance(). All methods are synchronized; the wheel itself never reads the clock.
+ */
+public class TimingWheel<T> {
+
+    private static final int MAX_LEVELS = 64;
+
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    // slots[level][slot] is the head of that slot's list; levels are allocated on first use
+    private final Timeout<T>[][] slots;
+    private final Timeout<T> overdue = new Timeout<>(Long.MIN_VALUE, Long.MIN_VALUE, null);
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int bits, long startMs) {
+        if (tickMs <= 0 || bits <= 0 || bits > 16) {
+            throw new IllegalArgumentException("tickMs must be positive and bits between 1 and 16");
+        }
+        this.tickMs = tickMs;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.levels = Math.min(MAX_LEVELS, (63 + bits - 1) / bits);
+        this.slots = new Timeout[levels][];
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+        overdue.prev = overdue;
+        overdue.next = overdue;
+    }
+
+    /**
+     * Schedules the payload for the given time (epoch milliseconds).
+     */
+    public synchronized Timeout<T> schedule(long deadlineMs, T payload) {
+        // Fire on the first tick at or after the deadline, never before it
+        long tick = Math.floorDiv(deadlineMs, tickMs) + (Math.floorMod(deadlineMs, tickMs) == 0 ? 0 : 1);
+        Timeout<T> timeout = new Timeout<>(deadlineMs, tick, payload);
+        if (tick <= currentTick) {
+            // The slot of the current tick has already been emptied
+            link(overdue, timeout);
+        } else {
+            place(timeout);
+        }
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a pending payload. Returns false if it already fired or was cancelled.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.prev == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel to the given time and returns the payloads that became due, in the
+     * order of their ticks.
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> due = new ArrayList<>();
+        drain(overdue, due);
+
+        long targetTick = Math.floorDiv(nowMs, tickMs);
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            // Cascade from the highest level whose digit rolled over, so payloads can fall
+            // through several levels within the same tick
+            int rolledOver = 0;
+            while (rolledOver + 1 < levels && (currentTick & ((1L << ((rolledOver + 1) * bits)) - 1)) == 0) {
+                rolledOver++;
+            }
+            for (int level = rolledOver; level >= 1; level--) {
+                Timeout<T> head = slot(level, (int) ((currentTick >>> (level * bits)) & mask));
+                if (head != null) {
+                    cascade(head);
+                }
+            }
+            Timeout<T> head = slot(0, (int) (currentTick & mask));
+            if (head != null) {
+                drain(head, due);
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Time (epoch milliseconds) the wheel has advanced to.
+     */
+    public synchronized long currentTimeMs() {
+        return currentTick * tickMs;
+    }
+
+    // Called for future ticks and, while cascading, for the current tick before its slot is emptied
+    private void place(Timeout<T> timeout) {
+        for (int level = 0; level < levels; level++) {
+            int shift = (level + 1) * bits;
+            if (shift >= 63 || (timeout.tick >>> shift) == (currentTick >>> shift)) {
+                link(slotOrCreate(level, (int) ((timeout.tick >>> (level * bits)) & mask)), timeout);
+                return;
+            }
+        }
+    }
+
+    private void cascade(Timeout<T> head) {
+        Timeout<T> node = head.next;
+        while (node != head) {
+            Timeout<T> next = node.next;
+            unlink(node);
+            place(node);
+            node = next;
+        }
+    }
+
+    private void drain(Timeout<T> head, List<T> due) {
+        Timeout<T> node = head.next;
+        while (node != head) {
+            Timeout<T> next = node.next;
+            unlink(node);
+            size--;
+            due.add(node.payload);
+            node = next;
+        }
+    }
+
+    private Timeout<T> slot(int level, int index) {
+        return slots[level] == null ? null : slots[level][index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Timeout<T> slotOrCreate(int level, int index) {
+        if (slots[level] == null) {
+            slots[level] = new Timeout[mask + 1];
+        }
+        Timeout<T> head = slots[level][index];
+        if (head == null) {
+            // Sentinel node: an empty list points to itself
+            head = new Timeout<>(Long.MIN_VALUE, Long.MIN_VALUE, null);
+            head.prev = head;
+            head.next = head;
+            slots[level][index] = head;
+        }
+        return head;
+    }
+
+    private static <T> void link(Timeout<T> head, Timeout<T> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private static <T> void unlink(Timeout<T> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * Handle of a scheduled payload.
+     */
+    public static final class Timeout<T> {
+
+        private final long deadlineMs;
+        private final long tick;
+        private final T payload;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadlineMs, long tick, T payload) {
+            this.deadlineMs = deadlineMs;
+            this.tick = tick;
+            this.payload = payload;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.jobtracker.backend.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link ImageVariantService} for a file it cannot make variants of: not an image
+ * ImageIO can read, or more pixels than allowed. The outcome is remembered, the file is not
+ * decoded again.
+ */
+public class UnsupportedImageException extends IOException {
+
+    public UnsupportedImageException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.jobtracker.backend.service;
+
+import java.util.UUID;
+
+/**
+ * Thrown by {@link UserService#deleteUser} for a user that still has job applications, live or
+ * archived. Nothing is deleted.
+ */
+public class UserHasJobApplicationsException extends RuntimeException {
+
+    public UserHasJobApplicationsException(UUID userId) {
+        super("User " + userId + " still has job applications");
+    }
+}
@@ -1,14 +1,39 @@
 package com.jobtracker.backend.service;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.dto.UserPageDTO;
+import com.jobtracker.backend.dto.UserQuery;
 import com.jobtracker.backend.entity.User;
 import com.jobtracker.backend.repository.UserRepository;
+import com.jobtracker.backend.repository.UserUpdateRow;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 // Collectors is a final class that extends Object, and contains various useful methods for reducing and collecting the elements of a Stream.
@@ -19,6 +44,29 @@ public class UserService {
     // we need a UserRepository to interact with the database.
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    // Every change is recorded in the outbox in the same transaction
+    private final OutboxService outboxService;
+    // The paged listing is built with plain SQL: the sort column and filters are dynamic
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Sort keys of the paged listing and their columns
+    private static final Map<String, String> SORT_COLUMNS = Map.of("createdAt", "created_at", "email", "email", "name", "name");
+
+    /**
+     * Properties of UserDTO a client can select with ?fields=.
+     */
+    public static final Set<String> FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(List.of("id", "name", "email", "roles", "createdAt")));
+    private static final int MAX_CACHED_COUNTS = 1000;
+
+    @Value("${jobtracker.users.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${jobtracker.users.count-cache-seconds:60}")
+    private long countCacheSeconds;
+
+    // Approximate totals per filter, so paging through a listing does not estimate again
+    private final Map<String, CachedCount> cachedCounts = new ConcurrentHashMap<>();
     /**
      * This method retrieves all users from the database and returns them as a
      * list of UserDTO objects.
@@ -93,6 +141,147 @@ public class UserService {
         .map(this::convertToDTO)
         .orElseThrow(() -> new RuntimeException("User not found"));
     }
+
+    /**
+     * Returns the user with the given email (the name users sign in with), or null.
+     */
+    @Transactional(readOnly = true)
+    public UserDTO findUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+            .map(this::convertToDTO)
+            .orElse(null);
+    }
+
+    /**
+     * Like findUserById, but reads only the columns of the given fields (see FIELDS); the
+     * roles are only loaded when selected.
+     */
+    @Transactional(readOnly = true)
+    public UserDTO findUserFieldsById(UUID id, Set<String> fields) {
+        Set<String> columns = selectedColumns(fields);
+        List<UserDTO> users = jdbcTemplate.query(
+            "select " + String.join(", ", columns) + " from users u where u.id = :id",
+            Map.of("id", id), (rs, rowNum) -> mapUser(rs, columns));
+        if (users.isEmpty()) {
+            throw new RuntimeException("User not found");
+        }
+        if (fields.contains("roles")) {
+            addRoles(users);
+        }
+        return users.get(0);
+    }
+
+    /**
+     * Returns one page of users, for admin screens over a large users table.
+     *
+     * - Keyset pagination: a page continues after the sort value and ID of the previous page's
+     *   last user (the opaque nextCursor), so every page is an index range scan, however deep.
+     * - Filters: email prefix, name substring (ignoring case) and role.
+     * - The total is a planner estimate by default ("EXPLAIN" row count, cached per filter for
+     *   "jobtracker.users.count-cache-seconds"); count=exact runs COUNT(*), count=none skips it.
+     *   Databases without a usable estimate (e.g. H2 in tests) always count exactly.
+     *
+     * Throws IllegalArgumentException for an unknown sort, direction, role or count mode, or a
+     * cursor that does not belong to the requested order.
+     */
+    public UserPageDTO findUsers(UserQuery query) {
+        return findUsers(query, null);
+    }
+
+    /**
+     * Like findUsers(UserQuery), but reads only the columns of the given fields (see FIELDS),
+     * plus the ID and sort key the cursor needs; roles are only loaded when selected. A null
+     * fields reads everything.
+     */
+    public UserPageDTO findUsers(UserQuery query, Set<String> fields) {
+        String column = SORT_COLUMNS.get(query.getSort());
+        if (column == null) {
+            throw new IllegalArgumentException("sort must be one of " + SORT_COLUMNS.keySet());
+        }
+        boolean descending = switch (String.valueOf(query.getDirection()).toLowerCase(Locale.ROOT)) {
+            case "desc" -> true;
+            case "asc" -> false;
+            default -> throw new IllegalArgumentException("direction must be asc or desc");
+        };
+        String countMode = String.valueOf(query.getCount()).toLowerCase(Locale.ROOT);
+        if (!List.of("approximate", "exact", "none").contains(countMode)) {
+            throw new IllegalArgumentException("count must be approximate, exact or none");
+        }
+        int limit = Math.max(1, Math.min(query.getLimit(), maxPageSize));
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder(" where 1 = 1");
+        if (query.getEmail() != null && !query.getEmail().isBlank()) {
+            where.append(" and u.email like :email escape '\\'");
+            params.addValue("email", escapeLike(query.getEmail().trim()) + "%");
+        }
+        if (query.getName() != null && !query.getName().isBlank()) {
+            where.append(" and lower(u.name) like :name escape '\\'");
+            params.addValue("name", "%" + escapeLike(query.getName().trim().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (query.getRole() != null && !query.getRole().isBlank()) {
+            where.append(" and exists (select 1 from user_roles r where r.user_id = u.id and r.role = :role)");
+            params.addValue("role", User.Role.valueOf(query.getRole().trim().toUpperCase(Locale.ROOT)).name());
+        }
+        String filter = where.toString();
+        String countKey = filter + new TreeMap<>(params.getValues());
+
+        if (query.getAfter() != null && !query.getAfter().isBlank()) {
+            UserCursor cursor = UserCursor.decode(query.getAfter());
+            if (!cursor.sort().equals(query.getSort()) || cursor.descending() != descending) {
+                throw new IllegalArgumentException("The cursor belongs to a different sort order");
+            }
+            where.append(" and (u.").append(column).append(", u.id) ").append(descending ? "<" : ">")
+                .append(" (:afterValue, :afterId)");
+            params.addValue("afterValue", cursor.sortValue());
+            params.addValue("afterId", cursor.id());
+        }
+        String order = descending ? " desc" : " asc";
+        params.addValue("limit", limit + 1);
+        Set<String> columns = selectedColumns(fields);
+        columns.add(column);
+        List<UserDTO> users = jdbcTemplate.query(
+            "select u." + String.join(", u.", columns) + " from users u" + where
+                + " order by u." + column + order + ", u.id" + order + " limit :limit",
+            params, (rs, rowNum) -> mapUser(rs, columns));
+
+        UserPageDTO page = new UserPageDTO();
+        // One row more than the page tells whether there is a next page
+        if (users.size() > limit) {
+            users = new ArrayList<>(users.subList(0, limit));
+            UserDTO last = users.get(limit - 1);
+            String lastValue = switch (column) {
+                case "created_at" -> last.getCreatedAt();
+                case "email" -> last.getEmail();
+                default -> last.getName();
+            };
+            page.setNextCursor(new UserCursor(query.getSort(), descending, lastValue, last.getId()).encode());
+        }
+        if (fields == null || fields.contains("roles")) {
+            addRoles(users);
+        }
+        page.setUsers(users);
+
+        if (!"none".equals(countMode)) {
+            CachedCount count = "exact".equals(countMode)
+                ? new CachedCount(countExactly(filter, params), true, 0)
+                : approximateCount(countKey, filter, params);
+            page.setTotal(count.total());
+            page.setTotalExact(count.exact());
+        }
+        return page;
+    }
+
+    /**
+     * Loads several users with a single "where id in (...)" query and returns them by ID.
+     * Used by the GraphQL data loaders so resolving N owners does not issue N lookups.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, UserDTO> findUsersByIds(Collection<UUID> ids) {
+        return userRepository.findByIdIn(ids).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+    }
     
 
     
@@ -169,7 +358,8 @@ public class UserService {
         if (savedUser.getCreatedAt() != null) {
             savedUserDTO.setCreatedAt(savedUser.getCreatedAt().toString());
         }
-        
+
+        outboxService.record(OutboxService.USER, savedUserDTO.getId(), OutboxService.CREATED, savedUserDTO);
         return savedUserDTO;
     }
 
@@ -180,21 +370,27 @@ public class UserService {
      * The method takes a UserDTO object as a parameter which contains the
      * information of the user to be updated.
      * 
-     * The method first finds the user by its ID using the findById() method of the
-     * UserRepository.
-     * 
-     * The method then updates the user's name and email using the information in the
-     * UserDTO object.
+     * The name and email are updated with a single statement that also returns the
+     * updated user (see UserRepository.updateNameAndEmail), so there is no findById()
+     * before it. If no row was updated the user does not exist and a RuntimeException
+     * is thrown.
      * 
-     * The method finally returns the updated User object as a UserDTO object.
+     * The method finally returns the updated user as a UserDTO object.
      */
     @Transactional
     public UserDTO updateUser(UserDTO userDTO) {
-        User user = userRepository.findById(userDTO.getId())
+        UserUpdateRow row = userRepository.updateNameAndEmail(userDTO.getId(), userDTO.getName(), userDTO.getEmail())
             .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setName(userDTO.getName());
-        user.setEmail(userDTO.getEmail());
-        return convertToDTO(userRepository.save(user));
+        UserDTO updatedUser = new UserDTO();
+        updatedUser.setId(row.getId());
+        updatedUser.setName(row.getName());
+        updatedUser.setEmail(row.getEmail());
+        updatedUser.setRoles(row.getRoles() != null ? List.of(row.getRoles().split(",")) : List.of());
+        if (row.getCreatedAt() != null) {
+            updatedUser.setCreatedAt(row.getCreatedAt().toString());
+        }
+        outboxService.record(OutboxService.USER, updatedUser.getId(), OutboxService.UPDATED, updatedUser);
+        return updatedUser;
     }
 
     /**
@@ -202,23 +398,136 @@ public class UserService {
      * 
      * The method takes a UUID parameter which is the ID of the user to be deleted.
      * 
-     * The method first checks if the user exists in the database using the
-     * existsById() method of the UserRepository.
-     * 
-     * If the user does not exist, the method throws a RuntimeException with a
-     * message indicating that the user was not found.
+     * The user and its roles are deleted with a single statement (see
+     * UserRepository.deleteWithRoles) instead of existsById() followed by deleteById(),
+     * which loads the user before deleting it.
      * 
-     * If the user exists, the method calls the deleteById() method of the
-     * UserRepository to delete the user from the database.
+     * A user that still has job applications, live or archived, is not deleted: the method
+     * throws a UserHasJobApplicationsException. If no row was deleted otherwise the user does
+     * not exist, and the method throws a RuntimeException with a message indicating that the
+     * user was not found.
      */
     @Transactional
     public void deleteUser(UUID id) {
-        if(!userRepository.existsById(id)){
+        if (userRepository.deleteWithRoles(id) == 0) {
+            // Only on failure, so a successful delete stays one statement
+            if (userRepository.existsById(id)) {
+                throw new UserHasJobApplicationsException(id);
+            }
             throw new RuntimeException("User not found");
         }
-        userRepository.deleteById(id);
+        UserDTO deletedUser = new UserDTO();
+        deletedUser.setId(id);
+        outboxService.record(OutboxService.USER, id, OutboxService.DELETED, deletedUser);
     }
     //Helpers
+
+    // Loads the roles of a page of users with one query
+    private void addRoles(List<UserDTO> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<String>> roles = new HashMap<>();
+        jdbcTemplate.query("select user_id, role from user_roles where user_id in (:ids)",
+            Map.of("ids", users.stream().map(UserDTO::getId).toList()),
+            rs -> {
+                roles.computeIfAbsent(rs.getObject("user_id", UUID.class), id -> new ArrayList<>()).add(rs.getString("role"));
+            });
+        users.forEach(userDTO -> userDTO.setRoles(roles.getOrDefault(userDTO.getId(), List.of())));
+    }
+
+    // The users columns of the selected fields; the ID is always read (roles and cursors need it)
+    private static Set<String> selectedColumns(Set<String> fields) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        if (fields == null || fields.contains("name")) {
+            columns.add("name");
+        }
+        if (fields == null || fields.contains("email")) {
+            columns.add("email");
+        }
+        if (fields == null || fields.contains("createdAt")) {
+            columns.add("created_at");
+        }
+        return columns;
+    }
+
+    private static UserDTO mapUser(ResultSet rs, Set<String> columns) throws SQLException {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(rs.getObject("id", UUID.class));
+        if (columns.contains("name")) {
+            userDTO.setName(rs.getString("name"));
+        }
+        if (columns.contains("email")) {
+            userDTO.setEmail(rs.getString("email"));
+        }
+        if (columns.contains("created_at")) {
+            LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+            if (createdAt != null) {
+                userDTO.setCreatedAt(createdAt.toString());
+            }
+        }
+        return userDTO;
+    }
+
+    private long countExactly(String filter, MapSqlParameterSource params) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from users u" + filter, params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    // The planner's row estimate of the filtered listing, from the table statistics
+    private CachedCount approximateCount(String key, String filter, MapSqlParameterSource params) {
+        CachedCount cached = cachedCounts.get(key);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+            return cached;
+        }
+        CachedCount count;
+        try {
+            String plan = jdbcTemplate.queryForObject("explain (format json) select 1 from users u" + filter, params, String.class);
+            long estimate = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+            count = new CachedCount(estimate, false, System.nanoTime() + countCacheSeconds * 1_000_000_000L);
+        } catch (DataAccessException | JsonProcessingException e) {
+            // No planner estimate (not Postgres); an exact count is cheap on such databases
+            count = new CachedCount(countExactly(filter, params), true, System.nanoTime() + countCacheSeconds * 1_000_000_000L);
+        }
+        if (cachedCounts.size() >= MAX_CACHED_COUNTS) {
+            cachedCounts.clear();
+        }
+        cachedCounts.put(key, count);
+        return count;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record CachedCount(long total, boolean exact, long expiresAtNanos) {
+    }
+
+    // Position after the last user of a page: the sort it belongs to, its sort value and ID
+    private record UserCursor(String sort, boolean descending, String value, UUID id) {
+
+        // The value as bound to the sort column; decode() has checked that it parses
+        Object sortValue() {
+            return "createdAt".equals(sort) ? LocalDateTime.parse(value) : value;
+        }
+
+        String encode() {
+            String raw = sort + "\n" + (descending ? "desc" : "asc") + "\n" + id + "\n" + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static UserCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+                UserCursor decoded = new UserCursor(parts[0], "desc".equals(parts[1]), parts[3], UUID.fromString(parts[2]));
+                decoded.sortValue();
+                return decoded;
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
     /**
      * This method converts a User object to a UserDTO object.
      * 
@@ -0,0 +1,50 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Queues a welcome email for every new user, from the outbox events of the users, so
+ * signup itself neither waits for a mail server nor writes anything for it. The dedup key
+ * makes redelivered events harmless.
+ */
+@Service
+public class WelcomeEmailSubscriber implements OutboxSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(WelcomeEmailSubscriber.class);
+
+    private final MailQueue mailQueue;
+    private final OutboxService outboxService;
+
+    public WelcomeEmailSubscriber(MailQueue mailQueue, OutboxService outboxService) {
+        this.mailQueue = mailQueue;
+        this.outboxService = outboxService;
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return OutboxService.USER.equals(aggregateType);
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        if (!OutboxService.CREATED.equals(event.getEventType())) {
+            return;
+        }
+        UserDTO user = outboxService.readPayload(event, UserDTO.class);
+        if (user.getEmail() == null) {
+            return;
+        }
+        try {
+            mailQueue.enqueue(user.getEmail(), "Welcome to Job Tracker",
+                "Hi " + user.getName() + ",\n\nyour Job Tracker account is ready. Happy job hunting!\n",
+                "welcome:" + event.getAggregateId());
+        } catch (IllegalArgumentException e) {
+            // Retrying would not help, and would hold up the events after this one
+            logger.warn("No welcome email for user {}: {}", event.getAggregateId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.jobtracker.backend.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that adapts to the latency of the requests it lets through, after the
+ * gradient algorithm of Netflix's concurrency-limits library.
+ *
+ * - Every request takes a slot with {@link #tryAcquire()} and gives it back with
+ *   {@link #release(long)}, which records its latency. Requests over the limit are rejected
+ *   instead of queueing on the Tomcat threads and the connection pool.
+ * - Latencies are averaged per window of "windowSize" requests (the short-term RTT) and
+ *   into a slow exponential average over "longWindows" windows (the long-term RTT, what
+ *   latency looks like when the backend is healthy).
+ * - At the end of a window the limit moves towards limit * gradient + sqrt(limit), where
+ *   gradient = tolerance * longRtt / shortRtt, clamped to [0.5, 1]. While the short-term RTT
+ *   stays within the tolerance the limit grows by the square root; once it rises (Postgres
+ *   slows down, requests queue) the limit shrinks. "smoothing" sets how much of that move is
+ *   made per window.
+ * - Windows in which fewer than half the allowed requests were in flight do not grow the
+ *   limit: an idle service says nothing about how much load it can take.
+ *
+ * Thread-safe. Taking and returning a slot is lock-free; closing a window is synchronized,
+ * which is cheap next to the request it measures.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // Windows during which the long-term RTT is a plain average, before it turns exponential
+    private static final int WARMUP_WINDOWS = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSize;
+    private final double longRttFactor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long windows;
+    private long windowRttNanos;
+    private int windowSamples;
+
+    /**
+     * @param initialLimit requests allowed in flight before anything was measured
+     * @param minLimit     the limit never shrinks below this
+     * @param maxLimit     the limit never grows above this
+     * @param tolerance    how much slower than the long-term RTT requests may get before the
+     *                     limit shrinks (1.5 = 50% slower)
+     * @param smoothing    how far the limit moves towards its new value per window (0..1)
+     * @param windowSize   requests per window
+     * @param longWindows  windows the long-term RTT averages over
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    double smoothing, int windowSize, int longWindows) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowSize = Math.max(1, windowSize);
+        this.longRttFactor = 2.0 / (Math.max(1, longWindows) + 1);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Takes a slot if fewer than limit requests are in flight. A true result must be followed
+     * by exactly one {@link #release(long)} or {@link #releaseWithoutSample()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back and records how long the request took.
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos);
+    }
+
+    /**
+     * Gives the slot back without recording a latency, e.g. for a request that went async and
+     * no longer holds a thread.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos) {
+        windowRttNanos += rttNanos;
+        windowSamples++;
+        if (windowSamples < windowSize) {
+            return;
+        }
+        double shortRttNanos = (double) windowRttNanos / windowSamples;
+        windowRttNanos = 0;
+        windowSamples = 0;
+        int busiest = maxInFlight.getAndSet(inFlight.get());
+        update(Math.max(1, shortRttNanos), busiest);
+    }
+
+    private void update(double shortRttNanos, int busiest) {
+        if (windows < WARMUP_WINDOWS) {
+            longRttNanos = (longRttNanos * windows + shortRttNanos) / (windows + 1);
+        } else {
+            longRttNanos += (shortRttNanos - longRttNanos) * longRttFactor;
+        }
+        windows++;
+        // After a slow period the long-term RTT is too high; let it catch up with the recovery
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        if (busiest < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - smoothing) + target * smoothing));
+        limit = (int) estimatedLimit;
+    }
+}
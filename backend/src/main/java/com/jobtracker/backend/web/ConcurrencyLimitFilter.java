@@ -0,0 +1,110 @@
+package com.jobtracker.backend.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before it reaches the controllers: every request needs a slot of an
+ * {@link AdaptiveConcurrencyLimit}, and requests over the limit are answered right away with
+ * 503 and a Retry-After header instead of waiting for a Tomcat thread or a database
+ * connection. When Postgres slows down the limit shrinks, so the requests that are let in
+ * keep a normal latency.
+ *
+ * The requests are split into two partitions with a limit each:
+ * - "auth": /api/auth/** (signup and signin, which spend their time hashing passwords)
+ * - "default": everything else
+ * so a signin storm cannot starve the API, and an overloaded API does not lock users out.
+ *
+ * Event streams (they hold no thread while idle) and the actuator endpoints (health checks
+ * must answer under load) are not limited. Attachments (/api/attachments/**) take a slot
+ * like any request, as they hold a thread, but their duration is not sampled: an upload or
+ * download takes as long as the client's bandwidth, and one multi-second transfer would
+ * otherwise read as an overloaded backend and halve the limit. The limit, the requests in flight and the
+ * rejections of each partition are published as jobtracker.concurrency.limit,
+ * jobtracker.concurrency.in-flight and jobtracker.concurrency.rejected, tagged by partition.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH = "/api/auth/";
+    private static final String ATTACHMENTS_PATH = "/api/attachments";
+
+    private final Partition auth;
+    private final Partition other;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit authLimit, AdaptiveConcurrencyLimit defaultLimit,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.auth = new Partition("auth", authLimit, meterRegistry);
+        this.other = new Partition("default", defaultLimit, meterRegistry);
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathOf(request);
+        return path.startsWith("/actuator/") || path.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = pathOf(request);
+        Partition partition = path.startsWith(AUTH_PATH) ? auth : other;
+        if (!partition.limit.tryAcquire()) {
+            partition.rejected.increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("The server is overloaded, retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // An async request left the thread, and a transfer is as slow as the client's
+            // connection; neither duration says anything about the load
+            if (request.isAsyncStarted() || path.startsWith(ATTACHMENTS_PATH)) {
+                partition.limit.releaseWithoutSample();
+            } else {
+                partition.limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // The path within the application, e.g. /api/auth/signin
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static final class Partition {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final Counter rejected;
+
+        private Partition(String name, AdaptiveConcurrencyLimit limit, MeterRegistry meterRegistry) {
+            this.limit = limit;
+            Gauge.builder("jobtracker.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Requests allowed in flight at once")
+                .tag("partition", name)
+                .register(meterRegistry);
+            Gauge.builder("jobtracker.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests in flight")
+                .tag("partition", name)
+                .register(meterRegistry);
+            this.rejected = Counter.builder("jobtracker.concurrency.rejected")
+                .description("Requests rejected with 503 because the limit was reached")
+                .tag("partition", name)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.jobtracker.backend.web;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A sparse fieldset: the properties a client asked for with ?fields=id,title,status.
+ *
+ * The selection is used twice:
+ * - the service selects only the matching columns from the database;
+ * - {@link #wrap(Object)} makes Jackson write only these properties of the DTOs annotated with
+ *   {@code @JsonFilter(FieldSelection.FILTER)}, in JSON as well as CBOR and Smile.
+ *
+ * Without the parameter every property is selected and written, as before.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER = "fieldSelection";
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // null when every field is selected
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma-separated list of property names. Throws IllegalArgumentException for
+     * names that are not in allowed.
+     */
+    public static FieldSelection parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected some of " + allowed);
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * The selected property names, or null when every field is selected.
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Wraps a response body so only the selected properties of filtered DTOs are written.
+     */
+    public MappingJacksonValue wrap(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER, isAll()
+            ? SimpleBeanPropertyFilter.serializeAll()
+            : SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.jobtracker.backend.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes an immutable file to the response without copying it through the heap, with
+ * conditional and Range requests.
+ *
+ * - The content is handed to Tomcat's sendfile: the servlet only sets the file, offset and
+ *   length as request attributes, and the connector transfers the bytes from the page cache
+ *   to the socket (sendfile(2)) after the servlet returns, without a Tomcat thread. Without
+ *   sendfile support (another container, MockMvc) the file is transferred with
+ *   FileChannel.transferTo().
+ * - One byte range (Range: bytes=...) is answered with 206 and Content-Range, an
+ *   unsatisfiable one with 416. Several ranges are answered with the whole file, as the
+ *   specification allows. If-Range with another ETag also gets the whole file.
+ * - The ETag is given by the caller and must change with the content (a content hash);
+ *   If-None-Match with it is answered with 304.
+ */
+public final class FileDownload {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileDownload() {
+    }
+
+    /**
+     * Answers the request with the file, of the given length and media type. The filename is
+     * sent in Content-Disposition; inline asks browsers to show the file instead of saving it.
+     */
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file, long length,
+                            String contentType, String etag, String filename, boolean inline) throws IOException {
+        String quotedEtag = "\"" + etag + "\"";
+        response.setHeader(HttpHeaders.ETAG, quotedEtag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // The content behind a URL never changes, but it is private to its owner
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), quotedEtag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && length > 0 && (ifRange == null || ifRange.trim().equals(quotedEtag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // A Range header that cannot be parsed is ignored
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setContentLengthLong(count);
+        ContentDisposition.Builder disposition = inline ? ContentDisposition.inline() : ContentDisposition.attachment();
+        // Non-ASCII names also go into filename* (RFC 6266)
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(filename)) {
+            disposition.filename(filename);
+        } else {
+            disposition.filename(filename, StandardCharsets.UTF_8);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long transferred = channel.transferTo(position, end + 1 - position, out);
+                if (transferred <= 0) {
+                    // The file is shorter than its recorded length
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    //Helpers
+
+    // If-None-Match: "*" or a list of (weak or strong) ETags
+    private static boolean matches(String ifNoneMatch, String quotedEtag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(quotedEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
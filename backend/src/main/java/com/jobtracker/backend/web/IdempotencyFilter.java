@@ -0,0 +1,257 @@
+package com.jobtracker.backend.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes the POST endpoints annotated with {@link Idempotent} safe to retry with an
+ * Idempotency-Key header.
+ *
+ * How a request with a key is handled:
+ * - the key is scoped to the caller (the authenticated user, or nobody for signup) and the
+ *   URL, and the request is fingerprinted by its query string and body;
+ * - the first request runs normally; its response (status below 500) is stored in the
+ *   {@link IdempotencyStore} and replayed, with an "Idempotent-Replayed: true" header, to
+ *   every retry with the same key, without reaching the controller or the service layer;
+ * - a retry that arrives while the first request still runs waits for its response
+ *   (up to "wait-timeout-ms", then 409 with Retry-After);
+ * - a failed first request (5xx or exception) is forgotten, so the next retry runs again;
+ * - reusing a key with a different request is answered with 422.
+ *
+ * The filter runs right after the security filter chain, so the caller is known and
+ * unauthenticated requests never reach the store. Requests without the header are passed
+ * through untouched.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final HandlerMapping handlerMapping;
+    private final long waitTimeoutMs;
+
+    public IdempotencyFilter(IdempotencyStore store, HandlerMapping handlerMapping, long waitTimeoutMs) {
+        this.store = store;
+        this.handlerMapping = handlerMapping;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isIdempotent(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpServletResponse.SC_BAD_REQUEST,
+                IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest);
+        String scopedKey = callerOf() + " " + request.getRequestURI() + " " + key;
+
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(scopedKey, fingerprint);
+            if (!claim.slot().getFingerprint().equals(fingerprint)) {
+                reject(response, 422, IDEMPOTENCY_KEY_HEADER + " was already used with a different request");
+                return;
+            }
+            if (claim.owner()) {
+                execute(cachedRequest, response, filterChain, scopedKey, claim.slot());
+                return;
+            }
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = claim.slot().getResponse().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | InterruptedException | ExecutionException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                reject(response, HttpServletResponse.SC_CONFLICT, "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                return;
+            }
+            if (stored != null) {
+                replay(stored, response);
+                return;
+            }
+            // The first request failed and was forgotten; claim the key again
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String scopedKey, IdempotencyStore.Slot slot) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, cachingResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            store.fail(scopedKey, slot);
+            throw e;
+        }
+        if (cachingResponse.getStatus() < 500) {
+            store.complete(slot, new IdempotencyStore.StoredResponse(cachingResponse.getStatus(),
+                cachingResponse.getContentType(), cachingResponse.getHeader(HttpHeaders.LOCATION),
+                cachingResponse.getContentAsByteArray()));
+        } else {
+            store.fail(scopedKey, slot);
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    private static void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    // Answered directly; an error dispatch would run through the security chain again
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    // Looks up the controller method the request would be dispatched to
+    private boolean isIdempotent(HttpServletRequest request) {
+        boolean parsed = ServletRequestPathUtils.hasParsedRequestPath(request);
+        if (!parsed) {
+            ServletRequestPathUtils.parseAndCache(request);
+        }
+        try {
+            HandlerExecutionChain chain = handlerMapping.getHandler(request);
+            return chain != null && chain.getHandler() instanceof HandlerMethod handlerMethod
+                && handlerMethod.hasMethodAnnotation(Idempotent.class);
+        } catch (Exception e) {
+            // Unmapped or unsupported; the DispatcherServlet will answer it
+            return false;
+        } finally {
+            if (!parsed) {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
+    private static String callerOf() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return "-";
+        }
+        return authentication.getName();
+    }
+
+    private static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (request.getQueryString() != null) {
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The body is read up front to fingerprint it, then served again to the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is in memory: it is available at once and then read completely
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
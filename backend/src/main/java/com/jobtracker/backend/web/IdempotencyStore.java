@@ -0,0 +1,115 @@
+package com.jobtracker.backend.web;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers the first response of each idempotency key, in memory.
+ *
+ * - the first request with a key claims a slot and runs; duplicates that arrive while it is
+ *   in flight get the same slot and wait on its future instead of running again;
+ * - a slot expires "ttl" after it was claimed; as every slot lives equally long, the oldest
+ *   claims expire first and expired slots are dropped from the head on every claim;
+ * - at most "maxEntries" slots are kept; beyond that the oldest one is evicted early.
+ *
+ * All methods are synchronized; they only touch the map, never wait on a response.
+ */
+public class IdempotencyStore {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Slot> slots = new LinkedHashMap<>();
+
+    public IdempotencyStore(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    public IdempotencyStore(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the slot of the key, claiming a new one if there is none. The caller that
+     * claimed it (owner) runs the request and must complete() or fail() it.
+     */
+    public synchronized Claim claim(String key, String fingerprint) {
+        long now = clock.millis();
+        removeExpired(now);
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            return new Claim(slot, false);
+        }
+        slot = new Slot(fingerprint, now + ttlMillis);
+        slots.put(key, slot);
+        if (slots.size() > maxEntries) {
+            Iterator<Slot> oldest = slots.values().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return new Claim(slot, true);
+    }
+
+    /**
+     * Stores the response of the owner and hands it to the waiting duplicates.
+     */
+    public void complete(Slot slot, StoredResponse response) {
+        slot.response.complete(response);
+    }
+
+    /**
+     * Forgets a slot whose request failed, so the next retry runs again. Waiting duplicates
+     * are woken up with no response.
+     */
+    public synchronized void fail(String key, Slot slot) {
+        slots.remove(key, slot);
+        slot.response.complete(null);
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    private void removeExpired(long now) {
+        Iterator<Slot> oldest = slots.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAt <= now) {
+            oldest.remove();
+        }
+    }
+
+    public record Claim(Slot slot, boolean owner) {
+    }
+
+    /**
+     * The response of a key's first request; null in the future when it failed.
+     */
+    public static final class Slot {
+
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Slot(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        // Hash of the request the key was first used with
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public CompletableFuture<StoredResponse> getResponse() {
+            return response;
+        }
+    }
+
+    public record StoredResponse(int status, String contentType, String location, byte[] body) {
+    }
+}
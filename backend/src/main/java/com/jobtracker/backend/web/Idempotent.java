@@ -0,0 +1,19 @@
+package com.jobtracker.backend.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a POST endpoint that honours the Idempotency-Key header: a retried request with the
+ * same key gets the response of the first one instead of running again.
+ *
+ * See {@link IdempotencyFilter} for how keys are scoped, stored and replayed.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Idempotent {
+}
@@ -0,0 +1,50 @@
+package com.jobtracker.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Writes the OpenAPI document at build time; not a test. Run by the "openapi" Maven profile
+ * (mvn -Popenapi package), which puts the result in target/classes/static/openapi.json, so the
+ * jar serves it as a static resource and production does not need springdoc at runtime.
+ *
+ * The application runs against an in-memory H2 database here, with springdoc enabled.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:openapi;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "jobtracker.history.dir=target/openapi-history",
+    "springdoc.api-docs.enabled=true",
+    // Stable output, so the document only changes when the API does
+    "springdoc.writer-with-order-by-keys=true",
+    "springdoc.writer-with-default-pretty-printer=true"
+})
+@AutoConfigureMockMvc
+class OpenApiDocumentGenerator {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void writeOpenApiDocument() throws Exception {
+        byte[] document = mockMvc.perform(get("/v3/api-docs"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+
+        Path output = Path.of(System.getProperty("openapi.output", "target/classes/static/openapi.json"));
+        Files.createDirectories(output.getParent());
+        Files.write(output, document);
+    }
+}
@@ -0,0 +1,78 @@
+package com.jobtracker.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Users sign up and sign in against the users table, and authenticate every other request
+ * with the JWT they got. Runs in a transaction that is rolled back.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+@Transactional
+class AuthenticationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void signedUpUserSignsInAndUsesTheToken() throws Exception {
+        String email = "signin-" + UUID.randomUUID() + "@example.com";
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"name": "Signed Up", "email": "%s", "password": "secret-password"}
+                    """.formatted(email)))
+            .andExpect(status().isOk());
+
+        String token = signIn(email, "secret-password");
+
+        mockMvc.perform(get("/api/applications").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/applications").header(HttpHeaders.AUTHORIZATION, "Bearer " + tamper(token)))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/applications"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void thereIsNoBuiltInAdmin() throws Exception {
+        mockMvc.perform(get("/api/users").with(httpBasic("admin", "1234")))
+            .andExpect(status().isUnauthorized());
+    }
+
+    //Helpers
+
+    // Changes the first character of the signature
+    private static String tamper(String token) {
+        int signature = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signature) == 'A' ? 'B' : 'A';
+        return token.substring(0, signature) + replacement + token.substring(signature + 1);
+    }
+
+    private String signIn(String email, String password) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"email": "%s", "password": "%s"}
+                    """.formatted(email, password)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("accessToken").asText();
+    }
+}
@@ -0,0 +1,63 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.CompanyDTO;
+import com.jobtracker.backend.service.CompanyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renaming a company renames it for every user, so only admins may update companies. Runs
+ * in a transaction that is rolled back.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+@Transactional
+class CompanyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CompanyService companyService;
+
+    private CompanyDTO company;
+
+    @BeforeEach
+    void createCompany() {
+        CompanyDTO companyDTO = new CompanyDTO();
+        companyDTO.setName("Rename Corp " + UUID.randomUUID());
+        company = companyService.createCompany(companyDTO);
+    }
+
+    @Test
+    void otherUsersCannotRenameCompanies() throws Exception {
+        mockMvc.perform(put("/api/companies/{id}", company.getId()).with(user("jane@example.com"))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Hijacked\"}"))
+            .andExpect(status().isForbidden());
+
+        assertThat(companyService.findCompanyById(company.getId()).getName()).isEqualTo(company.getName());
+    }
+
+    @Test
+    void adminsCanRenameCompanies() throws Exception {
+        String name = "Renamed Corp " + UUID.randomUUID();
+        mockMvc.perform(put("/api/companies/{id}", company.getId()).with(user("admin@example.com").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"" + name + "\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(name));
+    }
+}
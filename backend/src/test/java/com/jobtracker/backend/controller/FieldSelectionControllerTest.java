@@ -0,0 +1,165 @@
+package com.jobtracker.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jobtracker.backend.config.BinaryContentNegotiationConfig;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.service.JobApplicationService;
+import com.jobtracker.backend.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ?fields= on the job application endpoints: only the selected columns are queried and only
+ * the selected properties are written, in JSON, CBOR and Smile. The statements of the
+ * sparse fieldsets are captured from the NamedParameterJdbcTemplate they run on. Runs in a
+ * transaction that is rolled back.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+@Transactional
+class FieldSelectionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @MockitoSpyBean
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private UserDTO owner;
+    private JobApplicationDTO application;
+
+    @BeforeEach
+    void createApplication() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("Field Selection");
+        userDTO.setEmail("field-selection-" + UUID.randomUUID() + "@example.com");
+        userDTO.setRoles(List.of("USER"));
+        owner = userService.createUser(userDTO, "password");
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle("Backend Engineer");
+        jobApplication.setCompany("Field Selection Corp");
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Sparse fieldsets");
+        jobApplication.setStatus("APPLIED");
+        application = jobApplicationService.createJobApplication(jobApplication, owner.getEmail());
+        clearInvocations(jdbcTemplate);
+    }
+
+    @Test
+    void onlyTheSelectedColumnsAreQueried() throws Exception {
+        mockMvc.perform(get("/api/applications").param("fields", "title,id").with(user(owner.getEmail())))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/applications/{id}", application.getId()).param("fields", "status")
+                .param("includeHistory", "true").with(user(owner.getEmail())))
+            .andExpect(status().isOk());
+
+        assertThat(queries()).containsExactly(
+            "select title, id, false as archived from job_applications where user_id = :ownerId",
+            "select status, false as archived from job_applications where user_id = :ownerId and id = :id "
+                + "union all select status, true as archived from job_applications_archive where user_id = :ownerId and id = :id");
+    }
+
+    @Test
+    void onlyTheSelectedPropertiesAreWrittenInEveryFormat() throws Exception {
+        List<MediaType> formats = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType(BinaryContentNegotiationConfig.APPLICATION_SMILE_VALUE));
+        List<ObjectMapper> readers = List.of(new ObjectMapper(), new ObjectMapper(new CBORFactory()),
+            new ObjectMapper(new SmileFactory()));
+        for (int i = 0; i < formats.size(); i++) {
+            byte[] body = mockMvc.perform(get("/api/applications/{id}", application.getId()).param("fields", "id,title")
+                    .accept(formats.get(i)).with(user(owner.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(formats.get(i)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode jobApplication = readers.get(i).readTree(body);
+            assertThat(propertyNames(jobApplication)).as(formats.get(i).toString()).containsExactlyInAnyOrder("id", "title");
+            assertThat(jobApplication.get("title").asText()).isEqualTo("Backend Engineer");
+        }
+
+        // Without a selection every property is written
+        byte[] body = mockMvc.perform(get("/api/applications/{id}", application.getId())
+                .accept(MediaType.APPLICATION_CBOR).with(user(owner.getEmail())))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+        assertThat(propertyNames(readers.get(1).readTree(body))).contains("id", "title", "status", "company", "archived");
+    }
+
+    @Test
+    void unsetDatesAreWrittenAsNull() throws Exception {
+        // The application has no deadline
+        mockMvc.perform(get("/api/applications/{id}", application.getId()).param("fields", "deadline,createdAt")
+                .with(user(owner.getEmail())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasKey("deadline")))
+            .andExpect(jsonPath("$.deadline").value(nullValue()))
+            .andExpect(jsonPath("$.createdAt").value(startsWith("20")));
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/applications").param("fields", "id,password").with(user(owner.getEmail())))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(startsWith("Unknown field 'password'")));
+        mockMvc.perform(get("/api/applications/{id}", application.getId()).param("fields", "userPassword")
+                .with(user(owner.getEmail())))
+            .andExpect(status().isBadRequest());
+
+        verify(jdbcTemplate, never()).query(any(String.class), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+
+    //Helpers
+
+    @SuppressWarnings("unchecked")
+    private List<String> queries() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(0)).query(sql.capture(), any(SqlParameterSource.class), any(RowMapper.class));
+        return sql.getAllValues();
+    }
+
+    private static List<String> propertyNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
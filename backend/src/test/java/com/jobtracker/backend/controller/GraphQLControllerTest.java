@@ -0,0 +1,158 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.monitoring.SqlStatementCounter;
+import com.jobtracker.backend.service.JobApplicationService;
+import com.jobtracker.backend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.UserRequestPostProcessor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs queries against /api/graphql: batched loading of nested fields, what other users'
+ * data a caller can see, and the depth and complexity limits. Runs in a transaction that is
+ * rolled back.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+@Transactional
+class GraphQLControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    private UserDTO owner;
+    private UserDTO other;
+
+    @BeforeEach
+    void createApplications() {
+        owner = createUser();
+        other = createUser();
+        createApplication(owner, "Backend Engineer");
+        createApplication(owner, "Platform Engineer");
+        createApplication(other, "Data Engineer");
+    }
+
+    @Test
+    void nestedFieldsAreLoadedWithOneInQueryPerLevel() throws Exception {
+        Map<String, Integer> statements;
+        try (SqlStatementCounter.Scope scope = counter.open("test", Integer.MAX_VALUE, Integer.MAX_VALUE)) {
+            query(as(other).roles("ADMIN"), "{ users { email applications { title owner { email } } } }")
+                .andExpect(jsonPath("$.errors").doesNotExist())
+                .andExpect(jsonPath("$.data.users[?(@.email == '" + owner.getEmail() + "')].applications[*].title")
+                    .value(containsInAnyOrder("Backend Engineer", "Platform Engineer")))
+                .andExpect(jsonPath("$.data.users[?(@.email == '" + other.getEmail() + "')].applications[*].owner.email")
+                    .value(containsInAnyOrder(other.getEmail())));
+            statements = scope.getStatistics().getShapes();
+        }
+
+        // The users, then the applications of all of them, then the owners of all applications
+        assertThat(statements.values()).containsOnly(1);
+        assertThat(statements.keySet()).anySatisfy(shape ->
+            assertThat(shape).contains("from job_applications ja1_0 where ja1_0.user_id in (?)"));
+        assertThat(statements.keySet()).anySatisfy(shape ->
+            assertThat(shape).contains("from users u1_0").contains("where u1_0.id in (?)"));
+        assertThat(statements.keySet()).noneSatisfy(shape -> assertThat(shape).contains("ja1_0.user_id=?"));
+    }
+
+    @Test
+    void otherUsersAndTheirApplicationsAreOnlyVisibleToAdmins() throws Exception {
+        query(as(other), "{ users { email applications { title } } }")
+            .andExpect(jsonPath("$.data.users[*].email").value(containsInAnyOrder(other.getEmail())))
+            .andExpect(jsonPath("$.data.users[0].applications[*].title").value(containsInAnyOrder("Data Engineer")));
+        query(as(other), "{ user(id: \"" + owner.getId() + "\") { email applications { title } } }")
+            .andExpect(jsonPath("$.data.user").doesNotExist());
+
+        query(as(other).roles("ADMIN"), "{ user(id: \"" + owner.getId() + "\") { email applications { title } } }")
+            .andExpect(jsonPath("$.data.user.email").value(owner.getEmail()))
+            .andExpect(jsonPath("$.data.user.applications[*].title")
+                .value(containsInAnyOrder("Backend Engineer", "Platform Engineer")));
+    }
+
+    @Test
+    void tooDeepAndTooComplexQueriesAreRejectedBeforeTouchingTheDatabase() throws Exception {
+        StringBuilder complex = new StringBuilder("{");
+        for (int i = 0; i < 101; i++) {
+            complex.append(" a").append(i).append(": applications { id title }");
+        }
+        complex.append(" }");
+
+        try (SqlStatementCounter.Scope scope = counter.open("test", Integer.MAX_VALUE, Integer.MAX_VALUE)) {
+            query(as(owner), "{ applications { owner { applications { owner { applications { owner { email } } } } } } }")
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("depth")))
+                .andExpect(jsonPath("$.data").doesNotExist());
+            query(as(owner), complex.toString())
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("complexity")))
+                .andExpect(jsonPath("$.data").doesNotExist());
+            assertThat(scope.getStatistics().getStatementCount()).isZero();
+        }
+    }
+
+    //Helpers
+
+    // Data fetchers are synchronous, so the response is complete without an async dispatch
+    private ResultActions query(RequestPostProcessor caller, String query) throws Exception {
+        return mockMvc.perform(post("/api/graphql").with(caller)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("query", query))))
+            .andExpect(status().isOk());
+    }
+
+    private static UserRequestPostProcessor as(UserDTO user) {
+        return user(user.getEmail());
+    }
+
+    private UserDTO createUser() {
+        UserDTO user = new UserDTO();
+        user.setName("GraphQL User");
+        user.setEmail("graphql-" + UUID.randomUUID() + "@example.com");
+        user.setRoles(List.of("USER"));
+        return userService.createUser(user, "password");
+    }
+
+    private void createApplication(UserDTO user, String title) {
+        JobApplicationDTO application = new JobApplicationDTO();
+        application.setTitle(title);
+        application.setCompany("GraphQL Corp");
+        application.setLocation("Remote");
+        application.setDescription("Batched loading");
+        application.setStatus("APPLIED");
+        jobApplicationService.createJobApplication(application, user.getEmail());
+    }
+}
@@ -0,0 +1,109 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.service.JobApplicationService;
+import com.jobtracker.backend.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every job application endpoint only sees the caller's own applications. Runs in a
+ * transaction that is rolled back.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+@Transactional
+class JobApplicationControllerTest {
+
+    private static final String UPDATE = """
+        {"title": "Staff Engineer", "company": "Owner Scoping Corp", "location": "Remote",
+         "description": "Scoped to the owner", "status": "OFFER"}
+        """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    private UserDTO owner;
+    private UserDTO other;
+    private JobApplicationDTO application;
+
+    @BeforeEach
+    void createApplication() {
+        owner = createUser();
+        other = createUser();
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle("Backend Engineer");
+        jobApplication.setCompany("Owner Scoping Corp");
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Scoped to the owner");
+        jobApplication.setStatus("APPLIED");
+        application = jobApplicationService.createJobApplication(jobApplication, owner.getEmail());
+    }
+
+    @Test
+    void ownerCanReadUpdateAndDelete() throws Exception {
+        mockMvc.perform(get("/api/applications/{id}", application.getId()).with(user(owner.getEmail())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Backend Engineer"));
+        mockMvc.perform(put("/api/applications/{id}", application.getId()).with(user(owner.getEmail()))
+                .contentType(MediaType.APPLICATION_JSON).content(UPDATE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("OFFER"));
+        mockMvc.perform(delete("/api/applications/{id}", application.getId()).with(user(owner.getEmail())))
+            .andExpect(status().isOk());
+
+        assertThat(jobApplicationService.findJobApplicationById(application.getId(), owner.getEmail())).isNull();
+    }
+
+    @Test
+    void anotherUsersApplicationIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/applications/{id}", application.getId()).with(user(other.getEmail())))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/applications/{id}/history", application.getId()).with(user(other.getEmail())))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/applications/{id}", application.getId()).with(user(other.getEmail()))
+                .contentType(MediaType.APPLICATION_JSON).content(UPDATE))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/applications/{id}", application.getId()).with(user(other.getEmail())))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/applications").with(user(other.getEmail())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+
+        JobApplicationDTO unchanged = jobApplicationService.findJobApplicationById(application.getId(), owner.getEmail());
+        assertThat(unchanged.getTitle()).isEqualTo("Backend Engineer");
+        assertThat(unchanged.getStatus()).isEqualTo("APPLIED");
+    }
+
+    private UserDTO createUser() {
+        UserDTO user = new UserDTO();
+        user.setName("Owner Scoping");
+        user.setEmail("owner-scoping-" + UUID.randomUUID() + "@example.com");
+        user.setRoles(List.of("USER"));
+        return userService.createUser(user, "password");
+    }
+}
@@ -0,0 +1,78 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.entity.EmailStatus;
+import com.jobtracker.backend.entity.OutboundEmail;
+import com.jobtracker.backend.repository.OutboundEmailRepository;
+import com.jobtracker.backend.service.MailQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The mail queue endpoints are for admins, and never expose the bodies of the emails. Runs
+ * in a transaction that is rolled back.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+@Transactional
+class MailControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+
+    private OutboundEmail dead;
+
+    @BeforeEach
+    void createDeadLetter() {
+        String dedupKey = "test:" + UUID.randomUUID();
+        mailQueue.enqueue("jane@dead-letter.example", "Reminder", "Private body", dedupKey);
+        dead = outboundEmailRepository.findByDedupKey(dedupKey).orElseThrow();
+        dead.setStatus(EmailStatus.DEAD);
+        dead.setAttempts(8);
+        dead.setLastError("550 User unknown");
+        outboundEmailRepository.saveAndFlush(dead);
+    }
+
+    @Test
+    void otherUsersAreForbidden() throws Exception {
+        mockMvc.perform(get("/api/mail/stats").with(user("jane@example.com")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/mail/dead").with(user("jane@example.com")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/mail/dead/{id}/retry", dead.getId()).with(user("jane@example.com")))
+            .andExpect(status().isForbidden());
+
+        assertThat(outboundEmailRepository.findById(dead.getId()).orElseThrow().getStatus()).isEqualTo(EmailStatus.DEAD);
+    }
+
+    @Test
+    void adminsSeeDeadLettersWithoutTheirBodies() throws Exception {
+        mockMvc.perform(get("/api/mail/dead").param("limit", "500").with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.id == '" + dead.getId() + "')].lastError").value("550 User unknown"))
+            .andExpect(jsonPath("$[?(@.id == '" + dead.getId() + "')].recipient").value("jane@dead-letter.example"))
+            .andExpect(jsonPath("$[*].body").doesNotExist());
+
+        mockMvc.perform(post("/api/mail/dead/{id}/retry", dead.getId()).with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,40 @@
+package com.jobtracker.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The monitoring statistics are for admins.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+class MonitoringControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void otherUsersAreForbidden() throws Exception {
+        mockMvc.perform(get("/api/monitoring/sql-statements").with(user("jane@example.com")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/monitoring/logging").with(user("jane@example.com")))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminsSeeTheStatistics() throws Exception {
+        mockMvc.perform(get("/api/monitoring/sql-statements").with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/monitoring/logging").with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.droppedEvents").isNumber());
+    }
+}
@@ -0,0 +1,184 @@
+package com.jobtracker.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.service.JobApplicationService;
+import com.jobtracker.backend.service.ReactiveReadService;
+import com.jobtracker.backend.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The reactive endpoints with pages of two rows. R2DBC reads on connections of its own, so
+ * the applications are committed and deleted again after each test.
+ */
+@SpringBootTest(properties = {"jobtracker.history.dir=target/test-history", "jobtracker.reactive.enabled=true",
+    "jobtracker.reactive.page-size=2"})
+@AutoConfigureMockMvc
+class ReactiveReadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String company = "Reactive Corp " + UUID.randomUUID();
+    private UserDTO owner;
+    private UserDTO other;
+    private final List<UUID> ownerApplications = new ArrayList<>();
+    private final List<UUID> otherApplications = new ArrayList<>();
+
+    @BeforeEach
+    void createApplications() {
+        owner = createUser();
+        other = createUser();
+        // Two full pages for the owner, exactly one for the other user
+        for (int i = 0; i < 4; i++) {
+            ownerApplications.add(createApplication(owner, "Owner application " + i));
+        }
+        for (int i = 0; i < 2; i++) {
+            otherApplications.add(createApplication(other, "Other application " + i));
+        }
+        // In the order of Postgres: UUID.compareTo compares signed halves, the strings sort bytewise
+        ownerApplications.sort(Comparator.comparing(UUID::toString));
+        otherApplications.sort(Comparator.comparing(UUID::toString));
+    }
+
+    @AfterEach
+    void deleteApplications() {
+        for (UserDTO user : List.of(owner, other)) {
+            jdbcTemplate.update("delete from job_applications where user_id = ?", user.getId());
+            userService.deleteUser(user.getId());
+        }
+        jdbcTemplate.update("delete from companies where name = ?", company);
+    }
+
+    @Test
+    void applicationsAreStreamedAsNdjsonAcrossFullPages() throws Exception {
+        List<JsonNode> owned = stream("/api/reactive/applications", owner);
+        assertThat(owned).extracting(node -> UUID.fromString(node.get("id").asText()))
+            .containsExactlyElementsOf(ownerApplications);
+        assertThat(owned).allSatisfy(node -> assertThat(node.get("userId").asText()).isEqualTo(owner.getId().toString()));
+
+        assertThat(stream("/api/reactive/applications", other))
+            .extracting(node -> UUID.fromString(node.get("id").asText()))
+            .containsExactlyElementsOf(otherApplications);
+    }
+
+    @Test
+    void anotherUsersApplicationIsNotFound() throws Exception {
+        UUID id = ownerApplications.get(0);
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/reactive/applications/{id}", id).with(user(owner.getEmail())))
+                .andExpect(request().asyncStarted())
+                .andReturn()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(id.toString()));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/reactive/applications/{id}", id).with(user(other.getEmail())))
+                .andExpect(request().asyncStarted())
+                .andReturn()))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void usersAreOnlyReadableByAdmins() throws Exception {
+        mockMvc.perform(get("/api/reactive/users").with(user(owner.getEmail())).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/reactive/users/{id}", owner.getId()).with(user(owner.getEmail())))
+            .andExpect(status().isForbidden());
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/reactive/users/{id}", owner.getId())
+                    .with(user("admin@example.com").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value(owner.getEmail()));
+    }
+
+    @Test
+    void usersAreReadPageByPageInOrder() {
+        ReactiveReadService service = new ReactiveReadService(reactiveDatabaseClient);
+        ReflectionTestUtils.setField(service, "pageSize", 500);
+
+        List<UUID> streamed = service.findAllUsers().map(UserDTO::getId).collectList().block();
+
+        assertThat(streamed).containsExactlyElementsOf(
+            jdbcTemplate.queryForList("select id from users order by created_at desc, id desc", UUID.class));
+    }
+
+    //Helpers
+
+    // The NDJSON response, one document per line
+    private List<JsonNode> stream(String path, UserDTO caller) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).with(user(caller.getEmail())).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+        List<JsonNode> documents = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                documents.add(objectMapper.readTree(line));
+            }
+        }
+        return documents;
+    }
+
+    private UserDTO createUser() {
+        UserDTO user = new UserDTO();
+        user.setName("Reactive Reader");
+        user.setEmail("reactive-" + UUID.randomUUID() + "@example.com");
+        user.setRoles(List.of("USER"));
+        return userService.createUser(user, "password");
+    }
+
+    private UUID createApplication(UserDTO user, String title) {
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle(title);
+        jobApplication.setCompany(company);
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Streamed");
+        jobApplication.setStatus("APPLIED");
+        return jobApplicationService.createJobApplication(jobApplication, user.getEmail()).getId();
+    }
+}
@@ -0,0 +1,232 @@
+package com.jobtracker.backend.controller;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.dto.UserPageDTO;
+import com.jobtracker.backend.dto.UserQuery;
+import com.jobtracker.backend.monitoring.SqlStatementBudgetExceededException;
+import com.jobtracker.backend.monitoring.SqlStatementStatisticsRegistry;
+import com.jobtracker.backend.repository.ArchivedJobApplicationRepository;
+import com.jobtracker.backend.repository.JobApplicationRepositry;
+import com.jobtracker.backend.service.JobApplicationService;
+import com.jobtracker.backend.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The user management is for admins only; users can only read their own account. Runs in a
+ * transaction that is rolled back.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@AutoConfigureMockMvc
+@Transactional
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private JobApplicationRepositry jobApplicationRepositry;
+
+    @Autowired
+    private ArchivedJobApplicationRepository archivedJobApplicationRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementStatisticsRegistry statisticsRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private UserDTO user;
+
+    @BeforeEach
+    void createUser() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("Managed User");
+        userDTO.setEmail("managed-" + UUID.randomUUID() + "@example.com");
+        userDTO.setRoles(List.of("USER"));
+        user = userService.createUser(userDTO, "password");
+        // The listing is read with JDBC, which does not flush the persistence context
+        entityManager.flush();
+    }
+
+    @Test
+    void otherUsersAreForbidden() throws Exception {
+        String promotion = """
+            {"name": "Managed User", "email": "%s", "roles": ["ADMIN"]}
+            """.formatted(user.getEmail());
+
+        mockMvc.perform(get("/api/users").param("email", "managed-").with(user(user.getEmail())))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/{id}", UUID.randomUUID()).with(user(user.getEmail())))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/users/{id}", user.getId()).with(user(user.getEmail()))
+                .contentType(MediaType.APPLICATION_JSON).content(promotion))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users").with(user(user.getEmail()))
+                .contentType(MediaType.APPLICATION_JSON).content(promotion.replace("managed-", "new-")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/users/{id}", user.getId()).with(user(user.getEmail())))
+            .andExpect(status().isForbidden());
+
+        assertThat(userService.findUserById(user.getId()).getRoles()).containsExactly("USER");
+    }
+
+    @Test
+    void usersCanReadTheirOwnAccount() throws Exception {
+        UserDTO other = new UserDTO();
+        other.setName("Other User");
+        other.setEmail("other-" + UUID.randomUUID() + "@example.com");
+        other = userService.createUser(other, "password");
+
+        mockMvc.perform(get("/api/users/{id}", user.getId()).with(user(user.getEmail())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value(user.getEmail()));
+        mockMvc.perform(get("/api/users/{id}", user.getId()).param("fields", "name").with(user(user.getEmail())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Managed User"))
+            .andExpect(jsonPath("$.email").doesNotExist());
+        mockMvc.perform(get("/api/users/{id}", other.getId()).with(user(user.getEmail())))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminsCanListAndFilterUsers() throws Exception {
+        mockMvc.perform(get("/api/users").param("email", user.getEmail()).param("count", "none")
+                .with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users[0].email").value(user.getEmail()));
+        mockMvc.perform(get("/api/users/{id}", user.getId()).with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Managed User"));
+    }
+
+    @Test
+    void usersWithLiveApplicationsAreNotDeleted() throws Exception {
+        JobApplicationDTO application = createApplication();
+
+        mockMvc.perform(delete("/api/users/{id}", user.getId()).with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isConflict());
+
+        assertThat(userService.findUserById(user.getId()).getRoles()).containsExactly("USER");
+        assertThat(jobApplicationRepositry.findById(application.getId())).isPresent();
+    }
+
+    @Test
+    void usersWithArchivedApplicationsAreNotDeleted() throws Exception {
+        UUID id = createApplication().getId();
+        LocalDateTime cutoff = LocalDateTime.now().plusDays(1);
+        jobApplicationRepositry.copyToArchive(List.of(id), List.of(user.getId()), cutoff, List.of("APPLIED"), Instant.now());
+        jobApplicationRepositry.deleteArchived(List.of(id), List.of(user.getId()), cutoff, List.of("APPLIED"));
+
+        mockMvc.perform(delete("/api/users/{id}", user.getId()).with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isConflict());
+
+        assertThat(userService.findUserById(user.getId()).getRoles()).containsExactly("USER");
+        assertThat(archivedJobApplicationRepository.findByUserId(user.getId())).hasSize(1);
+    }
+
+    @Test
+    void tamperedCursorsAreBadRequests() throws Exception {
+        String notADate = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            ("createdAt\ndesc\n" + user.getId() + "\nnot-a-date").getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of(notADate, "not base64!", "Y3JlYXRlZEF0")) {
+            mockMvc.perform(get("/api/users").param("after", cursor).with(user("admin@example.com").roles("ADMIN")))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+        }
+    }
+
+    @Test
+    void theJdbcStatementsOfTheListingAreCounted() throws Exception {
+        long before = statementsOfTheListing();
+
+        mockMvc.perform(get("/api/users").param("email", user.getEmail()).param("count", "exact")
+                .with(user("admin@example.com").roles("ADMIN")))
+            .andExpect(status().isOk());
+
+        // The page, the roles of its users and the total
+        assertThat(statementsOfTheListing() - before).isEqualTo(3);
+    }
+
+    @Test
+    void anNPlusOneBreaksTheStatementBudgetOfTheListing() throws Exception {
+        UserDTO second = new UserDTO();
+        second.setName("Second Managed User");
+        second.setEmail("managed-" + UUID.randomUUID() + "@example.com");
+        userService.createUser(second, "password");
+        entityManager.flush();
+        // The roles loaded one user at a time instead of with one query for the page
+        doAnswer(invocation -> {
+            UserPageDTO page = (UserPageDTO) invocation.callRealMethod();
+            page.getUsers().forEach(listed -> listed.setRoles(jdbcTemplate.queryForList(
+                "select role from user_roles where user_id = :id", Map.of("id", listed.getId()), String.class)));
+            return page;
+        }).when(userService).findUsers(any(UserQuery.class), any());
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/users").param("email", "managed-").param("count", "none")
+                .with(user("admin@example.com").roles("ADMIN"))))
+            .hasRootCauseInstanceOf(SqlStatementBudgetExceededException.class)
+            .rootCause().hasMessageContaining("endpoint=GET /api/users");
+    }
+
+    //Helpers
+
+    private JobApplicationDTO createApplication() {
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle("Backend Engineer");
+        jobApplication.setCompany("User Deletion Corp");
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Keeps its owner");
+        jobApplication.setStatus("APPLIED");
+        JobApplicationDTO created = jobApplicationService.createJobApplication(jobApplication, user.getEmail());
+        entityManager.flush();
+        return created;
+    }
+
+    private long statementsOfTheListing() {
+        SqlStatementStatisticsRegistry.Snapshot snapshot = statisticsRegistry.snapshot().get("GET /api/users");
+        return snapshot != null ? snapshot.statements() : 0;
+    }
+}
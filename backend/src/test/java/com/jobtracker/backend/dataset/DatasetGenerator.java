@@ -0,0 +1,315 @@
+package com.jobtracker.backend.dataset;
+
+import com.jobtracker.backend.entity.ApplicationStatus;
+import com.jobtracker.backend.entity.Company;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Fills a Postgres database with a large synthetic dataset for performance tests; not a test.
+ * Run by the "dataset" Maven profile (mvn -Pdataset test-compile -Ddataset.users=...), see
+ * README, "Test data".
+ *
+ * What is generated:
+ * - companies, with names unique after normalization
+ * - users, each with the USER role (every 1000th also ADMIN) and the same password
+ *   (dataset.user-password), hashed once
+ * - job applications, spread over the users and the companies with Zipf distributions (a few
+ *   users and companies have very many applications, most have a handful), statuses weighted
+ *   like a real pipeline, created over the two years before dataset.as-of
+ *
+ * Rows are streamed with COPY ... FROM STDIN in one transaction, then the tables are analyzed.
+ * Everything, including the ids, is drawn from one seed (dataset.seed): the same seed, counts
+ * and as-of date produce the same rows. Each table gets its own split of the random source,
+ * so changing one count does not change the rows of the other tables.
+ *
+ * The schema must exist (start the application once). Reminders, the edit history and the
+ * archive are not generated; the analytics rollups and the company index are built from these
+ * tables when the application starts.
+ */
+public final class DatasetGenerator {
+
+    private static final String[] COMPANY_PREFIXES = {
+        "Acme", "Blue", "Bright", "Cloud", "Core", "Delta", "East", "First", "Global", "Green",
+        "Hyper", "Iron", "Lambda", "Metro", "North", "Nova", "Open", "Pixel", "Quant", "Red",
+        "Silver", "Smart", "Solar", "Summit", "True", "Urban", "Vector", "West", "Wide", "Zen"
+    };
+    private static final String[] COMPANY_SUFFIXES = {
+        "Labs", "Systems", "Software", "Analytics", "Works", "Digital", "Networks", "Health",
+        "Robotics", "Bank", "Logistics", "Media", "Energy", "Foods", "Games", "Security",
+        "Consulting", "Devices", "Cloud", "Studios"
+    };
+    private static final String[] TITLES = {
+        "Software Engineer", "Senior Software Engineer", "Backend Developer", "Frontend Developer",
+        "Full Stack Developer", "Data Engineer", "Data Scientist", "DevOps Engineer", "QA Engineer",
+        "Engineering Manager", "Product Manager", "Mobile Developer", "Site Reliability Engineer",
+        "Machine Learning Engineer", "Security Engineer", "Technical Lead"
+    };
+    private static final String[] LOCATIONS = {
+        "Remote", "New York, NY", "San Francisco, CA", "Seattle, WA", "Austin, TX", "Boston, MA",
+        "Chicago, IL", "London, UK", "Berlin, Germany", "Amsterdam, Netherlands", "Toronto, Canada",
+        "Paris, France", "Dublin, Ireland", "Madrid, Spain", "Warsaw, Poland", "Lisbon, Portugal"
+    };
+    // Share of each status, in ApplicationStatus order (SAVED, APPLIED, INTERVIEW, OFFER, REJECTED, CLOSED)
+    private static final double[] STATUS_WEIGHTS = {0.15, 0.42, 0.12, 0.03, 0.20, 0.08};
+
+    private static final int COPY_BUFFER_CHARS = 1 << 20;
+
+    private final SplittableRandom companyRandom;
+    private final SplittableRandom userRandom;
+    private final SplittableRandom applicationRandom;
+    private final int users;
+    private final int applications;
+    private final int companies;
+    private final double userSkew;
+    private final double companySkew;
+    private final String passwordHash;
+    private final LocalDateTime asOf;
+
+    // Ids and names of what was generated, looked up when applications are linked
+    private final long[] userIdBits;
+    private final long[] companyIdBits;
+    private final String[] companyNames;
+
+    DatasetGenerator(long seed, int users, int applications, int companies, double userSkew, double companySkew,
+                     String password, LocalDate asOf) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.companyRandom = random.split();
+        this.userRandom = random.split();
+        this.applicationRandom = random.split();
+        this.users = users;
+        this.applications = applications;
+        this.companies = companies;
+        this.userSkew = userSkew;
+        this.companySkew = companySkew;
+        this.passwordHash = new BCryptPasswordEncoder().encode(password);
+        this.asOf = asOf.atStartOfDay();
+        this.userIdBits = new long[users * 2];
+        this.companyIdBits = new long[companies * 2];
+        this.companyNames = new String[companies];
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("dataset.datasource.url", "jdbc:postgresql://localhost:5432/jobtracker");
+        String username = System.getProperty("dataset.datasource.username", "jobtracker");
+        String password = System.getProperty("dataset.datasource.password", "123456");
+        boolean truncate = Boolean.getBoolean("dataset.truncate");
+
+        DatasetGenerator generator = new DatasetGenerator(
+            Long.getLong("dataset.seed", 42),
+            Integer.getInteger("dataset.users", 100_000),
+            Integer.getInteger("dataset.applications", 2_000_000),
+            Integer.getInteger("dataset.companies", 20_000),
+            Double.parseDouble(System.getProperty("dataset.user-skew", "0.8")),
+            Double.parseDouble(System.getProperty("dataset.company-skew", "1.05")),
+            System.getProperty("dataset.user-password", "password"),
+            LocalDate.parse(System.getProperty("dataset.as-of", LocalDate.now(ZoneOffset.UTC).toString())));
+
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            generator.load(connection, truncate);
+        }
+    }
+
+    void load(Connection connection, boolean truncate) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            if (truncate) {
+                // Also empties the tables referencing these (e.g. reminders)
+                statement.execute("truncate table job_applications, user_roles, users, companies cascade");
+            }
+            PGConnection pg = connection.unwrap(PGConnection.class);
+            long started = System.nanoTime();
+            report("companies", copyCompanies(pg), started);
+            started = System.nanoTime();
+            report("users", copyUsers(pg), started);
+            started = System.nanoTime();
+            report("user_roles", copyUserRoles(pg), started);
+            started = System.nanoTime();
+            report("job_applications", copyApplications(pg), started);
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            statement.execute("analyze companies, users, user_roles, job_applications");
+        } catch (SQLException | RuntimeException e) {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            throw e;
+        }
+    }
+
+    private long copyCompanies(PGConnection pg) throws SQLException {
+        CopyWriter out = new CopyWriter(pg.getCopyAPI().copyIn(
+            "copy companies (id, name, normalized_name, industry, created_at, updated_at) from stdin"));
+        int combinations = COMPANY_PREFIXES.length * COMPANY_SUFFIXES.length;
+        for (int i = 0; i < companies; i++) {
+            String name = COMPANY_PREFIXES[i % COMPANY_PREFIXES.length] + " "
+                + COMPANY_SUFFIXES[(i / COMPANY_PREFIXES.length) % COMPANY_SUFFIXES.length]
+                + (i >= combinations ? " " + (i / combinations + 1) : "");
+            UUID id = remember(companyIdBits, i, randomUuid(companyRandom));
+            LocalDateTime createdAt = before(asOf, 3 * 365, companyRandom);
+            companyNames[i] = name;
+            out.row(id, name, Company.normalize(name), COMPANY_SUFFIXES[(i / COMPANY_PREFIXES.length) % COMPANY_SUFFIXES.length],
+                createdAt, createdAt);
+        }
+        return out.close();
+    }
+
+    private long copyUsers(PGConnection pg) throws SQLException {
+        CopyWriter out = new CopyWriter(pg.getCopyAPI().copyIn(
+            "copy users (id, name, email, password, created_at) from stdin"));
+        for (int i = 0; i < users; i++) {
+            UUID id = remember(userIdBits, i, randomUuid(userRandom));
+            out.row(id, "User " + i, "user-" + i + "@dataset.example", passwordHash,
+                before(asOf.minusYears(2), 365, userRandom));
+        }
+        return out.close();
+    }
+
+    private long copyUserRoles(PGConnection pg) throws SQLException {
+        CopyWriter out = new CopyWriter(pg.getCopyAPI().copyIn("copy user_roles (user_id, role) from stdin"));
+        for (int i = 0; i < users; i++) {
+            UUID id = new UUID(userIdBits[2 * i], userIdBits[2 * i + 1]);
+            out.row(id, "USER");
+            if (i % 1000 == 0) {
+                out.row(id, "ADMIN");
+            }
+        }
+        return out.close();
+    }
+
+    private long copyApplications(PGConnection pg) throws SQLException {
+        ZipfDistribution byUser = new ZipfDistribution(users, userSkew);
+        ZipfDistribution byCompany = new ZipfDistribution(companies, companySkew);
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        CopyWriter out = new CopyWriter(pg.getCopyAPI().copyIn(
+            "copy job_applications (id, title, company, company_id, location, description, status, deadline, "
+                + "created_at, updated_at, user_id) from stdin"));
+        for (int i = 0; i < applications; i++) {
+            UUID id = randomUuid(applicationRandom);
+            int user = byUser.sample(applicationRandom);
+            int company = byCompany.sample(applicationRandom);
+            ApplicationStatus status = statuses[weighted(STATUS_WEIGHTS, applicationRandom)];
+            LocalDateTime createdAt = before(asOf, 2 * 365, applicationRandom);
+            LocalDateTime updatedAt = createdAt.plusMinutes(applicationRandom.nextLong(60L * 24 * 60));
+            if (updatedAt.isAfter(asOf)) {
+                updatedAt = asOf;
+            }
+            LocalDate deadline = applicationRandom.nextDouble() < 0.4
+                ? createdAt.toLocalDate().plusDays(7 + applicationRandom.nextInt(54))
+                : null;
+            out.row(id,
+                TITLES[applicationRandom.nextInt(TITLES.length)],
+                companyNames[company],
+                new UUID(companyIdBits[2 * company], companyIdBits[2 * company + 1]),
+                LOCATIONS[applicationRandom.nextInt(LOCATIONS.length)],
+                "Generated application " + i,
+                status.name(),
+                deadline,
+                createdAt,
+                updatedAt,
+                new UUID(userIdBits[2 * user], userIdBits[2 * user + 1]));
+        }
+        return out.close();
+    }
+
+    // A version 4 UUID, like UUID.randomUUID(), but drawn from the seeded source
+    private static UUID randomUuid(SplittableRandom random) {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & ~0xC000000000000000L) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static UUID remember(long[] bits, int index, UUID id) {
+        bits[2 * index] = id.getMostSignificantBits();
+        bits[2 * index + 1] = id.getLeastSignificantBits();
+        return id;
+    }
+
+    private static LocalDateTime before(LocalDateTime end, int days, SplittableRandom random) {
+        return end.minusSeconds(random.nextLong(days * 24L * 3600));
+    }
+
+    private static int weighted(double[] weights, SplittableRandom random) {
+        double target = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static void report(String table, long rows, long startedNanos) {
+        long ms = (System.nanoTime() - startedNanos) / 1_000_000;
+        System.out.printf("%-17s %,12d rows in %,8d ms (%,d rows/s)%n", table, rows, ms, rows * 1000 / Math.max(ms, 1));
+    }
+
+    /**
+     * Buffers rows in the COPY text format (tab separated, \N for null) and sends them in
+     * chunks of about a megabyte.
+     */
+    private static final class CopyWriter {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 4096);
+
+        CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                if (values[i] == null) {
+                    buffer.append("\\N");
+                } else {
+                    escape(values[i].toString());
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        long close() throws SQLException {
+            flush();
+            return copyIn.endCopy();
+        }
+
+        private void escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
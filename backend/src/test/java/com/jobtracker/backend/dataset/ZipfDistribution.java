@@ -0,0 +1,34 @@
+package com.jobtracker.backend.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks 0..n-1 with a probability proportional to 1 / (rank + 1)^exponent, so a few
+ * ranks are drawn very often and most only rarely (a long tail).
+ *
+ * The cumulative distribution is precomputed (8 bytes per rank) and searched per sample, which
+ * is exact and fast enough for a few million ranks.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,276 @@
+package com.jobtracker.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test; not part of the regular test run. Run by the "loadtest" Maven profile
+ * (mvn -Ploadtest verify), see README, "Load tests".
+ *
+ * The application is started on a random port and driven over HTTP, so every request goes
+ * through Tomcat, the security filter chain (JwtAuthenticationFilter), the controllers and
+ * the services. The scenarios run one after the other, each with a warm-up that is not
+ * recorded:
+ * - signup: new accounts (password hashing)
+ * - signin-storm: the seeded users sign in over and over
+ * - create-burst: authenticated users create job applications
+ * - update-burst: they update random applications of their own
+ * - list-browse: they list their applications
+ *
+ * By default the database is the local Postgres of application.properties, which the
+ * native statements of the write paths (e.g. "update ... returning") need; point it at
+ * another one with -Dloadtest.datasource.url=..., -Dloadtest.datasource.username=... and
+ * -Dloadtest.datasource.password=...
+ * SQL statement budgets fail the request, so an N+1 regression shows up as errors.
+ *
+ * Settings (system properties): loadtest.concurrency, loadtest.duration-seconds,
+ * loadtest.warmup-seconds, loadtest.users, loadtest.max-error-rate, loadtest.baseline,
+ * loadtest.max-regression, loadtest.report-dir and loadtest.concurrency-limit (load shedding,
+ * off by default).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=${loadtest.datasource.url:jdbc:postgresql://localhost:5432/jobtracker}",
+    "spring.datasource.username=${loadtest.datasource.username:jobtracker}",
+    "spring.datasource.password=${loadtest.datasource.password:123456}",
+    "spring.datasource.hikari.maximum-pool-size=${loadtest.datasource.pool-size:20}",
+    "jobtracker.history.dir=target/loadtest-history",
+    "jobtracker.sql-budget.fail-on-violation=true",
+    // Measures the service itself; with -Dloadtest.concurrency-limit=true shed requests count as errors
+    "jobtracker.concurrency-limit.enabled=${loadtest.concurrency-limit:false}",
+    "logging.level.root=WARN"
+})
+class ApiLoadScenarios {
+
+    private static final String PASSWORD = "load-test-password";
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+    private final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 20));
+    private final Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+    private final int users = Integer.getInteger("loadtest.users", 50);
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001"));
+    private final double maxRegression = Double.parseDouble(System.getProperty("loadtest.max-regression", "0.25"));
+    private final Path reportDirectory = Path.of(System.getProperty("loadtest.report-dir", "target/load-test-report"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong signups = new AtomicLong();
+    // Keeps the accounts of different runs apart on a database that outlives the run
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    private HttpClient client;
+    private ExecutorService workers;
+    private List<LoadUser> loadUsers;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        workers = Executors.newFixedThreadPool(concurrency);
+
+        loadUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            LoadUser user = new LoadUser("load-user-" + run + "-" + i + "@example.com");
+            assertThat(signUp(user.email).statusCode()).isEqualTo(200);
+            user.token = signIn(user.email);
+            user.applications.add(create(user));
+            loadUsers.add(user);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void replayScenarios() throws Exception {
+        List<LatencyRecorder.Result> results = new ArrayList<>();
+        results.add(run("signup", () ->
+            signUp("signup-" + run + "-" + signups.incrementAndGet() + "@example.com").statusCode()));
+        results.add(run("signin-storm", () -> {
+            HttpResponse<String> response = post("/auth/signin", null,
+                Map.of("email", randomUser().email, "password", PASSWORD));
+            return response.statusCode();
+        }));
+        results.add(run("create-burst", () -> {
+            LoadUser user = randomUser();
+            user.applications.add(create(user));
+            return 201;
+        }));
+        results.add(run("update-burst", () -> {
+            LoadUser user = randomUser();
+            UUID id = user.applications.get(ThreadLocalRandom.current().nextInt(user.applications.size()));
+            return send(authorized(user.token, "/applications/" + id)
+                .header("Content-Type", "application/json")
+                .PUT(json(application("INTERVIEW"))).build()).statusCode();
+        }));
+        results.add(run("list-browse", () ->
+            send(authorized(randomUser().token, "/applications").GET().build()).statusCode()));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("concurrency", concurrency);
+        settings.put("durationSeconds", duration.toSeconds());
+        settings.put("warmupSeconds", warmup.toSeconds());
+        settings.put("users", users);
+        settings.put("database", datasourceUrl);
+
+        List<String> regressions = List.of();
+        String baseline = System.getProperty("loadtest.baseline");
+        if (baseline != null && !baseline.isBlank()) {
+            regressions = LoadTestReport.compare(results, Path.of(baseline), maxRegression);
+        }
+        LoadTestReport.write(reportDirectory, settings, results, regressions);
+
+        for (LatencyRecorder.Result result : results) {
+            assertThat(result.errorRate())
+                .as("error rate of %s", result.scenario())
+                .isLessThanOrEqualTo(maxErrorRate);
+        }
+        assertThat(regressions).as("regressions against %s", baseline).isEmpty();
+    }
+
+    /**
+     * Runs one scenario from all workers (a closed model: each worker sends its next request
+     * when the previous one is answered), first for the warm-up, then recorded for the duration.
+     * A request fails on an exception or a status of 400 and above.
+     */
+    private LatencyRecorder.Result run(String scenario, Request request) throws Exception {
+        drive(request, warmup, null);
+        LatencyRecorder recorder = new LatencyRecorder(scenario);
+        recorder.start();
+        drive(request, duration, recorder);
+        recorder.stop();
+        return recorder.result();
+    }
+
+    private void drive(Request request, Duration length, LatencyRecorder recorder) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            running.add(workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    boolean failed;
+                    try {
+                        failed = request.send() >= 400;
+                    } catch (IOException | RuntimeException e) {
+                        failed = true;
+                    }
+                    if (recorder != null) {
+                        recorder.record(System.nanoTime() - start, failed);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : running) {
+            worker.get();
+        }
+    }
+
+    private HttpResponse<String> signUp(String email) throws IOException, InterruptedException {
+        return post("/auth/signup", null, Map.of("name", "Load Test", "email", email, "password", PASSWORD));
+    }
+
+    private String signIn(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/auth/signin", null, Map.of("email", email, "password", PASSWORD));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).path("accessToken").asText();
+    }
+
+    private UUID create(LoadUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/applications", user.token, application("APPLIED"));
+        if (response.statusCode() != 201) {
+            throw new IOException("Creating an application failed with " + response.statusCode());
+        }
+        return UUID.fromString(objectMapper.readTree(response.body()).path("id").asText());
+    }
+
+    private HttpResponse<String> post(String path, String token, Object body) throws IOException, InterruptedException {
+        return send(authorized(token, path)
+            .header("Content-Type", "application/json")
+            .POST(json(body)).build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/api" + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private Map<String, Object> application(String status) {
+        int n = ThreadLocalRandom.current().nextInt(1000);
+        Map<String, Object> application = new LinkedHashMap<>();
+        application.put("title", "Engineer " + n);
+        application.put("company", "Company " + (n % 100));
+        application.put("location", "Remote");
+        application.put("description", "Created by the load test");
+        application.put("status", status);
+        return application;
+    }
+
+    private LoadUser randomUser() {
+        return loadUsers.get(ThreadLocalRandom.current().nextInt(loadUsers.size()));
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        int send() throws IOException, InterruptedException;
+    }
+
+    private static final class LoadUser {
+
+        private final String email;
+        private final List<UUID> applications = new CopyOnWriteArrayList<>();
+        private String token;
+
+        LoadUser(String email) {
+            this.email = email;
+        }
+    }
+}
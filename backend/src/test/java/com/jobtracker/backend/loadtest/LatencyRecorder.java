@@ -0,0 +1,75 @@
+package com.jobtracker.backend.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects the latency of every request of one scenario, and whether it failed.
+ *
+ * All samples are kept (a run records at most a few hundred thousand), so the percentiles
+ * are exact instead of bucketed. Recording is synchronized; next to an HTTP round trip the
+ * lock costs nothing measurable.
+ */
+final class LatencyRecorder {
+
+    private final String scenario;
+    private long[] samples = new long[4096];
+    private int count;
+    private long errors;
+    private long startNanos;
+    private long endNanos;
+
+    LatencyRecorder(String scenario) {
+        this.scenario = scenario;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    synchronized void record(long latencyNanos, boolean failed) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyNanos;
+        if (failed) {
+            errors++;
+        }
+    }
+
+    synchronized Result result() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double seconds = (endNanos - startNanos) / 1e9;
+        return new Result(
+            scenario,
+            count,
+            errors,
+            seconds > 0 ? count / seconds : 0,
+            count > 0 ? (double) errors / count : 0,
+            percentileMs(sorted, 0.50),
+            percentileMs(sorted, 0.95),
+            percentileMs(sorted, 0.99),
+            percentileMs(sorted, 0.999),
+            count > 0 ? sorted[count - 1] / 1e6 : 0);
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    /**
+     * Summary of one scenario, as written to the report. Latencies are in milliseconds.
+     */
+    record Result(String scenario, long requests, long errors, double throughputPerSecond, double errorRate,
+                  double p50Ms, double p95Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+}
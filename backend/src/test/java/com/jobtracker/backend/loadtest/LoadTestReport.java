@@ -0,0 +1,87 @@
+package com.jobtracker.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the results of a load-test run and compares them with an earlier run.
+ *
+ * Two files are written to the report directory:
+ * - report.json, the machine-readable results; keep one as the baseline of later runs
+ *   (-Dloadtest.baseline=path/to/report.json)
+ * - report.md, the same numbers as a table, plus the regressions found against the baseline
+ */
+final class LoadTestReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestReport() {
+    }
+
+    /**
+     * Returns one line per regression: a scenario of the baseline whose p99 latency grew, or
+     * whose throughput dropped, by more than maxRegression (0.25 = 25%).
+     */
+    static List<String> compare(List<LatencyRecorder.Result> results, Path baseline, double maxRegression) throws IOException {
+        Map<String, JsonNode> previous = new LinkedHashMap<>();
+        for (JsonNode scenario : MAPPER.readTree(baseline.toFile()).path("scenarios")) {
+            previous.put(scenario.path("scenario").asText(), scenario);
+        }
+        List<String> regressions = new ArrayList<>();
+        for (LatencyRecorder.Result result : results) {
+            JsonNode before = previous.get(result.scenario());
+            if (before == null) {
+                continue;
+            }
+            double p99Before = before.path("p99Ms").asDouble();
+            if (p99Before > 0 && result.p99Ms() > p99Before * (1 + maxRegression)) {
+                regressions.add(String.format(Locale.ROOT, "%s: p99 %.1f ms, was %.1f ms",
+                    result.scenario(), result.p99Ms(), p99Before));
+            }
+            double throughputBefore = before.path("throughputPerSecond").asDouble();
+            if (result.throughputPerSecond() < throughputBefore * (1 - maxRegression)) {
+                regressions.add(String.format(Locale.ROOT, "%s: throughput %.1f/s, was %.1f/s",
+                    result.scenario(), result.throughputPerSecond(), throughputBefore));
+            }
+        }
+        return regressions;
+    }
+
+    static void write(Path directory, Map<String, Object> settings, List<LatencyRecorder.Result> results,
+                      List<String> regressions) throws IOException {
+        Files.createDirectories(directory);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("finishedAt", Instant.now().toString());
+        json.put("settings", settings);
+        json.put("scenarios", results);
+        json.put("regressions", regressions);
+        MAPPER.writeValue(directory.resolve("report.json").toFile(), json);
+
+        StringBuilder markdown = new StringBuilder("# Load test report\n\n");
+        settings.forEach((name, value) -> markdown.append("- ").append(name).append(": ").append(value).append('\n'));
+        markdown.append("\n| Scenario | Requests | Throughput (/s) | Errors | p50 (ms) | p95 (ms) | p99 (ms) | p99.9 (ms) | Max (ms) |\n");
+        markdown.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (LatencyRecorder.Result result : results) {
+            markdown.append(String.format(Locale.ROOT, "| %s | %d | %.1f | %.2f%% | %.1f | %.1f | %.1f | %.1f | %.1f |%n",
+                result.scenario(), result.requests(), result.throughputPerSecond(), result.errorRate() * 100,
+                result.p50Ms(), result.p95Ms(), result.p99Ms(), result.p999Ms(), result.maxMs()));
+        }
+        if (!regressions.isEmpty()) {
+            markdown.append("\n## Regressions against the baseline\n\n");
+            regressions.forEach(regression -> markdown.append("- ").append(regression).append('\n'));
+        }
+        Files.writeString(directory.resolve("report.md"), markdown);
+    }
+}
@@ -0,0 +1,85 @@
+package com.jobtracker.backend.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The appender writes to a console that blocks, so the events after the first one stay in
+ * its queue. The counters are static, so only their increase is checked.
+ */
+class CountingAsyncAppenderTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    @Test
+    void discardedAndDroppedEventsAreCounted() throws Exception {
+        BlockingAppender console = new BlockingAppender();
+        console.setContext(context);
+        console.start();
+        CountingAsyncAppender appender = new CountingAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.setNeverBlock(true);
+        appender.setMaxFlushTime(0);
+        appender.addAppender(console);
+        appender.start();
+        long discarded = CountingAsyncAppender.discardedEvents();
+        long dropped = CountingAsyncAppender.droppedEvents();
+        try {
+            appender.doAppend(event(Level.WARN));
+            assertThat(console.writing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            appender.doAppend(event(Level.WARN));
+            appender.doAppend(event(Level.WARN));
+            appender.doAppend(event(Level.INFO));
+            assertThat(CountingAsyncAppender.discardedEvents() - discarded).isZero();
+            // Below the discarding threshold: low-priority events are thrown away
+            appender.doAppend(event(Level.INFO));
+            assertThat(CountingAsyncAppender.discardedEvents() - discarded).isEqualTo(1);
+            appender.doAppend(event(Level.WARN));
+            assertThat(CountingAsyncAppender.droppedEvents() - dropped).isZero();
+            // Full: every event is dropped instead of blocking
+            appender.doAppend(event(Level.ERROR));
+            assertThat(CountingAsyncAppender.droppedEvents() - dropped).isEqualTo(1);
+            assertThat(CountingAsyncAppender.discardedEvents() - discarded).isEqualTo(1);
+        } finally {
+            console.release.countDown();
+            appender.stop();
+        }
+    }
+
+    //Helpers
+
+    private LoggingEvent event(Level level) {
+        return new LoggingEvent(CountingAsyncAppenderTest.class.getName(), context.getLogger("test"), level,
+            "message", null, null);
+    }
+
+    // Blocks on the first event until released
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            writing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.jobtracker.backend.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogListenerTest {
+
+    private static final String SQL = "select * from users where email = ? and id = ? and deleted_at is ?";
+
+    private final Logger sqlLogger = (Logger) LoggerFactory.getLogger("jobtracker.sql");
+    private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+    private Level previousLevel;
+
+    @BeforeEach
+    void captureLog() {
+        previousLevel = sqlLogger.getLevel();
+        sqlLogger.setLevel(Level.INFO);
+        logged.start();
+        sqlLogger.addAppender(logged);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        sqlLogger.detachAppender(logged);
+        sqlLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    void parametersAreRedactedToTheirTypes() throws Exception {
+        assertThat(SlowQueryLogListener.redactedParameters(List.of(query())))
+            .isEqualTo("[String(16), UUID, null]")
+            .doesNotContain("jane@example.com");
+    }
+
+    @Test
+    void slowStatementsAreLoggedAsWarnings() throws Exception {
+        SlowQueryLogListener listener = new SlowQueryLogListener(200, 0);
+
+        listener.afterQuery(execution(199), List.of(query()));
+        assertThat(logged.list).isEmpty();
+
+        listener.afterQuery(execution(200), List.of(query()));
+        assertThat(logged.list).singleElement().satisfies(event -> {
+            assertThat(event.getLevel()).isEqualTo(Level.WARN);
+            assertThat(event.getFormattedMessage())
+                .startsWith("slow query elapsedMs=200 success=true")
+                .contains("sql=\"" + SQL + "\"", "params=[String(16), UUID, null]")
+                .doesNotContain("jane@example.com");
+        });
+    }
+
+    @Test
+    void fastStatementsAreSampled() throws Exception {
+        new SlowQueryLogListener(200, 1).afterQuery(execution(5), List.of(query()));
+
+        assertThat(logged.list).singleElement().satisfies(event -> {
+            assertThat(event.getLevel()).isEqualTo(Level.INFO);
+            assertThat(event.getFormattedMessage()).startsWith("sampled query elapsedMs=5");
+        });
+    }
+
+    //Helpers
+
+    // email = 'jane@example.com', id = a UUID, and a NULL bound with its SQL type
+    private static QueryInfo query() throws Exception {
+        QueryInfo queryInfo = new QueryInfo(SQL);
+        queryInfo.getParametersList().add(List.of(
+            new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+                new Object[]{1, "jane@example.com"}),
+            new ParameterSetOperation(PreparedStatement.class.getMethod("setObject", int.class, Object.class),
+                new Object[]{2, UUID.randomUUID()}),
+            new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class),
+                new Object[]{3, Types.TIMESTAMP})));
+        return queryInfo;
+    }
+
+    private static ExecutionInfo execution(long elapsedMs) {
+        ExecutionInfo execution = new ExecutionInfo();
+        execution.setElapsedTime(elapsedMs);
+        execution.setSuccess(true);
+        return execution;
+    }
+}
@@ -0,0 +1,66 @@
+package com.jobtracker.backend.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlStatementCounterTest {
+
+    private static final String ROLES_QUERY = "select r1_0.user_id,r1_0.role from user_roles r1_0 where r1_0.user_id=?";
+
+    @Test
+    void repeatedStatementShapeIsReportedAsViolation() {
+        SqlStatementCounter counter = new SqlStatementCounter(false);
+
+        try (SqlStatementCounter.Scope scope = counter.open("GET /api/users", 10, 2)) {
+            counter.record("select u1_0.id from users u1_0");
+            counter.record(ROLES_QUERY);
+            counter.record(ROLES_QUERY);
+            assertThat(scope.getStatistics().isViolated()).isFalse();
+
+            counter.record(ROLES_QUERY);
+            assertThat(scope.getStatistics().isViolated()).isTrue();
+            assertThat(scope.getStatistics().getViolation()).contains("repeats=3");
+            assertThat(scope.getStatistics().getStatementCount()).isEqualTo(4);
+            assertThat(scope.getStatistics().getDistinctShapes()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void statementsOutsideAScopeAreNotCounted() {
+        SqlStatementCounter counter = new SqlStatementCounter(true);
+
+        counter.record(ROLES_QUERY);
+        try (SqlStatementCounter.Scope scope = counter.open("GET /api/users", 1, 1)) {
+            assertThat(scope.getStatistics().getStatementCount()).isZero();
+        }
+    }
+
+    @Test
+    void failOnViolationRejectsTheStatementOverBudget() {
+        SqlStatementCounter counter = new SqlStatementCounter(true);
+
+        try (SqlStatementCounter.Scope scope = counter.open("GET /api/users", 1, 1)) {
+            counter.record("select u1_0.id from users u1_0");
+            assertThatThrownBy(() -> counter.record(ROLES_QUERY))
+                .isInstanceOf(SqlStatementBudgetExceededException.class)
+                .hasMessageContaining("budget=1");
+        }
+    }
+
+    @Test
+    void literalsAndInListsAreNormalized() {
+        assertThat(SqlStatementStatistics.shapeOf("SELECT *  FROM users WHERE id IN (?, ?, ?) AND name = 'x'"))
+            .isEqualTo(SqlStatementStatistics.shapeOf("select * from users where id in (?) and name = 'y'"));
+    }
+
+    @Test
+    void largeInListsAreNormalized() {
+        String keys = String.join(",", Collections.nCopies(5000, "?"));
+        assertThat(SqlStatementStatistics.shapeOf("select * from users where id in (" + keys + ")"))
+            .isEqualTo("select * from users where id in (?)");
+    }
+}
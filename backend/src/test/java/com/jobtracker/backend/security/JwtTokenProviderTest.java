@@ -0,0 +1,72 @@
+package com.jobtracker.backend.security;
+
+import com.jobtracker.backend.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    // The default jwt.secret of application.properties: 55 bytes, too short for HS512
+    private static final String DEFAULT_SECRET = "your-256-bit-secret-make-this-very-secure-in-production";
+
+    @Test
+    void defaultSecretSignsWithTheStrongestAlgorithmItIsLongEnoughFor() {
+        JwtTokenProvider provider = provider(DEFAULT_SECRET);
+
+        String token = provider.generateToken(authentication("jane@example.com"));
+
+        assertThat(algorithm(token, DEFAULT_SECRET)).isEqualTo("HS384");
+        assertThat(provider.validateToken(token)).isTrue();
+        assertThat(provider.getUsernameFromToken(token)).isEqualTo("jane@example.com");
+    }
+
+    @Test
+    void longSecretSignsWithHs512() {
+        String secret = DEFAULT_SECRET + "-and-some-more-bytes";
+        JwtTokenProvider provider = provider(secret);
+
+        String token = provider.generateToken(authentication("jane@example.com"));
+
+        assertThat(algorithm(token, secret)).isEqualTo("HS512");
+        assertThat(provider.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void tokenOfAnotherSecretIsRejected() {
+        String token = provider(DEFAULT_SECRET + "-and-some-more-bytes").generateToken(authentication("jane@example.com"));
+
+        assertThat(provider(DEFAULT_SECRET).validateToken(token)).isFalse();
+    }
+
+    //Helpers
+
+    private static JwtTokenProvider provider(String secret) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 60_000);
+        return provider;
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(String email) {
+        User user = new User();
+        user.setEmail(email);
+        UserPrincipal principal = new UserPrincipal(user);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static String algorithm(String token, String secret) {
+        return Jwts.parser()
+            .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseSignedClaims(token)
+            .getHeader()
+            .getAlgorithm();
+    }
+}
@@ -0,0 +1,224 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.DashboardDTO;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.repository.ArchivedJobApplicationRepository;
+import com.jobtracker.backend.repository.JobApplicationRepositry;
+import com.jobtracker.backend.repository.OutboxEventRepository;
+import com.jobtracker.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The rollups of a user of its own, kept by a service and a relay that stand for one
+ * instance of the application. The relay also publishes the pending events of other tests;
+ * they belong to other users, so they never reach this user's rollup.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+class ApplicationAnalyticsServiceTest {
+
+    @Autowired
+    private JobApplicationRepositry jobApplicationRepositry;
+
+    @Autowired
+    private ArchivedJobApplicationRepository archivedJobApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> companyIds = new ArrayList<>();
+    private final Map<UUID, String> companies = new HashMap<>();
+    private UserDTO owner;
+    private ApplicationAnalyticsService analytics;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void createOwner() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("Analytics User");
+        userDTO.setEmail("analytics-" + UUID.randomUUID() + "@example.com");
+        owner = userService.createUser(userDTO, "password");
+        analytics = instance();
+        relay = relay(analytics);
+    }
+
+    @AfterEach
+    void deleteOwner() {
+        jdbcTemplate.update("delete from job_applications where user_id = ?", owner.getId());
+        userService.deleteUser(owner.getId());
+        companyIds.forEach(id -> jdbcTemplate.update("delete from companies where id = ?", id));
+    }
+
+    @Test
+    void changesAreAppliedToTheLoadedRollup() {
+        assertThat(dashboard(analytics).getTotalApplications()).isZero();
+        UUID first = create("Acme", "APPLIED");
+        create("Globex", "SAVED");
+        relay.relayPendingEvents();
+
+        DashboardDTO dashboard = dashboard(analytics);
+        assertThat(dashboard.getTotalApplications()).isEqualTo(2);
+        assertThat(dashboard.getApplicationsByStatus()).containsEntry("APPLIED", 1).containsEntry("SAVED", 1);
+        assertThat(dashboard.getTopCompanies()).hasSize(2);
+
+        update(first, "INTERVIEW");
+        update(first, "REJECTED");
+        relay.relayPendingEvents();
+
+        dashboard = dashboard(analytics);
+        assertThat(dashboard.getTotalApplications()).isEqualTo(2);
+        assertThat(dashboard.getApplicationsByStatus()).containsEntry("APPLIED", 0).containsEntry("INTERVIEW", 0)
+            .containsEntry("REJECTED", 1);
+        // The rejected application still counts for the stages it had reached
+        assertThat(dashboard.getConversionRates()).containsEntry("SAVED->APPLIED", 0.5)
+            .containsEntry("APPLIED->INTERVIEW", 1.0).containsEntry("INTERVIEW->OFFER", 0.0);
+
+        jobApplicationService.deleteJobApplication(first, owner.getEmail());
+        relay.relayPendingEvents();
+
+        dashboard = dashboard(analytics);
+        assertThat(dashboard.getTotalApplications()).isEqualTo(1);
+        assertThat(dashboard.getApplicationsByStatus()).containsEntry("REJECTED", 0).containsEntry("SAVED", 1);
+        assertThat(dashboard.getTopCompanies()).extracting(DashboardDTO.CompanyCount::company)
+            .containsExactly("Globex " + owner.getId());
+    }
+
+    @Test
+    void rebuiltRollupKeepsTheFurthestStage() {
+        UUID id = create("Acme", "APPLIED");
+        update(id, "INTERVIEW");
+        update(id, "REJECTED");
+        relay.relayPendingEvents();
+
+        // After a restart, and after an eviction
+        assertFurthestStageIsInterview(dashboard(instance()));
+        analytics.evict(owner.getId());
+        assertFurthestStageIsInterview(dashboard(analytics));
+
+        // Rows written before furthest_stage existed only have their status
+        jdbcTemplate.update("update job_applications set furthest_stage = null where id = ?", id);
+        DashboardDTO dashboard = dashboard(instance());
+        assertThat(dashboard.getConversionRates()).containsEntry("SAVED->APPLIED", 0.0);
+        assertThat(dashboard.getApplicationsByStatus()).containsEntry("REJECTED", 1);
+    }
+
+    @Test
+    void eventsAlreadyCountedAreSkipped() {
+        // Pending when the rollup is built, so its change is read from the table
+        UUID first = create("Acme", "APPLIED");
+        assertThat(dashboard(analytics).getTotalApplications()).isEqualTo(1);
+        relay.relayPendingEvents();
+        assertThat(dashboard(analytics).getTotalApplications()).isEqualTo(1);
+
+        UUID second = create("Globex", "APPLIED");
+        update(second, "INTERVIEW");
+        relay.relayPendingEvents();
+        assertThat(dashboard(analytics).getTotalApplications()).isEqualTo(2);
+
+        // Delivered again, by a replay and by hand
+        relay.replayFrom(eventsOf(first).get(0).getId(), 1000);
+        eventsOf(second).forEach(analytics::onEvent);
+
+        DashboardDTO dashboard = dashboard(analytics);
+        assertThat(dashboard.getTotalApplications()).isEqualTo(2);
+        assertThat(dashboard.getApplicationsByStatus()).containsEntry("APPLIED", 1).containsEntry("INTERVIEW", 1);
+        assertThat(dashboard.getConversionRates()).containsEntry("SAVED->APPLIED", 1.0)
+            .containsEntry("APPLIED->INTERVIEW", 0.5);
+    }
+
+    //Helpers
+
+    private ApplicationAnalyticsService instance() {
+        ApplicationAnalyticsService service = new ApplicationAnalyticsService(jobApplicationRepositry,
+            archivedJobApplicationRepository, userRepository, outboxService, outboxEventRepository, transactionManager);
+        ReflectionTestUtils.setField(service, "maxUsers", 10);
+        return service;
+    }
+
+    private OutboxRelay relay(ApplicationAnalyticsService subscriber) {
+        OutboxRelay outboxRelay = new OutboxRelay(outboxEventRepository, List.of(subscriber), transactionTemplate,
+            new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 500);
+        ReflectionTestUtils.setField(outboxRelay, "leaseSeconds", 60L);
+        outboxRelay.initPublishedCursor();
+        return outboxRelay;
+    }
+
+    private DashboardDTO dashboard(ApplicationAnalyticsService service) {
+        return service.getDashboard(owner.getEmail(), 4);
+    }
+
+    private static void assertFurthestStageIsInterview(DashboardDTO dashboard) {
+        assertThat(dashboard.getApplicationsByStatus()).containsEntry("REJECTED", 1);
+        assertThat(dashboard.getConversionRates()).containsEntry("SAVED->APPLIED", 1.0)
+            .containsEntry("APPLIED->INTERVIEW", 1.0).containsEntry("INTERVIEW->OFFER", 0.0);
+    }
+
+    private UUID create(String company, String status) {
+        JobApplicationDTO created = jobApplicationService.createJobApplication(application(company, status), owner.getEmail());
+        companyIds.add(created.getCompanyId());
+        companies.put(created.getId(), company);
+        return created.getId();
+    }
+
+    private void update(UUID id, String status) {
+        assertThat(jobApplicationService.updateJobApplication(id, application(companies.get(id), status), owner.getEmail()))
+            .isNotNull();
+    }
+
+    private JobApplicationDTO application(String company, String status) {
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle("Engineer at " + company);
+        jobApplication.setCompany(company + " " + owner.getId());
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Analytics");
+        jobApplication.setStatus(status);
+        return jobApplication;
+    }
+
+    // In ID order
+    private List<OutboxEvent> eventsOf(UUID applicationId) {
+        List<Long> ids = jdbcTemplate.queryForList("select id from outbox_events where aggregate_id = ? order by id",
+            Long.class, applicationId);
+        return ids.stream().map(eventId -> outboxEventRepository.findById(eventId).orElseThrow()).toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.jobtracker.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationHistoryLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackTheTimelineOfOneApplication() throws IOException {
+        ApplicationHistoryLog log = new ApplicationHistoryLog(directory, 4096);
+        UUID application = UUID.randomUUID();
+        log.append(statusChange(application, "APPLIED", "INTERVIEW", Instant.ofEpochMilli(1000)));
+        log.append(statusChange(UUID.randomUUID(), "APPLIED", "REJECTED", Instant.ofEpochMilli(2000)));
+        log.append(new ApplicationHistoryLog.Entry(application, Instant.ofEpochMilli(3000), "jane@example.com", List.of(
+            new ApplicationHistoryLog.FieldChange("status", "INTERVIEW", "OFFER"),
+            new ApplicationHistoryLog.FieldChange("deadline", null, "2025-09-01"))));
+
+        List<ApplicationHistoryLog.Entry> timeline = log.read(application);
+
+        assertThat(timeline).hasSize(2);
+        assertThat(timeline.get(0).changes()).containsExactly(new ApplicationHistoryLog.FieldChange("status", "APPLIED", "INTERVIEW"));
+        assertThat(timeline.get(1).changedAt()).isEqualTo(Instant.ofEpochMilli(3000));
+        assertThat(timeline.get(1).changes().get(1).oldValue()).isNull();
+        assertThat(log.read(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void rollsSegmentsAndRecoversThemOnReopen() throws IOException {
+        UUID application = UUID.randomUUID();
+        ApplicationHistoryLog log = new ApplicationHistoryLog(directory, 256);
+        for (int i = 0; i < 20; i++) {
+            log.append(statusChange(application, "S" + i, "S" + (i + 1), Instant.ofEpochMilli(i)));
+        }
+        assertThat(log.segmentCount()).isGreaterThan(1);
+        log.close();
+
+        ApplicationHistoryLog reopened = new ApplicationHistoryLog(directory, 256);
+        reopened.append(statusChange(application, "S20", "S21", Instant.ofEpochMilli(20)));
+
+        assertThat(reopened.read(application)).extracting(entry -> entry.changes().get(0).newValue())
+            .containsExactly("S1", "S2", "S3", "S4", "S5", "S6", "S7", "S8", "S9", "S10",
+                "S11", "S12", "S13", "S14", "S15", "S16", "S17", "S18", "S19", "S20", "S21");
+    }
+
+    @Test
+    void compactionDropsForgottenApplications() throws IOException {
+        UUID deleted = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        ApplicationHistoryLog log = new ApplicationHistoryLog(directory, 256);
+        for (int i = 0; i < 10; i++) {
+            log.append(statusChange(deleted, "A", "B", Instant.ofEpochMilli(i)));
+            log.append(statusChange(kept, "A", "B", Instant.ofEpochMilli(i)));
+        }
+        log.forget(deleted);
+        log.append(statusChange(deleted, "B", "C", Instant.ofEpochMilli(100)));
+        int segments = log.segmentCount();
+
+        assertThat(log.compact()).isPositive();
+
+        assertThat(log.segmentCount()).isLessThanOrEqualTo(segments);
+        assertThat(log.read(deleted)).isEmpty();
+        assertThat(log.read(kept)).hasSize(10);
+        assertThat(new ApplicationHistoryLog(directory, 256).read(kept)).hasSize(10);
+    }
+
+    @Test
+    void retentionDeletesOldSealedSegments() throws IOException {
+        UUID application = UUID.randomUUID();
+        ApplicationHistoryLog log = new ApplicationHistoryLog(directory, 256);
+        for (int i = 0; i < 10; i++) {
+            log.append(statusChange(application, "A", "B", Instant.ofEpochMilli(1000)));
+        }
+        log.append(statusChange(application, "B", "C", Instant.ofEpochMilli(5000)));
+
+        assertThat(log.deleteSegmentsBefore(Instant.ofEpochMilli(2000))).isPositive();
+
+        // The newest segment is still written to and is never deleted
+        List<ApplicationHistoryLog.Entry> timeline = log.read(application);
+        assertThat(timeline).hasSizeLessThan(11);
+        assertThat(timeline.get(timeline.size() - 1).changes().get(0).newValue()).isEqualTo("C");
+    }
+
+    private static ApplicationHistoryLog.Entry statusChange(UUID application, String from, String to, Instant at) {
+        return new ApplicationHistoryLog.Entry(application, at, "jane@example.com",
+            List.of(new ApplicationHistoryLog.FieldChange("status", from, to)));
+    }
+}
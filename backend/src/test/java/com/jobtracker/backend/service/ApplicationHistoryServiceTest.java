@@ -0,0 +1,100 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.ApplicationChangeDTO;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * History entries are only appended once the update that made them commits. The updates
+ * run in transactions of their own, so the application is deleted again after each test.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+class ApplicationHistoryServiceTest {
+
+    @Autowired
+    private ApplicationHistoryService applicationHistoryService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDTO owner;
+    private JobApplicationDTO application;
+
+    @BeforeEach
+    void createApplication() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("History Owner");
+        userDTO.setEmail("history-" + UUID.randomUUID() + "@example.com");
+        owner = userService.createUser(userDTO, "password");
+        application = jobApplicationService.createJobApplication(changes("APPLIED"), owner.getEmail());
+    }
+
+    @AfterEach
+    void deleteApplication() {
+        jobApplicationService.deleteJobApplication(application.getId(), owner.getEmail());
+        userService.deleteUser(owner.getId());
+        jdbcTemplate.update("delete from companies where name = ?", "History Corp " + owner.getId());
+    }
+
+    @Test
+    void aRolledBackUpdateLeavesNoHistory() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            jobApplicationService.updateJobApplication(application.getId(), changes("INTERVIEW"), owner.getEmail());
+            throw new IllegalStateException("Failed after the update");
+        })).hasMessage("Failed after the update");
+
+        assertThat(applicationHistoryService.getTimeline(application.getId())).isEmpty();
+        assertThat(jobApplicationService.findJobApplicationById(application.getId(), owner.getEmail(), false).getStatus())
+            .isEqualTo("APPLIED");
+    }
+
+    @Test
+    void aCommittedUpdateIsRecorded() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jobApplicationService.updateJobApplication(application.getId(), changes("INTERVIEW"), owner.getEmail());
+            // Not yet visible while the transaction is open
+            assertThat(applicationHistoryService.getTimeline(application.getId())).isEmpty();
+        });
+
+        assertThat(applicationHistoryService.getTimeline(application.getId()))
+            .singleElement()
+            .satisfies(change -> assertThat(change.changes())
+                .extracting(ApplicationChangeDTO.FieldChange::field, ApplicationChangeDTO.FieldChange::oldValue,
+                    ApplicationChangeDTO.FieldChange::newValue)
+                .containsExactly(tuple("status", "APPLIED", "INTERVIEW")));
+    }
+
+    //Helpers
+
+    private JobApplicationDTO changes(String status) {
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle("Backend Engineer");
+        jobApplication.setCompany("History Corp " + owner.getId());
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Edited");
+        jobApplication.setStatus(status);
+        return jobApplication;
+    }
+}
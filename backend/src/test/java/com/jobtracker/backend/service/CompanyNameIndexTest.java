@@ -0,0 +1,87 @@
+package com.jobtracker.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompanyNameIndexTest {
+
+    @Test
+    void suggestionsIgnoreCaseAndRankByApplications() {
+        CompanyNameIndex index = new CompanyNameIndex(2);
+        index.put(UUID.randomUUID(), "Tech Corp", 3);
+        index.put(UUID.randomUUID(), "TechFlow", 7);
+        index.put(UUID.randomUUID(), "Telco", 10);
+        index.put(UUID.randomUUID(), "Acme", 1);
+
+        assertThat(names(index.suggest("  TECH", 10))).containsExactly("TechFlow", "Tech Corp");
+        assertThat(names(index.suggest("te", 10))).containsExactly("Telco", "TechFlow");
+        assertThat(names(index.suggest("te", 1))).containsExactly("Telco");
+        assertThat(index.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    void incrementMovesCompanyUp() {
+        CompanyNameIndex index = new CompanyNameIndex(1);
+        UUID techCorp = UUID.randomUUID();
+        index.put(techCorp, "Tech Corp", 1);
+        index.put(UUID.randomUUID(), "TechFlow", 2);
+
+        index.increment(techCorp);
+        index.increment(techCorp);
+
+        assertThat(names(index.suggest("tech", 5))).containsExactly("Tech Corp");
+    }
+
+    @Test
+    void decrementMovesCompanyDownAndRefillsTheSuggestions() {
+        CompanyNameIndex index = new CompanyNameIndex(1);
+        UUID techCorp = UUID.randomUUID();
+        index.put(techCorp, "Tech Corp", 2);
+        index.put(UUID.randomUUID(), "TechFlow", 1);
+
+        index.decrement(techCorp);
+        index.decrement(techCorp);
+        index.decrement(techCorp);
+
+        assertThat(names(index.suggest("tech", 5))).containsExactly("TechFlow");
+        assertThat(index.suggest("tech corp", 5)).singleElement()
+            .satisfies(entry -> assertThat(entry.getApplications()).isZero());
+    }
+
+    @Test
+    void setApplicationsReranks() {
+        CompanyNameIndex index = new CompanyNameIndex(2);
+        UUID initech = UUID.randomUUID();
+        index.put(initech, "Initech", 9);
+        index.put(UUID.randomUUID(), "Initrode", 5);
+
+        index.setApplications(initech, 1);
+        index.setApplications(UUID.randomUUID(), 3);
+
+        assertThat(names(index.suggest("ini", 5))).containsExactly("Initrode", "Initech");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void renameRemovesOldName() {
+        CompanyNameIndex index = new CompanyNameIndex(5);
+        UUID id = UUID.randomUUID();
+        index.put(id, "Initech", 4);
+        index.put(UUID.randomUUID(), "Initrode", 1);
+
+        index.put(id, "Globex");
+
+        assertThat(names(index.suggest("ini", 5))).containsExactly("Initrode");
+        assertThat(index.suggest("glo", 5)).singleElement()
+            .satisfies(entry -> assertThat(entry.getApplications()).isEqualTo(4));
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private static List<String> names(List<CompanyNameIndex.Entry> entries) {
+        return entries.stream().map(CompanyNameIndex.Entry::getName).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.Company;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+class CompanyServiceTest {
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String name = "Concurrent Corp " + UUID.randomUUID();
+
+    @AfterEach
+    void deleteCompany() {
+        jdbcTemplate.update("delete from companies where normalized_name = ?", Company.normalize(name));
+    }
+
+    @Test
+    void concurrentFirstApplicationsToACompanyCreateItOnce() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        // The first application's transaction inserted the company and has not committed yet
+        CompletableFuture<UUID> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            UUID id = companyService.resolveCompany(name).getId();
+            inserted.countDown();
+            await(commit);
+            return id;
+        }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The second one waits for it on the unique name, then finds its company
+        CompletableFuture<UUID> second = CompletableFuture.supplyAsync(() ->
+            transactionTemplate.execute(status -> companyService.resolveCompany(name.toUpperCase()).getId()));
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+        commit.countDown();
+
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(first.get(10, TimeUnit.SECONDS));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from companies where normalized_name = ?",
+            Integer.class, Company.normalize(name))).isEqualTo(1);
+    }
+
+    //Helpers
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.jobtracker.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentStoreTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storesTheContentUnderItsHash() throws IOException {
+        ContentStore store = new ContentStore(directory);
+
+        ContentStore.Stored stored = store.put(content("hello"), 100);
+
+        assertThat(stored.hash()).isEqualTo(HELLO);
+        assertThat(stored.size()).isEqualTo(5);
+        assertThat(stored.deduplicated()).isFalse();
+        assertThat(store.path(HELLO)).hasContent("hello");
+        assertThat(store.path(HELLO).getParent().getFileName()).hasToString("2c");
+    }
+
+    @Test
+    void storesTheSameContentOnce() throws IOException {
+        ContentStore store = new ContentStore(directory);
+
+        store.put(content("hello"), 100);
+        ContentStore.Stored again = store.put(content("hello"), 100);
+
+        assertThat(again.hash()).isEqualTo(HELLO);
+        assertThat(again.deduplicated()).isTrue();
+        assertThat(objectCount()).isEqualTo(1);
+        assertThat(tmpFileCount()).isZero();
+    }
+
+    @Test
+    void contentOverTheLimitIsNotKept() throws IOException {
+        ContentStore store = new ContentStore(directory);
+
+        assertThatThrownBy(() -> store.put(new ByteArrayInputStream(new byte[200_000]), 100_000))
+            .isInstanceOf(ContentTooLargeException.class);
+
+        assertThat(objectCount()).isZero();
+        assertThat(tmpFileCount()).isZero();
+    }
+
+    @Test
+    void garbageCollectionKeepsReferencedAndRecentContents() throws IOException {
+        ContentStore store = new ContentStore(directory);
+        String referenced = store.put(content("referenced"), 100).hash();
+        String unreferenced = store.put(content("unreferenced"), 100).hash();
+        String recent = store.put(content("recent"), 100).hash();
+        Instant cutoff = Instant.now().minusSeconds(60);
+        age(store, referenced);
+        age(store, unreferenced);
+
+        int deleted = store.collectGarbage(cutoff, hashes -> Set.of(referenced));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(store.contains(referenced)).isTrue();
+        assertThat(store.contains(unreferenced)).isFalse();
+        assertThat(store.contains(recent)).isTrue();
+    }
+
+    @Test
+    void storingAgainProtectsAContentFromGarbageCollection() throws IOException {
+        ContentStore store = new ContentStore(directory);
+        String hash = store.put(content("hello"), 100).hash();
+        Instant cutoff = Instant.now().minusSeconds(60);
+        age(store, hash);
+
+        // Deduplicated by a new upload whose row is not committed yet
+        store.put(content("hello"), 100);
+
+        assertThat(store.collectGarbage(cutoff, hashes -> Set.of())).isZero();
+        assertThat(store.contains(hash)).isTrue();
+    }
+
+    @Test
+    void invalidHashesAreRejected() throws IOException {
+        ContentStore store = new ContentStore(directory);
+
+        assertThatThrownBy(() -> store.path("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ByteArrayInputStream content(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void age(ContentStore store, String hash) throws IOException {
+        Files.setLastModifiedTime(store.path(hash), FileTime.from(Instant.now().minusSeconds(3600)));
+    }
+
+    private long objectCount() throws IOException {
+        try (Stream<Path> files = Files.find(directory.resolve("objects"), 2, (file, attributes) -> attributes.isRegularFile())) {
+            return files.count();
+        }
+    }
+
+    private long tmpFileCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+}
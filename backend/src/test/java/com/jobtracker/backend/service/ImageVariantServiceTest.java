@@ -0,0 +1,177 @@
+package com.jobtracker.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageVariantServiceTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path directory;
+
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+
+    @AfterEach
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void makesSquareVariantsOfTheCenter() throws IOException {
+        ImageVariantService service = service(64L << 20);
+        Path source = image(400, 300, false);
+
+        ImageVariantService.GeneratedVariant thumbnail = service.getVariant(HASH_A, source, "thumbnail", WAIT);
+        ImageVariantService.GeneratedVariant small = service.getVariant(HASH_A, source, "small", WAIT);
+
+        assertThat(thumbnail.contentType()).isEqualTo("image/jpeg");
+        BufferedImage thumbnailImage = ImageIO.read(thumbnail.file().toFile());
+        assertThat(thumbnailImage.getWidth()).isEqualTo(32);
+        assertThat(thumbnailImage.getHeight()).isEqualTo(32);
+        // The red left and right margins are cropped away
+        assertThat(new Color(thumbnailImage.getRGB(1, 16)).getBlue()).isGreaterThan(200);
+        assertThat(ImageIO.read(small.file().toFile()).getWidth()).isEqualTo(128);
+    }
+
+    @Test
+    void keepsTransparencyAndNeverUpscales() throws IOException {
+        ImageVariantService service = service(64L << 20);
+        Path source = image(50, 80, true);
+
+        ImageVariantService.GeneratedVariant small = service.getVariant(HASH_A, source, "small", WAIT);
+
+        assertThat(small.contentType()).isEqualTo("image/png");
+        assertThat(ImageIO.read(small.file().toFile()).getWidth()).isEqualTo(50);
+    }
+
+    @Test
+    void concurrentRequestsForTheSameImageShareOneGeneration() throws Exception {
+        ImageVariantService service = service(64L << 20);
+        Path source = image(400, 300, false);
+        CountDownLatch release = blockWorker();
+
+        CompletableFuture<Void> first = service.generate(HASH_A, source);
+        CompletableFuture<Void> second = service.generate(HASH_A, source);
+
+        assertThat(second).isSameAs(first);
+        assertThat(workers.getQueue()).hasSize(1);
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        assertThat(service.getVariant(HASH_A, source, "thumbnail", Duration.ZERO)).isNotNull();
+    }
+
+    @Test
+    void generationsOverTheQueueCapacityAreDropped() throws Exception {
+        ImageVariantService service = service(64L << 20);
+        Path source = image(100, 100, false);
+        CountDownLatch release = blockWorker();
+
+        CompletableFuture<Void> queued = service.generate(HASH_A, source);
+        CompletableFuture<Void> dropped = service.generate(HASH_B, source);
+
+        assertThat(dropped).isCompletedExceptionally();
+        assertThatThrownBy(dropped::get).hasCauseInstanceOf(RejectedExecutionException.class);
+        // Nothing ready yet: the reader is told to come back
+        assertThat(service.getVariant(HASH_B, source, "thumbnail", Duration.ofMillis(50))).isNull();
+        release.countDown();
+        queued.get(10, TimeUnit.SECONDS);
+        assertThat(service.getVariant(HASH_B, source, "thumbnail", WAIT)).isNotNull();
+    }
+
+    @Test
+    void imagesOverTheDecodeBudgetAreRefusedAndRemembered() throws IOException {
+        // The center square of a 300x200 image is decoded at full size: 200 x 200 x 8 bytes > 64 KB
+        ImageVariantService service = service(64 * 1024);
+        Path source = image(300, 200, false);
+
+        assertThatThrownBy(() -> service.getVariant(HASH_A, source, "thumbnail", WAIT))
+            .isInstanceOf(UnsupportedImageException.class);
+        Files.delete(source);
+        assertThatThrownBy(() -> service.getVariant(HASH_A, source, "thumbnail", WAIT))
+            .isInstanceOf(UnsupportedImageException.class);
+    }
+
+    @Test
+    void filesThatAreNoImagesAreRefused() throws IOException {
+        ImageVariantService service = service(64L << 20);
+        Path source = Files.writeString(directory.resolve("resume.txt"), "not an image");
+
+        assertThatThrownBy(() -> service.getVariant(HASH_A, source, "small", WAIT))
+            .isInstanceOf(UnsupportedImageException.class);
+        assertThatThrownBy(() -> service.getVariant(HASH_A, source, "huge", WAIT))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void variantsOfDeletedContentsAreOrphans() throws IOException {
+        ImageVariantService service = service(64L << 20);
+        Path source = image(100, 100, false);
+        service.getVariant(HASH_A, source, "thumbnail", WAIT);
+        service.getVariant(HASH_B, source, "thumbnail", WAIT);
+
+        int deleted = service.deleteOrphans(hash -> hash.equals(HASH_A));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(service.getVariant(HASH_A, source, "thumbnail", Duration.ZERO)).isNotNull();
+        assertThat(Files.exists(directory.resolve("variants").resolve("bb").resolve(HASH_B))).isFalse();
+    }
+
+    private ImageVariantService service(long decodeBudgetBytes) throws IOException {
+        return new ImageVariantService(directory.resolve("variants"), "small:128,thumbnail:32", workers,
+            decodeBudgetBytes, 10_000_000, new SimpleMeterRegistry());
+    }
+
+    // Occupies the only worker until the latch is released
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        workers.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        return release;
+    }
+
+    // Blue in the middle, red margins on the longer side
+    private Path image(int width, int height, boolean alpha) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.BLUE);
+        int side = Math.min(width, height);
+        graphics.fillRect((width - side) / 2, (height - side) / 2, side, side);
+        graphics.dispose();
+        Path file = Files.createTempFile(directory, "source-", ".png");
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+}
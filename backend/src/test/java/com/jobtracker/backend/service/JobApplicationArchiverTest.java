@@ -0,0 +1,160 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.CompanyDTO;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.entity.ArchivedJobApplication;
+import com.jobtracker.backend.repository.ArchivedJobApplicationRepository;
+import com.jobtracker.backend.repository.JobApplicationRepositry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Moves applications of a user of its own, last changed in 1970, with a cutoff in the early
+ * 1970s, so the applications of other tests and of the dataset are never due. The
+ * archiver's statements go through a mock that delegates to the real repository, so the
+ * chunks can be counted and a concurrent change simulated.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+class JobApplicationArchiverTest {
+
+    // About 55 years: the cutoff is in the early 1970s, after the back-dated applications
+    private static final int AFTER_DAYS = 20_000;
+    private static final LocalDateTime LONG_AGO = LocalDateTime.of(1970, 6, 1, 0, 0);
+
+    @Autowired
+    private JobApplicationRepositry jobApplicationRepositry;
+
+    @Autowired
+    private ArchivedJobApplicationRepository archivedJobApplicationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JobApplicationRepositry repository;
+    private JobApplicationArchiver archiver;
+    private UserDTO owner;
+    private final List<UUID> due = new ArrayList<>();
+    private UUID recent;
+    private UUID companyId;
+
+    @BeforeEach
+    void createApplications() {
+        repository = mock(JobApplicationRepositry.class, delegatesTo(jobApplicationRepositry));
+        archiver = new JobApplicationArchiver(repository, transactionTemplate);
+        ReflectionTestUtils.setField(archiver, "afterDays", AFTER_DAYS);
+        ReflectionTestUtils.setField(archiver, "chunkSize", 2);
+        ReflectionTestUtils.setField(archiver, "chunkPauseMs", 0L);
+
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("Archive Owner");
+        userDTO.setEmail("archive-" + UUID.randomUUID() + "@example.com");
+        owner = userService.createUser(userDTO, "password");
+        for (int i = 0; i < 5; i++) {
+            UUID id = createApplication("Archived " + i).getId();
+            jdbcTemplate.update("update job_applications set updated_at = ? where id = ?",
+                Timestamp.valueOf(LONG_AGO.plusMinutes(i)), id);
+            due.add(id);
+        }
+        JobApplicationDTO recentApplication = createApplication("Recently rejected");
+        recent = recentApplication.getId();
+        companyId = recentApplication.getCompanyId();
+    }
+
+    @AfterEach
+    void deleteOwner() {
+        jdbcTemplate.update("delete from job_applications where user_id = ?", owner.getId());
+        jdbcTemplate.update("delete from job_applications_archive where user_id = ?", owner.getId());
+        userService.deleteUser(owner.getId());
+        jdbcTemplate.update("delete from companies where id = ?", companyId);
+    }
+
+    @Test
+    void dueApplicationsAreMovedInChunks() {
+        assertThat(archiver.archiveFinishedApplications()).isEqualTo(5);
+
+        // 2 + 2 + 1
+        verify(repository, times(3)).copyToArchive(any(), any(), any(), any(), any());
+        verify(repository, times(3)).deleteArchived(any(), any(), any(), any());
+        assertThat(archivedJobApplicationRepository.findByUserId(owner.getId()))
+            .extracting(ArchivedJobApplication::getId)
+            .containsExactlyInAnyOrderElementsOf(due);
+        assertThat(jobApplicationRepositry.findByUserId(owner.getId()))
+            .extracting(application -> application.getId())
+            .containsExactly(recent);
+    }
+
+    @Test
+    void chunkThatChangedWhileItWasMovedIsRolledBack() {
+        // As if one application of every chunk was updated between the copy and the delete
+        doAnswer(invocation -> (int) delegatesTo(jobApplicationRepositry).answer(invocation) - 1)
+            .when(repository).deleteArchived(any(), any(), any(), any());
+
+        assertThat(archiver.archiveFinishedApplications()).isZero();
+
+        assertThat(archivedJobApplicationRepository.findByUserId(owner.getId())).isEmpty();
+        assertThat(jobApplicationRepositry.findByUserId(owner.getId())).hasSize(6);
+    }
+
+    @Test
+    void archiveFollowsCompanyRenamesAndKeepsItsOwner() {
+        archiver.archiveFinishedApplications();
+        CompanyDTO rename = new CompanyDTO();
+        rename.setName("Archive Renamed Corp " + UUID.randomUUID());
+        companyService.updateCompany(companyId, rename);
+
+        assertThat(archivedJobApplicationRepository.findByUserId(owner.getId()))
+            .extracting(ArchivedJobApplication::getCompany)
+            .containsOnly(rename.getName());
+
+        // The archive is the owner's history: a user that has one is not deleted
+        jdbcTemplate.update("delete from job_applications where user_id = ?", owner.getId());
+        assertThatThrownBy(() -> userService.deleteUser(owner.getId())).isInstanceOf(UserHasJobApplicationsException.class);
+        assertThat(archivedJobApplicationRepository.findByUserId(owner.getId())).hasSize(5);
+    }
+
+    //Helpers
+
+    private JobApplicationDTO createApplication(String title) {
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle(title);
+        jobApplication.setCompany("Archive Corp " + owner.getId());
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Finished long ago");
+        jobApplication.setStatus("REJECTED");
+        return jobApplicationService.createJobApplication(jobApplication, owner.getEmail());
+    }
+}
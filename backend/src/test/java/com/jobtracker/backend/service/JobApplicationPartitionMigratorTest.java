@@ -0,0 +1,166 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Migrates a job_applications table of a schema of its own (first on the search path, before
+ * public), so the table of the application is never touched. Like the real one, the table
+ * references the users and companies of public.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+class JobApplicationPartitionMigratorTest {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Autowired
+    private JdbcTemplate publicJdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    private final String schema = "partition_test_" + Long.toString(System.nanoTime(), 36);
+    private final List<UUID> applications = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private JobApplicationPartitionMigrator migrator;
+    private UserDTO owner;
+    private UUID companyId;
+
+    @BeforeEach
+    void createTable() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("Partitioned User");
+        userDTO.setEmail("partitioned-" + UUID.randomUUID() + "@example.com");
+        owner = userService.createUser(userDTO, "password");
+        companyId = UUID.randomUUID();
+        publicJdbcTemplate.update("insert into companies (id, name, normalized_name, created_at, updated_at) "
+            + "values (?, ?, ?, now(), now())", companyId, "Partition Corp " + companyId, "partition corp " + companyId);
+
+        publicJdbcTemplate.execute("create schema " + schema);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema + ",public", username, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table job_applications (like public.job_applications including all)");
+        jdbcTemplate.execute("alter table job_applications add constraint fk_partition_test_user "
+            + "foreign key (user_id) references public.users(id)");
+        jdbcTemplate.execute("alter table job_applications add constraint fk_partition_test_company "
+            + "foreign key (company_id) references public.companies(id)");
+        for (int i = 0; i < 10; i++) {
+            applications.add(insert("Application " + i));
+        }
+        applications.sort(null);
+
+        migrator = new JobApplicationPartitionMigrator(jdbcTemplate,
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(migrator, "partitions", 4);
+        ReflectionTestUtils.setField(migrator, "chunkSize", 2);
+        ReflectionTestUtils.setField(migrator, "chunkPauseMs", 300L);
+    }
+
+    @AfterEach
+    void dropTable() {
+        publicJdbcTemplate.execute("drop schema " + schema + " cascade");
+        userService.deleteUser(owner.getId());
+        publicJdbcTemplate.update("delete from companies where id = ?", companyId);
+    }
+
+    @Test
+    void writesDuringTheCopyAreKept() throws Exception {
+        CompletableFuture<Void> migration = CompletableFuture.runAsync(() -> {
+            try {
+                migrator.migrate();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // Writes to rows of the first chunk, once it was copied, and a new row
+        waitFor(() -> jdbcTemplate.queryForObject("select to_regclass('job_applications_partitioned') is not null", Boolean.class)
+            && count("job_applications_partitioned") >= 2);
+        UUID added = insert("Added during the copy");
+        jdbcTemplate.update("update job_applications set title = 'Updated during the copy' where id = ?", applications.get(0));
+        jdbcTemplate.update("delete from job_applications where id = ?", applications.get(1));
+        assertThat(migration).isNotDone();
+        migration.get(30, TimeUnit.SECONDS);
+
+        assertThat(migrator.isPartitioned()).isTrue();
+        assertThat(count("job_applications")).isEqualTo(10);
+        assertThat(count("job_applications_unpartitioned")).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject("select title from job_applications where id = ?", String.class,
+            applications.get(0))).isEqualTo("Updated during the copy");
+        assertThat(jdbcTemplate.queryForList("select id from job_applications", UUID.class))
+            .contains(added)
+            .doesNotContain(applications.get(1));
+    }
+
+    @Test
+    void foreignKeysMoveToThePartitionedTable() throws Exception {
+        migrator.migrate();
+
+        assertThat(foreignKeys("job_applications")).containsExactlyInAnyOrder(
+            "FOREIGN KEY (user_id) REFERENCES users(id)", "FOREIGN KEY (company_id) REFERENCES companies(id)");
+        assertThat(foreignKeys("job_applications_unpartitioned")).isEmpty();
+        assertThatThrownBy(() -> jdbcTemplate.update("update job_applications set company_id = ? where id = ?",
+            UUID.randomUUID(), applications.get(0)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        // Running it again changes nothing
+        migrator.migrate();
+        assertThat(count("job_applications")).isEqualTo(10);
+    }
+
+    //Helpers
+
+    private UUID insert(String title) {
+        UUID id = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("insert into job_applications (id, title, company, company_id, location, description, status, "
+                + "created_at, updated_at, user_id) values (?, ?, 'Partition Corp', ?, 'Remote', 'Partitioned', 'APPLIED', ?, ?, ?)",
+            id, title, companyId, now, now, owner.getId());
+        return id;
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    private List<String> foreignKeys(String table) {
+        return jdbcTemplate.queryForList("select pg_get_constraintdef(oid) from pg_constraint "
+            + "where conrelid = ?::regclass and contype = 'f' and conparentid = 0", String.class, table);
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("Timed out").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.event.JobApplicationChangedEvent;
+import com.jobtracker.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Connections are emitters that record what is sent to them. The first send of a connection
+ * can be held, which makes it a slow client: events offered meanwhile wait in its buffer.
+ */
+class JobApplicationStreamServiceTest {
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final UUID owner = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+    private JobApplicationStreamService service;
+
+    @BeforeEach
+    void createService() {
+        service = new JobApplicationStreamService(mock(UserRepository.class), outboxService);
+        ReflectionTestUtils.setField(service, "bufferSize", 2);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void pendingEventsOfTheSameApplicationAreCoalesced() throws Exception {
+        RecordingEmitter connection = new RecordingEmitter(true);
+        service.subscribe(owner, connection);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        service.onJobApplicationChanged(event(first, owner, "first v1"));
+        connection.awaitFirstSend();
+        // Sent while the client is busy with "first v1"
+        service.onJobApplicationChanged(event(first, owner, "first v2"));
+        service.onJobApplicationChanged(event(first, owner, "first v3"));
+        service.onJobApplicationChanged(event(second, owner, "second v1"));
+        connection.release();
+
+        connection.awaitSent(3);
+        assertThat(connection.titles()).containsExactly("first v1", "first v3", "second v1");
+        assertThat(service.getCoalescedEvents()).isEqualTo(1);
+        assertThat(service.getDroppedEvents()).isZero();
+    }
+
+    @Test
+    void fullBufferDropsTheOldestPendingEvent() throws Exception {
+        RecordingEmitter connection = new RecordingEmitter(true);
+        service.subscribe(owner, connection);
+
+        service.onJobApplicationChanged(event(UUID.randomUUID(), owner, "sending"));
+        connection.awaitFirstSend();
+        for (String title : List.of("oldest", "older", "newest")) {
+            service.onJobApplicationChanged(event(UUID.randomUUID(), owner, title));
+        }
+        connection.release();
+
+        connection.awaitSent(3);
+        assertThat(connection.titles()).containsExactly("sending", "older", "newest");
+        assertThat(service.getDroppedEvents()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsOnlyReachTheOwnersConnections() throws Exception {
+        RecordingEmitter ownerConnection = new RecordingEmitter(false);
+        RecordingEmitter secondOwnerConnection = new RecordingEmitter(false);
+        RecordingEmitter otherConnection = new RecordingEmitter(false);
+        service.subscribe(owner, ownerConnection);
+        service.subscribe(owner, secondOwnerConnection);
+        service.subscribe(other, otherConnection);
+        assertThat(service.getOpenConnections()).isEqualTo(3);
+
+        // As delivered by the outbox relay, which routes by the owner in the payload
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setId(UUID.randomUUID());
+        jobApplication.setUserId(owner);
+        jobApplication.setTitle("owned");
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateType(OutboxService.JOB_APPLICATION);
+        outboxEvent.setAggregateId(jobApplication.getId());
+        outboxEvent.setEventType(OutboxService.UPDATED);
+        outboxEvent.setCreatedAt(Instant.now());
+        when(outboxService.readPayload(outboxEvent, JobApplicationDTO.class)).thenReturn(jobApplication);
+        service.onEvent(outboxEvent);
+        service.onJobApplicationChanged(event(UUID.randomUUID(), null, "no owner"));
+
+        ownerConnection.awaitSent(1);
+        secondOwnerConnection.awaitSent(1);
+        assertThat(ownerConnection.titles()).containsExactly("owned");
+        assertThat(secondOwnerConnection.titles()).containsExactly("owned");
+        Thread.sleep(100);
+        assertThat(otherConnection.titles()).isEmpty();
+    }
+
+    //Helpers
+
+    private static JobApplicationChangedEvent event(UUID applicationId, UUID userId, String title) {
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setId(applicationId);
+        jobApplication.setUserId(userId);
+        jobApplication.setTitle(title);
+        return new JobApplicationChangedEvent(JobApplicationChangedEvent.Type.UPDATED, applicationId, userId,
+            jobApplication, Instant.now());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<JobApplicationDTO> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstSend = new CountDownLatch(1);
+        private final CountDownLatch released;
+
+        // holdFirstSend: the first send waits for release()
+        RecordingEmitter(boolean holdFirstSend) {
+            released = new CountDownLatch(holdFirstSend ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof JobApplicationDTO jobApplication) {
+                    sent.add(jobApplication);
+                }
+            }
+            firstSend.countDown();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void awaitFirstSend() throws InterruptedException {
+            assertThat(firstSend.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        void awaitSent(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (sent.size() < count) {
+                assertThat(System.currentTimeMillis()).as("Timed out").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+        }
+
+        List<String> titles() {
+            return sent.stream().map(JobApplicationDTO::getTitle).toList();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.jobtracker.backend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.jobtracker.backend.entity.EmailStatus;
+import com.jobtracker.backend.entity.OutboundEmail;
+import com.jobtracker.backend.repository.OutboundEmailRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends queued emails to an in-process SMTP server (GreenMail). The recipients are on a
+ * domain of their own per test, so emails already in the queue do not interfere.
+ */
+@SpringBootTest(properties = {
+    "jobtracker.history.dir=target/test-history",
+    "jobtracker.mail.sender=smtp",
+    "spring.mail.host=localhost",
+    "spring.mail.port=3025",
+    "jobtracker.mail.initial-backoff-seconds=0",
+    "jobtracker.mail.max-attempts=2"
+})
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailQueue mailQueue;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+
+    private final String domain = "mail-" + UUID.randomUUID() + ".example";
+    private final List<String> dedupKeys = new ArrayList<>();
+
+    @AfterEach
+    void deleteEmails() {
+        dedupKeys.forEach(key -> outboundEmailRepository.findByDedupKey(key).ifPresent(outboundEmailRepository::delete));
+    }
+
+    @Test
+    void queuedEmailsAreSentOnceEach() throws Exception {
+        assertThat(enqueue("alice@" + domain, "first")).isTrue();
+        assertThat(enqueue("bob@" + domain, "second")).isTrue();
+        // Same dedup key: not queued again
+        assertThat(mailQueue.enqueue("alice@" + domain, "Hello", "Body", dedupKeys.get(0))).isFalse();
+
+        awaitStatus(dedupKeys, EmailStatus.SENT);
+
+        MimeMessage[] received = Arrays.stream(greenMail.getReceivedMessages())
+            .filter(message -> recipientOf(message).endsWith("@" + domain))
+            .toArray(MimeMessage[]::new);
+        assertThat(received).hasSize(2);
+        assertThat(Arrays.stream(received).map(MailDispatcherTest::recipientOf))
+            .containsExactlyInAnyOrder("alice@" + domain, "bob@" + domain);
+        OutboundEmail sent = outboundEmailRepository.findByDedupKey(dedupKeys.get(0)).orElseThrow();
+        assertThat(sent.getAttempts()).isEqualTo(1);
+        assertThat(sent.getSentAt()).isNotNull();
+    }
+
+    @Test
+    void malformedAddressIsADeadLetterAtOnce() throws Exception {
+        enqueue("not an address@" + domain, "malformed");
+
+        awaitStatus(dedupKeys, EmailStatus.DEAD);
+
+        OutboundEmail dead = outboundEmailRepository.findByDedupKey(dedupKeys.get(0)).orElseThrow();
+        assertThat(dead.getAttempts()).isEqualTo(1);
+        assertThat(dead.getLastError()).isNotBlank();
+    }
+
+    @Test
+    void unreachableServerIsRetriedThenDeadLetteredThenRequeued() throws Exception {
+        greenMail.stop();
+        enqueue("carol@" + domain, "retried");
+
+        awaitAttempts(dedupKeys.get(0), 1);
+        assertThat(status(dedupKeys.get(0))).isEqualTo(EmailStatus.PENDING);
+        awaitStatus(dedupKeys, EmailStatus.DEAD);
+        OutboundEmail dead = outboundEmailRepository.findByDedupKey(dedupKeys.get(0)).orElseThrow();
+        assertThat(dead.getAttempts()).isEqualTo(2);
+
+        greenMail.start();
+        assertThat(mailDispatcher.retry(dead.getId())).isTrue();
+        assertThat(mailDispatcher.retry(dead.getId())).isFalse();
+        awaitStatus(dedupKeys, EmailStatus.SENT);
+        assertThat(greenMail.getReceivedMessagesForDomain(domain)).hasSize(1);
+    }
+
+    //Helpers
+
+    private boolean enqueue(String recipient, String name) {
+        String dedupKey = "test:" + domain + ":" + name;
+        dedupKeys.add(dedupKey);
+        return mailQueue.enqueue(recipient, "Hello " + name, "Body of " + name, dedupKey);
+    }
+
+    private EmailStatus status(String dedupKey) {
+        return outboundEmailRepository.findByDedupKey(dedupKey).orElseThrow().getStatus();
+    }
+
+    // Dispatches until every email has the status (the workers send in the background)
+    private void awaitStatus(List<String> keys, EmailStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!keys.stream().allMatch(key -> status(key) == expected)) {
+            assertThat(System.currentTimeMillis()).as("emails %s by now", expected).isLessThan(deadline);
+            mailDispatcher.dispatchDueEmails();
+            Thread.sleep(50);
+        }
+    }
+
+    private void awaitAttempts(String dedupKey, int attempts) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        mailDispatcher.dispatchDueEmails();
+        while (outboundEmailRepository.findByDedupKey(dedupKey).orElseThrow().getAttempts() < attempts) {
+            assertThat(System.currentTimeMillis()).as("%d attempts by now", attempts).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static String recipientOf(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
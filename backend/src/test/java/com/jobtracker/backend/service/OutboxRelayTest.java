@@ -0,0 +1,211 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.entity.OutboxEvent;
+import com.jobtracker.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two relays on the same outbox table stand for two instances of the application. The
+ * events of every test have an aggregate type of their own, which only the test's
+ * subscribers support; events of other tests are claimed and published without a
+ * subscriber.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String aggregateType = "RelayTest-" + UUID.randomUUID();
+    private final RecordingSubscriber claimedOnFirst = new RecordingSubscriber(false);
+    private final RecordingSubscriber claimedOnSecond = new RecordingSubscriber(false);
+    private final RecordingSubscriber perInstanceOnFirst = new RecordingSubscriber(true);
+    private final RecordingSubscriber perInstanceOnSecond = new RecordingSubscriber(true);
+    private final MeterRegistry firstMeters = new SimpleMeterRegistry();
+    private OutboxRelay first;
+    private OutboxRelay second;
+
+    @BeforeEach
+    void createRelays() {
+        first = relay(claimedOnFirst, perInstanceOnFirst, firstMeters);
+        second = relay(claimedOnSecond, perInstanceOnSecond, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void eachEventIsClaimedOnceAndSeenByEveryInstance() {
+        List<UUID> written = record(5);
+
+        first.relayPendingEvents();
+        second.relayPendingEvents();
+        first.relayPendingEvents();
+
+        List<UUID> claimed = new ArrayList<>(claimedOnFirst.received);
+        claimed.addAll(claimedOnSecond.received);
+        assertThat(claimed).containsExactlyElementsOf(written);
+        assertThat(perInstanceOnFirst.received).containsExactlyElementsOf(written);
+        assertThat(perInstanceOnSecond.received).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    void eventsAfterOnesLeasedByAnotherInstanceWaitForThem() {
+        List<UUID> written = record(3);
+        OutboxEvent oldest = outboxEventRepository.findFirstByPublishedAtIsNullAndDeadLetteredAtIsNullOrderByIdAsc()
+            .orElseThrow();
+        // Another instance claimed the oldest pending events and is still delivering them
+        lease(oldest, Instant.now().plusSeconds(60));
+
+        first.relayPendingEvents();
+        assertThat(claimedOnFirst.received).isEmpty();
+        assertThat(outboxEventRepository.findById(oldest.getId()).orElseThrow().getPublishedAt()).isNull();
+        // Nothing was claimed, but the events are still pending
+        assertThat(firstMeters.get("jobtracker.outbox.pending").gauge().value()).isGreaterThanOrEqualTo(3);
+
+        // It died: once its lease ran out, its events are claimed again
+        lease(oldest, Instant.now().minusSeconds(1));
+        first.relayPendingEvents();
+        assertThat(claimedOnFirst.received).containsExactlyElementsOf(written);
+        assertThat(outboxEventRepository.findById(oldest.getId()).orElseThrow().getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    void failedEventIsRetriedWithTheEventsAfterIt() {
+        List<UUID> written = record(4);
+        claimedOnFirst.failOnce(written.get(2));
+
+        first.relayPendingEvents();
+        assertThat(claimedOnFirst.received).containsExactlyElementsOf(written.subList(0, 2));
+        // Only published events reach the per-instance subscribers
+        assertThat(perInstanceOnFirst.received).containsExactlyElementsOf(written.subList(0, 2));
+
+        // The failed event was given back, so it does not wait for its lease
+        first.relayPendingEvents();
+        assertThat(claimedOnFirst.received).containsExactlyElementsOf(written);
+        assertThat(perInstanceOnFirst.received).containsExactlyElementsOf(written);
+        second.relayPendingEvents();
+        assertThat(claimedOnSecond.received).isEmpty();
+        assertThat(perInstanceOnSecond.received).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    void eventThatKeepsFailingIsDeadLetteredAndSkipped() {
+        List<UUID> written = record(3);
+        claimedOnFirst.failAlways(written.get(1));
+
+        first.relayPendingEvents();
+        first.relayPendingEvents();
+        assertThat(claimedOnFirst.received).containsExactly(written.get(0));
+        OutboxEvent failed = event(written.get(1));
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getDeadLetteredAt()).isNull();
+
+        // The third attempt is the last one, the poll after it moves on
+        first.relayPendingEvents();
+        assertThat(event(written.get(1)).getDeadLetteredAt()).isNotNull();
+        assertThat(firstMeters.get("jobtracker.outbox.dead-lettered").counter().count()).isEqualTo(1);
+        first.relayPendingEvents();
+        assertThat(claimedOnFirst.received).containsExactly(written.get(0), written.get(2));
+        // Dead-lettered events are never published
+        assertThat(event(written.get(1)).getPublishedAt()).isNull();
+        assertThat(perInstanceOnFirst.received).containsExactly(written.get(0), written.get(2));
+    }
+
+    //Helpers
+
+    private OutboxRelay relay(RecordingSubscriber claimed, RecordingSubscriber perInstance, MeterRegistry meterRegistry) {
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, List.of(claimed, perInstance), transactionTemplate,
+            meterRegistry);
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        relay.initPublishedCursor();
+        return relay;
+    }
+
+    // Writes events for new aggregates and returns their IDs, in outbox order
+    private List<UUID> record(int count) {
+        List<UUID> aggregateIds = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                UUID aggregateId = UUID.randomUUID();
+                outboxService.record(aggregateType, aggregateId, OutboxService.CREATED, Map.of("index", i));
+                aggregateIds.add(aggregateId);
+            }
+        });
+        return aggregateIds;
+    }
+
+    private OutboxEvent event(UUID aggregateId) {
+        return outboxEventRepository.findAll().stream()
+            .filter(event -> event.getAggregateId().equals(aggregateId))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private void lease(OutboxEvent event, Instant until) {
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.lease(List.of(event.getId()), until));
+    }
+
+    private class RecordingSubscriber implements OutboxSubscriber {
+
+        private final boolean perInstance;
+        private final List<UUID> received = new CopyOnWriteArrayList<>();
+        private UUID failOn;
+        private boolean failAlways;
+
+        RecordingSubscriber(boolean perInstance) {
+            this.perInstance = perInstance;
+        }
+
+        void failOnce(UUID aggregateId) {
+            failOn = aggregateId;
+        }
+
+        void failAlways(UUID aggregateId) {
+            failOn = aggregateId;
+            failAlways = true;
+        }
+
+        @Override
+        public boolean supports(String type) {
+            return aggregateType.equals(type);
+        }
+
+        @Override
+        public void onEvent(OutboxEvent event) {
+            if (event.getAggregateId().equals(failOn)) {
+                if (!failAlways) {
+                    failOn = null;
+                }
+                throw new IllegalStateException("Subscriber failed");
+            }
+            received.add(event.getAggregateId());
+        }
+
+        @Override
+        public boolean isPerInstance() {
+            return perInstance;
+        }
+    }
+}
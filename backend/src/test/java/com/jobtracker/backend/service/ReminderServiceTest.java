@@ -0,0 +1,181 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.entity.OutboundEmail;
+import com.jobtracker.backend.entity.Reminder;
+import com.jobtracker.backend.entity.ReminderType;
+import com.jobtracker.backend.repository.OutboundEmailRepository;
+import com.jobtracker.backend.repository.ReminderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends a reminder of a user of its own, due in 1970, with the sweep of services that stand
+ * for instances of the application. Their sweep only looks at reminders due before 1971, so
+ * the reminders of other tests and of the dataset are left alone.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+class ReminderServiceTest {
+
+    private static final Instant DUE_AT = Instant.parse("1970-06-01T08:00:00Z");
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ReminderEmailListener reminderEmailListener;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDTO owner;
+    private JobApplicationDTO application;
+    private Reminder reminder;
+
+    @BeforeEach
+    void createReminder() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setName("Reminded User");
+        userDTO.setEmail("reminder-" + UUID.randomUUID() + "@example.com");
+        owner = userService.createUser(userDTO, "password");
+
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setTitle("Platform Engineer");
+        jobApplication.setCompany("Reminder Corp " + owner.getId());
+        jobApplication.setLocation("Remote");
+        jobApplication.setDescription("Deadline soon");
+        jobApplication.setStatus("APPLIED");
+        jobApplication.setDeadline(LocalDate.of(1970, 6, 2));
+        application = jobApplicationService.createJobApplication(jobApplication, owner.getEmail());
+
+        reminder = new Reminder();
+        reminder.setApplicationId(application.getId());
+        reminder.setUserId(owner.getId());
+        reminder.setType(ReminderType.DEADLINE);
+        reminder.setDueAt(DUE_AT);
+        reminder = reminderRepository.save(reminder);
+    }
+
+    @AfterEach
+    void deleteOwner() {
+        jdbcTemplate.update("delete from outbound_emails where dedup_key = ?", dedupKey());
+        jdbcTemplate.update("delete from reminders where user_id = ?", owner.getId());
+        jdbcTemplate.update("delete from job_applications where user_id = ?", owner.getId());
+        userService.deleteUser(owner.getId());
+        jdbcTemplate.update("delete from companies where id = ?", application.getCompanyId());
+    }
+
+    @Test
+    void dueReminderIsEmailedByOneInstance() {
+        assertThat(instance(List.of(reminderEmailListener)).sweepOverdueReminders()).isEqualTo(1);
+        assertThat(instance(List.of(reminderEmailListener)).sweepOverdueReminders()).isZero();
+
+        assertThat(reminderRepository.findById(reminder.getId()).orElseThrow().getSentAt()).isNotNull();
+        OutboundEmail email = outboundEmailRepository.findByDedupKey(dedupKey()).orElseThrow();
+        assertThat(email.getRecipient()).isEqualTo(owner.getEmail());
+        assertThat(email.getSubject()).isEqualTo("Deadline coming up: Platform Engineer");
+        assertThat(email.getBody()).contains("1970-06-02");
+    }
+
+    @Test
+    void reminderClaimedByAnotherInstanceIsSkipped() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Another instance is sending the reminder
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            assertThat(reminderRepository.lockPending(List.of(reminder.getId()))).hasSize(1);
+            locked.countDown();
+            await(release);
+        }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(instance(List.of(reminderEmailListener)).sweepOverdueReminders()).isZero();
+        } finally {
+            release.countDown();
+            other.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(outboundEmailRepository.findByDedupKey(dedupKey())).isEmpty();
+    }
+
+    @Test
+    void reminderIsNotMarkedAsSentWithoutAListener() {
+        assertThat(instance(List.of()).sweepOverdueReminders()).isZero();
+
+        assertThat(reminderRepository.findById(reminder.getId()).orElseThrow().getSentAt()).isNull();
+    }
+
+    @Test
+    void failingListenerRollsTheBatchBack() {
+        ReminderListener failing = reminders -> {
+            throw new IllegalStateException("Listener failed");
+        };
+
+        assertThat(instance(List.of(reminderEmailListener, failing)).sweepOverdueReminders()).isZero();
+
+        // Neither marked as sent nor queued: the email of the first listener was rolled back
+        assertThat(reminderRepository.findById(reminder.getId()).orElseThrow().getSentAt()).isNull();
+        assertThat(outboundEmailRepository.findByDedupKey(dedupKey())).isEmpty();
+
+        assertThat(instance(List.of(reminderEmailListener)).sweepOverdueReminders()).isEqualTo(1);
+        assertThat(outboundEmailRepository.findByDedupKey(dedupKey())).isPresent();
+    }
+
+    //Helpers
+
+    // A service with the given listeners whose sweep only sees reminders due before 1971
+    private ReminderService instance(List<ReminderListener> listeners) {
+        ReminderService service = new ReminderService(reminderRepository, outboxService, listeners, transactionTemplate,
+            new SimpleMeterRegistry(), 1000);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "sweepMs",
+            Duration.between(Instant.parse("1971-01-01T00:00:00Z"), Instant.now()).toMillis());
+        return service;
+    }
+
+    private String dedupKey() {
+        return "reminder:" + reminder.getId() + ":" + DUE_AT.toEpochMilli();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.jobtracker.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void payloadFiresOnFirstTickAtOrAfterItsDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 1_000);
+        wheel.schedule(1_025, "a");
+
+        assertThat(wheel.advance(1_029)).isEmpty();
+        assertThat(wheel.advance(1_030)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledPayloadNeverFires() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule(50, "cancelled");
+        wheel.schedule(50, "kept");
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(wheel.advance(100)).containsExactly("kept");
+    }
+
+    @Test
+    void overduePayloadFiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 1_000);
+        wheel.schedule(500, "late");
+
+        assertThat(wheel.advance(1_000)).containsExactly("late");
+    }
+
+    @Test
+    void payloadsOnHigherLevelsCascadeAndFireInOrder() {
+        // 16 slots per level: deadlines up to 16^3 ticks ahead use three levels
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 4, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = 1 + random.nextInt(5_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 5_000; now += 7) {
+            for (Long deadline : wheel.advance(now)) {
+                // Never early, and at most one advance step late
+                assertThat(deadline).isLessThanOrEqualTo(now).isGreaterThan(now - 7);
+                fired.add(deadline);
+            }
+        }
+        fired.addAll(wheel.advance(5_007));
+
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(deadlines);
+        assertThat(fired).isSorted();
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,155 @@
+package com.jobtracker.backend.service;
+
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.dto.UserDTO;
+import com.jobtracker.backend.monitoring.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts the statements of the write paths that are meant to be one targeted statement each.
+ *
+ * Every test runs in a transaction that is rolled back. The outbox insert (and its sequence
+ * lookups) is left out of the counts: it is part of every write by design.
+ */
+@SpringBootTest(properties = "jobtracker.history.dir=target/test-history")
+@Transactional
+class WriteStatementCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobApplicationService jobApplicationService;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void updateUserIsOneUpdateStatement() {
+        UserDTO user = createUser();
+        user.setName("Renamed User");
+
+        Map<String, Integer> statements = count(() -> userService.updateUser(user));
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.keySet().iterator().next()).startsWith("update users");
+        assertThat(statements.values()).containsExactly(1);
+        assertThat(userService.findUserById(user.getId()).getName()).isEqualTo("Renamed User");
+    }
+
+    @Test
+    void updateOfAMissingUserIsReportedByTheRowCount() {
+        UserDTO missing = new UserDTO();
+        missing.setId(UUID.randomUUID());
+        missing.setName("Nobody");
+        missing.setEmail("nobody-" + missing.getId() + "@example.com");
+
+        assertThatThrownBy(() -> count(() -> userService.updateUser(missing)))
+            .hasMessage("User not found");
+    }
+
+    @Test
+    void deleteUserIsOneDeleteStatement() {
+        UserDTO user = createUser();
+
+        Map<String, Integer> statements = count(() -> {
+            userService.deleteUser(user.getId());
+            return null;
+        });
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.keySet().iterator().next()).contains("delete from users");
+        assertThat(statements.values()).containsExactly(1);
+        assertThatThrownBy(() -> userService.findUserById(user.getId())).hasMessage("User not found");
+    }
+
+    @Test
+    void deleteOfAMissingUserIsReportedByTheRowCount() {
+        assertThatThrownBy(() -> userService.deleteUser(UUID.randomUUID())).hasMessage("User not found");
+    }
+
+    @Test
+    void updateJobApplicationIsOneUpdateStatement() {
+        UserDTO user = createUser();
+        JobApplicationDTO application = jobApplicationService.createJobApplication(application("APPLIED"), user.getEmail());
+        entityManager.clear();
+
+        JobApplicationDTO changes = application("INTERVIEW");
+        Map<String, Integer> statements = count(() ->
+            jobApplicationService.updateJobApplication(application.getId(), changes, user.getEmail()));
+
+        // The owner's ID and the company lookup, then the update itself; no select of the application
+        assertThat(statements.keySet()).noneMatch(shape -> shape.contains("from job_applications") && shape.startsWith("select"));
+        assertThat(statements.entrySet())
+            .filteredOn(entry -> entry.getKey().startsWith("update job_applications"))
+            .singleElement()
+            .satisfies(entry -> assertThat(entry.getValue()).isEqualTo(1));
+        assertThat(statements.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(3);
+
+        JobApplicationDTO updated = jobApplicationService.findJobApplicationById(application.getId(), user.getEmail(), false);
+        assertThat(updated.getStatus()).isEqualTo("INTERVIEW");
+        assertThat(updated.getCompanyId()).isEqualTo(application.getCompanyId());
+    }
+
+    @Test
+    void updateOfAnotherUsersJobApplicationIsNotFound() {
+        UserDTO owner = createUser();
+        UserDTO other = createUser();
+        JobApplicationDTO application = jobApplicationService.createJobApplication(application("APPLIED"), owner.getEmail());
+
+        assertThat(jobApplicationService.updateJobApplication(application.getId(), application("OFFER"), other.getEmail()))
+            .isNull();
+        assertThat(jobApplicationService.findJobApplicationById(application.getId(), owner.getEmail(), false).getStatus())
+            .isEqualTo("APPLIED");
+    }
+
+    // The statement shapes (and how often each ran) of one operation, without the outbox
+    private Map<String, Integer> count(Supplier<?> operation) {
+        // Writes still pending from the setup are not part of the operation
+        entityManager.flush();
+        try (SqlStatementCounter.Scope scope = counter.open("test", Integer.MAX_VALUE, Integer.MAX_VALUE)) {
+            operation.get();
+            entityManager.flush();
+            // The bulk statements bypass the persistence context; read the rows back fresh
+            entityManager.clear();
+            Map<String, Integer> statements = new LinkedHashMap<>(scope.getStatistics().getShapes());
+            // The sequence name is a parameter of the lookup; the outbox takes an ID per event
+            statements.keySet().removeIf(shape -> shape.contains("outbox_events") || shape.startsWith("select nextval("));
+            return statements;
+        }
+    }
+
+    private UserDTO createUser() {
+        UserDTO user = new UserDTO();
+        user.setName("Statement Count");
+        user.setEmail("statement-count-" + UUID.randomUUID() + "@example.com");
+        user.setRoles(List.of("USER"));
+        return userService.createUser(user, "password");
+    }
+
+    private static JobApplicationDTO application(String status) {
+        JobApplicationDTO application = new JobApplicationDTO();
+        application.setTitle("Backend Engineer");
+        application.setCompany("Statement Count Corp");
+        application.setLocation("Remote");
+        application.setDescription("Counting statements");
+        application.setStatus(status);
+        return application;
+    }
+}
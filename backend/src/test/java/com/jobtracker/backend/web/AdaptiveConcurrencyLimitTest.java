@@ -0,0 +1,88 @@
+package com.jobtracker.backend.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = 10_000_000L;
+    private static final long SLOW = 100_000_000L;
+
+    @Test
+    void requestsOverTheLimitAreRejected() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1.5, 0.2, 10, 100);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+
+        limit.releaseWithoutSample();
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyStaysLowAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 1.5, 0.2, 10, 100);
+
+        runWindows(limit, 20, FAST);
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        runWindows(limit, 10, SLOW);
+        int shrunk = limit.getLimit();
+        assertThat(shrunk).isLessThan(grown / 2);
+        assertThat(shrunk).isGreaterThanOrEqualTo(2);
+
+        // Back to normal latency: the limit recovers
+        runWindows(limit, 30, FAST);
+        assertThat(limit.getLimit()).isGreaterThan(shrunk);
+    }
+
+    @Test
+    void limitStaysWithinItsBounds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 12, 1.5, 0.5, 5, 1000);
+
+        runWindows(limit, 50, FAST);
+        assertThat(limit.getLimit()).isEqualTo(12);
+
+        runWindows(limit, 30, SLOW * 100);
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void anIdleServiceDoesNotGrowItsLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 1.5, 0.2, 10, 100);
+
+        // One request at a time is far below half the limit
+        for (int i = 0; i < 500; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void invalidBoundsAreRejected() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(10, 0, 100, 1.5, 0.2, 10, 100))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(10, 20, 10, 1.5, 0.2, 10, 100))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Fills the limit, then releases every request with the given latency, once per window
+    private static void runWindows(AdaptiveConcurrencyLimit limit, int windows, long rttNanos) {
+        for (int window = 0; window < windows; window++) {
+            int acquired = 0;
+            while (limit.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(rttNanos);
+            }
+        }
+    }
+}
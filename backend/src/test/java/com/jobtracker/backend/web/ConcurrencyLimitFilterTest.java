@@ -0,0 +1,63 @@
+package com.jobtracker.backend.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimit authLimit = spy(new AdaptiveConcurrencyLimit(10, 1, 100, 1.5, 0.2, 10, 100));
+    private final AdaptiveConcurrencyLimit defaultLimit = spy(new AdaptiveConcurrencyLimit(1, 1, 100, 1.5, 0.2, 10, 100));
+    private final ConcurrencyLimitFilter filter =
+        new ConcurrencyLimitFilter(authLimit, defaultLimit, 2, new SimpleMeterRegistry());
+
+    @Test
+    void requestsAreSampledInTheirPartition() throws Exception {
+        perform("/api/applications", (request, response) -> { });
+        perform("/api/auth/signin", (request, response) -> { });
+
+        verify(defaultLimit).release(anyLong());
+        verify(authLimit).release(anyLong());
+    }
+
+    @Test
+    void attachmentTransfersTakeASlotButAreNotSampled() throws Exception {
+        perform("/api/attachments/0b6f0f5e-0000-0000-0000-000000000000/content", (request, response) ->
+            // The slot is taken while the file is sent
+            assertThat(defaultLimit.getInFlight()).isEqualTo(1));
+        perform("/api/attachments", (request, response) -> { });
+
+        verify(defaultLimit, never()).release(anyLong());
+        assertThat(defaultLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    void requestsOverTheLimitAreRejected() throws Exception {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        perform("/api/attachments", (request, response) -> nested[0] = perform("/api/applications", (r, s) -> { }));
+
+        assertThat(nested[0].getStatus()).isEqualTo(503);
+        assertThat(nested[0].getHeader("Retry-After")).isEqualTo("2");
+    }
+
+    //Helpers
+
+    private MockHttpServletResponse perform(String path, FilterChain chain) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + path);
+        request.setContextPath("/api");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
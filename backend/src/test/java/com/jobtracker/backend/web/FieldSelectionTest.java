@@ -0,0 +1,96 @@
+package com.jobtracker.backend.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jobtracker.backend.config.FieldSelectionConfig;
+import com.jobtracker.backend.dto.JobApplicationDTO;
+import com.jobtracker.backend.service.JobApplicationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldSelectionTest {
+
+    @Test
+    void parsesTheAllowedFields() {
+        FieldSelection selection = FieldSelection.parse(" id, title ,,status,id", JobApplicationService.FIELDS);
+
+        assertThat(selection.isAll()).isFalse();
+        assertThat(selection.getFields()).containsExactly("id", "title", "status");
+        assertThat(FieldSelection.parse(null, JobApplicationService.FIELDS).isAll()).isTrue();
+        assertThat(FieldSelection.parse(" , ", JobApplicationService.FIELDS).isAll()).isTrue();
+    }
+
+    @Test
+    void rejectsFieldsThatAreNotAllowed() {
+        assertThatThrownBy(() -> FieldSelection.parse("id,password", JobApplicationService.FIELDS))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Unknown field 'password'");
+        // Names are matched exactly
+        assertThatThrownBy(() -> FieldSelection.parse("Title", JobApplicationService.FIELDS))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void onlyTheSelectedPropertiesAreWrittenInEveryFormat() throws Exception {
+        JobApplicationDTO jobApplication = jobApplication();
+        MappingJacksonValue selected = FieldSelection.parse("id,title", JobApplicationService.FIELDS).wrap(jobApplication);
+        MappingJacksonValue all = FieldSelection.parse(null, JobApplicationService.FIELDS).wrap(jobApplication);
+
+        for (ObjectMapper mapper : mappers()) {
+            assertThat(propertyNames(mapper, mapper.writer(selected.getFilters()).writeValueAsBytes(selected.getValue())))
+                .as(mapper.getFactory().getFormatName())
+                .containsExactlyInAnyOrder("id", "title");
+            assertThat(propertyNames(mapper, mapper.writer(all.getFilters()).writeValueAsBytes(all.getValue())))
+                .as(mapper.getFactory().getFormatName())
+                .contains("id", "title", "status", "company", "archived");
+        }
+    }
+
+    @Test
+    void filteredDtosAreWrittenInFullWithoutASelection() throws Exception {
+        // E.g. outbox payloads and event streams, which never wrap their DTOs
+        for (ObjectMapper mapper : mappers()) {
+            assertThat(propertyNames(mapper, mapper.writeValueAsBytes(jobApplication())))
+                .as(mapper.getFactory().getFormatName())
+                .contains("id", "title", "status", "company", "archived");
+        }
+    }
+
+    //Helpers
+
+    // Built like Spring Boot builds the JSON, CBOR and Smile mappers, with FieldSelectionConfig applied
+    private static List<ObjectMapper> mappers() {
+        List<ObjectMapper> mappers = new ArrayList<>();
+        for (JsonFactory factory : List.of(new JsonFactory(), new CBORFactory(), new SmileFactory())) {
+            Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+            new FieldSelectionConfig().fieldSelectionFilterDefault().customize(builder);
+            mappers.add(builder.factory(factory).build());
+        }
+        return mappers;
+    }
+
+    private static List<String> propertyNames(ObjectMapper mapper, byte[] content) throws Exception {
+        List<String> names = new ArrayList<>();
+        mapper.readTree(content).fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static JobApplicationDTO jobApplication() {
+        JobApplicationDTO jobApplication = new JobApplicationDTO();
+        jobApplication.setId(UUID.randomUUID());
+        jobApplication.setTitle("Backend Engineer");
+        jobApplication.setCompany("Field Selection Corp");
+        jobApplication.setStatus("APPLIED");
+        return jobApplication;
+    }
+}
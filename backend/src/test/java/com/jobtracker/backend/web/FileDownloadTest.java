@@ -0,0 +1,115 @@
+package com.jobtracker.backend.web;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileDownloadTest {
+
+    private static final String ETAG = "abc123";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sendsTheWholeFile() throws IOException {
+        MockHttpServletResponse response = download(request());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"abc123\"");
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("attachment; filename=\"digits.txt\"");
+    }
+
+    @Test
+    void sendsOneByteRange() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=2-4");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("234");
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 2-4/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(3);
+    }
+
+    @Test
+    void sendsASuffixRangeAndAnOpenRange() throws IOException {
+        MockHttpServletRequest suffix = request();
+        suffix.addHeader("Range", "bytes=-3");
+        MockHttpServletRequest open = request();
+        open.addHeader("Range", "bytes=8-");
+
+        assertThat(download(suffix).getContentAsString()).isEqualTo("789");
+        assertThat(download(open).getContentAsString()).isEqualTo("89");
+    }
+
+    @Test
+    void rangeOutsideTheFileIsNotSatisfiable() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=10-20");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void rangeForAnotherVersionGetsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=2-4");
+        request.addHeader("If-Range", "\"other\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void matchingETagIsNotModified() throws IOException {
+        MockHttpServletRequest request = request();
+        request.addHeader("If-None-Match", "\"other\", \"abc123\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void leavesTheTransferToTomcatWhenItSupportsSendfile() throws IOException {
+        MockHttpServletRequest request = request();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=2-4");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(5L);
+        assertThat((String) request.getAttribute("org.apache.tomcat.sendfile.filename")).endsWith("digits");
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/attachments/1/content");
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        Path file = directory.resolve("digits");
+        Files.writeString(file, "0123456789");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownload.send(request, response, file, 10, "text/plain", ETAG, "digits.txt", false);
+        return response;
+    }
+}
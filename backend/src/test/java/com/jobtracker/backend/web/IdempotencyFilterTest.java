@@ -0,0 +1,73 @@
+package com.jobtracker.backend.web;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    @Test
+    void theCachedBodyCanBeReadWithAReadListener() throws Exception {
+        HandlerMapping handlerMapping = mock(HandlerMapping.class);
+        when(handlerMapping.getHandler(any())).thenReturn(new HandlerExecutionChain(
+            new HandlerMethod(new IdempotentEndpoint(), IdempotentEndpoint.class.getMethod("create"))));
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyStore(10, Duration.ofMinutes(1)), handlerMapping, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/things");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key");
+        request.setContent("{\"name\":\"thing\"}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> callbacks = new ArrayList<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            ServletInputStream in = servletRequest.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    callbacks.add("onDataAvailable");
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    callbacks.add("onAllDataRead");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    callbacks.add("onError");
+                }
+            });
+        });
+
+        assertThat(callbacks).containsExactly("onDataAvailable", "onAllDataRead");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"thing\"}");
+    }
+
+    //Helpers
+
+    static class IdempotentEndpoint {
+
+        @Idempotent
+        public void create() {
+        }
+    }
+}
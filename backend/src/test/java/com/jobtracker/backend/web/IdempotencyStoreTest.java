@@ -0,0 +1,86 @@
+package com.jobtracker.backend.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private static final IdempotencyStore.StoredResponse CREATED =
+        new IdempotencyStore.StoredResponse(201, "application/json", null, "{}".getBytes());
+
+    @Test
+    void duplicatesGetTheFirstResponse() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofMinutes(1));
+        IdempotencyStore.Claim first = store.claim("key", "body");
+        IdempotencyStore.Claim duplicate = store.claim("key", "body");
+
+        assertThat(first.owner()).isTrue();
+        assertThat(duplicate.owner()).isFalse();
+        assertThat(duplicate.slot().getResponse()).isNotDone();
+
+        store.complete(first.slot(), CREATED);
+
+        assertThat(duplicate.slot().getResponse().get()).isSameAs(CREATED);
+        assertThat(store.claim("key", "body").owner()).isFalse();
+    }
+
+    @Test
+    void failedRequestIsForgotten() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofMinutes(1));
+        IdempotencyStore.Claim first = store.claim("key", "body");
+        IdempotencyStore.Claim waiting = store.claim("key", "body");
+
+        store.fail("key", first.slot());
+
+        assertThat(waiting.slot().getResponse().get()).isNull();
+        assertThat(store.claim("key", "body").owner()).isTrue();
+    }
+
+    @Test
+    void slotsExpireAndAreBounded() {
+        MutableClock clock = new MutableClock();
+        IdempotencyStore store = new IdempotencyStore(2, Duration.ofSeconds(10), clock);
+        store.claim("a", "body");
+        clock.advance(Duration.ofSeconds(6));
+        store.claim("b", "body");
+        clock.advance(Duration.ofSeconds(6));
+
+        assertThat(store.claim("a", "body").owner()).isTrue();
+        assertThat(store.claim("b", "body").owner()).isFalse();
+
+        store.claim("c", "body");
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.claim("b", "body").owner()).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}